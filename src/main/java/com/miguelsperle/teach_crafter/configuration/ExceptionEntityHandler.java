@@ -1,8 +1,11 @@
 package com.miguelsperle.teach_crafter.configuration;
 
 import com.miguelsperle.teach_crafter.dtos.general.MessageResponseDTO;
+import com.miguelsperle.teach_crafter.exceptions.general.InvalidCursorException;
 import com.miguelsperle.teach_crafter.exceptions.general.MissingFieldException;
 import com.miguelsperle.teach_crafter.exceptions.general.TaskDeniedException;
+import com.miguelsperle.teach_crafter.exceptions.general.PasswordHashingCapacityExceededException;
+import com.miguelsperle.teach_crafter.exceptions.general.UploadCapacityExceededException;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.exceptions.CourseNotFoundException;
 import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.exceptions.CourseContentNotFoundException;
 import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.exceptions.InvalidReleaseDateException;
@@ -12,9 +15,14 @@ import com.miguelsperle.teach_crafter.modules.users.entities.passwordResetTokens
 import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.exceptions.EnrollmentAlreadyExistsException;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.exceptions.NoAvailableSpotsException;
 import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.exceptions.EnrollmentNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.exceptions.ScheduledJobLockedException;
+import com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.exceptions.ScheduledJobNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.entities.tokenSigningKeys.exceptions.TokenSigningKeyInUseException;
+import com.miguelsperle.teach_crafter.modules.users.entities.tokenSigningKeys.exceptions.TokenSigningKeyNotFoundException;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.exceptions.UserPasswordMismatchException;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.exceptions.UserAlreadyExistsException;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.exceptions.UserNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.entities.videoUploadJobs.exceptions.VideoUploadJobNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -28,6 +36,11 @@ public class ExceptionEntityHandler {
         return ResponseEntity.badRequest().body(new MessageResponseDTO(exception.getMessage(), HttpStatus.BAD_REQUEST.value()));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Object> handleInvalidCursorException(InvalidCursorException exception) {
+        return ResponseEntity.badRequest().body(new MessageResponseDTO(exception.getMessage(), HttpStatus.BAD_REQUEST.value()));
+    }
+
     @ExceptionHandler(UserAlreadyExistsException.class)
     public ResponseEntity<Object> handleUserAlreadyExistsException(UserAlreadyExistsException exception) {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponseDTO(exception.getMessage(), HttpStatus.CONFLICT.value()));
@@ -97,4 +110,39 @@ public class ExceptionEntityHandler {
     public ResponseEntity<Object> handleCourseContentNotFoundException(CourseContentNotFoundException exception) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponseDTO(exception.getMessage(), HttpStatus.NOT_FOUND.value()));
     }
+
+    @ExceptionHandler(VideoUploadJobNotFoundException.class)
+    public ResponseEntity<Object> handleVideoUploadJobNotFoundException(VideoUploadJobNotFoundException exception) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponseDTO(exception.getMessage(), HttpStatus.NOT_FOUND.value()));
+    }
+
+    @ExceptionHandler(UploadCapacityExceededException.class)
+    public ResponseEntity<Object> handleUploadCapacityExceededException(UploadCapacityExceededException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new MessageResponseDTO(exception.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
+
+    @ExceptionHandler(PasswordHashingCapacityExceededException.class)
+    public ResponseEntity<Object> handlePasswordHashingCapacityExceededException(PasswordHashingCapacityExceededException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new MessageResponseDTO(exception.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
+
+    @ExceptionHandler(ScheduledJobNotFoundException.class)
+    public ResponseEntity<Object> handleScheduledJobNotFoundException(ScheduledJobNotFoundException exception) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponseDTO(exception.getMessage(), HttpStatus.NOT_FOUND.value()));
+    }
+
+    @ExceptionHandler(ScheduledJobLockedException.class)
+    public ResponseEntity<Object> handleScheduledJobLockedException(ScheduledJobLockedException exception) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponseDTO(exception.getMessage(), HttpStatus.CONFLICT.value()));
+    }
+
+    @ExceptionHandler(TokenSigningKeyNotFoundException.class)
+    public ResponseEntity<Object> handleTokenSigningKeyNotFoundException(TokenSigningKeyNotFoundException exception) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponseDTO(exception.getMessage(), HttpStatus.NOT_FOUND.value()));
+    }
+
+    @ExceptionHandler(TokenSigningKeyInUseException.class)
+    public ResponseEntity<Object> handleTokenSigningKeyInUseException(TokenSigningKeyInUseException exception) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponseDTO(exception.getMessage(), HttpStatus.CONFLICT.value()));
+    }
 }
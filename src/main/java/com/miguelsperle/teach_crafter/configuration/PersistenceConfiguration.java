@@ -0,0 +1,25 @@
+package com.miguelsperle.teach_crafter.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PersistenceConfiguration {
+
+    // The PostgreSQL driver turns a JDBC batch of inserts into multi-row INSERT statements, other drivers ( H2 in tests ) reject the property
+    @Bean
+    public static BeanPostProcessor reWriteBatchedInsertsPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && dataSource.getJdbcUrl() != null && dataSource.getJdbcUrl().startsWith("jdbc:postgresql:")) {
+                    dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+                }
+
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package com.miguelsperle.teach_crafter.exceptions.general;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
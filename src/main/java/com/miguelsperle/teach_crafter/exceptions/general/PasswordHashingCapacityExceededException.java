@@ -0,0 +1,7 @@
+package com.miguelsperle.teach_crafter.exceptions.general;
+
+public class PasswordHashingCapacityExceededException extends RuntimeException {
+    public PasswordHashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.miguelsperle.teach_crafter.exceptions.general;
+
+public class UploadCapacityExceededException extends RuntimeException {
+    public UploadCapacityExceededException(String message) {
+        super(message);
+    }
+}
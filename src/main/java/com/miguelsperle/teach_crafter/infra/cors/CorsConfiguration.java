@@ -1,5 +1,6 @@
 package com.miguelsperle.teach_crafter.infra.cors;
 
+import com.miguelsperle.teach_crafter.infra.pagination.CursorPage;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -11,6 +12,7 @@ public class CorsConfiguration implements WebMvcConfigurer {
         corsRegistry.addMapping("/**")
                 .allowedOrigins("http://localhost:3000") // Website URL
                 .allowedMethods("GET", "POST", "DELETE", "PUT")
-                .allowedHeaders("*");
+                .allowedHeaders("*")
+                .exposedHeaders(CursorPage.NEXT_CURSOR_HEADER);
     }
 }
@@ -0,0 +1,19 @@
+package com.miguelsperle.teach_crafter.infra.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(List<T> items, String nextCursor) {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Rows are fetched with limit + 1, the extra row only tells whether there is a next page
+    public static <R, T> CursorPage<T> of(List<R> rows, int limit, Function<R, KeysetCursor> positionOf, Function<R, T> mapper) {
+        boolean hasNextPage = rows.size() > limit;
+
+        List<R> pageRows = hasNextPage ? rows.subList(0, limit) : rows;
+
+        String nextCursor = hasNextPage ? positionOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,47 @@
+package com.miguelsperle.teach_crafter.infra.pagination;
+
+import com.miguelsperle.teach_crafter.exceptions.general.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+// Position after the last row of a page, ordered by ( created_at, id )
+public record KeysetCursor(LocalDateTime createdAt, String id) {
+    // Starting positions: every stored row sorts after them in their direction
+    public static final KeysetCursor NEWEST_FIRST_START = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), "00000000-0000-0000-0000-000000000000");
+    public static final KeysetCursor OLDEST_FIRST_START = new KeysetCursor(LocalDateTime.of(1970, 1, 1, 0, 0), "00000000-0000-0000-0000-000000000000");
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String position = this.createdAt + SEPARATOR + this.id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decodeOrDefault(String token, KeysetCursor defaultCursor) {
+        if (token == null || token.isBlank()) return defaultCursor;
+
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+
+            int separatorIndex = position.indexOf(SEPARATOR);
+
+            if (separatorIndex < 1 || separatorIndex == position.length() - 1) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+
+            String id = position.substring(separatorIndex + 1);
+
+            // Ids are uuid columns, a cursor carrying anything else would fail the query instead of the request
+            UUID.fromString(id);
+
+            return new KeysetCursor(LocalDateTime.parse(position.substring(0, separatorIndex)), id);
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
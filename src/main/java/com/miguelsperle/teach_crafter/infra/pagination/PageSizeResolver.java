@@ -0,0 +1,26 @@
+package com.miguelsperle.teach_crafter.infra.pagination;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PageSizeResolver {
+    private final int defaultPageSize;
+    private final int maximumPageSize;
+
+    public PageSizeResolver(
+            @Value("${api.pagination.default-page-size:20}") final int defaultPageSize,
+            @Value("${api.pagination.maximum-page-size:100}") final int maximumPageSize
+    ) {
+        this.defaultPageSize = defaultPageSize;
+        this.maximumPageSize = maximumPageSize;
+    }
+
+    public int resolve(Integer requestedPageSize) {
+        if (requestedPageSize == null || requestedPageSize < 1) {
+            return Math.min(this.defaultPageSize, this.maximumPageSize);
+        }
+
+        return Math.min(requestedPageSize, this.maximumPageSize);
+    }
+}
@@ -0,0 +1,106 @@
+package com.miguelsperle.teach_crafter.infra.persistence;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.ValueBinder;
+import org.hibernate.type.descriptor.ValueExtractor;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.JavaType;
+import org.hibernate.type.descriptor.jdbc.BasicBinder;
+import org.hibernate.type.descriptor.jdbc.BasicExtractor;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+
+// Keeps the ids as strings in the application while the columns hold native 16 byte uuids;
+// foreign keys and query parameters pick up the same mapping from the referenced id.
+// Postgres gets the id as an untyped literal and takes the type of the column it is compared with, so the same build works on the
+// varchar ids still in place until the uuid swap ships ( db/contract/postgresql ) and on the uuid columns after it
+public class UuidStringJdbcType implements JdbcType {
+    @Override
+    public int getJdbcTypeCode() {
+        return SqlTypes.UUID;
+    }
+
+    @Override
+    public String getFriendlyName() {
+        return "UUID";
+    }
+
+    @Override
+    public <X> ValueBinder<X> getBinder(JavaType<X> javaType) {
+        return new BasicBinder<>(javaType, this) {
+            @Override
+            protected void doBind(PreparedStatement st, X value, int index, WrapperOptions options) throws SQLException {
+                UUID uuid = toUuid(javaType.unwrap(value, String.class, options));
+
+                if (uuid == null) {
+                    st.setNull(index, Types.OTHER);
+                    return;
+                }
+
+                if (isPostgres(options)) {
+                    st.setObject(index, uuid.toString(), Types.OTHER);
+                    return;
+                }
+
+                st.setObject(index, uuid);
+            }
+
+            @Override
+            protected void doBind(CallableStatement st, X value, String name, WrapperOptions options) throws SQLException {
+                UUID uuid = toUuid(javaType.unwrap(value, String.class, options));
+
+                if (uuid == null) {
+                    st.setNull(name, Types.OTHER);
+                    return;
+                }
+
+                if (isPostgres(options)) {
+                    st.setObject(name, uuid.toString(), Types.OTHER);
+                    return;
+                }
+
+                st.setObject(name, uuid);
+            }
+        };
+    }
+
+    @Override
+    public <X> ValueExtractor<X> getExtractor(JavaType<X> javaType) {
+        return new BasicExtractor<>(javaType, this) {
+            @Override
+            protected X doExtract(ResultSet rs, int paramIndex, WrapperOptions options) throws SQLException {
+                return javaType.wrap(rs.getString(paramIndex), options);
+            }
+
+            @Override
+            protected X doExtract(CallableStatement statement, int index, WrapperOptions options) throws SQLException {
+                return javaType.wrap(statement.getString(index), options);
+            }
+
+            @Override
+            protected X doExtract(CallableStatement statement, String name, WrapperOptions options) throws SQLException {
+                return javaType.wrap(statement.getString(name), options);
+            }
+        };
+    }
+
+    private static boolean isPostgres(WrapperOptions options) {
+        return options.getSessionFactory().getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    // An id taken from a path variable that is not a uuid cannot match any row, so it is bound as null instead of failing the statement
+    private static UUID toUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.miguelsperle.teach_crafter.infra.persistence;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+
+// RFC 9562 version 7: 48 bits of unix milliseconds, then a 12 bit counter and 62 random bits,
+// so new rows land at the right edge of the primary key index instead of at random pages
+public class UuidV7Generator implements BeforeExecutionGenerator {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAXIMUM_COUNTER = 0xFFF;
+
+    private static long lastMillis;
+    private static int counter;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return next().toString();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    public static UUID next() {
+        long millis;
+        int sequence;
+
+        synchronized (UuidV7Generator.class) {
+            long now = System.currentTimeMillis();
+
+            // Ids generated within the same millisecond ( or after the clock stepped back ) keep increasing through the counter
+            if (now > lastMillis) {
+                lastMillis = now;
+                counter = RANDOM.nextInt(MAXIMUM_COUNTER / 2);
+            } else if (++counter > MAXIMUM_COUNTER) {
+                lastMillis++;
+                counter = 0;
+            }
+
+            millis = lastMillis;
+            sequence = counter;
+        }
+
+        long mostSignificantBits = (millis << 16) | 0x7000L | sequence;
+        long leastSignificantBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
@@ -0,0 +1,64 @@
+package com.miguelsperle.teach_crafter.infra.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Buckets of a single node, every instance behind a load balancer keeps its own counts.
+// Each bucket is one AtomicLong updated by compare and set, and the map spreads the keys over its own locks, so concurrent requests never wait on each other
+@Component
+@ConditionalOnProperty(name = "api.rate-limit.store", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+    private final Cache<String, AtomicLong> buckets;
+    private final Ticker ticker;
+
+    @Autowired
+    public InMemoryRateLimitStore(
+            final MeterRegistry meterRegistry,
+            @Value("${api.rate-limit.in-memory.maximum-keys:100000}") final long maximumKeys,
+            @Value("${api.rate-limit.in-memory.idle-expiration:1h}") final Duration idleExpiration
+    ) {
+        this(meterRegistry, maximumKeys, idleExpiration, Ticker.systemTicker());
+    }
+
+    InMemoryRateLimitStore(MeterRegistry meterRegistry, long maximumKeys, Duration idleExpiration, Ticker ticker) {
+        this.ticker = ticker;
+
+        // Bounded, so a flood of spoofed keys evicts old buckets instead of growing the heap
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(idleExpiration)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.buckets, "rate_limit_buckets");
+    }
+
+    // The bucket is kept as the time it becomes full again ( GCRA ), each token pushes that time one refill interval further
+    @Override
+    public Duration tryConsume(String key, long capacity, Duration period) {
+        long refillInterval = period.toNanos() / capacity;
+        long burst = refillInterval * capacity;
+        AtomicLong fullAt = this.buckets.get(key, ignored -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long now = this.ticker.read();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + refillInterval;
+
+            if (next - now > burst) return Duration.ofNanos(next - now - burst);
+
+            if (fullAt.compareAndSet(current, next)) return Duration.ZERO;
+        }
+    }
+}
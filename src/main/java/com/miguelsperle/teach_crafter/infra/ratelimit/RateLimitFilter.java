@@ -0,0 +1,204 @@
+package com.miguelsperle.teach_crafter.infra.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miguelsperle.teach_crafter.dtos.general.MessageResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+// Runs before authentication, so requests over the limit are answered without touching the database, the hasher or the mail outbox
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String TOO_MANY_REQUESTS_MESSAGE = "Too many requests, please try again later";
+    private static final String PAYLOAD_TOO_LARGE_MESSAGE = "Request body is too large";
+    // Both bodies are a few hundred bytes, a longer one is rejected instead of being held in memory
+    private static final int MAXIMUM_BODY_SIZE = 16 * 1024;
+
+    private final RateLimitStore rateLimitStore;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean enabled;
+    private final List<Route> routes;
+
+    public RateLimitFilter(
+            final RateLimitStore rateLimitStore,
+            final MeterRegistry meterRegistry,
+            @Value("${api.rate-limit.enabled:true}") final boolean enabled,
+            @Value("${api.rate-limit.login.ip-capacity:20}") final long loginIpCapacity,
+            @Value("${api.rate-limit.login.account-capacity:5}") final long loginAccountCapacity,
+            @Value("${api.rate-limit.login.period:1m}") final Duration loginPeriod,
+            @Value("${api.rate-limit.reset-password.ip-capacity:5}") final long resetPasswordIpCapacity,
+            @Value("${api.rate-limit.reset-password.account-capacity:3}") final long resetPasswordAccountCapacity,
+            @Value("${api.rate-limit.reset-password.period:15m}") final Duration resetPasswordPeriod
+    ) {
+        this.rateLimitStore = rateLimitStore;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.routes = List.of(
+                new Route("login", "/auth/login", "email", loginIpCapacity, loginAccountCapacity, loginPeriod),
+                new Route("reset_password", "/reset-password/send-email", "currentEmail", resetPasswordIpCapacity, resetPasswordAccountCapacity, resetPasswordPeriod)
+        );
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !this.enabled || !"POST".equals(request.getMethod()) || this.findRoute(request).isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Route route = this.findRoute(request).orElseThrow();
+
+        // Behind a proxy the client address comes from server.forward-headers-strategy, never from a header read here
+        Duration retryAfter = this.rateLimitStore.tryConsume(route.name() + ":ip:" + request.getRemoteAddr(), route.ipCapacity(), route.period());
+
+        if (!retryAfter.isZero()) {
+            this.reject(response, route, "ip", retryAfter);
+            return;
+        }
+
+        // One byte past the limit is enough to tell an oversized body apart without reading the rest of it
+        byte[] body = request.getInputStream().readNBytes(MAXIMUM_BODY_SIZE + 1);
+
+        if (body.length > MAXIMUM_BODY_SIZE) {
+            this.writeMessage(response, HttpStatus.PAYLOAD_TOO_LARGE, PAYLOAD_TOO_LARGE_MESSAGE);
+            return;
+        }
+
+        CachedBodyRequest cachedBodyRequest = new CachedBodyRequest(request, body);
+        String account = this.recoverAccount(cachedBodyRequest.body, route.accountField());
+
+        if (account != null) {
+            retryAfter = this.rateLimitStore.tryConsume(route.name() + ":account:" + account, route.accountCapacity(), route.period());
+
+            if (!retryAfter.isZero()) {
+                this.reject(response, route, "account", retryAfter);
+                return;
+            }
+        }
+
+        filterChain.doFilter(cachedBodyRequest, response);
+    }
+
+    private Optional<Route> findRoute(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        return this.routes.stream().filter(route -> route.path().equals(path)).findFirst();
+    }
+
+    // A body that is not JSON or has no account field is still limited by ip, the controller validation answers it afterwards
+    private String recoverAccount(byte[] body, String accountField) {
+        try {
+            JsonNode fields = this.objectMapper.readTree(body);
+            JsonNode account = fields == null ? null : fields.get(accountField);
+
+            if (account == null || !account.isTextual() || account.asText().isBlank()) return null;
+
+            return account.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, Route route, String scope, Duration retryAfter) throws IOException {
+        Counter.builder("rate_limit.rejected")
+                .tag("route", route.name())
+                .tag("scope", scope)
+                .register(this.meterRegistry)
+                .increment();
+
+        long retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        this.writeMessage(response, HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_REQUESTS_MESSAGE);
+    }
+
+    private void writeMessage(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        OutputStream responseStream = response.getOutputStream();
+        this.objectMapper.writeValue(responseStream, new MessageResponseDTO(message, status.value()));
+        responseStream.flush();
+    }
+
+    private record Route(String name, String path, String accountField, long ipCapacity, long accountCapacity, Duration period) {
+    }
+
+    // The body has to be read here to find the account, so the controller gets a copy it can read again
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(this.body);
+
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available to the listener right away
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!this.isFinished()) readListener.onDataAvailable();
+                        if (this.isFinished()) readListener.onAllDataRead();
+                    } catch (IOException exception) {
+                        readListener.onError(exception);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(this.getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
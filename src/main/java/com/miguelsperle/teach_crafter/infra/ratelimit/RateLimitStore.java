@@ -0,0 +1,9 @@
+package com.miguelsperle.teach_crafter.infra.ratelimit;
+
+import java.time.Duration;
+
+public interface RateLimitStore {
+    // Takes one token from the bucket of the key, which holds up to capacity tokens and refills all of them over the period.
+    // Returns Duration.ZERO when the token was taken, otherwise how long until the next one is available
+    Duration tryConsume(String key, long capacity, Duration period);
+}
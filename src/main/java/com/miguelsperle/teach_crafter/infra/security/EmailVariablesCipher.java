@@ -0,0 +1,67 @@
+package com.miguelsperle.teach_crafter.infra.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// The outbox variables can hold secrets ( reset tokens ) until the email is sent, so they are stored encrypted with AES-GCM
+@Component
+public class EmailVariablesCipher {
+    private static final String ALGORITHM = "AES/GCM/NoPadding";
+    private static final String ENCRYPTED_PREFIX = "v1:";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final SecretKeySpec key;
+
+    public EmailVariablesCipher(@Value("${api.mail.outbox.variables-key}") final String base64Key) {
+        byte[] keyBytes = Base64.getDecoder().decode(base64Key);
+
+        if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+            throw new IllegalArgumentException("The email variables key must be 16, 24 or 32 bytes encoded in base64");
+        }
+
+        this.key = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    public String encrypt(String plainText) {
+        byte[] iv = new byte[IV_LENGTH];
+        this.secureRandom.nextBytes(iv);
+
+        try {
+            Cipher cipher = Cipher.getInstance(ALGORITHM);
+            cipher.init(Cipher.ENCRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+
+            byte[] cipherText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+
+            return ENCRYPTED_PREFIX + Base64.getEncoder().encodeToString(ByteBuffer.allocate(IV_LENGTH + cipherText.length).put(iv).put(cipherText).array());
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException("Error while encrypting email variables", exception);
+        }
+    }
+
+    // Rows enqueued before the variables were encrypted are still plain JSON and are read as they are
+    public String decrypt(String value) {
+        if (!value.startsWith(ENCRYPTED_PREFIX)) return value;
+
+        byte[] encrypted = Base64.getDecoder().decode(value.substring(ENCRYPTED_PREFIX.length()));
+
+        try {
+            Cipher cipher = Cipher.getInstance(ALGORITHM);
+            cipher.init(Cipher.DECRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH_BITS, encrypted, 0, IV_LENGTH));
+
+            return new String(cipher.doFinal(encrypted, IV_LENGTH, encrypted.length - IV_LENGTH), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException("Error while decrypting email variables", exception);
+        }
+    }
+}
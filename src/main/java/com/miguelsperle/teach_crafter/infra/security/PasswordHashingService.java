@@ -0,0 +1,118 @@
+package com.miguelsperle.teach_crafter.infra.security;
+
+import com.miguelsperle.teach_crafter.exceptions.general.PasswordHashingCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// BCrypt runs on its own small pool instead of the request threads, so a burst of logins can only queue up to
+// "queue-capacity" hashes and is then turned away, while every other endpoint keeps its threads
+@Service
+public class PasswordHashingService {
+    private static final String CAPACITY_EXCEEDED_MESSAGE = "Too many password operations in progress, please try again later";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor hashers;
+    private final Timer queueWait;
+    private final Timer encodeDuration;
+    private final Timer matchesDuration;
+    private final Counter rejections;
+
+    public PasswordHashingService(
+            final PasswordEncoder passwordEncoder,
+            final MeterRegistry meterRegistry,
+            @Value("${api.security.password-hashing.threads:2}") final int threads,
+            @Value("${api.security.password-hashing.queue-capacity:50}") final int queueCapacity
+    ) {
+        this.passwordEncoder = passwordEncoder;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.hashers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.queueWait = Timer.builder("password.hashing.queue.wait")
+                .description("Time a password operation waited for a hashing thread")
+                .register(meterRegistry);
+
+        this.encodeDuration = Timer.builder("password.hashing.duration")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+
+        this.matchesDuration = Timer.builder("password.hashing.duration")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+
+        this.rejections = Counter.builder("password.hashing.rejected")
+                .description("Password operations turned away because the hashing queue was full")
+                .register(meterRegistry);
+
+        Gauge.builder("password.hashing.queue.size", this.hashers, hashers -> hashers.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return this.execute(this.encodeDuration, () -> this.passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return this.execute(this.matchesDuration, () -> this.passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // Only reads the cost from the stored hash, so it does not need a hashing thread
+    public boolean upgradeEncoding(String encodedPassword) {
+        return this.passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Timer duration, Supplier<T> operation) {
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+
+        try {
+            result = this.hashers.submit(() -> {
+                this.queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+
+                return duration.record(operation);
+            });
+        } catch (RejectedExecutionException exception) {
+            this.rejections.increment();
+
+            throw new PasswordHashingCapacityExceededException(CAPACITY_EXCEEDED_MESSAGE);
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException exception) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+
+            throw new PasswordHashingCapacityExceededException(CAPACITY_EXCEEDED_MESSAGE);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.hashers.shutdown();
+    }
+}
@@ -0,0 +1,45 @@
+package com.miguelsperle.teach_crafter.infra.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class PrincipalCache {
+    private final Cache<String, UsersEntity> principals;
+
+    public PrincipalCache(
+            final MeterRegistry meterRegistry,
+            @Value("${api.security.principal-cache.maximum-size:10000}") final long maximumSize,
+            @Value("${api.security.principal-cache.ttl:5m}") final Duration ttl
+    ) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.principals, "principals");
+    }
+
+    public Optional<UsersEntity> get(String userId, Function<String, Optional<UsersEntity>> loader) {
+        // Missing users are not cached, so a deleted account is never kept alive here
+        return Optional.ofNullable(this.principals.get(userId, id -> loader.apply(id).orElse(null)));
+    }
+
+    public void invalidate(String userId) {
+        if (userId != null) this.principals.invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        this.principals.invalidateAll();
+    }
+}
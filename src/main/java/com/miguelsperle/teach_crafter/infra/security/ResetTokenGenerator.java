@@ -0,0 +1,66 @@
+package com.miguelsperle.teach_crafter.infra.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Component
+public class ResetTokenGenerator {
+    private static final int TOKEN_BYTE_LENGTH = 24; // 32 characters once encoded
+
+    // SecureRandom is thread safe, one instance seeded once replaces the instance ( and its seeding ) per token
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Queue<String> pregeneratedTokens = new ConcurrentLinkedQueue<>();
+    private final int batchSize;
+
+    public ResetTokenGenerator(@Value("${api.security.reset-tokens.batch-size:32}") final int batchSize) {
+        // An empty batch would hand the same all-zero token to everyone, so a bad value stops the startup instead
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The reset token batch size must be at least 1");
+        }
+
+        this.batchSize = batchSize;
+
+        // Forces the seeding now instead of on the first reset request
+        this.secureRandom.nextBytes(new byte[TOKEN_BYTE_LENGTH]);
+    }
+
+    public String generateToken() {
+        String token = this.pregeneratedTokens.poll();
+
+        return token != null ? token : this.generateBatch();
+    }
+
+    // One call to the random source fills a whole batch, the caller keeps the first token and the rest wait in the pool for the next requests
+    private String generateBatch() {
+        byte[] randomBytes = new byte[TOKEN_BYTE_LENGTH * this.batchSize];
+        this.secureRandom.nextBytes(randomBytes);
+
+        for (int i = 1; i < this.batchSize; i++) {
+            this.pregeneratedTokens.offer(encode(Arrays.copyOfRange(randomBytes, i * TOKEN_BYTE_LENGTH, (i + 1) * TOKEN_BYTE_LENGTH)));
+        }
+
+        return encode(Arrays.copyOf(randomBytes, TOKEN_BYTE_LENGTH));
+    }
+
+    // The tokens carry 192 random bits, so a plain fast hash is enough to make a leaked table useless
+    public static byte[] digest(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static String encode(byte[] randomBytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+    }
+}
@@ -1,6 +1,8 @@
 package com.miguelsperle.teach_crafter.infra.security;
 
+import com.miguelsperle.teach_crafter.infra.ratelimit.RateLimitFilter;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -20,14 +22,16 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfiguration {
     private final SecurityFilter securityFilter;
+    private final RateLimitFilter rateLimitFilter;
     @Qualifier("customAuthenticationEntryPoint")
     private final AuthenticationEntryPoint authenticationEntryPoint;
 
     @Qualifier("customAccessDeniedHandler")
     private final AccessDeniedHandler accessDeniedHandler;
 
-    public SecurityConfiguration(final SecurityFilter securityFilter, final AuthenticationEntryPoint authenticationEntryPoint, final AccessDeniedHandler accessDeniedHandler) {
+    public SecurityConfiguration(final SecurityFilter securityFilter, final RateLimitFilter rateLimitFilter, final AuthenticationEntryPoint authenticationEntryPoint, final AccessDeniedHandler accessDeniedHandler) {
         this.securityFilter = securityFilter;
+        this.rateLimitFilter = rateLimitFilter;
         this.authenticationEntryPoint = authenticationEntryPoint;
         this.accessDeniedHandler = accessDeniedHandler;
     }
@@ -55,14 +59,18 @@ public class SecurityConfiguration {
                                 .requestMatchers("/courses/creator-owned").hasRole("CREATOR")
                                 .requestMatchers("/courses/{courseId}/deactivate").hasRole("CREATOR")
                                 .requestMatchers("/courses/{courseId}/content").hasRole("CREATOR")
+                                .requestMatchers("/courses/{courseId}/contents/import").hasRole("CREATOR")
                                 .requestMatchers("/courses/{courseContentId}/content/upload-video").hasRole("CREATOR")
                                 .requestMatchers("/courses/{courseContentId}/content/update-description").hasRole("CREATOR")
                                 .requestMatchers("/courses/{courseContentId}/content/update-video").hasRole("CREATOR")
                                 .requestMatchers("/courses/{courseContentId}/content/update-release-date").hasRole("CREATOR")
                                 .requestMatchers("/courses/{courseContentId}/content/update-course-module").hasRole("CREATOR")
+                                .requestMatchers("/courses/content/video-upload-jobs/{videoUploadJobId}").hasRole("CREATOR")
                                 .requestMatchers("/courses/{courseId}/contents/creator-owned").hasRole("CREATOR")
+                                .requestMatchers("/admin/**").hasRole("ADMIN")
                                 .anyRequest().authenticated())
                 .exceptionHandling((exceptions) -> exceptions.authenticationEntryPoint(authenticationEntryPoint).accessDeniedHandler(accessDeniedHandler))
+                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
@@ -72,8 +80,9 @@ public class SecurityConfiguration {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    // Raising the strength only affects new hashes, older ones are rehashed on the next successful login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${api.security.password-hashing.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -22,13 +22,15 @@ import java.util.Collections;
 public class SecurityFilter extends OncePerRequestFilter {
     private final TokenService tokenService;
     private final UsersRepository usersRepository;
+    private final PrincipalCache principalCache;
 
     @Qualifier("customAuthenticationEntryPoint")
     private final AuthenticationEntryPoint authenticationEntryPoint;
 
-    public SecurityFilter(final TokenService tokenService, final UsersRepository usersRepository, final AuthenticationEntryPoint authenticationEntryPoint) {
+    public SecurityFilter(final TokenService tokenService, final UsersRepository usersRepository, final PrincipalCache principalCache, final AuthenticationEntryPoint authenticationEntryPoint) {
         this.tokenService = tokenService;
         this.usersRepository = usersRepository;
+        this.principalCache = principalCache;
         this.authenticationEntryPoint = authenticationEntryPoint;
     }
 
@@ -39,7 +41,7 @@ public class SecurityFilter extends OncePerRequestFilter {
         if (token != null) {
             try {
                 String userId = this.tokenService.validateToken(token);
-                UsersEntity user = this.usersRepository.findById(userId).orElseThrow(() -> new UsernameNotFoundException("User not found"));
+                UsersEntity user = this.principalCache.get(userId, this.usersRepository::findById).orElseThrow(() -> new UsernameNotFoundException("User not found"));
                 var authorities = Collections.singletonList(new SimpleGrantedAuthority(user.getRole()));
                 var authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
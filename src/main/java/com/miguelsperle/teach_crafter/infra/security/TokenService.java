@@ -1,33 +1,82 @@
 package com.miguelsperle.teach_crafter.infra.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.miguelsperle.teach_crafter.modules.users.entities.tokenSigningKeys.TokenSigningKeysEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
+import com.miguelsperle.teach_crafter.modules.users.repositories.TokenSigningKeysRepository;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import com.auth0.jwt.algorithms.Algorithm;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 @Service
 public class TokenService {
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private static final String ISSUER = "teach-crafter";
+    private static final String DERIVATION_ALGORITHM = "HmacSHA256";
+
+    private final TokenSigningKeysRepository tokenSigningKeysRepository;
+    private final byte[] secret;
+    private final KeyRing configuredKeyRing;
+
+    // Algorithm and JWTVerifier are immutable and thread safe, so they are built once per key and swapped as a whole on every reload
+    private final AtomicReference<KeyRing> keyRing;
+
+    public TokenService(
+            final TokenSigningKeysRepository tokenSigningKeysRepository,
+            @Value("${api.security.token.secret}") final String secret,
+            @Value("${api.security.token.key-id:default}") final String keyId,
+            @Value("${api.security.token.previous-keys:}") final String previousKeys
+    ) {
+        this.tokenSigningKeysRepository = tokenSigningKeysRepository;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+
+        KeyRing initialKeyRing = KeyRing.of(keyId, Algorithm.HMAC256(secret));
+
+        // Format: kid:secret,kid:secret
+        for (String previousKey : previousKeys.split(",")) {
+            if (previousKey.isBlank()) continue;
+
+            String[] kidAndSecret = previousKey.trim().split(":", 2);
+
+            if (kidAndSecret.length != 2) {
+                throw new IllegalArgumentException("Previous token keys must use the format kid:secret");
+            }
+
+            initialKeyRing = initialKeyRing.withVerificationKey(kidAndSecret[0], Algorithm.HMAC256(kidAndSecret[1]));
+        }
+
+        this.configuredKeyRing = initialKeyRing;
+        this.keyRing = new AtomicReference<>(initialKeyRing);
+    }
 
     public String generateToken(UsersEntity user) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(this.secret);
+            KeyRing currentKeyRing = this.keyRing.get();
 
             return JWT.create()
-                    .withIssuer("teach-crafter")
+                    .withIssuer(ISSUER)
+                    .withKeyId(currentKeyRing.currentKeyId())
                     .withSubject(user.getId())
                     .withExpiresAt(genExpirationDate())
-                    .sign(algorithm);
+                    .sign(currentKeyRing.currentAlgorithm());
         } catch (JWTCreationException exception) {
             throw new RuntimeException("Error while generating token", exception);
         }
@@ -35,21 +84,116 @@ public class TokenService {
 
     public String validateToken(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(this.secret);
+            DecodedJWT decodedToken = JWT.decode(token);
+
+            // Tokens issued before key ids were introduced carry no kid and were signed with the configured key
+            String keyId = decodedToken.getKeyId() == null ? this.configuredKeyRing.currentKeyId() : decodedToken.getKeyId();
+
+            JWTVerifier verifier = this.keyRing.get().verifierFor(keyId);
+
+            if (verifier == null) return "";
 
-            return JWT.require(algorithm)
-                    .withIssuer("teach-crafter")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            return verifier.verify(decodedToken).getSubject();
         } catch (JWTVerificationException exception) {
             return "";
         }
     }
 
+    // Keys rotated at runtime live in token_signing_keys and every node reloads them here. A new key is accepted as soon as a node
+    // reloads and only signs from activates_at on, so every node already verifies it by the time any node signs with it
+    @Scheduled(fixedDelayString = "${api.security.token.key-refresh-interval-ms:30000}")
+    public void refreshKeyRing() {
+        this.keyRing.set(this.buildKeyRing(this.tokenSigningKeysRepository.findAllByOrderByActivatesAtAsc(), LocalDateTime.now()));
+    }
+
+    public String getSigningKeyId() {
+        return this.keyRing.get().currentKeyId();
+    }
+
+    public boolean isConfiguredKey(String keyId) {
+        return this.configuredKeyRing.verifiers().containsKey(keyId);
+    }
+
+    // Retired rows also cover configured keys, which are dropped without a restart once nothing signs with them
+    private KeyRing buildKeyRing(List<TokenSigningKeysEntity> signingKeys, LocalDateTime now) {
+        KeyRing rebuiltKeyRing = this.configuredKeyRing;
+
+        for (TokenSigningKeysEntity signingKey : signingKeys) {
+            if (signingKey.getRetiredAt() != null) continue;
+
+            rebuiltKeyRing = rebuiltKeyRing.withVerificationKey(signingKey.getKeyId(), this.deriveAlgorithm(signingKey.getKeyId()));
+
+            if (!signingKey.getActivatesAt().isAfter(now)) {
+                rebuiltKeyRing = rebuiltKeyRing.withSigningKey(signingKey.getKeyId());
+            }
+        }
+
+        for (TokenSigningKeysEntity signingKey : signingKeys) {
+            if (signingKey.getRetiredAt() == null || signingKey.getKeyId().equals(rebuiltKeyRing.currentKeyId())) continue;
+
+            rebuiltKeyRing = rebuiltKeyRing.withoutVerificationKey(signingKey.getKeyId());
+        }
+
+        return rebuiltKeyRing;
+    }
+
+    // The secret of a runtime key is derived from the configured secret and its id, so the table never holds a secret and every
+    // node derives the same key. Replacing the configured secret itself still takes a restart with the old one in previous-keys
+    private Algorithm deriveAlgorithm(String keyId) {
+        try {
+            Mac mac = Mac.getInstance(DERIVATION_ALGORITHM);
+            mac.init(new SecretKeySpec(this.secret, DERIVATION_ALGORITHM));
+
+            return Algorithm.HMAC256(mac.doFinal(("token-signing-key:" + keyId).getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException("Error while deriving token signing key", exception);
+        }
+    }
+
     private Instant genExpirationDate() {
         long expiration = 6 * 60 * 60 * 1000;  // 2 hours
 
         return LocalDateTime.now().plus(expiration, ChronoUnit.MILLIS).toInstant(ZoneOffset.of("-03:00"));
     }
-}
\ No newline at end of file
+
+    private record KeyRing(String currentKeyId, Algorithm currentAlgorithm, Map<String, KeyRingEntry> verifiers) {
+        static KeyRing of(String keyId, Algorithm algorithm) {
+            return new KeyRing(keyId, algorithm, Map.of(keyId, new KeyRingEntry(algorithm, buildVerifier(algorithm))));
+        }
+
+        JWTVerifier verifierFor(String keyId) {
+            KeyRingEntry entry = this.verifiers.get(keyId);
+
+            return entry == null ? null : entry.verifier();
+        }
+
+        KeyRing withSigningKey(String keyId) {
+            return new KeyRing(keyId, this.verifiers.get(keyId).algorithm(), this.verifiers);
+        }
+
+        KeyRing withVerificationKey(String keyId, Algorithm algorithm) {
+            Map<String, KeyRingEntry> extendedVerifiers = new HashMap<>(this.verifiers);
+            extendedVerifiers.putIfAbsent(keyId, new KeyRingEntry(algorithm, buildVerifier(algorithm)));
+
+            return new KeyRing(this.currentKeyId, this.currentAlgorithm, Map.copyOf(extendedVerifiers));
+        }
+
+        KeyRing withoutVerificationKey(String keyId) {
+            if (this.currentKeyId.equals(keyId)) {
+                throw new IllegalArgumentException("The current signing key cannot be retired");
+            }
+
+            Map<String, KeyRingEntry> remainingVerifiers = new HashMap<>(this.verifiers);
+            remainingVerifiers.remove(keyId);
+
+            return new KeyRing(this.currentKeyId, this.currentAlgorithm, Map.copyOf(remainingVerifiers));
+        }
+
+        private static JWTVerifier buildVerifier(Algorithm algorithm) {
+            return JWT.require(algorithm).withIssuer(ISSUER).build();
+        }
+    }
+
+    private record KeyRingEntry(Algorithm algorithm, JWTVerifier verifier) {
+    }
+}
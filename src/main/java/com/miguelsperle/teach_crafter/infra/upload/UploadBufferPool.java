@@ -0,0 +1,78 @@
+package com.miguelsperle.teach_crafter.infra.upload;
+
+import com.miguelsperle.teach_crafter.exceptions.general.UploadCapacityExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class UploadBufferPool {
+    private final int bufferSize;
+    private final int maximumBuffers;
+    private final Duration acquireTimeout;
+
+    // Buffers are created on demand and then reused, so an idle node does not hold the whole pool in heap
+    private final BlockingQueue<byte[]> idleBuffers;
+    private final Semaphore permits;
+    private final AtomicInteger allocatedBuffers = new AtomicInteger();
+
+    public UploadBufferPool(
+            final MeterRegistry meterRegistry,
+            @Value("${api.uploads.chunk-size:20MB}") final DataSize chunkSize,
+            @Value("${api.uploads.buffer-pool-size:4}") final int maximumBuffers,
+            @Value("${api.uploads.buffer-acquire-timeout:30s}") final Duration acquireTimeout
+    ) {
+        this.bufferSize = Math.toIntExact(chunkSize.toBytes());
+        this.maximumBuffers = maximumBuffers;
+        this.acquireTimeout = acquireTimeout;
+        this.idleBuffers = new ArrayBlockingQueue<>(maximumBuffers);
+        this.permits = new Semaphore(maximumBuffers, true);
+
+        Gauge.builder("uploads.buffers.in_use", this, pool -> pool.maximumBuffers - pool.permits.availablePermits())
+                .description("Upload chunk buffers currently lent to an upload")
+                .register(meterRegistry);
+
+        Gauge.builder("uploads.buffers.allocated", this.allocatedBuffers, buffers -> (double) buffers.get() * this.bufferSize)
+                .description("Heap held by upload chunk buffers")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public byte[] acquire() {
+        try {
+            if (!this.permits.tryAcquire(this.acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new UploadCapacityExceededException("Too many uploads in progress, please try again later");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+
+            throw new UploadCapacityExceededException("Too many uploads in progress, please try again later");
+        }
+
+        byte[] buffer = this.idleBuffers.poll();
+
+        if (buffer != null) return buffer;
+
+        this.allocatedBuffers.incrementAndGet();
+
+        return new byte[this.bufferSize];
+    }
+
+    public void release(byte[] buffer) {
+        this.idleBuffers.offer(buffer);
+        this.permits.release();
+    }
+
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+}
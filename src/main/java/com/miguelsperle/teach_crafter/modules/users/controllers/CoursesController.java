@@ -3,6 +3,7 @@ package com.miguelsperle.teach_crafter.modules.users.controllers;
 import com.miguelsperle.teach_crafter.dtos.general.CustomAccessDeniedHandlerResponseDTO;
 import com.miguelsperle.teach_crafter.dtos.general.CustomAuthenticationEntryResponseDTO;
 import com.miguelsperle.teach_crafter.dtos.general.MessageResponseDTO;
+import com.miguelsperle.teach_crafter.infra.pagination.CursorPage;
 import com.miguelsperle.teach_crafter.modules.users.dtos.courses.*;
 import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.*;
 import com.miguelsperle.teach_crafter.modules.users.services.CoursesContentsService;
@@ -17,6 +18,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -187,7 +189,7 @@ public class CoursesController {
     }
 
     @GetMapping
-    @Operation(summary = "Fetch courses by description keyword", description = "This route is responsible for fetching courses matching the provided description keyword")
+    @Operation(summary = "Fetch courses by keyword", description = "This route is responsible for fetching courses whose name or description match the provided keyword, best matches first. Every match is returned unless page or size is sent, which returns that page only. When cursor or limit is sent, courses are returned newest first and the next page cursor comes in the X-Next-Cursor header")
     @ApiResponses({
             @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = CourseResponseDTO.class)))),
             @ApiResponse(responseCode = "403", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomAuthenticationEntryResponseDTO.class),
@@ -198,12 +200,22 @@ public class CoursesController {
                     })),
     })
     @SecurityRequirement(name = "jwt_auth")
-    public List<CourseResponseDTO> getCourses(@RequestParam String description_keyword) {
-        return this.coursesService.getCourses(description_keyword);
+    public ResponseEntity<List<CourseResponseDTO>> getCourses(
+            @RequestParam String description_keyword,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(this.coursesService.getCourses(description_keyword, page, size));
+        }
+
+        return this.toCursorPageResponse(this.coursesService.getCoursesPage(description_keyword, cursor, limit));
     }
 
     @GetMapping("/subscribed")
-    @Operation(summary = "Fetch courses by user enrollments", description = "This route is responsible for fetching courses by enrollments of a specific user")
+    @Operation(summary = "Fetch courses by user enrollments", description = "This route is responsible for fetching courses by enrollments of a specific user. When cursor or limit is sent, one page is returned and the next page cursor comes in the X-Next-Cursor header")
     @ApiResponses({
             @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = CoursesSubscribedResponseDTO.class)))),
             @ApiResponse(responseCode = "403", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomAuthenticationEntryResponseDTO.class),
@@ -214,8 +226,15 @@ public class CoursesController {
                     })),
     })
     @SecurityRequirement(name = "jwt_auth")
-    public List<CoursesSubscribedResponseDTO> getCoursesByUserEnrollments() {
-        return this.coursesService.getCoursesByUserEnrollments();
+    public ResponseEntity<List<CoursesSubscribedResponseDTO>> getCoursesByUserEnrollments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(this.coursesService.getCoursesByUserEnrollments());
+        }
+
+        return this.toCursorPageResponse(this.coursesService.getCoursesByUserEnrollmentsPage(cursor, limit));
     }
 
     // BELOW IS EVERYTHING RELATED ABOUT COURSE CONTENT
@@ -257,13 +276,47 @@ public class CoursesController {
                 .body(new MessageResponseDTO("Course content created successfully", HttpStatus.CREATED.value()));
     }
 
-    @PostMapping("/{courseContentId}/content/upload-video")
-    @Operation(summary = "Upload the course content video", description = "This route is responsible for allowing a creator user to upload a video for a specific course content")
+    @PostMapping("/{courseId}/contents/import")
+    @Operation(summary = "Import course contents", description = "This route is responsible for allowing a creator user to create up to 1000 contents for a specific course at once")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
+            @ApiResponse(responseCode = "201", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
                     examples = {
-                            @ExampleObject(value = "{\"message\": \"Course content video uploaded successfully\", \"status\": 200}")
+                            @ExampleObject(value = "{\"message\": \"Course contents imported successfully\", \"status\": 201}")
                     })),
+            @ApiResponse(responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
+                    examples = {
+                            @ExampleObject(name = "Missing Contents", description = "Error returned because no content was sent in the request", value = "{\"message\": \"At least one content is required to import contents\", \"status\": 400}"),
+                            @ExampleObject(name = "Too Many Contents", description = "Error returned because more than 1000 contents were sent in the request", value = "{\"message\": \"A maximum of 1000 contents can be imported at once\", \"status\": 400}"),
+                            @ExampleObject(name = "Missing Description", description = "Error returned because the description of a content is missing in the request", value = "{\"message\": \"Description is required to create a content\", \"status\": 400}"),
+                            @ExampleObject(name = "Invalid Release Date", description = "Error returned because the release date of a content is in the past", value = "{\"message\": \"Release date cannot be in the past\", \"status\": 400}")
+                    })),
+            @ApiResponse(responseCode = "403", content = @Content(mediaType = "application/json", schema = @Schema(oneOf = {MessageResponseDTO.class, CustomAuthenticationEntryResponseDTO.class, CustomAccessDeniedHandlerResponseDTO.class}),
+                    examples = {
+                            @ExampleObject(name = "Creator User Not Course Owner", description = "Error returned because the creator user tried to import contents for a course that is not theirs", value = "{\"message\": \"Task not allowed\", \"status\": 403}"),
+                            @ExampleObject(name = "Missing Authorization Token", description = "Error returned because authorization token is missing in the request header", value = "{\"message\": \"Authorization token missing in request header\", \"status\": 403}"),
+                            @ExampleObject(name = "Invalid Authorization Token", description = "Error returned because authorization token is invalid", value = "{\"message\": \"Invalid authorization token\", \"status\": 403}"),
+                            @ExampleObject(name = "Failure During Authentication", description = "Error returned because a failure occurred during authentication", value = "{\"message\": \"Authentication failed\", \"status\": 403}"),
+                            @ExampleObject(name = "Creator Role Required", description = "Error returned because the user does not have the 'creator' role required to access this resource", value = "{\"message\": \"Access to this resource is restricted\", \"status\": 403}")
+                    })),
+            @ApiResponse(responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
+                    examples = {
+                            @ExampleObject(name = "No Course Found", description = "Error returned because there is no course with the provided ID", value = "{\"message\": \"Course not found\", \"status\": 404}")
+                    }))
+    })
+    @SecurityRequirement(name = "jwt_auth")
+    public ResponseEntity<Object> importCourseContents(@PathVariable String courseId, @RequestBody @Valid ImportCourseContentsDTO importCourseContentsDTO, BindingResult bindingResult) {
+        this.requestFieldValidationService.validationErrors(bindingResult);
+
+        this.coursesContentsService.importCourseContents(courseId, importCourseContentsDTO);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new MessageResponseDTO("Course contents imported successfully", HttpStatus.CREATED.value()));
+    }
+
+    @PostMapping("/{courseContentId}/content/upload-video")
+    @Operation(summary = "Upload the course content video", description = "This route is responsible for allowing a creator user to upload a video for a specific course content")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", content = @Content(mediaType = "application/json", schema = @Schema(implementation = VideoUploadJobResponseDTO.class))),
             @ApiResponse(responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
                     examples = {
                             @ExampleObject(name = "Missing Video File", description = "Error returned because video file is missing in the request", value = "{\"message\": \"Video file is required\", \"status\": 400}")
@@ -287,10 +340,33 @@ public class CoursesController {
         if (videoFile == null || videoFile.isEmpty())
             return ResponseEntity.badRequest().body(new MessageResponseDTO("Video file is required", HttpStatus.BAD_REQUEST.value()));
 
-        this.coursesContentsService.uploadCourseContentVideo(courseContentId, videoFile);
+        VideoUploadJobResponseDTO videoUploadJob = this.coursesContentsService.uploadCourseContentVideo(courseContentId, videoFile);
 
-        return ResponseEntity.ok()
-                .body(new MessageResponseDTO("Course content video uploaded successfully", HttpStatus.OK.value()));
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/courses/content/video-upload-jobs/" + videoUploadJob.id())
+                .body(videoUploadJob);
+    }
+
+    @GetMapping("/content/video-upload-jobs/{videoUploadJobId}")
+    @Operation(summary = "Get the course content video upload job", description = "This route is responsible for allowing a creator user to follow the background upload of a course content video")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = VideoUploadJobResponseDTO.class))),
+            @ApiResponse(responseCode = "403", content = @Content(mediaType = "application/json", schema = @Schema(oneOf = {MessageResponseDTO.class, CustomAuthenticationEntryResponseDTO.class, CustomAccessDeniedHandlerResponseDTO.class}),
+                    examples = {
+                            @ExampleObject(name = "Creator User Not Course Owner", description = "Error returned because the creator user tried to get a video upload job of a course that is not theirs", value = "{\"message\": \"Task not allowed\", \"status\": 403}"),
+                            @ExampleObject(name = "Missing Authorization Token", description = "Error returned because authorization token is missing in the request header", value = "{\"message\": \"Authorization token missing in request header\", \"status\": 403}"),
+                            @ExampleObject(name = "Invalid Authorization Token", description = "Error returned because authorization token is invalid", value = "{\"message\": \"Invalid authorization token\", \"status\": 403}"),
+                            @ExampleObject(name = "Failure During Authentication", description = "Error returned because a failure occurred during authentication", value = "{\"message\": \"Authentication failed\", \"status\": 403}"),
+                            @ExampleObject(name = "Creator Role Required", description = "Error returned because the user does not have the 'creator' role required to access this resource", value = "{\"message\": \"Access to this resource is restricted\", \"status\": 403}")
+                    })),
+            @ApiResponse(responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
+                    examples = {
+                            @ExampleObject(name = "No Video Upload Job Found", description = "Error returned because there is no video upload job with the provided ID", value = "{\"message\": \"Video upload job not found\", \"status\": 404}")
+                    }))
+    })
+    @SecurityRequirement(name = "jwt_auth")
+    public ResponseEntity<Object> getVideoUploadJob(@PathVariable String videoUploadJobId) {
+        return ResponseEntity.ok().body(this.coursesContentsService.getVideoUploadJob(videoUploadJobId));
     }
 
     @PutMapping("/{courseContentId}/content/update-description")
@@ -331,10 +407,7 @@ public class CoursesController {
     @PutMapping("/{courseContentId}/content/update-video")
     @Operation(summary = "Update the course content video", description = "This route is responsible for allowing a creator user to update the video of a specific content")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
-                    examples = {
-                            @ExampleObject(value = "{\"message\": \"Course content video updated successfully\", \"status\": 200}")
-                    })),
+            @ApiResponse(responseCode = "202", content = @Content(mediaType = "application/json", schema = @Schema(implementation = VideoUploadJobResponseDTO.class))),
             @ApiResponse(responseCode = "400", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
                     examples = {
                             @ExampleObject(name = "Missing Video File", description = "Error returned because video file is missing in the request", value = "{\"message\": \"Video file is required\", \"status\": 400}")
@@ -358,10 +431,11 @@ public class CoursesController {
         if (videoFile == null || videoFile.isEmpty())
             return ResponseEntity.badRequest().body(new MessageResponseDTO("Video file is required", HttpStatus.BAD_REQUEST.value()));
 
-        this.coursesContentsService.uploadCourseContentVideo(courseContentId, videoFile);
+        VideoUploadJobResponseDTO videoUploadJob = this.coursesContentsService.uploadCourseContentVideo(courseContentId, videoFile);
 
-        return ResponseEntity.ok()
-                .body(new MessageResponseDTO("Course content video updated successfully", HttpStatus.OK.value()));
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/courses/content/video-upload-jobs/" + videoUploadJob.id())
+                .body(videoUploadJob);
     }
 
     @PutMapping("/{courseContentId}/content/update-release-date")
@@ -459,7 +533,7 @@ public class CoursesController {
     }
 
     @GetMapping("/{courseId}/contents/subscribed")
-    @Operation(summary = "Fetch all published contents of a specific course for a subscribed user", description = "This route is responsible for allowing a subscribed user to fetch all published contents of a specific course")
+    @Operation(summary = "Fetch all published contents of a specific course for a subscribed user", description = "This route is responsible for allowing a subscribed user to fetch all published contents of a specific course. When cursor or limit is sent, one page is returned and the next page cursor comes in the X-Next-Cursor header")
     @ApiResponses({
             @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = CourseContentResponseDTO.class)))),
             @ApiResponse(responseCode = "403", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CustomAuthenticationEntryResponseDTO.class),
@@ -474,7 +548,26 @@ public class CoursesController {
                     }))
     })
     @SecurityRequirement(name = "jwt_auth")
-    public List<CourseContentResponseDTO> getPublishedContentsForSubscribedUser(@PathVariable String courseId) {
-        return this.coursesContentsService.getPublishedContentsForSubscribedUser(courseId);
+    public ResponseEntity<List<CourseContentResponseDTO>> getPublishedContentsForSubscribedUser(
+            @PathVariable String courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(this.coursesContentsService.getPublishedContentsForSubscribedUser(courseId));
+        }
+
+        return this.toCursorPageResponse(this.coursesContentsService.getPublishedContentsForSubscribedUserPage(courseId, cursor, limit));
+    }
+
+    // The body stays a plain list, the position of the next page travels in a header
+    private <T> ResponseEntity<List<T>> toCursorPageResponse(CursorPage<T> cursorPage) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (cursorPage.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, cursorPage.nextCursor());
+        }
+
+        return response.body(cursorPage.items());
     }
 }
@@ -0,0 +1,103 @@
+package com.miguelsperle.teach_crafter.modules.users.controllers;
+
+import com.miguelsperle.teach_crafter.dtos.general.CustomAccessDeniedHandlerResponseDTO;
+import com.miguelsperle.teach_crafter.dtos.general.CustomAuthenticationEntryResponseDTO;
+import com.miguelsperle.teach_crafter.dtos.general.MessageResponseDTO;
+import com.miguelsperle.teach_crafter.modules.users.dtos.scheduledJobs.ScheduledJobResponseDTO;
+import com.miguelsperle.teach_crafter.modules.users.services.ScheduledJobsService;
+import com.miguelsperle.teach_crafter.scheduling.ScheduledJobCoordinator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/scheduled-jobs")
+public class ScheduledJobsController {
+    private final ScheduledJobsService scheduledJobsService;
+    private final ScheduledJobCoordinator scheduledJobCoordinator;
+
+    public ScheduledJobsController(final ScheduledJobsService scheduledJobsService, final ScheduledJobCoordinator scheduledJobCoordinator) {
+        this.scheduledJobsService = scheduledJobsService;
+        this.scheduledJobCoordinator = scheduledJobCoordinator;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get all scheduled jobs", description = "This route is responsible for allowing an admin user to inspect the lease, last run, duration and outcome of every scheduled job")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ScheduledJobResponseDTO.class)))),
+            @ApiResponse(responseCode = "403", content = @Content(mediaType = "application/json", schema = @Schema(oneOf = {CustomAuthenticationEntryResponseDTO.class, CustomAccessDeniedHandlerResponseDTO.class}),
+                    examples = {
+                            @ExampleObject(name = "Missing Authorization Token", description = "Error returned because authorization token is missing in the request header", value = "{\"message\": \"Authorization token missing in request header\", \"status\": 403}"),
+                            @ExampleObject(name = "Invalid Authorization Token", description = "Error returned because authorization token is invalid", value = "{\"message\": \"Invalid authorization token\", \"status\": 403}"),
+                            @ExampleObject(name = "Failure During Authentication", description = "Error returned because a failure occurred during authentication", value = "{\"message\": \"Authentication failed\", \"status\": 403}"),
+                            @ExampleObject(name = "Admin Role Required", description = "Error returned because the user does not have the 'admin' role required to access this resource", value = "{\"message\": \"Access to this resource is restricted\", \"status\": 403}")
+                    }))
+    })
+    @SecurityRequirement(name = "jwt_auth")
+    public ResponseEntity<Object> getAllScheduledJobs() {
+        List<ScheduledJobResponseDTO> scheduledJobs = this.scheduledJobsService.getAllScheduledJobs();
+
+        return ResponseEntity.ok().body(scheduledJobs);
+    }
+
+    @GetMapping("/{jobName}")
+    @Operation(summary = "Get a scheduled job", description = "This route is responsible for allowing an admin user to inspect the lease, last run, duration and outcome of a specific scheduled job")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduledJobResponseDTO.class))),
+            @ApiResponse(responseCode = "403", content = @Content(mediaType = "application/json", schema = @Schema(oneOf = {CustomAuthenticationEntryResponseDTO.class, CustomAccessDeniedHandlerResponseDTO.class}),
+                    examples = {
+                            @ExampleObject(name = "Missing Authorization Token", description = "Error returned because authorization token is missing in the request header", value = "{\"message\": \"Authorization token missing in request header\", \"status\": 403}"),
+                            @ExampleObject(name = "Invalid Authorization Token", description = "Error returned because authorization token is invalid", value = "{\"message\": \"Invalid authorization token\", \"status\": 403}"),
+                            @ExampleObject(name = "Failure During Authentication", description = "Error returned because a failure occurred during authentication", value = "{\"message\": \"Authentication failed\", \"status\": 403}"),
+                            @ExampleObject(name = "Admin Role Required", description = "Error returned because the user does not have the 'admin' role required to access this resource", value = "{\"message\": \"Access to this resource is restricted\", \"status\": 403}")
+                    })),
+            @ApiResponse(responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
+                    examples = {
+                            @ExampleObject(name = "No Scheduled Job Found", description = "Error returned because there is no scheduled job with the provided name", value = "{\"message\": \"Scheduled job not found\", \"status\": 404}")
+                    }))
+    })
+    @SecurityRequirement(name = "jwt_auth")
+    public ResponseEntity<Object> getScheduledJob(@PathVariable String jobName) {
+        ScheduledJobResponseDTO scheduledJob = this.scheduledJobsService.getScheduledJobByName(jobName);
+
+        return ResponseEntity.ok().body(scheduledJob);
+    }
+
+    @PostMapping("/{jobName}/trigger")
+    @Operation(summary = "Trigger a scheduled job", description = "This route is responsible for allowing an admin user to run a scheduled job right away, under the same lease as the scheduled runs")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ScheduledJobResponseDTO.class))),
+            @ApiResponse(responseCode = "403", content = @Content(mediaType = "application/json", schema = @Schema(oneOf = {CustomAuthenticationEntryResponseDTO.class, CustomAccessDeniedHandlerResponseDTO.class}),
+                    examples = {
+                            @ExampleObject(name = "Missing Authorization Token", description = "Error returned because authorization token is missing in the request header", value = "{\"message\": \"Authorization token missing in request header\", \"status\": 403}"),
+                            @ExampleObject(name = "Invalid Authorization Token", description = "Error returned because authorization token is invalid", value = "{\"message\": \"Invalid authorization token\", \"status\": 403}"),
+                            @ExampleObject(name = "Failure During Authentication", description = "Error returned because a failure occurred during authentication", value = "{\"message\": \"Authentication failed\", \"status\": 403}"),
+                            @ExampleObject(name = "Admin Role Required", description = "Error returned because the user does not have the 'admin' role required to access this resource", value = "{\"message\": \"Access to this resource is restricted\", \"status\": 403}")
+                    })),
+            @ApiResponse(responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
+                    examples = {
+                            @ExampleObject(name = "No Scheduled Job Found", description = "Error returned because there is no scheduled job with the provided name", value = "{\"message\": \"Scheduled job not found\", \"status\": 404}")
+                    })),
+            @ApiResponse(responseCode = "409", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
+                    examples = {
+                            @ExampleObject(name = "Scheduled Job Locked", description = "Error returned because the job is running, or has just run, on this or another node", value = "{\"message\": \"Scheduled job is locked by another run\", \"status\": 409}")
+                    }))
+    })
+    @SecurityRequirement(name = "jwt_auth")
+    public ResponseEntity<Object> triggerScheduledJob(@PathVariable String jobName) {
+        this.scheduledJobCoordinator.trigger(jobName);
+
+        ScheduledJobResponseDTO scheduledJob = this.scheduledJobsService.getScheduledJobByName(jobName);
+
+        return ResponseEntity.ok().body(scheduledJob);
+    }
+}
@@ -0,0 +1,95 @@
+package com.miguelsperle.teach_crafter.modules.users.controllers;
+
+import com.miguelsperle.teach_crafter.dtos.general.CustomAccessDeniedHandlerResponseDTO;
+import com.miguelsperle.teach_crafter.dtos.general.CustomAuthenticationEntryResponseDTO;
+import com.miguelsperle.teach_crafter.dtos.general.MessageResponseDTO;
+import com.miguelsperle.teach_crafter.modules.users.dtos.tokenSigningKeys.TokenSigningKeyResponseDTO;
+import com.miguelsperle.teach_crafter.modules.users.services.TokenSigningKeysService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/token-keys")
+public class TokenSigningKeysController {
+    private final TokenSigningKeysService tokenSigningKeysService;
+
+    public TokenSigningKeysController(final TokenSigningKeysService tokenSigningKeysService) {
+        this.tokenSigningKeysService = tokenSigningKeysService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get all token signing keys", description = "This route is responsible for allowing an admin user to inspect the token signing keys rotated at runtime and when each one activates or was retired")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TokenSigningKeyResponseDTO.class)))),
+            @ApiResponse(responseCode = "403", content = @Content(mediaType = "application/json", schema = @Schema(oneOf = {CustomAuthenticationEntryResponseDTO.class, CustomAccessDeniedHandlerResponseDTO.class}),
+                    examples = {
+                            @ExampleObject(name = "Missing Authorization Token", description = "Error returned because authorization token is missing in the request header", value = "{\"message\": \"Authorization token missing in request header\", \"status\": 403}"),
+                            @ExampleObject(name = "Invalid Authorization Token", description = "Error returned because authorization token is invalid", value = "{\"message\": \"Invalid authorization token\", \"status\": 403}"),
+                            @ExampleObject(name = "Failure During Authentication", description = "Error returned because a failure occurred during authentication", value = "{\"message\": \"Authentication failed\", \"status\": 403}"),
+                            @ExampleObject(name = "Admin Role Required", description = "Error returned because the user does not have the 'admin' role required to access this resource", value = "{\"message\": \"Access to this resource is restricted\", \"status\": 403}")
+                    }))
+    })
+    @SecurityRequirement(name = "jwt_auth")
+    public ResponseEntity<Object> getAllTokenSigningKeys() {
+        List<TokenSigningKeyResponseDTO> tokenSigningKeys = this.tokenSigningKeysService.getAllTokenSigningKeys();
+
+        return ResponseEntity.ok().body(tokenSigningKeys);
+    }
+
+    @PostMapping("/rotate")
+    @Operation(summary = "Rotate the token signing key", description = "This route is responsible for allowing an admin user to add a new token signing key, every node accepts it within one refresh interval and signs with it from its activation on")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TokenSigningKeyResponseDTO.class))),
+            @ApiResponse(responseCode = "403", content = @Content(mediaType = "application/json", schema = @Schema(oneOf = {CustomAuthenticationEntryResponseDTO.class, CustomAccessDeniedHandlerResponseDTO.class}),
+                    examples = {
+                            @ExampleObject(name = "Missing Authorization Token", description = "Error returned because authorization token is missing in the request header", value = "{\"message\": \"Authorization token missing in request header\", \"status\": 403}"),
+                            @ExampleObject(name = "Invalid Authorization Token", description = "Error returned because authorization token is invalid", value = "{\"message\": \"Invalid authorization token\", \"status\": 403}"),
+                            @ExampleObject(name = "Failure During Authentication", description = "Error returned because a failure occurred during authentication", value = "{\"message\": \"Authentication failed\", \"status\": 403}"),
+                            @ExampleObject(name = "Admin Role Required", description = "Error returned because the user does not have the 'admin' role required to access this resource", value = "{\"message\": \"Access to this resource is restricted\", \"status\": 403}")
+                    }))
+    })
+    @SecurityRequirement(name = "jwt_auth")
+    public ResponseEntity<Object> rotateSigningKey() {
+        TokenSigningKeyResponseDTO tokenSigningKey = this.tokenSigningKeysService.rotateSigningKey();
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(tokenSigningKey);
+    }
+
+    @PostMapping("/{keyId}/retire")
+    @Operation(summary = "Retire a token signing key", description = "This route is responsible for allowing an admin user to stop accepting tokens signed with a previous key, runtime or configured, on every node")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TokenSigningKeyResponseDTO.class))),
+            @ApiResponse(responseCode = "403", content = @Content(mediaType = "application/json", schema = @Schema(oneOf = {CustomAuthenticationEntryResponseDTO.class, CustomAccessDeniedHandlerResponseDTO.class}),
+                    examples = {
+                            @ExampleObject(name = "Missing Authorization Token", description = "Error returned because authorization token is missing in the request header", value = "{\"message\": \"Authorization token missing in request header\", \"status\": 403}"),
+                            @ExampleObject(name = "Invalid Authorization Token", description = "Error returned because authorization token is invalid", value = "{\"message\": \"Invalid authorization token\", \"status\": 403}"),
+                            @ExampleObject(name = "Failure During Authentication", description = "Error returned because a failure occurred during authentication", value = "{\"message\": \"Authentication failed\", \"status\": 403}"),
+                            @ExampleObject(name = "Admin Role Required", description = "Error returned because the user does not have the 'admin' role required to access this resource", value = "{\"message\": \"Access to this resource is restricted\", \"status\": 403}")
+                    })),
+            @ApiResponse(responseCode = "404", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
+                    examples = {
+                            @ExampleObject(name = "No Token Signing Key Found", description = "Error returned because there is no token signing key with the provided ID", value = "{\"message\": \"Token signing key not found\", \"status\": 404}")
+                    })),
+            @ApiResponse(responseCode = "409", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponseDTO.class),
+                    examples = {
+                            @ExampleObject(name = "Token Signing Key In Use", description = "Error returned because the key still signs new tokens, a newer key must activate first", value = "{\"message\": \"The current token signing key cannot be retired\", \"status\": 409}")
+                    }))
+    })
+    @SecurityRequirement(name = "jwt_auth")
+    public ResponseEntity<Object> retireSigningKey(@PathVariable String keyId) {
+        TokenSigningKeyResponseDTO tokenSigningKey = this.tokenSigningKeysService.retireSigningKey(keyId);
+
+        return ResponseEntity.ok().body(tokenSigningKey);
+    }
+}
@@ -0,0 +1,14 @@
+package com.miguelsperle.teach_crafter.modules.users.dtos.courses;
+
+import java.time.LocalDateTime;
+
+public record CourseSubscriptionDTO(
+        String enrollmentId,
+        LocalDateTime enrollmentCreatedAt,
+        String id,
+        String name,
+        String description,
+        LocalDateTime createdAt,
+        String createdBy
+) {
+}
@@ -0,0 +1,14 @@
+package com.miguelsperle.teach_crafter.modules.users.dtos.courses;
+
+import java.time.LocalDateTime;
+
+public record CourseWithEnrollmentCountDTO(
+        String id,
+        String name,
+        String description,
+        Integer maximumAttendees,
+        LocalDateTime createdAt,
+        String createdBy,
+        Integer amountEnrollment
+) {
+}
@@ -0,0 +1,6 @@
+package com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents;
+
+import java.time.LocalDate;
+
+public record CourseContentReleaseDTO(String id, LocalDate releaseDate) {
+}
@@ -0,0 +1,17 @@
+package com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ImportCourseContentsDTO(
+        @ArraySchema(schema = @Schema(implementation = CreateCourseContentDTO.class), minItems = 1, maxItems = 1000)
+        @NotEmpty(message = "At least one content is required to import contents")
+        @Size(max = 1000, message = "A maximum of 1000 contents can be imported at once")
+        List<@Valid CreateCourseContentDTO> contents
+) {
+}
@@ -0,0 +1,21 @@
+package com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+public record VideoUploadJobResponseDTO(
+        @Schema(example = "0b8f3c2e-6a41-4d7e-9c35-2f1e8d7a6b90")
+        String id,
+        @Schema(example = "5e9d6f8a-2c1b-47e3-b41f-10a8c7d39b72")
+        String courseContentId,
+        @Schema(example = "QUEUED")
+        String status,
+        @Schema(example = "null")
+        String error,
+        @Schema(example = "2024-06-12T13:37:32.196Z")
+        LocalDateTime createdAt,
+        @Schema(example = "null")
+        LocalDateTime finishedAt
+) {
+}
@@ -0,0 +1,25 @@
+package com.miguelsperle.teach_crafter.modules.users.dtos.scheduledJobs;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+public record ScheduledJobResponseDTO(
+        @Schema(example = "publish-pending-contents")
+        String name,
+        @Schema(example = "api-7f9c4d:3b1e0a52")
+        String lockedBy,
+        @Schema(example = "2024-06-13T00:00:30")
+        LocalDateTime lockedUntil,
+        @Schema(example = "2024-06-13T00:00:00")
+        LocalDateTime lastStartedAt,
+        @Schema(example = "2024-06-13T00:00:01.532")
+        LocalDateTime lastFinishedAt,
+        @Schema(example = "1532")
+        Long lastDurationMs,
+        @Schema(example = "SUCCEEDED")
+        String lastOutcome,
+        @Schema(example = "null")
+        String lastError
+) {
+}
@@ -0,0 +1,17 @@
+package com.miguelsperle.teach_crafter.modules.users.dtos.tokenSigningKeys;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+public record TokenSigningKeyResponseDTO(
+        @Schema(example = "0190a3c2-5f1e-7b8a-9c3d-2e4f6a8b0c1d")
+        String keyId,
+        @Schema(example = "2024-06-13T00:01:00")
+        LocalDateTime activatesAt,
+        @Schema(example = "null")
+        LocalDateTime retiredAt,
+        @Schema(example = "2024-06-13T00:00:00")
+        LocalDateTime createdAt
+) {
+}
@@ -13,6 +13,7 @@ public record CreateUserDTO(
 
         @Schema(example = "ROLE_USER OR ROLE_CREATOR",  requiredMode = Schema.RequiredMode.REQUIRED)
         @NotBlank(message = "Role is required to create an account")
+        @Pattern(regexp = "^(ROLE_USER|ROLE_CREATOR)?$", message = "The field [role] must be ROLE_USER or ROLE_CREATOR")
         String role,
 
         @Schema(example = "Example", requiredMode = Schema.RequiredMode.REQUIRED)
@@ -1,12 +1,17 @@
 package com.miguelsperle.teach_crafter.modules.users.entities.courses;
 
+import com.miguelsperle.teach_crafter.infra.persistence.GeneratedUuidV7;
+import com.miguelsperle.teach_crafter.infra.persistence.UuidStringJdbcType;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -20,7 +25,8 @@ import java.time.LocalDateTime;
 public class CoursesEntity {
     @Id
     @Column(nullable = false)
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
+    @JdbcType(UuidStringJdbcType.class)
     private String id;
 
     @Column(nullable = false)
@@ -32,6 +38,10 @@ public class CoursesEntity {
     @Column(name = "maximum_attendees", nullable = false)
     private Integer maximumAttendees;
 
+    // Maintained only by the conditional updates in CoursesRepository, so saving a course never overwrites it
+    @Column(name = "enrolled_count", nullable = false, insertable = false, updatable = false)
+    private int enrolledCount;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
@@ -40,7 +50,9 @@ public class CoursesEntity {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "creator_id", nullable = false)
     private UsersEntity usersEntity;
 }
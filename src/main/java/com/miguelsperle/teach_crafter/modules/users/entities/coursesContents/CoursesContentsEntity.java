@@ -1,12 +1,17 @@
 package com.miguelsperle.teach_crafter.modules.users.entities.coursesContents;
 
+import com.miguelsperle.teach_crafter.infra.persistence.GeneratedUuidV7;
+import com.miguelsperle.teach_crafter.infra.persistence.UuidStringJdbcType;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.CoursesEntity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -21,7 +26,8 @@ import java.time.LocalDateTime;
 public class CoursesContentsEntity {
     @Id
     @Column(nullable = false)
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
+    @JdbcType(UuidStringJdbcType.class)
     private String id;
 
     @Column(nullable = false)
@@ -36,7 +42,9 @@ public class CoursesContentsEntity {
     @Column(name = "release_date", nullable = false)
     private LocalDate releaseDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "course_id", nullable = false)
     private CoursesEntity coursesEntity;
 
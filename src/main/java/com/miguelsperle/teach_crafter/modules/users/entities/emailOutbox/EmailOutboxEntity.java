@@ -0,0 +1,64 @@
+package com.miguelsperle.teach_crafter.modules.users.entities.emailOutbox;
+
+import com.miguelsperle.teach_crafter.infra.persistence.GeneratedUuidV7;
+import com.miguelsperle.teach_crafter.infra.persistence.UuidStringJdbcType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Table(name = "email_outbox")
+@Entity(name = "email_outbox")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmailOutboxEntity {
+    @Id
+    @Column(nullable = false)
+    @GeneratedUuidV7
+    @JdbcType(UuidStringJdbcType.class)
+    private String id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false)
+    private String template;
+
+    // Template variables as JSON
+    @Column(columnDefinition = "TEXT")
+    private String variables;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
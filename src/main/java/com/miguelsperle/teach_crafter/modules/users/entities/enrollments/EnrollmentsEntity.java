@@ -1,13 +1,18 @@
 package com.miguelsperle.teach_crafter.modules.users.entities.enrollments;
 
+import com.miguelsperle.teach_crafter.infra.persistence.GeneratedUuidV7;
+import com.miguelsperle.teach_crafter.infra.persistence.UuidStringJdbcType;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.CoursesEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcType;
 
 import java.time.LocalDateTime;
 
@@ -20,14 +25,19 @@ import java.time.LocalDateTime;
 public class EnrollmentsEntity {
     @Id
     @Column(nullable = false)
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
+    @JdbcType(UuidStringJdbcType.class)
     private String id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "user_id", nullable = false)
     private UsersEntity usersEntity;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "course_id", nullable = false)
     private CoursesEntity coursesEntity;
 
@@ -1,11 +1,16 @@
 package com.miguelsperle.teach_crafter.modules.users.entities.passwordResetTokens;
 
+import com.miguelsperle.teach_crafter.infra.persistence.GeneratedUuidV7;
+import com.miguelsperle.teach_crafter.infra.persistence.UuidStringJdbcType;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcType;
 
 import java.util.Date;
 
@@ -18,16 +23,20 @@ import java.util.Date;
 public class PasswordResetTokensEntity {
     @Id
     @Column(nullable = false)
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
+    @JdbcType(UuidStringJdbcType.class)
     private String id;
 
-    @Column(nullable = false)
-    private String token;
+    // SHA-256 of the emailed token, the token itself is never stored
+    @Column(name = "token_hash", nullable = false, length = 32)
+    private byte[] tokenHash;
 
     @Column(name = "expires_in", nullable = false)
     private Date expiresIn;
     
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "user_id", nullable = false)
     private UsersEntity usersEntity;
 }
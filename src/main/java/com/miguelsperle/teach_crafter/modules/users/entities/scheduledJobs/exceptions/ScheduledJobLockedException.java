@@ -0,0 +1,7 @@
+package com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.exceptions;
+
+public class ScheduledJobLockedException extends RuntimeException {
+    public ScheduledJobLockedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.exceptions;
+
+public class ScheduledJobNotFoundException extends RuntimeException {
+    public ScheduledJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,32 @@
+package com.miguelsperle.teach_crafter.modules.users.entities.tokenSigningKeys;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Table(name = "token_signing_keys")
+@Entity(name = "token_signing_keys")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TokenSigningKeysEntity {
+    @Id
+    @Column(name = "key_id", nullable = false)
+    private String keyId;
+
+    @Column(name = "activates_at", nullable = false)
+    private LocalDateTime activatesAt;
+
+    @Column(name = "retired_at")
+    private LocalDateTime retiredAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
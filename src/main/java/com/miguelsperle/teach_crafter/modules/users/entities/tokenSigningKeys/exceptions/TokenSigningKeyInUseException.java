@@ -0,0 +1,7 @@
+package com.miguelsperle.teach_crafter.modules.users.entities.tokenSigningKeys.exceptions;
+
+public class TokenSigningKeyInUseException extends RuntimeException {
+    public TokenSigningKeyInUseException(String message) {
+        super(message);
+    }
+}
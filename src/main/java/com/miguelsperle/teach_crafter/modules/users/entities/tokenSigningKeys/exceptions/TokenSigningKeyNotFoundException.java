@@ -0,0 +1,7 @@
+package com.miguelsperle.teach_crafter.modules.users.entities.tokenSigningKeys.exceptions;
+
+public class TokenSigningKeyNotFoundException extends RuntimeException {
+    public TokenSigningKeyNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,66 @@
+package com.miguelsperle.teach_crafter.modules.users.entities.videoUploadJobs;
+
+import com.miguelsperle.teach_crafter.infra.persistence.GeneratedUuidV7;
+import com.miguelsperle.teach_crafter.infra.persistence.UuidStringJdbcType;
+import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.CoursesContentsEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Table(name = "video_upload_jobs")
+@Entity(name = "video_upload_jobs")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VideoUploadJobsEntity {
+    @Id
+    @Column(nullable = false)
+    @GeneratedUuidV7
+    @JdbcType(UuidStringJdbcType.class)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JoinColumn(name = "course_content_id", nullable = false)
+    private CoursesContentsEntity coursesContentsEntity;
+
+    // The node that spooled the file, only that node can read it back
+    @Column(name = "node_id", nullable = false)
+    private String nodeId;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "file_path", nullable = false)
+    private String filePath;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    private String error;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
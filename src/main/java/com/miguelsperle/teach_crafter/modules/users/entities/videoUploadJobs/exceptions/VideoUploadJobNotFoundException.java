@@ -0,0 +1,7 @@
+package com.miguelsperle.teach_crafter.modules.users.entities.videoUploadJobs.exceptions;
+
+public class VideoUploadJobNotFoundException extends RuntimeException {
+    public VideoUploadJobNotFoundException(String message) {
+        super(message);
+    }
+}
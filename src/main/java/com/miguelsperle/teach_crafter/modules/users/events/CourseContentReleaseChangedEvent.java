@@ -0,0 +1,6 @@
+package com.miguelsperle.teach_crafter.modules.users.events;
+
+import java.time.LocalDate;
+
+public record CourseContentReleaseChangedEvent(String courseContentId, String status, LocalDate releaseDate) {
+}
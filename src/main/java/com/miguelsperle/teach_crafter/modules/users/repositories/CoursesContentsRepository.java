@@ -1,12 +1,66 @@
 package com.miguelsperle.teach_crafter.modules.users.repositories;
 
+import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.CourseContentReleaseDTO;
+import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.CourseContentResponseDTO;
 import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.CoursesContentsEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CoursesContentsRepository extends JpaRepository<CoursesContentsEntity, String> {
-    List<CoursesContentsEntity> findAllByCoursesEntityId(String courseId);
-    List<CoursesContentsEntity> findAllByCoursesEntityIdAndStatus(String courseId, String status);
-    List<CoursesContentsEntity> findAllByStatus(String status);
+    // Read endpoints build the response records in the query, so no content entity ends up managed by the persistence context
+    @Query("SELECT new com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.CourseContentResponseDTO(" +
+            "cc.id, cc.description, cc.videoUrl, cc.status, cc.releaseDate, cc.contentModule, cc.createdAt) " +
+            "FROM courses_contents cc WHERE cc.coursesEntity.id = :courseId")
+    List<CourseContentResponseDTO> findAllResponsesByCourseId(@Param("courseId") String courseId);
+
+    @Query("SELECT new com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.CourseContentResponseDTO(" +
+            "cc.id, cc.description, cc.videoUrl, cc.status, cc.releaseDate, cc.contentModule, cc.createdAt) " +
+            "FROM courses_contents cc WHERE cc.coursesEntity.id = :courseId AND cc.status = :status")
+    List<CourseContentResponseDTO> findAllResponsesByCourseIdAndStatus(@Param("courseId") String courseId, @Param("status") String status);
+
+    @Query("SELECT new com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.CourseContentResponseDTO(" +
+            "cc.id, cc.description, cc.videoUrl, cc.status, cc.releaseDate, cc.contentModule, cc.createdAt) " +
+            "FROM courses_contents cc " +
+            "WHERE cc.coursesEntity.id = :courseId AND cc.status = :status AND (cc.createdAt > :createdAt OR (cc.createdAt = :createdAt AND cc.id > :id)) " +
+            "ORDER BY cc.createdAt, cc.id")
+    List<CourseContentResponseDTO> findResponsesByCourseIdAndStatusCreatedAfter(@Param("courseId") String courseId, @Param("status") String status, @Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Pageable pageable);
+
+    // Touches only the video url, so edits made to the content while its video was uploading are kept
+    @Modifying
+    @Query("UPDATE courses_contents cc SET cc.videoUrl = :videoUrl WHERE cc.id = :id")
+    int updateVideoUrl(@Param("id") String id, @Param("videoUrl") String videoUrl);
+
+    // One statement per batch instead of loading every pending content; the LIMIT keeps each transaction and its row locks short
+    @Modifying
+    @Query(value = "UPDATE courses_contents SET status = :publishedStatus, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id IN (SELECT id FROM courses_contents WHERE status = :pendingStatus AND release_date <= :today LIMIT :batchSize)", nativeQuery = true)
+    int publishDueContents(
+            @Param("pendingStatus") String pendingStatus,
+            @Param("publishedStatus") String publishedStatus,
+            @Param("today") LocalDate today,
+            @Param("batchSize") int batchSize
+    );
+
+    @Query("SELECT new com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.CourseContentReleaseDTO(cc.id, cc.releaseDate) " +
+            "FROM courses_contents cc WHERE cc.status = :status")
+    List<CourseContentReleaseDTO> findAllReleasesByStatus(@Param("status") String status);
+
+    // The status and date guards make it a no-op for contents already published or moved to a later date
+    @Modifying
+    @Query("UPDATE courses_contents cc SET cc.status = :publishedStatus, cc.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE cc.id IN :ids AND cc.status = :pendingStatus AND cc.releaseDate <= :today")
+    int publishContentsByIds(
+            @Param("ids") Collection<String> ids,
+            @Param("pendingStatus") String pendingStatus,
+            @Param("publishedStatus") String publishedStatus,
+            @Param("today") LocalDate today
+    );
 }
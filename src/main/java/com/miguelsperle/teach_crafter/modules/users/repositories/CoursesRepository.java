@@ -1,11 +1,83 @@
 package com.miguelsperle.teach_crafter.modules.users.repositories;
 
+import com.miguelsperle.teach_crafter.modules.users.dtos.courses.CourseWithEnrollmentCountDTO;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.CoursesEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface CoursesRepository extends JpaRepository<CoursesEntity, String> {
     List<CoursesEntity> findAllByUsersEntityId(String userId);
-    List<CoursesEntity> findByDescriptionContainingIgnoreCase(String filter);
+
+    @Query("SELECT new com.miguelsperle.teach_crafter.modules.users.dtos.courses.CourseWithEnrollmentCountDTO(" +
+            "c.id, c.name, c.description, c.maximumAttendees, c.createdAt, u.name, c.enrolledCount) " +
+            "FROM courses c JOIN c.usersEntity u " +
+            "WHERE c.id IN :ids")
+    List<CourseWithEnrollmentCountDTO> findAllWithEnrollmentCountByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT new com.miguelsperle.teach_crafter.modules.users.dtos.courses.CourseWithEnrollmentCountDTO(" +
+            "c.id, c.name, c.description, c.maximumAttendees, c.createdAt, u.name, c.enrolledCount) " +
+            "FROM courses c JOIN c.usersEntity u " +
+            "WHERE u.id = :userId")
+    List<CourseWithEnrollmentCountDTO> findAllWithEnrollmentCountByUsersEntityId(@Param("userId") String userId);
+
+    @Query("SELECT c.id FROM courses c ORDER BY c.createdAt DESC, c.id DESC")
+    List<String> findAllIdsOrderByCreatedAtDesc(Pageable pageable);
+
+    @Query("SELECT c.id FROM courses c " +
+            "WHERE c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<String> findIdsCreatedBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Pageable pageable);
+
+    @Query(value = "SELECT CAST(c.id AS text) FROM courses c CROSS JOIN websearch_to_tsquery('simple', :keyword) query " +
+            "WHERE c.search_vector @@ query " +
+            "ORDER BY ts_rank(c.search_vector, query) DESC, c.created_at DESC, c.id", nativeQuery = true)
+    List<String> searchIdsByFullText(@Param("keyword") String keyword, Pageable pageable);
+
+    // The id tie break compares text, which orders lowercase uuids like the uuid type and works before and after the uuid swap ( db/contract/postgresql )
+    @Query(value = "SELECT CAST(c.id AS text) FROM courses c CROSS JOIN websearch_to_tsquery('simple', :keyword) query " +
+            "WHERE c.search_vector @@ query AND (c.created_at < :createdAt OR (c.created_at = :createdAt AND CAST(c.id AS text) < :id)) " +
+            "ORDER BY c.created_at DESC, c.id DESC", nativeQuery = true)
+    List<String> searchIdsByFullTextCreatedBefore(@Param("keyword") String keyword, @Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Pageable pageable);
+
+    // Matches on the name are ranked before matches only on the description
+    @Query("SELECT c.id FROM courses c " +
+            "WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(c.description) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+            "ORDER BY CASE WHEN LOWER(c.name) LIKE LOWER(CONCAT('%', :keyword, '%')) THEN 0 ELSE 1 END, c.createdAt DESC, c.id")
+    List<String> searchIdsByNameOrDescriptionKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query("SELECT c.id FROM courses c " +
+            "WHERE (LOWER(c.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(c.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<String> searchIdsByNameOrDescriptionKeywordCreatedBefore(@Param("keyword") String keyword, @Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE courses c SET c.enrolledCount = c.enrolledCount + 1 WHERE c.id = :courseId AND c.enrolledCount < c.maximumAttendees")
+    int incrementEnrolledCountIfSpotAvailable(@Param("courseId") String courseId);
+
+    @Modifying
+    @Query("UPDATE courses c SET c.enrolledCount = c.enrolledCount - 1 WHERE c.id = :courseId AND c.enrolledCount > 0")
+    int decrementEnrolledCount(@Param("courseId") String courseId);
+
+    // Only finds the candidates, the counts read here can be stale by the time a course is repaired
+    @Query("SELECT c.id FROM courses c WHERE c.enrolledCount <> (SELECT COUNT(e.id) FROM enrollments e WHERE e.coursesEntity.id = c.id)")
+    List<String> findIdsWithEnrolledCountDrift();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM courses c WHERE c.id = :courseId")
+    Optional<CoursesEntity> findByIdForUpdate(@Param("courseId") String courseId);
+
+    @Modifying
+    @Query("UPDATE courses c SET c.enrolledCount = :enrolledCount WHERE c.id = :courseId")
+    int updateEnrolledCount(@Param("courseId") String courseId, @Param("enrolledCount") int enrolledCount);
 }
@@ -0,0 +1,48 @@
+package com.miguelsperle.teach_crafter.modules.users.repositories;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.emailOutbox.EmailOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxEntity, String> {
+    @Query("SELECT e FROM email_outbox e WHERE e.status IN :statuses AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<EmailOutboxEntity> findAllDue(@Param("statuses") Collection<String> statuses, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Only one dispatcher wins the row: the lease moves next_attempt_at past now for everybody else
+    @Modifying
+    @Query("UPDATE email_outbox e SET e.status = :sendingStatus, e.nextAttemptAt = :leaseExpiresAt " +
+            "WHERE e.id = :id AND e.status IN :statuses AND e.nextAttemptAt <= :now")
+    int claim(
+            @Param("id") String id,
+            @Param("statuses") Collection<String> statuses,
+            @Param("sendingStatus") String sendingStatus,
+            @Param("now") LocalDateTime now,
+            @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt
+    );
+
+    // The variables can hold secrets ( reset tokens ), they are dropped once the email no longer needs them
+    @Modifying
+    @Query("UPDATE email_outbox e SET e.status = :status, e.sentAt = :sentAt, e.lastError = NULL, e.variables = NULL WHERE e.id = :id")
+    int markSent(@Param("id") String id, @Param("status") String status, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE email_outbox e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, e.lastError = :lastError WHERE e.id = :id")
+    int markFailed(
+            @Param("id") String id,
+            @Param("status") String status,
+            @Param("attempts") int attempts,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("lastError") String lastError
+    );
+
+    @Modifying
+    @Query("UPDATE email_outbox e SET e.variables = NULL WHERE e.id = :id")
+    int clearVariables(@Param("id") String id);
+}
@@ -1,14 +1,33 @@
 package com.miguelsperle.teach_crafter.modules.users.repositories;
 
+import com.miguelsperle.teach_crafter.modules.users.dtos.courses.CourseSubscriptionDTO;
 import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.EnrollmentsEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 public interface EnrollmentsRepository extends JpaRepository<EnrollmentsEntity, String> {
     List<EnrollmentsEntity> findAllByCoursesEntityId(String courseId);
-    List<EnrollmentsEntity> findAllByUsersEntityId(String userId);
-    void deleteByUsersEntityIdAndCoursesEntityId(String userId, String courseId);
-    Optional<EnrollmentsEntity> findByUsersEntityIdAndCoursesEntityId(String userId, String courseId);
+
+    long deleteByUsersEntityIdAndCoursesEntityId(String userId, String courseId);
+    boolean existsByUsersEntityIdAndCoursesEntityId(String userId, String courseId);
+    long countByCoursesEntityId(String courseId);
+
+    // The subscribed courses listings are built straight from the query, no enrollment, course or user entity is managed
+    @Query("SELECT new com.miguelsperle.teach_crafter.modules.users.dtos.courses.CourseSubscriptionDTO(" +
+            "e.id, e.createdAt, c.id, c.name, c.description, c.createdAt, u.name) " +
+            "FROM enrollments e JOIN e.coursesEntity c JOIN c.usersEntity u " +
+            "WHERE e.usersEntity.id = :userId")
+    List<CourseSubscriptionDTO> findAllCourseSubscriptionsByUserId(@Param("userId") String userId);
+
+    @Query("SELECT new com.miguelsperle.teach_crafter.modules.users.dtos.courses.CourseSubscriptionDTO(" +
+            "e.id, e.createdAt, c.id, c.name, c.description, c.createdAt, u.name) " +
+            "FROM enrollments e JOIN e.coursesEntity c JOIN c.usersEntity u " +
+            "WHERE e.usersEntity.id = :userId AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+            "ORDER BY e.createdAt DESC, e.id DESC")
+    List<CourseSubscriptionDTO> findCourseSubscriptionsByUserIdCreatedBefore(@Param("userId") String userId, @Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Pageable pageable);
 }
\ No newline at end of file
@@ -7,5 +7,5 @@ import java.util.Optional;
 
 public interface PasswordResetTokensRepository extends JpaRepository<PasswordResetTokensEntity, String> {
     Optional<PasswordResetTokensEntity> findByUsersEntityId(String id);
-    Optional<PasswordResetTokensEntity> findByToken(String token);
+    Optional<PasswordResetTokensEntity> findByTokenHash(byte[] tokenHash);
 }
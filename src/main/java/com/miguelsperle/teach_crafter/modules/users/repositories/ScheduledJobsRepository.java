@@ -0,0 +1,39 @@
+package com.miguelsperle.teach_crafter.modules.users.repositories;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.ScheduledJobsEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ScheduledJobsRepository extends JpaRepository<ScheduledJobsEntity, String> {
+    List<ScheduledJobsEntity> findAllByOrderByNameAsc();
+
+    // Conditional update, only one node can move an expired lease forward, the others get 0 rows back.
+    // Both updates clear the persistence context, the admin endpoints read the row back within the same request
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE scheduled_jobs s SET s.lockedBy = :owner, s.lockedUntil = :lockedUntil, s.lastStartedAt = :now " +
+            "WHERE s.name = :name AND (s.lockedUntil IS NULL OR s.lockedUntil <= :now)")
+    int acquireLease(
+            @Param("name") String name,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now,
+            @Param("lockedUntil") LocalDateTime lockedUntil
+    );
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE scheduled_jobs s SET s.lockedUntil = :lockedUntil, s.lastFinishedAt = :finishedAt, s.lastDurationMs = :durationMs, " +
+            "s.lastOutcome = :outcome, s.lastError = :error WHERE s.name = :name AND s.lockedBy = :owner")
+    int releaseLease(
+            @Param("name") String name,
+            @Param("owner") String owner,
+            @Param("lockedUntil") LocalDateTime lockedUntil,
+            @Param("finishedAt") LocalDateTime finishedAt,
+            @Param("durationMs") long durationMs,
+            @Param("outcome") String outcome,
+            @Param("error") String error
+    );
+}
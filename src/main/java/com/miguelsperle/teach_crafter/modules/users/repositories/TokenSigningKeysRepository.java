@@ -0,0 +1,10 @@
+package com.miguelsperle.teach_crafter.modules.users.repositories;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.tokenSigningKeys.TokenSigningKeysEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface TokenSigningKeysRepository extends JpaRepository<TokenSigningKeysEntity, String> {
+    List<TokenSigningKeysEntity> findAllByOrderByActivatesAtAsc();
+}
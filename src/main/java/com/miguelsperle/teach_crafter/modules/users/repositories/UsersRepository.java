@@ -2,7 +2,11 @@ package com.miguelsperle.teach_crafter.modules.users.repositories;
 
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsersRepository extends JpaRepository<UsersEntity, String> {
@@ -11,4 +15,10 @@ public interface UsersRepository extends JpaRepository<UsersEntity, String> {
     Optional<UsersEntity> findByEmail(String email);
 
     Optional<UsersEntity> findByUsername(String username);
+
+    @Query("SELECT u.email FROM users u")
+    List<String> findAllEmails();
+
+    @Query("SELECT u.email FROM users u WHERE u.updatedAt >= :since")
+    List<String> findEmailsUpdatedSince(@Param("since") LocalDateTime since);
 }
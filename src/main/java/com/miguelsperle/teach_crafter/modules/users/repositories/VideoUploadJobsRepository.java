@@ -0,0 +1,52 @@
+package com.miguelsperle.teach_crafter.modules.users.repositories;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.videoUploadJobs.VideoUploadJobsEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface VideoUploadJobsRepository extends JpaRepository<VideoUploadJobsEntity, String> {
+    // Claimed jobs are handled by the workers outside any session, so the course content ( and its course id ) must already be loaded
+    @EntityGraph(attributePaths = "coursesContentsEntity")
+    List<VideoUploadJobsEntity> findAllByNodeIdAndStatusOrderByCreatedAtAsc(String nodeId, String status, Pageable pageable);
+
+    List<VideoUploadJobsEntity> findAllByNodeIdAndStatusAndStartedAtBefore(String nodeId, String status, LocalDateTime startedBefore);
+
+    @Override
+    @EntityGraph(attributePaths = "coursesContentsEntity")
+    Optional<VideoUploadJobsEntity> findById(String id);
+
+    // Conditional update, so a job is never handed to two workers
+    @Modifying
+    @Query("UPDATE video_upload_jobs v SET v.status = :uploadingStatus, v.startedAt = :startedAt WHERE v.id = :id AND v.status = :queuedStatus")
+    int claim(
+            @Param("id") String id,
+            @Param("queuedStatus") String queuedStatus,
+            @Param("uploadingStatus") String uploadingStatus,
+            @Param("startedAt") LocalDateTime startedAt
+    );
+
+    @Modifying
+    @Query("UPDATE video_upload_jobs v SET v.status = :queuedStatus, v.startedAt = NULL WHERE v.id = :id AND v.status = :uploadingStatus")
+    int requeue(
+            @Param("id") String id,
+            @Param("uploadingStatus") String uploadingStatus,
+            @Param("queuedStatus") String queuedStatus
+    );
+
+    @Modifying
+    @Query("UPDATE video_upload_jobs v SET v.status = :status, v.error = :error, v.finishedAt = :finishedAt WHERE v.id = :id")
+    int markFinished(
+            @Param("id") String id,
+            @Param("status") String status,
+            @Param("error") String error,
+            @Param("finishedAt") LocalDateTime finishedAt
+    );
+}
@@ -13,14 +13,16 @@ public class CloudinaryImageService {
     @Resource
     private Cloudinary cloudinary;
 
+    @Resource
+    private CloudinaryStreamingUploader cloudinaryStreamingUploader;
+
     public String uploadImageFile(MultipartFile file, String folderName) {
         try {
             HashMap<Object, Object> options = new HashMap<>();
             options.put("folder", folderName);
             options.put("resource_type", "image");
 
-            byte[] fileBytes = file.getBytes();
-            var uploadedFile = this.cloudinary.uploader().upload(fileBytes, options);
+            var uploadedFile = this.cloudinaryStreamingUploader.upload(file, options);
 
             String publicId = (String) uploadedFile.get("public_id");
             return this.cloudinary.url().resourceType("image").secure(true).generate(publicId);
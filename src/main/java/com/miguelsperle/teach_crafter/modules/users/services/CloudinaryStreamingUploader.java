@@ -0,0 +1,121 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.cloudinary.Cloudinary;
+import com.miguelsperle.teach_crafter.infra.upload.UploadBufferPool;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+public class CloudinaryStreamingUploader {
+    private final Cloudinary cloudinary;
+    private final UploadBufferPool uploadBufferPool;
+    private final MeterRegistry meterRegistry;
+
+    public CloudinaryStreamingUploader(
+            final Cloudinary cloudinary,
+            final UploadBufferPool uploadBufferPool,
+            final MeterRegistry meterRegistry
+    ) {
+        this.cloudinary = cloudinary;
+        this.uploadBufferPool = uploadBufferPool;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Map upload(MultipartFile file, Map<Object, Object> options) throws IOException {
+        Path spooledFile = Files.createTempFile("teach-crafter-upload-", null);
+
+        try {
+            file.transferTo(spooledFile);
+
+            return this.upload(spooledFile, options);
+        } finally {
+            Files.deleteIfExists(spooledFile);
+        }
+    }
+
+    public Map upload(Path file, Map<Object, Object> options) throws IOException {
+        long totalSize = Files.size(file);
+
+        // The SDK streams a File straight from disk, so only files split in chunks need heap, and only those take a pooled buffer
+        Map uploadedFile = totalSize <= this.uploadBufferPool.getBufferSize()
+                ? this.cloudinary.uploader().upload(file.toFile(), options)
+                : this.uploadChunks(file, totalSize, options);
+
+        DistributionSummary.builder("uploads.size")
+                .baseUnit("bytes")
+                .tag("resource_type", String.valueOf(options.get("resource_type")))
+                .register(this.meterRegistry)
+                .record(totalSize);
+
+        return uploadedFile;
+    }
+
+    // Same protocol as the SDK uploadLarge ( one upload call per chunk with a Content-Range header ), but reusing a pooled buffer
+    private Map uploadChunks(Path file, long totalSize, Map<Object, Object> options) throws IOException {
+        String uploadId = this.cloudinary.randomPublicId();
+        byte[] buffer = this.uploadBufferPool.acquire();
+
+        try (InputStream input = Files.newInputStream(file)) {
+            Map uploadedFile = null;
+            long offset = 0;
+
+            while (offset < totalSize) {
+                int length = (int) Math.min(buffer.length, totalSize - offset);
+
+                // The SDK only takes a byte[] of the exact length, so the shorter last chunk is sent from a file slice instead of a copy of the buffer
+                if (length == buffer.length) {
+                    input.readNBytes(buffer, 0, length);
+
+                    uploadedFile = this.uploadChunk(buffer, uploadId, offset, length, totalSize, options);
+                } else {
+                    uploadedFile = this.uploadLastChunk(file, uploadId, offset, length, totalSize, options);
+                }
+
+                offset += length;
+            }
+
+            return uploadedFile;
+        } finally {
+            this.uploadBufferPool.release(buffer);
+        }
+    }
+
+    private Map uploadLastChunk(Path file, String uploadId, long offset, int length, long totalSize, Map<Object, Object> options) throws IOException {
+        Path lastChunk = Files.createTempFile("teach-crafter-chunk-", null);
+
+        try (FileChannel source = FileChannel.open(file); FileChannel target = FileChannel.open(lastChunk, StandardOpenOption.WRITE)) {
+            long copied = 0;
+
+            while (copied < length) {
+                copied += source.transferTo(offset + copied, length - copied, target);
+            }
+        }
+
+        try {
+            return this.uploadChunk(lastChunk.toFile(), uploadId, offset, length, totalSize, options);
+        } finally {
+            Files.deleteIfExists(lastChunk);
+        }
+    }
+
+    private Map uploadChunk(Object chunk, String uploadId, long offset, int length, long totalSize, Map<Object, Object> options) throws IOException {
+        Map<Object, Object> chunkOptions = new HashMap<>(options);
+        chunkOptions.put("extra_headers", Map.of(
+                "X-Unique-Upload-Id", uploadId,
+                "Content-Range", "bytes " + offset + "-" + (offset + length - 1) + "/" + totalSize
+        ));
+
+        return this.cloudinary.uploader().upload(chunk, chunkOptions);
+    }
+}
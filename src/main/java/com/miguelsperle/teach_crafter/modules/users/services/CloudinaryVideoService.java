@@ -2,27 +2,33 @@ package com.miguelsperle.teach_crafter.modules.users.services;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.Transformation;
+import com.miguelsperle.teach_crafter.modules.users.services.upload.VideoUploader;
 import jakarta.annotation.Resource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
 @Service
-public class CloudinaryVideoService {
+@ConditionalOnProperty(name = "api.uploads.video.uploader", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryVideoService implements VideoUploader {
     @Resource
     private Cloudinary cloudinary;
 
-    public String uploadVideoFile(MultipartFile file, String folderName) {
+    @Resource
+    private CloudinaryStreamingUploader cloudinaryStreamingUploader;
+
+    @Override
+    public String uploadVideoFile(Path videoFile, String folderName) {
         try {
             HashMap<Object, Object> options = new HashMap<>();
             options.put("folder", folderName);
             options.put("resource_type", "video");
 
-            byte[] fileBytes = file.getBytes();
-            var uploadedFile = this.cloudinary.uploader().upload(fileBytes, options);
+            var uploadedFile = this.cloudinaryStreamingUploader.upload(videoFile, options);
 
             String publicId = (String) uploadedFile.get("public_id");
 
@@ -1,20 +1,29 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
 import com.miguelsperle.teach_crafter.exceptions.general.TaskDeniedException;
+import com.miguelsperle.teach_crafter.infra.pagination.CursorPage;
+import com.miguelsperle.teach_crafter.infra.pagination.KeysetCursor;
+import com.miguelsperle.teach_crafter.infra.pagination.PageSizeResolver;
 import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.*;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.CoursesEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.CoursesContentsEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.exceptions.CourseContentNotFoundException;
 import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.exceptions.InvalidReleaseDateException;
-import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.exceptions.EnrollmentNotFoundException;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.videoUploadJobs.VideoUploadJobsEntity;
+import com.miguelsperle.teach_crafter.modules.users.events.CourseContentReleaseChangedEvent;
 import com.miguelsperle.teach_crafter.modules.users.repositories.CoursesContentsRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 
 
 @Service
@@ -22,21 +31,30 @@ public class CoursesContentsService {
     private final CoursesContentsRepository coursesContentsRepository;
     private final CoursesService coursesService;
     private final UsersService usersService;
-    private final EnrollmentsService enrollmentsService;
-    private final CloudinaryVideoService cloudinaryVideoService;
+    private final EnrollmentMembershipService enrollmentMembershipService;
+    private final VideoUploadJobsService videoUploadJobsService;
+    private final PageSizeResolver pageSizeResolver;
+    private final PublishedContentsCache publishedContentsCache;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     public CoursesContentsService(
             final CoursesContentsRepository coursesContentsRepository,
             final CoursesService coursesService,
             final UsersService usersService,
-            final EnrollmentsService enrollmentsService,
-            final CloudinaryVideoService cloudinaryVideoService
+            final EnrollmentMembershipService enrollmentMembershipService,
+            final VideoUploadJobsService videoUploadJobsService,
+            final PageSizeResolver pageSizeResolver,
+            final PublishedContentsCache publishedContentsCache,
+            final ApplicationEventPublisher applicationEventPublisher
     ) {
         this.coursesContentsRepository = coursesContentsRepository;
         this.coursesService = coursesService;
         this.usersService = usersService;
-        this.enrollmentsService = enrollmentsService;
-        this.cloudinaryVideoService = cloudinaryVideoService;
+        this.enrollmentMembershipService = enrollmentMembershipService;
+        this.videoUploadJobsService = videoUploadJobsService;
+        this.pageSizeResolver = pageSizeResolver;
+        this.publishedContentsCache = publishedContentsCache;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     public CoursesContentsEntity createCourseContent(String courseId, CreateCourseContentDTO createCourseContentDTO) {
@@ -52,7 +70,46 @@ public class CoursesContentsService {
         newCourseContent.setCoursesEntity(this.coursesService.getCourseById(courseId));
         newCourseContent.setContentModule(createCourseContentDTO.courseModule());
 
-        return this.coursesContentsRepository.save(newCourseContent);
+        CoursesContentsEntity courseContentSaved = this.coursesContentsRepository.save(newCourseContent);
+
+        this.publishedContentsCache.invalidate(courseId);
+        this.publishReleaseChanged(courseContentSaved);
+
+        return courseContentSaved;
+    }
+
+    // One ownership check and course lookup for the whole import, the rows are written in JDBC batches when the transaction flushes
+    @Transactional
+    public List<CoursesContentsEntity> importCourseContents(String courseId, ImportCourseContentsDTO importCourseContentsDTO) {
+        this.verifyCreatorUserIdAuthenticatedMatchesCourseOwnerId(courseId);
+
+        CoursesEntity course = this.coursesService.getCourseById(courseId);
+
+        List<CoursesContentsEntity> newCourseContents = importCourseContentsDTO.contents().stream()
+                .map(createCourseContentDTO -> {
+                    CoursesContentsEntity newCourseContent = new CoursesContentsEntity();
+
+                    newCourseContent.setDescription(createCourseContentDTO.description());
+                    newCourseContent.setStatus(this.isReleaseDateValid(createCourseContentDTO.releaseDate()));
+                    newCourseContent.setReleaseDate(createCourseContentDTO.releaseDate());
+                    newCourseContent.setCoursesEntity(course);
+                    newCourseContent.setContentModule(createCourseContentDTO.courseModule());
+
+                    return newCourseContent;
+                })
+                .toList();
+
+        List<CoursesContentsEntity> courseContentsSaved = this.coursesContentsRepository.saveAll(newCourseContents);
+
+        this.publishedContentsCache.invalidate(courseId);
+        courseContentsSaved.forEach(this::publishReleaseChanged);
+
+        return courseContentsSaved;
+    }
+
+    // Feeds the ContentPublicationScheduler, which flips the content to PUBLISHED when its release date starts
+    private void publishReleaseChanged(CoursesContentsEntity courseContent) {
+        this.applicationEventPublisher.publishEvent(new CourseContentReleaseChangedEvent(courseContent.getId(), courseContent.getStatus(), courseContent.getReleaseDate()));
     }
 
     public String isReleaseDateValid(LocalDate releaseDate) {
@@ -81,14 +138,33 @@ public class CoursesContentsService {
                 .orElseThrow(() -> new CourseContentNotFoundException("Course content not found"));
     }
 
-    public void uploadCourseContentVideo(String courseContentId, MultipartFile videoFile) {
+    // The upload itself runs in the background ( VideoUploadJobWorker ), the request only spools the file and queues the job
+    public VideoUploadJobResponseDTO uploadCourseContentVideo(String courseContentId, MultipartFile videoFile) {
         CoursesContentsEntity courseContent = this.getCourseContentById(courseContentId);
 
         this.verifyCreatorUserIdAuthenticatedMatchesCourseOwnerId(courseContent.getCoursesEntity().getId());
 
-        courseContent.setVideoUrl(this.cloudinaryVideoService.uploadVideoFile(videoFile, "course_videos"));
+        return this.toVideoUploadJobResponseDTO(this.videoUploadJobsService.createVideoUploadJob(courseContent, videoFile));
+    }
+
+    @Transactional(readOnly = true)
+    public VideoUploadJobResponseDTO getVideoUploadJob(String videoUploadJobId) {
+        VideoUploadJobsEntity videoUploadJob = this.videoUploadJobsService.getVideoUploadJobById(videoUploadJobId);
 
-        this.coursesContentsRepository.save(courseContent);
+        this.verifyCreatorUserIdAuthenticatedMatchesCourseOwnerId(videoUploadJob.getCoursesContentsEntity().getCoursesEntity().getId());
+
+        return this.toVideoUploadJobResponseDTO(videoUploadJob);
+    }
+
+    private VideoUploadJobResponseDTO toVideoUploadJobResponseDTO(VideoUploadJobsEntity videoUploadJobsEntity) {
+        return new VideoUploadJobResponseDTO(
+                videoUploadJobsEntity.getId(),
+                videoUploadJobsEntity.getCoursesContentsEntity().getId(),
+                videoUploadJobsEntity.getStatus(),
+                videoUploadJobsEntity.getError(),
+                videoUploadJobsEntity.getCreatedAt(),
+                videoUploadJobsEntity.getFinishedAt()
+        );
     }
 
     public void updateCourseContentDescription(String courseContentId, UpdateCourseContentDescriptionDTO updateCourseContentDescriptionDTO) {
@@ -99,6 +175,8 @@ public class CoursesContentsService {
         courseContent.setDescription(updateCourseContentDescriptionDTO.newContentDescription());
 
         this.coursesContentsRepository.save(courseContent);
+
+        this.publishedContentsCache.invalidate(courseContent.getCoursesEntity().getId());
     }
 
     public void updateCourseContentReleaseDate(String courseContentId, UpdateCourseContentReleaseDateDTO updateCourseContentReleaseDateDTO) {
@@ -112,6 +190,9 @@ public class CoursesContentsService {
         courseContent.setReleaseDate(updateCourseContentReleaseDateDTO.newContentReleaseDate());
 
         this.coursesContentsRepository.save(courseContent);
+
+        this.publishedContentsCache.invalidate(courseContent.getCoursesEntity().getId());
+        this.publishReleaseChanged(courseContent);
     }
 
     public void updateCourseContentModule(String courseContentId, UpdateCourseContentModuleDTO updateCourseContentModuleDTO) {
@@ -122,57 +203,64 @@ public class CoursesContentsService {
         courseContent.setContentModule(updateCourseContentModuleDTO.newContentModule());
 
         this.coursesContentsRepository.save(courseContent);
+
+        this.publishedContentsCache.invalidate(courseContent.getCoursesEntity().getId());
     }
 
+    @Transactional(readOnly = true)
     public List<CourseContentResponseDTO> getCourseContentsCreatedByCreatorUser(String courseId) {
         this.verifyCreatorUserIdAuthenticatedMatchesCourseOwnerId(courseId);
 
-        return this.getAllCourseContentsByCourseId(courseId).stream().map(coursesContentsEntity ->
-                new CourseContentResponseDTO(
-                        coursesContentsEntity.getId(),
-                        coursesContentsEntity.getDescription(),
-                        coursesContentsEntity.getVideoUrl(),
-                        coursesContentsEntity.getStatus(),
-                        coursesContentsEntity.getReleaseDate(),
-                        coursesContentsEntity.getContentModule(),
-                        coursesContentsEntity.getCreatedAt()
-                )).toList();
+        return this.coursesContentsRepository.findAllResponsesByCourseId(courseId);
     }
 
-    private List<CoursesContentsEntity> getAllCourseContentsByCourseId(String courseId) {
-        return this.coursesContentsRepository.findAllByCoursesEntityId(courseId);
-    }
+    @Transactional(readOnly = true)
+    public List<CourseContentResponseDTO> getPublishedContentsForSubscribedUser(String courseId) {
+        UsersEntity user = this.usersService.getAuthenticatedUser();
 
-    public void ensureUserIsSubscribed(String userId, String courseId) {
-        this.enrollmentsService.getEnrollmentByUserIdAndCourseId(userId, courseId).orElseThrow(() -> new EnrollmentNotFoundException("Enrollment does not exist"));
+        this.enrollmentMembershipService.ensureUserIsSubscribed(user.getId(), courseId);
+
+        return this.publishedContentsCache.get(courseId, id -> this.coursesContentsRepository.findAllResponsesByCourseIdAndStatus(id, "PUBLISHED"));
     }
 
-    public List<CourseContentResponseDTO> getPublishedContentsForSubscribedUser(String courseId) {
+    // Contents are walked in publication order ( oldest first ), unlike the course listings
+    @Transactional(readOnly = true)
+    public CursorPage<CourseContentResponseDTO> getPublishedContentsForSubscribedUserPage(String courseId, String cursor, Integer limit) {
         UsersEntity user = this.usersService.getAuthenticatedUser();
 
-        this.ensureUserIsSubscribed(user.getId(), courseId);
+        this.enrollmentMembershipService.ensureUserIsSubscribed(user.getId(), courseId);
+
+        KeysetCursor position = KeysetCursor.decodeOrDefault(cursor, KeysetCursor.OLDEST_FIRST_START);
+        int pageSize = this.pageSizeResolver.resolve(limit);
+
+        List<CourseContentResponseDTO> contents = this.coursesContentsRepository.findResponsesByCourseIdAndStatusCreatedAfter(
+                courseId, "PUBLISHED", position.createdAt(), position.id(), PageRequest.ofSize(pageSize + 1)
+        );
 
-        return this.getAllPublishedContentsByCourseIdAndStatus(courseId).stream().map(coursesContentsEntity ->
-                new CourseContentResponseDTO(
-                        coursesContentsEntity.getId(),
-                        coursesContentsEntity.getDescription(),
-                        coursesContentsEntity.getVideoUrl(),
-                        coursesContentsEntity.getStatus(),
-                        coursesContentsEntity.getReleaseDate(),
-                        coursesContentsEntity.getContentModule(),
-                        coursesContentsEntity.getCreatedAt()
-                )).toList();
+        return CursorPage.of(contents, pageSize, content -> new KeysetCursor(content.createdAt(), content.id()), Function.identity());
     }
 
-    private List<CoursesContentsEntity> getAllPublishedContentsByCourseIdAndStatus(String courseId) {
-        return this.coursesContentsRepository.findAllByCoursesEntityIdAndStatus(courseId, "PUBLISHED");
+    // Bulk updates do not say which courses they touched, so the whole cache goes when anything was published
+    @Transactional
+    public int publishDueContents(LocalDate today, int batchSize) {
+        int published = this.coursesContentsRepository.publishDueContents("PENDING", "PUBLISHED", today, batchSize);
+
+        if (published > 0) this.publishedContentsCache.invalidateAll();
+
+        return published;
     }
 
-    public List<CoursesContentsEntity> saveAllCoursesContents(List<CoursesContentsEntity> coursesContents) {
-        return this.coursesContentsRepository.saveAll(coursesContents);
+    @Transactional(readOnly = true)
+    public List<CourseContentReleaseDTO> getPendingContentReleases() {
+        return this.coursesContentsRepository.findAllReleasesByStatus("PENDING");
     }
 
-    public List<CoursesContentsEntity> getAllCoursesContentsByPendingStatus(String pendingStatus) {
-        return this.coursesContentsRepository.findAllByStatus(pendingStatus);
+    @Transactional
+    public int publishContents(Collection<String> courseContentIds, LocalDate today) {
+        int published = this.coursesContentsRepository.publishContentsByIds(courseContentIds, "PENDING", "PUBLISHED", today);
+
+        if (published > 0) this.publishedContentsCache.invalidateAll();
+
+        return published;
     }
 }
@@ -1,31 +1,47 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
 import com.miguelsperle.teach_crafter.exceptions.general.TaskDeniedException;
+import com.miguelsperle.teach_crafter.infra.pagination.CursorPage;
+import com.miguelsperle.teach_crafter.infra.pagination.KeysetCursor;
+import com.miguelsperle.teach_crafter.infra.pagination.PageSizeResolver;
 import com.miguelsperle.teach_crafter.modules.users.dtos.courses.*;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.CoursesEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.exceptions.CourseNotFoundException;
-import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.EnrollmentsEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 import com.miguelsperle.teach_crafter.modules.users.repositories.CoursesRepository;
+import com.miguelsperle.teach_crafter.modules.users.services.search.CourseSearchEngine;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Service
 public class CoursesService {
+    private static final int SUMMARIES_CHUNK_SIZE = 1000;
+
     private final CoursesRepository coursesRepository;
     private final UsersService usersService;
     private final EnrollmentsCoursesManager enrollmentsCoursesManager;
+    private final CourseSearchEngine courseSearchEngine;
+    private final PageSizeResolver pageSizeResolver;
 
     public CoursesService(
             final CoursesRepository coursesRepository,
             final UsersService usersService,
-            final EnrollmentsCoursesManager enrollmentsCoursesManager
+            final EnrollmentsCoursesManager enrollmentsCoursesManager,
+            final CourseSearchEngine courseSearchEngine,
+            final PageSizeResolver pageSizeResolver
     ) {
         this.coursesRepository = coursesRepository;
         this.usersService = usersService;
         this.enrollmentsCoursesManager = enrollmentsCoursesManager;
+        this.courseSearchEngine = courseSearchEngine;
+        this.pageSizeResolver = pageSizeResolver;
     }
 
     public CoursesEntity createCourse(CreateCourseDTO createCourseDTO) {
@@ -91,27 +107,12 @@ public class CoursesService {
         }
     }
 
+    // Listings are read from DTO projections in read-only transactions, so no entity is kept around for dirty checking
+    @Transactional(readOnly = true)
     public List<CourseResponseDTO> getAllCoursesCreatedByCreatorUser() {
         UsersEntity user = this.usersService.getAuthenticatedUser();
 
-        return this.getAllCoursesByCreatorUserId(user.getId()).stream().map(coursesEntity -> {
-            List<EnrollmentsEntity> enrollments = this.enrollmentsCoursesManager.getAllEnrollmentsByCourseId(coursesEntity.getId());
-
-            int numberAvailableSpots = Math.max(0, coursesEntity.getMaximumAttendees() - enrollments.size());
-
-            int amountEnrollment = enrollments.size();
-
-            return new CourseResponseDTO(
-                    coursesEntity.getId(),
-                    coursesEntity.getName(),
-                    coursesEntity.getDescription(),
-                    coursesEntity.getMaximumAttendees(),
-                    numberAvailableSpots,
-                    amountEnrollment,
-                    coursesEntity.getCreatedAt(),
-                    coursesEntity.getUsersEntity().getName()
-            );
-        }).toList();
+        return this.coursesRepository.findAllWithEnrollmentCountByUsersEntityId(user.getId()).stream().map(this::toCourseResponseDTO).toList();
     }
 
     public void deactivateCourse(String courseId) {
@@ -120,41 +121,97 @@ public class CoursesService {
         this.coursesRepository.deleteById(courseId);
     }
 
-    private List<CoursesEntity> getAllCoursesByDescriptionKeyword(String description_keyword) {
-        return this.coursesRepository.findByDescriptionContainingIgnoreCase(description_keyword);
+    // Without page and size every match is returned, as before paging was added; only clients that ask for a page get one
+    @Transactional(readOnly = true)
+    public List<CourseResponseDTO> getCourses(String description_keyword, Integer page, Integer size) {
+        Pageable pageable = page == null && size == null
+                ? Pageable.unpaged()
+                : PageRequest.of(page == null ? 0 : Math.max(0, page), this.pageSizeResolver.resolve(size));
+
+        List<String> courseIds = description_keyword.isBlank()
+                ? this.coursesRepository.findAllIdsOrderByCreatedAtDesc(pageable)
+                : this.courseSearchEngine.searchCourseIds(description_keyword.trim(), pageable);
+
+        // The search decides the order, the summaries are only loaded for the requested page
+        return this.getCoursesWithEnrollmentCountInOrder(courseIds).stream().map(this::toCourseResponseDTO).toList();
     }
 
-    public List<CourseResponseDTO> getCourses(String description_keyword) {
-        return this.getAllCoursesByDescriptionKeyword(description_keyword).stream().map(coursesEntity -> {
-            List<EnrollmentsEntity> enrollments = this.enrollmentsCoursesManager.getAllEnrollmentsByCourseId(coursesEntity.getId());
+    // Keyset pages are ordered newest first instead of by relevance, so the position is just ( created_at, id )
+    @Transactional(readOnly = true)
+    public CursorPage<CourseResponseDTO> getCoursesPage(String description_keyword, String cursor, Integer limit) {
+        KeysetCursor position = KeysetCursor.decodeOrDefault(cursor, KeysetCursor.NEWEST_FIRST_START);
+        int pageSize = this.pageSizeResolver.resolve(limit);
+        Pageable pageable = PageRequest.ofSize(pageSize + 1);
 
-            int numberAvailableSpots = Math.max(0, coursesEntity.getMaximumAttendees() - enrollments.size());
+        List<String> courseIds = description_keyword.isBlank()
+                ? this.coursesRepository.findIdsCreatedBefore(position.createdAt(), position.id(), pageable)
+                : this.courseSearchEngine.searchCourseIdsCreatedBefore(description_keyword.trim(), position, pageable);
 
-            int amountEnrollment = enrollments.size();
+        List<CourseWithEnrollmentCountDTO> courses = this.getCoursesWithEnrollmentCountInOrder(courseIds);
 
-            return new CourseResponseDTO(
-                    coursesEntity.getId(),
-                    coursesEntity.getName(),
-                    coursesEntity.getDescription(),
-                    coursesEntity.getMaximumAttendees(),
-                    numberAvailableSpots,
-                    amountEnrollment,
-                    coursesEntity.getCreatedAt(),
-                    coursesEntity.getUsersEntity().getName()
-            );
-        }).toList();
+        return CursorPage.of(courses, pageSize, course -> new KeysetCursor(course.createdAt(), course.id()), this::toCourseResponseDTO);
     }
 
+    // An unpaged listing can hold more ids than a statement takes as parameters, so the summaries are loaded in chunks
+    private List<CourseWithEnrollmentCountDTO> getCoursesWithEnrollmentCountInOrder(List<String> courseIds) {
+        if (courseIds.isEmpty()) return List.of();
+
+        Map<String, CourseWithEnrollmentCountDTO> coursesById = new HashMap<>();
+
+        for (int from = 0; from < courseIds.size(); from += SUMMARIES_CHUNK_SIZE) {
+            List<String> chunk = courseIds.subList(from, Math.min(from + SUMMARIES_CHUNK_SIZE, courseIds.size()));
+
+            this.coursesRepository.findAllWithEnrollmentCountByIdIn(chunk).forEach(course -> coursesById.put(course.id(), course));
+        }
+
+        return courseIds.stream().map(coursesById::get).filter(Objects::nonNull).toList();
+    }
+
+    // The enrollment count comes from the enrolled_count column, so no enrollment entity is loaded to build the listing
+    private CourseResponseDTO toCourseResponseDTO(CourseWithEnrollmentCountDTO course) {
+        int amountEnrollment = course.amountEnrollment();
+
+        int numberAvailableSpots = Math.max(0, course.maximumAttendees() - amountEnrollment);
+
+        return new CourseResponseDTO(
+                course.id(),
+                course.name(),
+                course.description(),
+                course.maximumAttendees(),
+                numberAvailableSpots,
+                amountEnrollment,
+                course.createdAt(),
+                course.createdBy()
+        );
+    }
+
+    @Transactional(readOnly = true)
     public List<CoursesSubscribedResponseDTO> getCoursesByUserEnrollments() {
         UsersEntity user = this.usersService.getAuthenticatedUser();
 
-        return this.enrollmentsCoursesManager.getAllEnrollmentsByUserId(user.getId()).stream().map(enrollmentEntity -> new CoursesSubscribedResponseDTO(
-                enrollmentEntity.getCoursesEntity().getId(),
-                enrollmentEntity.getCoursesEntity().getName(),
-                enrollmentEntity.getCoursesEntity().getDescription(),
-                enrollmentEntity.getCoursesEntity().getCreatedAt(),
-                enrollmentEntity.getCreatedAt(),
-                enrollmentEntity.getCoursesEntity().getUsersEntity().getName()
-        )).toList();
+        return this.enrollmentsCoursesManager.getAllCourseSubscriptionsByUserId(user.getId()).stream().map(this::toCoursesSubscribedResponseDTO).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<CoursesSubscribedResponseDTO> getCoursesByUserEnrollmentsPage(String cursor, Integer limit) {
+        UsersEntity user = this.usersService.getAuthenticatedUser();
+
+        KeysetCursor position = KeysetCursor.decodeOrDefault(cursor, KeysetCursor.NEWEST_FIRST_START);
+        int pageSize = this.pageSizeResolver.resolve(limit);
+
+        List<CourseSubscriptionDTO> subscriptions = this.enrollmentsCoursesManager.getCourseSubscriptionsByUserIdCreatedBefore(user.getId(), position, pageSize + 1);
+
+        return CursorPage.of(subscriptions, pageSize, subscription -> new KeysetCursor(subscription.enrollmentCreatedAt(), subscription.enrollmentId()), this::toCoursesSubscribedResponseDTO);
+    }
+
+    private CoursesSubscribedResponseDTO toCoursesSubscribedResponseDTO(CourseSubscriptionDTO subscription) {
+        return new CoursesSubscribedResponseDTO(
+                subscription.id(),
+                subscription.name(),
+                subscription.description(),
+                subscription.createdAt(),
+                subscription.enrollmentCreatedAt(),
+                subscription.createdBy()
+        );
     }
 }
@@ -0,0 +1,124 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miguelsperle.teach_crafter.infra.security.EmailVariablesCipher;
+import com.miguelsperle.teach_crafter.modules.users.entities.emailOutbox.EmailOutboxEntity;
+import com.miguelsperle.teach_crafter.modules.users.repositories.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class EmailOutboxService {
+    public static final String PENDING_STATUS = "PENDING";
+    public static final String SENDING_STATUS = "SENDING";
+    public static final String SENT_STATUS = "SENT";
+    public static final String DEAD_STATUS = "DEAD";
+
+    // SENDING rows whose lease expired belong to a dispatcher that died mid batch and are picked up again
+    private static final List<String> CLAIMABLE_STATUSES = List.of(PENDING_STATUS, SENDING_STATUS);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ObjectMapper objectMapper;
+    private final EmailVariablesCipher emailVariablesCipher;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    public EmailOutboxService(
+            final EmailOutboxRepository emailOutboxRepository,
+            final ObjectMapper objectMapper,
+            final EmailVariablesCipher emailVariablesCipher,
+            @Value("${api.mail.outbox.max-attempts:8}") final int maxAttempts,
+            @Value("${api.mail.outbox.initial-backoff:30s}") final Duration initialBackoff,
+            @Value("${api.mail.outbox.max-backoff:1h}") final Duration maxBackoff,
+            @Value("${api.mail.outbox.lease:5m}") final Duration lease
+    ) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.objectMapper = objectMapper;
+        this.emailVariablesCipher = emailVariablesCipher;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+    }
+
+    // Joins the caller's transaction, so the email only exists if whatever it announces was committed too
+    @Transactional(propagation = Propagation.MANDATORY)
+    public EmailOutboxEntity enqueue(String recipient, String subject, String template, Map<String, String> variables) {
+        EmailOutboxEntity newEmail = new EmailOutboxEntity();
+
+        newEmail.setRecipient(recipient);
+        newEmail.setSubject(subject);
+        newEmail.setTemplate(template);
+        newEmail.setVariables(this.writeVariables(variables));
+        newEmail.setStatus(PENDING_STATUS);
+        newEmail.setNextAttemptAt(LocalDateTime.now());
+
+        return this.emailOutboxRepository.save(newEmail);
+    }
+
+    @Transactional
+    public List<EmailOutboxEntity> claimDueEmails(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseExpiresAt = now.plus(this.lease);
+
+        return this.emailOutboxRepository.findAllDue(CLAIMABLE_STATUSES, now, PageRequest.ofSize(batchSize)).stream()
+                .filter(email -> this.emailOutboxRepository.claim(email.getId(), CLAIMABLE_STATUSES, SENDING_STATUS, now, leaseExpiresAt) == 1)
+                .toList();
+    }
+
+    @Transactional
+    public void markSent(EmailOutboxEntity email) {
+        this.emailOutboxRepository.markSent(email.getId(), SENT_STATUS, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void markFailed(EmailOutboxEntity email, String error) {
+        int attempts = email.getAttempts() + 1;
+
+        String status = attempts >= this.maxAttempts ? DEAD_STATUS : PENDING_STATUS;
+
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+
+        this.emailOutboxRepository.markFailed(email.getId(), status, attempts, LocalDateTime.now().plus(this.backoffFor(attempts)), lastError);
+
+        if (status.equals(DEAD_STATUS)) this.emailOutboxRepository.clearVariables(email.getId());
+    }
+
+    // 30s, 1m, 2m, 4m ... capped at maxBackoff
+    Duration backoffFor(int attempts) {
+        Duration backoff = this.initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+
+        return backoff.compareTo(this.maxBackoff) > 0 ? this.maxBackoff : backoff;
+    }
+
+    public Map<String, String> readVariables(EmailOutboxEntity email) {
+        if (email.getVariables() == null) return Map.of();
+
+        try {
+            return this.objectMapper.readValue(this.emailVariablesCipher.decrypt(email.getVariables()), new TypeReference<>() {});
+        } catch (JsonProcessingException exception) {
+            throw new RuntimeException("Error while reading email variables", exception);
+        }
+    }
+
+    private String writeVariables(Map<String, String> variables) {
+        try {
+            return this.emailVariablesCipher.encrypt(this.objectMapper.writeValueAsString(variables));
+        } catch (JsonProcessingException exception) {
+            throw new RuntimeException("Error while writing email variables", exception);
+        }
+    }
+}
@@ -5,35 +5,38 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.spring6.SpringTemplateEngine;
-import org.thymeleaf.context.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 public class EmailSenderService {
     private final JavaMailSender javaMailSender;
-    private final SpringTemplateEngine springTemplateEngine;
+    private final EmailTemplateRenderer emailTemplateRenderer;
 
     public EmailSenderService(
             final JavaMailSender javaMailSender,
-            final SpringTemplateEngine springTemplateEngine
+            final EmailTemplateRenderer emailTemplateRenderer
     ) {
         this.javaMailSender = javaMailSender;
-        this.springTemplateEngine = springTemplateEngine;
+        this.emailTemplateRenderer = emailTemplateRenderer;
     }
 
     @Value("${spring.mail.username}")
     private String mailUsername;
 
-    public void sendSimpleMessage(String to, String subject, String token) {
+    public void sendTemplateMessage(String to, String subject, String template, Map<String, String> variables) {
         try {
-            MimeMessage message = this.javaMailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+            Map<String, String> templateVariables = new HashMap<>(variables);
+            templateVariables.put("email", to);
 
-            Context context = new Context();
-            context.setVariable("email", to);
-            context.setVariable("token", token);
+            String processTemplate = this.emailTemplateRenderer.render(template + ".html", templateVariables);
+
+            MimeMessage message = this.javaMailSender.createMimeMessage();
 
-            String processTemplate = this.springTemplateEngine.process("resetPasswordTemplate.html", context);
+            // There are no attachments, so a single html part is enough
+            MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
 
             helper.setFrom(this.mailUsername);
             helper.setTo(to);
@@ -0,0 +1,171 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import org.springframework.stereotype.Service;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ITemplateResolver;
+import org.thymeleaf.templateresolver.TemplateResolution;
+import org.unbescape.html.HtmlEscape;
+import org.unbescape.uri.UriEscape;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+public class EmailTemplateRenderer {
+    // A placeholder comes out of Thymeleaf as "__tcvar_name 0__" in text and attributes and as "__tcvar_name%200__" inside link parameters,
+    // which tells every occurrence apart so it gets the same escaping Thymeleaf would have applied
+    private static final String PLACEHOLDER_PREFIX = "__tcvar_";
+    private static final String PLACEHOLDER_SUFFIX = " 0__";
+    private static final Pattern PLACEHOLDER = Pattern.compile("__tcvar_(\\w+?)( |%20)0__");
+
+    // Only attributes that print a variable where it stands can be precompiled; conditionals, loops, fragments and inlining
+    // decide the markup from the values, which one sample render cannot show
+    private static final Set<String> PRECOMPILABLE_ATTRIBUTES = Set.of("text", "href", "src", "alt", "title", "value");
+    private static final Pattern ATTRIBUTE = Pattern.compile("(?<![\\w-])(?:th:|data-th-)([\\w-]+)");
+    private static final Pattern VARIABLE_EXPRESSION = Pattern.compile("\\$\\{([^}]*)}");
+    private static final Pattern OTHER_EXPRESSION = Pattern.compile("[*#~]\\{|\\[\\[|\\[\\(");
+
+    private final SpringTemplateEngine springTemplateEngine;
+    private final Map<String, CompiledTemplate> compiledTemplates = new ConcurrentHashMap<>();
+
+    public EmailTemplateRenderer(final SpringTemplateEngine springTemplateEngine) {
+        this.springTemplateEngine = springTemplateEngine;
+    }
+
+    public String render(String template, Map<String, String> variables) {
+        String key = template + variables.keySet().stream().sorted().toList();
+
+        CompiledTemplate compiledTemplate = this.compiledTemplates.get(key);
+
+        if (compiledTemplate == null) {
+            compiledTemplate = this.compile(template, variables);
+
+            this.compiledTemplates.putIfAbsent(key, compiledTemplate);
+        }
+
+        return compiledTemplate.precompiled() ? compiledTemplate.render(variables) : this.process(template, variables);
+    }
+
+    private CompiledTemplate compile(String template, Map<String, String> variables) {
+        String source = this.readSource(template);
+
+        if (source == null || !isPrecompilable(source)) {
+            return new CompiledTemplate(List.of(), false);
+        }
+
+        Map<String, String> placeholders = new HashMap<>();
+        variables.keySet().forEach(name -> placeholders.put(name, PLACEHOLDER_PREFIX + name + PLACEHOLDER_SUFFIX));
+
+        String skeleton = this.process(template, placeholders);
+
+        List<Segment> segments = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(skeleton);
+        int staticStart = 0;
+
+        while (matcher.find()) {
+            segments.add(Segment.text(skeleton.substring(staticStart, matcher.start())));
+            segments.add(Segment.variable(matcher.group(1), matcher.group(2).equals("%20")));
+
+            staticStart = matcher.end();
+        }
+
+        segments.add(Segment.text(skeleton.substring(staticStart)));
+
+        CompiledTemplate compiledTemplate = new CompiledTemplate(List.copyOf(segments), true);
+
+        // Second guard for what the source check lets through, e.g. an escaping the segments do not reproduce
+        if (!compiledTemplate.render(variables).equals(this.process(template, variables))) {
+            return new CompiledTemplate(List.of(), false);
+        }
+
+        return compiledTemplate;
+    }
+
+    // Expressions must be bare variable names, anything else ( utility objects, operators, conditionals ) may change with the values
+    private static boolean isPrecompilable(String source) {
+        Matcher attributes = ATTRIBUTE.matcher(source);
+
+        while (attributes.find()) {
+            if (!PRECOMPILABLE_ATTRIBUTES.contains(attributes.group(1))) return false;
+        }
+
+        Matcher expressions = VARIABLE_EXPRESSION.matcher(source);
+
+        while (expressions.find()) {
+            if (!expressions.group(1).strip().matches("\\w+")) return false;
+        }
+
+        return !OTHER_EXPRESSION.matcher(source).find();
+    }
+
+    private String readSource(String template) {
+        IEngineConfiguration configuration = this.springTemplateEngine.getConfiguration();
+
+        for (ITemplateResolver templateResolver : configuration.getTemplateResolvers()) {
+            TemplateResolution resolution = templateResolver.resolveTemplate(configuration, null, template, null);
+
+            if (resolution == null || !resolution.getTemplateResource().exists()) continue;
+
+            try (Reader reader = resolution.getTemplateResource().reader()) {
+                StringWriter source = new StringWriter();
+                reader.transferTo(source);
+
+                return source.toString();
+            } catch (IOException exception) {
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    private String process(String template, Map<String, String> variables) {
+        Context context = new Context();
+        variables.forEach(context::setVariable);
+
+        return this.springTemplateEngine.process(template, context);
+    }
+
+    private record Segment(String text, String variable, boolean linkParameter) {
+        static Segment text(String text) {
+            return new Segment(text, null, false);
+        }
+
+        static Segment variable(String variable, boolean linkParameter) {
+            return new Segment(null, variable, linkParameter);
+        }
+    }
+
+    private record CompiledTemplate(List<Segment> segments, boolean precompiled) {
+        String render(Map<String, String> variables) {
+            StringBuilder rendered = new StringBuilder(4096);
+
+            for (Segment segment : this.segments) {
+                if (segment.variable() == null) {
+                    rendered.append(segment.text());
+                    continue;
+                }
+
+                String value = Objects.requireNonNullElse(variables.get(segment.variable()), "");
+
+                if (segment.linkParameter()) value = UriEscape.escapeUriQueryParam(value);
+
+                rendered.append(HtmlEscape.escapeHtml4Xml(value));
+            }
+
+            return rendered.toString();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miguelsperle.teach_crafter.infra.transaction.AfterCommit;
+import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.exceptions.EnrollmentNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.repositories.EnrollmentsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+@Service
+public class EnrollmentMembershipService {
+    private final EnrollmentsRepository enrollmentsRepository;
+    private final Cache<Membership, Boolean> memberships;
+
+    public EnrollmentMembershipService(
+            final EnrollmentsRepository enrollmentsRepository,
+            final MeterRegistry meterRegistry,
+            @Value("${api.enrollments.membership-cache.maximum-size:100000}") final long maximumSize,
+            @Value("${api.enrollments.membership-cache.ttl:30s}") final Duration ttl
+    ) {
+        this.enrollmentsRepository = enrollmentsRepository;
+
+        this.memberships = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.memberships, "enrollment_memberships");
+    }
+
+    // Only memberships are cached, a user who just subscribed through another replica is never turned away by a stale "no"
+    // A "yes" can outlive an unsubscription made through another replica for up to the ttl, so it only authorizes reads and the ttl is kept short
+    public boolean isSubscribed(String userId, String courseId) {
+        return this.memberships.get(new Membership(userId, courseId),
+                membership -> this.enrollmentsRepository.existsByUsersEntityIdAndCoursesEntityId(membership.userId(), membership.courseId()) ? Boolean.TRUE : null) != null;
+    }
+
+    // Enrolling and unsubscribing ask the database, and a "no" there also drops a stale "yes" left on this replica
+    public boolean isSubscribedInDatabase(String userId, String courseId) {
+        boolean subscribed = this.enrollmentsRepository.existsByUsersEntityIdAndCoursesEntityId(userId, courseId);
+
+        if (!subscribed) this.memberships.invalidate(new Membership(userId, courseId));
+
+        return subscribed;
+    }
+
+    public void ensureUserIsSubscribed(String userId, String courseId) {
+        if (!this.isSubscribed(userId, courseId)) {
+            throw new EnrollmentNotFoundException("Enrollment does not exist");
+        }
+    }
+
+    public void subscribed(String userId, String courseId) {
+        AfterCommit.run(() -> this.memberships.put(new Membership(userId, courseId), Boolean.TRUE));
+    }
+
+    public void unsubscribed(String userId, String courseId) {
+        AfterCommit.run(() -> this.memberships.invalidate(new Membership(userId, courseId)));
+    }
+
+    private record Membership(String userId, String courseId) {
+    }
+}
@@ -1,13 +1,17 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
+import com.miguelsperle.teach_crafter.infra.pagination.KeysetCursor;
+import com.miguelsperle.teach_crafter.modules.users.dtos.courses.CourseSubscriptionDTO;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.CoursesEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.exceptions.CourseNotFoundException;
-import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.EnrollmentsEntity;
 import com.miguelsperle.teach_crafter.modules.users.repositories.CoursesRepository;
 import com.miguelsperle.teach_crafter.modules.users.repositories.EnrollmentsRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class EnrollmentsCoursesManager {
@@ -26,11 +30,43 @@ public class EnrollmentsCoursesManager {
         return this.coursesRepository.findById(courseId).orElseThrow(() -> new CourseNotFoundException("Course not found"));
     }
 
-    public List<EnrollmentsEntity> getAllEnrollmentsByCourseId(String courseId) {
-        return this.enrollmentsRepository.findAllByCoursesEntityId(courseId);
+    public List<CourseSubscriptionDTO> getAllCourseSubscriptionsByUserId(String userId) {
+        return this.enrollmentsRepository.findAllCourseSubscriptionsByUserId(userId);
     }
 
-    public List<EnrollmentsEntity> getAllEnrollmentsByUserId(String userId) {
-        return this.enrollmentsRepository.findAllByUsersEntityId(userId);
+    public List<CourseSubscriptionDTO> getCourseSubscriptionsByUserIdCreatedBefore(String userId, KeysetCursor cursor, int limit) {
+        return this.enrollmentsRepository.findCourseSubscriptionsByUserIdCreatedBefore(userId, cursor.createdAt(), cursor.id(), PageRequest.ofSize(limit));
+    }
+
+    // Check and reservation happen in one conditional UPDATE, so concurrent enrollments cannot oversubscribe a course
+    @Transactional
+    public boolean reserveCourseSpot(String courseId) {
+        return this.coursesRepository.incrementEnrolledCountIfSpotAvailable(courseId) > 0;
+    }
+
+    @Transactional
+    public void releaseCourseSpot(String courseId) {
+        this.coursesRepository.decrementEnrolledCount(courseId);
+    }
+
+    public List<String> getCourseIdsWithEnrolledCountDrift() {
+        return this.coursesRepository.findIdsWithEnrolledCountDrift();
+    }
+
+    // The course row is locked before counting. An enrollment in flight holds the same lock through its conditional UPDATE, so the
+    // count taken once the lock is granted already includes it instead of writing back the count from before it committed
+    @Transactional
+    public boolean reconcileEnrolledCount(String courseId) {
+        Optional<CoursesEntity> course = this.coursesRepository.findByIdForUpdate(courseId);
+
+        if (course.isEmpty()) return false;
+
+        int enrolledCount = (int) this.enrollmentsRepository.countByCoursesEntityId(courseId);
+
+        if (course.get().getEnrolledCount() == enrolledCount) return false;
+
+        this.coursesRepository.updateEnrolledCount(courseId, enrolledCount);
+
+        return true;
     }
 }
@@ -4,50 +4,54 @@ import com.miguelsperle.teach_crafter.exceptions.general.TaskDeniedException;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.CoursesEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.EnrollmentsEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.exceptions.EnrollmentAlreadyExistsException;
-import com.miguelsperle.teach_crafter.modules.users.entities.courses.exceptions.NoAvailableSpotsException;
 import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.exceptions.EnrollmentNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.entities.courses.exceptions.NoAvailableSpotsException;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 import com.miguelsperle.teach_crafter.modules.users.repositories.EnrollmentsRepository;
-import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 
 @Service
 public class EnrollmentsService {
     private final EnrollmentsRepository enrollmentsRepository;
     private final UsersService usersService;
     private final EnrollmentsCoursesManager enrollmentsCoursesManager;
+    private final EnrollmentMembershipService enrollmentMembershipService;
 
     public EnrollmentsService(
             final EnrollmentsRepository enrollmentsRepository,
             final UsersService usersService,
-            final EnrollmentsCoursesManager enrollmentsCoursesManager
+            final EnrollmentsCoursesManager enrollmentsCoursesManager,
+            final EnrollmentMembershipService enrollmentMembershipService
     ) {
         this.enrollmentsRepository = enrollmentsRepository;
         this.usersService = usersService;
         this.enrollmentsCoursesManager = enrollmentsCoursesManager;
+        this.enrollmentMembershipService = enrollmentMembershipService;
     }
 
-    private List<EnrollmentsEntity> getAllEnrollmentsByCourseId(String courseId) {
-        return this.enrollmentsRepository.findAllByCoursesEntityId(courseId);
-    }
-
+    @Transactional
     public EnrollmentsEntity createCourseEnrollment(String courseId) {
         EnrollmentsEntity newEnrollment = new EnrollmentsEntity();
 
         this.ensureUserIsNotCourseOwner(courseId);
 
-        this.verifyAvailableSpots(courseId);
-
         this.verifyEnrollmentExistsForTheCourse(courseId);
 
-        newEnrollment.setUsersEntity(this.usersService.getAuthenticatedUser());
+        this.reserveAvailableSpot(courseId);
+
+        UsersEntity user = this.usersService.getAuthenticatedUser();
+
+        newEnrollment.setUsersEntity(user);
         newEnrollment.setCoursesEntity(this.enrollmentsCoursesManager.getCourseById(courseId));
 
-        return this.enrollmentsRepository.save(newEnrollment);
+        EnrollmentsEntity enrollmentSaved = this.enrollmentsRepository.save(newEnrollment);
+
+        this.enrollmentMembershipService.subscribed(user.getId(), courseId);
+
+        return enrollmentSaved;
     }
 
     private void ensureUserIsNotCourseOwner(String courseId) {
@@ -60,12 +64,8 @@ public class EnrollmentsService {
         }
     }
 
-    private void verifyAvailableSpots(String courseId) {
-        List<EnrollmentsEntity> enrollments = this.getAllEnrollmentsByCourseId(courseId);
-
-        CoursesEntity course = this.enrollmentsCoursesManager.getCourseById(courseId);
-
-        if (Objects.equals(course.getMaximumAttendees() - enrollments.size(), 0)) {
+    private void reserveAvailableSpot(String courseId) {
+        if (!this.enrollmentsCoursesManager.reserveCourseSpot(courseId)) {
             throw new NoAvailableSpotsException("No available spots");
         }
     }
@@ -73,26 +73,23 @@ public class EnrollmentsService {
     private void verifyEnrollmentExistsForTheCourse(String courseId) {
         UsersEntity user = this.usersService.getAuthenticatedUser();
 
-        Optional<EnrollmentsEntity> enrollment = this.getEnrollmentByUserIdAndCourseId(user.getId(), courseId);
-
-        if (enrollment.isPresent())
+        if (this.enrollmentMembershipService.isSubscribedInDatabase(user.getId(), courseId))
             throw new EnrollmentAlreadyExistsException("You have already subscribed in this course");
     }
 
-    public Optional<EnrollmentsEntity> getEnrollmentByUserIdAndCourseId(String userId, String courseId) {
-        return this.enrollmentsRepository.findByUsersEntityIdAndCoursesEntityId(userId, courseId);
-    }
-
     @Transactional
     public void deleteCourseEnrollment(String courseId) {
         UsersEntity user = this.usersService.getAuthenticatedUser();
 
-        this.ensureUserIsSubscribed(user.getId(), courseId);
+        if (!this.enrollmentMembershipService.isSubscribedInDatabase(user.getId(), courseId))
+            throw new EnrollmentNotFoundException("Enrollment does not exist");
 
-        this.enrollmentsRepository.deleteByUsersEntityIdAndCoursesEntityId(user.getId(), courseId);
-    }
+        long enrollmentsDeleted = this.enrollmentsRepository.deleteByUsersEntityIdAndCoursesEntityId(user.getId(), courseId);
 
-    public void ensureUserIsSubscribed(String userId, String courseId) {
-        this.getEnrollmentByUserIdAndCourseId(userId, courseId).orElseThrow(() -> new EnrollmentNotFoundException("Enrollment does not exist"));
+        this.enrollmentMembershipService.unsubscribed(user.getId(), courseId);
+
+        if (enrollmentsDeleted > 0) {
+            this.enrollmentsCoursesManager.releaseCourseSpot(courseId);
+        }
     }
 }
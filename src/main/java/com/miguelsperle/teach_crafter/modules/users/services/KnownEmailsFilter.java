@@ -0,0 +1,179 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.miguelsperle.teach_crafter.modules.users.repositories.UsersRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter of every email in the users table, so a login for an email that was never registered is answered without a query.
+// It can answer "maybe" for an unknown email, but never "no" for a known one: until the first load finishes everything is a maybe,
+// rows written on this node are added as they are flushed ( KnownEmailsListener ) and rows written by other nodes are picked up by the periodic refresh.
+// A "no" is only trusted while the last refresh is younger than the maximum staleness, otherwise the filter catches up first, so an email
+// registered on another node is rejected here for at most that long
+@Component
+public class KnownEmailsFilter {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final UsersRepository usersRepository;
+    private final long expectedEmails;
+    private final Duration refreshOverlap;
+    private final Duration maximumStaleness;
+    private final Counter absentEmails;
+    private final Counter possibleEmails;
+
+    private volatile Bits bits;
+    private volatile LocalDateTime lastRefreshedAt;
+
+    public KnownEmailsFilter(
+            final UsersRepository usersRepository,
+            final MeterRegistry meterRegistry,
+            @Value("${api.security.known-emails.expected-emails:1000000}") final long expectedEmails,
+            @Value("${api.security.known-emails.refresh-overlap:1m}") final Duration refreshOverlap,
+            @Value("${api.security.known-emails.maximum-staleness:1s}") final Duration maximumStaleness
+    ) {
+        this.usersRepository = usersRepository;
+        this.expectedEmails = expectedEmails;
+        this.refreshOverlap = refreshOverlap;
+        this.maximumStaleness = maximumStaleness;
+
+        this.absentEmails = Counter.builder("known_emails.checks").tag("result", "absent").register(meterRegistry);
+        this.possibleEmails = Counter.builder("known_emails.checks").tag("result", "maybe").register(meterRegistry);
+    }
+
+    public boolean mightExist(String email) {
+        String normalizedEmail = normalize(email);
+        Bits current = this.bits;
+
+        boolean mightExist = current == null || current.mightContain(normalizedEmail);
+
+        if (!mightExist && this.isStale()) {
+            this.refreshIfStale();
+
+            mightExist = this.bits.mightContain(normalizedEmail);
+        }
+
+        (mightExist ? this.possibleEmails : this.absentEmails).increment();
+
+        return mightExist;
+    }
+
+    // Sized for twice the current users ( and never below the configured expectation ), so signups can double before the rate degrades
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<String> emails = this.usersRepository.findAllEmails();
+
+        Bits rebuilt = new Bits(Math.max(this.expectedEmails, emails.size() * 2L));
+        emails.forEach(email -> rebuilt.add(normalize(email)));
+
+        this.bits = rebuilt;
+        this.lastRefreshedAt = startedAt;
+
+        // Rows flushed while the load was running went into the previous bits
+        this.refresh();
+    }
+
+    // The overlap covers clocks of other nodes running behind this one
+    @Scheduled(fixedDelayString = "${api.security.known-emails.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        Bits current = this.bits;
+
+        if (current == null) return;
+
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        this.usersRepository.findEmailsUpdatedSince(this.lastRefreshedAt.minus(this.refreshOverlap)).forEach(email -> current.add(normalize(email)));
+
+        this.lastRefreshedAt = startedAt;
+    }
+
+    // Requests that find the filter stale together wait for one refresh, so a flood of unknown emails costs at most one query per staleness window
+    private synchronized void refreshIfStale() {
+        if (this.isStale()) this.refresh();
+    }
+
+    private boolean isStale() {
+        return this.lastRefreshedAt.isBefore(LocalDateTime.now().minus(this.maximumStaleness));
+    }
+
+    public void add(String email) {
+        Bits current = this.bits;
+
+        if (current != null) current.add(normalize(email));
+    }
+
+    // Case is folded so the filter stays a superset of the table whatever the email collation is
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Bits {
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+
+        private Bits(long expectedEmails) {
+            long optimalSize = (long) Math.ceil(-expectedEmails * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, (optimalSize + 63) / 64));
+            this.size = this.words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) this.size / expectedEmails * Math.log(2)));
+        }
+
+        private void add(String email) {
+            long hash = fnv1a(email);
+
+            for (int i = 0; i < this.hashes; i++) {
+                long bit = this.bit(hash, i);
+
+                this.words.getAndAccumulate((int) (bit >>> 6), 1L << bit, (word, mask) -> word | mask);
+            }
+        }
+
+        private boolean mightContain(String email) {
+            long hash = fnv1a(email);
+
+            for (int i = 0; i < this.hashes; i++) {
+                long bit = this.bit(hash, i);
+
+                if ((this.words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+            }
+
+            return true;
+        }
+
+        // The i-th position is derived from two independent hashes ( double hashing ) instead of computing one hash per position
+        private long bit(long hash, int i) {
+            return Math.floorMod(mix(hash) + i * (mix(hash ^ 0x9E3779B97F4A7C15L) | 1), this.size);
+        }
+
+        private static long fnv1a(String value) {
+            long hash = 0xCBF29CE484222325L;
+
+            for (byte character : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= character & 0xFF;
+                hash *= 0x100000001B3L;
+            }
+
+            return hash;
+        }
+
+        // Finalizer of SplitMix64, spreads the FNV bits over the whole word
+        private static long mix(long value) {
+            value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+            value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+            return value ^ (value >>> 31);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+// Every user row flushed on this node ( signup, email change or any other save ) reaches the known emails, whichever code path wrote it
+@Component
+public class KnownEmailsListener implements PostInsertEventListener, PostUpdateEventListener {
+    private final KnownEmailsFilter knownEmailsFilter;
+
+    public KnownEmailsListener(final KnownEmailsFilter knownEmailsFilter, final EntityManagerFactory entityManagerFactory) {
+        this.knownEmailsFilter = knownEmailsFilter;
+
+        EventListenerRegistry eventListenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        eventListenerRegistry.appendListeners(EventType.POST_INSERT, this);
+        eventListenerRegistry.appendListeners(EventType.POST_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        this.add(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        this.add(event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void add(Object entity) {
+        if (entity instanceof UsersEntity user && user.getEmail() != null) this.knownEmailsFilter.add(user.getEmail());
+    }
+}
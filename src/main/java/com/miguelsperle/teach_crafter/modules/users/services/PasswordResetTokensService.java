@@ -1,5 +1,8 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
+import com.miguelsperle.teach_crafter.infra.ratelimit.RateLimitStore;
+import com.miguelsperle.teach_crafter.infra.security.PasswordHashingService;
+import com.miguelsperle.teach_crafter.infra.security.ResetTokenGenerator;
 import com.miguelsperle.teach_crafter.modules.users.dtos.passwordResetTokens.CreatePasswordResetTokenDTO;
 import com.miguelsperle.teach_crafter.modules.users.dtos.passwordResetTokens.ResetPasswordUserNotLoggedDTO;
 import com.miguelsperle.teach_crafter.modules.users.entities.passwordResetTokens.PasswordResetTokensEntity;
@@ -9,35 +12,50 @@ import com.miguelsperle.teach_crafter.modules.users.entities.passwordResetTokens
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.exceptions.UserNotFoundException;
 import com.miguelsperle.teach_crafter.modules.users.repositories.PasswordResetTokensRepository;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class PasswordResetTokensService {
     private final PasswordResetTokensRepository passwordResetTokenRepository;
     private final UsersService usersService;
-    private final PasswordEncoder passwordEncoder;
-    private final EmailSenderService emailSenderService;
+    private final PasswordHashingService passwordHashingService;
+    private final EmailOutboxService emailOutboxService;
+    private final ResetTokenGenerator resetTokenGenerator;
+    private final RateLimitStore rateLimitStore;
+    private final Duration resendInterval;
+
+    private static final String PASSWORD_RESET_EMAIL_SUBJECT = "Recuperação de senha";
+    private static final String PASSWORD_RESET_EMAIL_TEMPLATE = "resetPasswordTemplate";
 
     public PasswordResetTokensService(
             final PasswordResetTokensRepository passwordResetTokenRepository,
             final UsersService usersService,
-            final PasswordEncoder passwordEncoder,
-            final EmailSenderService emailSenderService
+            final PasswordHashingService passwordHashingService,
+            final EmailOutboxService emailOutboxService,
+            final ResetTokenGenerator resetTokenGenerator,
+            final RateLimitStore rateLimitStore,
+            @Value("${api.security.reset-tokens.resend-interval:5m}") final Duration resendInterval
     ) {
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.usersService = usersService;
-        this.passwordEncoder = passwordEncoder;
-        this.emailSenderService = emailSenderService;
+        this.passwordHashingService = passwordHashingService;
+        this.emailOutboxService = emailOutboxService;
+        this.resetTokenGenerator = resetTokenGenerator;
+        this.rateLimitStore = rateLimitStore;
+        this.resendInterval = resendInterval;
     }
 
+    // The active token exception still commits, so the rotated token and its email are kept
+    @Transactional(noRollbackFor = ActivePasswordResetTokenException.class)
     public PasswordResetTokensEntity createPasswordResetToken(CreatePasswordResetTokenDTO createPasswordResetTokenDTO) {
         PasswordResetTokensEntity newPasswordResetToken = new PasswordResetTokensEntity();
 
@@ -46,11 +64,13 @@ public class PasswordResetTokensService {
 
         this.verifyPasswordResetTokenAlreadyExists(user);
 
-        newPasswordResetToken.setToken(this.genToken());
+        String token = this.resetTokenGenerator.generateToken();
+
+        newPasswordResetToken.setTokenHash(ResetTokenGenerator.digest(token));
         newPasswordResetToken.setExpiresIn(this.genExpirationDate());
         newPasswordResetToken.setUsersEntity(user);
 
-        this.sendPasswordResetTokenEmail(user, this.genToken());
+        this.sendPasswordResetTokenEmail(user, token);
 
         return this.passwordResetTokenRepository.save(newPasswordResetToken);
     }
@@ -61,15 +81,34 @@ public class PasswordResetTokensService {
         if (passwordResetToken.isPresent()) {
             if (this.isPasswordResetTokenExpired(passwordResetToken.get())) {
                 this.deleteExpiredPasswordResetToken(passwordResetToken.get());
+            } else if (this.canResendPasswordResetToken(user)) {
+                this.rotatePasswordResetToken(user, passwordResetToken.get());
+                throw new ActivePasswordResetTokenException("You have an active password reset token. A new link was sent to your email and the previous links no longer work");
             } else {
-                this.sendPasswordResetTokenEmail(user, passwordResetToken.get().getToken());
                 throw new ActivePasswordResetTokenException("You have an active password reset token. Please check your email to continue with password recovery");
             }
         }
     }
 
+    // Anyone who knows the email can ask for a resend, and each one breaks the link already in the inbox ( emails can also arrive
+    // out of order ), so the link is replaced at most once per interval, apart from the per account limit of the whole route
+    private boolean canResendPasswordResetToken(UsersEntity user) {
+        return this.rateLimitStore.tryConsume("reset_password_resend:" + user.getId(), 1, this.resendInterval).isZero();
+    }
+
+    // Only the hash of the active token is stored, so it cannot be emailed again: a new token replaces it and keeps its expiration
+    private void rotatePasswordResetToken(UsersEntity user, PasswordResetTokensEntity passwordResetToken) {
+        String token = this.resetTokenGenerator.generateToken();
+
+        passwordResetToken.setTokenHash(ResetTokenGenerator.digest(token));
+
+        this.passwordResetTokenRepository.save(passwordResetToken);
+
+        this.sendPasswordResetTokenEmail(user, token);
+    }
+
     private void sendPasswordResetTokenEmail(UsersEntity user, String token) {
-        this.emailSenderService.sendSimpleMessage(user.getEmail(), "Recuperação de senha", token);
+        this.emailOutboxService.enqueue(user.getEmail(), PASSWORD_RESET_EMAIL_SUBJECT, PASSWORD_RESET_EMAIL_TEMPLATE, Map.of("token", token));
     }
 
     private void deleteExpiredPasswordResetToken(PasswordResetTokensEntity passwordResetToken) {
@@ -91,17 +130,8 @@ public class PasswordResetTokensService {
         return Date.from(expirationTime);  // Convert Instant to date
     }
 
-    private String genToken() {
-        int tokenByteLength = 24;
-
-        byte[] randomBytes = new byte[tokenByteLength];
-        new SecureRandom().nextBytes(randomBytes);
-
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes); // 32 characters
-    }
-
     private PasswordResetTokensEntity getPasswordResetTokenByToken(String token) {
-        return this.passwordResetTokenRepository.findByToken(token).orElseThrow(() -> new PasswordResetTokenNotFoundException("Password reset token not found"));
+        return this.passwordResetTokenRepository.findByTokenHash(ResetTokenGenerator.digest(token)).orElseThrow(() -> new PasswordResetTokenNotFoundException("Password reset token not found"));
     }
 
     public void resetPasswordUserNotLogged(ResetPasswordUserNotLoggedDTO resetPasswordUserNotLoggedDTO) {
@@ -111,7 +141,7 @@ public class PasswordResetTokensService {
 
         UsersEntity user = this.usersService.getUserById(passwordResetToken.getUsersEntity().getId());
 
-        user.setPassword(this.passwordEncoder.encode(resetPasswordUserNotLoggedDTO.newPassword()));
+        user.setPassword(this.passwordHashingService.encode(resetPasswordUserNotLoggedDTO.newPassword()));
         this.deleteExpiredPasswordResetToken(passwordResetToken);
 
         this.usersService.save(user);
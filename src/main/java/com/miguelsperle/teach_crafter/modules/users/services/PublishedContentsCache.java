@@ -0,0 +1,47 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miguelsperle.teach_crafter.infra.transaction.AfterCommit;
+import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.CourseContentResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+public class PublishedContentsCache {
+    private final Cache<String, List<CourseContentResponseDTO>> publishedContents;
+
+    // The ttl only bounds how long another replica can serve a list this node has already invalidated
+    public PublishedContentsCache(
+            final MeterRegistry meterRegistry,
+            @Value("${api.courses.published-contents-cache.maximum-size:5000}") final long maximumSize,
+            @Value("${api.courses.published-contents-cache.ttl:1m}") final Duration ttl
+    ) {
+        this.publishedContents = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.publishedContents, "published_contents");
+    }
+
+    public List<CourseContentResponseDTO> get(String courseId, Function<String, List<CourseContentResponseDTO>> loader) {
+        return this.publishedContents.get(courseId, loader);
+    }
+
+    // Evicting before the commit would let a concurrent read cache the rows that are about to change
+    public void invalidate(String courseId) {
+        AfterCommit.run(() -> this.publishedContents.invalidate(courseId));
+    }
+
+    public void invalidateAll() {
+        AfterCommit.run(this.publishedContents::invalidateAll);
+    }
+}
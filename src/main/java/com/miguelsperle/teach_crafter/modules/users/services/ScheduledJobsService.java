@@ -0,0 +1,73 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.miguelsperle.teach_crafter.modules.users.dtos.scheduledJobs.ScheduledJobResponseDTO;
+import com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.ScheduledJobsEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.exceptions.ScheduledJobNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.repositories.ScheduledJobsRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class ScheduledJobsService {
+    public static final String SUCCEEDED_OUTCOME = "SUCCEEDED";
+    public static final String FAILED_OUTCOME = "FAILED";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ScheduledJobsRepository scheduledJobsRepository;
+
+    public ScheduledJobsService(final ScheduledJobsRepository scheduledJobsRepository) {
+        this.scheduledJobsRepository = scheduledJobsRepository;
+    }
+
+    // Every node tries to insert the row on its first run, the losers of that race just see the primary key conflict
+    public void registerScheduledJob(String name) {
+        if (this.scheduledJobsRepository.existsById(name)) return;
+
+        try {
+            this.scheduledJobsRepository.saveAndFlush(ScheduledJobsEntity.builder().name(name).build());
+        } catch (DataIntegrityViolationException exception) {
+            // Registered by another node in the meantime
+        }
+    }
+
+    @Transactional
+    public boolean acquireLease(String name, String owner, LocalDateTime now, Duration leaseDuration) {
+        return this.scheduledJobsRepository.acquireLease(name, owner, now, now.plus(leaseDuration)) == 1;
+    }
+
+    @Transactional
+    public void releaseLease(String name, String owner, LocalDateTime lockedUntil, LocalDateTime finishedAt, long durationMs, String outcome, String error) {
+        String truncatedError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+
+        this.scheduledJobsRepository.releaseLease(name, owner, lockedUntil, finishedAt, durationMs, outcome, truncatedError);
+    }
+
+    public List<ScheduledJobResponseDTO> getAllScheduledJobs() {
+        return this.scheduledJobsRepository.findAllByOrderByNameAsc().stream().map(this::toScheduledJobResponseDTO).toList();
+    }
+
+    public ScheduledJobResponseDTO getScheduledJobByName(String name) {
+        return this.scheduledJobsRepository.findById(name)
+                .map(this::toScheduledJobResponseDTO)
+                .orElseThrow(() -> new ScheduledJobNotFoundException("Scheduled job not found"));
+    }
+
+    private ScheduledJobResponseDTO toScheduledJobResponseDTO(ScheduledJobsEntity scheduledJobsEntity) {
+        return new ScheduledJobResponseDTO(
+                scheduledJobsEntity.getName(),
+                scheduledJobsEntity.getLockedBy(),
+                scheduledJobsEntity.getLockedUntil(),
+                scheduledJobsEntity.getLastStartedAt(),
+                scheduledJobsEntity.getLastFinishedAt(),
+                scheduledJobsEntity.getLastDurationMs(),
+                scheduledJobsEntity.getLastOutcome(),
+                scheduledJobsEntity.getLastError()
+        );
+    }
+}
@@ -0,0 +1,86 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.miguelsperle.teach_crafter.infra.security.TokenService;
+import com.miguelsperle.teach_crafter.modules.users.dtos.tokenSigningKeys.TokenSigningKeyResponseDTO;
+import com.miguelsperle.teach_crafter.modules.users.entities.tokenSigningKeys.TokenSigningKeysEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.tokenSigningKeys.exceptions.TokenSigningKeyInUseException;
+import com.miguelsperle.teach_crafter.modules.users.entities.tokenSigningKeys.exceptions.TokenSigningKeyNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.repositories.TokenSigningKeysRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class TokenSigningKeysService {
+    private final TokenSigningKeysRepository tokenSigningKeysRepository;
+    private final TokenService tokenService;
+    private final Duration activationDelay;
+
+    public TokenSigningKeysService(
+            final TokenSigningKeysRepository tokenSigningKeysRepository,
+            final TokenService tokenService,
+            @Value("${api.security.token.key-activation-delay:2m}") final Duration activationDelay
+    ) {
+        this.tokenSigningKeysRepository = tokenSigningKeysRepository;
+        this.tokenService = tokenService;
+        this.activationDelay = activationDelay;
+    }
+
+    public List<TokenSigningKeyResponseDTO> getAllTokenSigningKeys() {
+        return this.tokenSigningKeysRepository.findAllByOrderByActivatesAtAsc().stream().map(this::toTokenSigningKeyResponseDTO).toList();
+    }
+
+    // The delay must outlast the key refresh interval, other nodes reject tokens signed with a key they have not loaded yet
+    public TokenSigningKeyResponseDTO rotateSigningKey() {
+        TokenSigningKeysEntity newSigningKey = TokenSigningKeysEntity.builder()
+                .keyId(UUID.randomUUID().toString())
+                .activatesAt(LocalDateTime.now().plus(this.activationDelay))
+                .build();
+
+        TokenSigningKeysEntity savedSigningKey = this.tokenSigningKeysRepository.saveAndFlush(newSigningKey);
+
+        this.tokenService.refreshKeyRing();
+
+        return this.toTokenSigningKeyResponseDTO(savedSigningKey);
+    }
+
+    // Tokens signed with the retired key stop validating on every node within one refresh interval
+    public TokenSigningKeyResponseDTO retireSigningKey(String keyId) {
+        this.tokenService.refreshKeyRing();
+
+        if (keyId.equals(this.tokenService.getSigningKeyId())) {
+            throw new TokenSigningKeyInUseException("The current token signing key cannot be retired");
+        }
+
+        TokenSigningKeysEntity signingKey = this.tokenSigningKeysRepository.findById(keyId).orElseGet(() -> {
+            if (!this.tokenService.isConfiguredKey(keyId)) {
+                throw new TokenSigningKeyNotFoundException("Token signing key not found");
+            }
+
+            return TokenSigningKeysEntity.builder().keyId(keyId).activatesAt(LocalDateTime.now()).build();
+        });
+
+        if (signingKey.getRetiredAt() == null) {
+            signingKey.setRetiredAt(LocalDateTime.now());
+        }
+
+        TokenSigningKeysEntity savedSigningKey = this.tokenSigningKeysRepository.saveAndFlush(signingKey);
+
+        this.tokenService.refreshKeyRing();
+
+        return this.toTokenSigningKeyResponseDTO(savedSigningKey);
+    }
+
+    private TokenSigningKeyResponseDTO toTokenSigningKeyResponseDTO(TokenSigningKeysEntity tokenSigningKeysEntity) {
+        return new TokenSigningKeyResponseDTO(
+                tokenSigningKeysEntity.getKeyId(),
+                tokenSigningKeysEntity.getActivatesAt(),
+                tokenSigningKeysEntity.getRetiredAt(),
+                tokenSigningKeysEntity.getCreatedAt()
+        );
+    }
+}
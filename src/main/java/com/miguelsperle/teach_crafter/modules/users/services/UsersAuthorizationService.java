@@ -1,41 +1,74 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
+import com.miguelsperle.teach_crafter.infra.security.PasswordHashingService;
 import com.miguelsperle.teach_crafter.infra.security.TokenService;
 import com.miguelsperle.teach_crafter.modules.users.dtos.authorization.UsersAuthorizationDTO;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.exceptions.UserPasswordMismatchException;
 import com.miguelsperle.teach_crafter.modules.users.repositories.UsersRepository;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.UUID;
+
 @Service
 public class UsersAuthorizationService {
     private final UsersRepository usersRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final TokenService tokenService;
+    private final UsersService usersService;
+    private final KnownEmailsFilter knownEmailsFilter;
+    private final String unknownUserPasswordHash;
 
     public UsersAuthorizationService(
             final UsersRepository usersRepository,
-            final PasswordEncoder passwordEncoder,
-            final TokenService tokenService
+            final PasswordHashingService passwordHashingService,
+            final TokenService tokenService,
+            final UsersService usersService,
+            final KnownEmailsFilter knownEmailsFilter
     ) {
         this.usersRepository = usersRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.tokenService = tokenService;
+        this.usersService = usersService;
+        this.knownEmailsFilter = knownEmailsFilter;
+        // Hashed with the configured strength, so checking it costs the same as checking a real password
+        this.unknownUserPasswordHash = passwordHashingService.encode(UUID.randomUUID().toString());
     }
 
     public String usersAuthorization(UsersAuthorizationDTO usersAuthorizationDTO) {
-        UsersEntity user = this.usersRepository.findByEmail(usersAuthorizationDTO.email())
-                .orElseThrow(() -> new UsernameNotFoundException("Email and/or password incorrect"));
+        Optional<UsersEntity> registeredUser = this.knownEmailsFilter.mightExist(usersAuthorizationDTO.email())
+                ? this.usersRepository.findByEmail(usersAuthorizationDTO.email())
+                : Optional.empty();
+
+        // An unknown email still pays for one password check, otherwise the response time tells which accounts exist
+        if (registeredUser.isEmpty()) {
+            this.passwordHashingService.matches(usersAuthorizationDTO.password(), this.unknownUserPasswordHash);
+
+            throw new UsernameNotFoundException("Email and/or password incorrect");
+        }
+
+        UsersEntity user = registeredUser.get();
 
         this.verifyPasswordMatch(usersAuthorizationDTO.password(), user.getPassword());
 
+        this.upgradePasswordHash(user, usersAuthorizationDTO.password());
+
         return this.tokenService.generateToken(user);
     }
 
+    // The plain password is only known at login, so that is when a hash made with an older, lower cost gets replaced
+    private void upgradePasswordHash(UsersEntity user, String password) {
+        if (!this.passwordHashingService.upgradeEncoding(user.getPassword())) return;
+
+        user.setPassword(this.passwordHashingService.encode(password));
+
+        this.usersService.save(user);
+    }
+
     private void verifyPasswordMatch(String passwordSender, String currentPassword) {
-        boolean passwordMatches = this.passwordEncoder.matches(passwordSender, currentPassword);
+        boolean passwordMatches = this.passwordHashingService.matches(passwordSender, currentPassword);
 
         if (!passwordMatches) throw new UserPasswordMismatchException("Email and/or password incorrect");
     }
@@ -1,5 +1,7 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
+import com.miguelsperle.teach_crafter.infra.security.PasswordHashingService;
+import com.miguelsperle.teach_crafter.infra.security.PrincipalCache;
 import com.miguelsperle.teach_crafter.modules.users.dtos.users.*;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.exceptions.UserPasswordMismatchException;
@@ -8,7 +10,6 @@ import com.miguelsperle.teach_crafter.modules.users.entities.users.exceptions.Us
 import com.miguelsperle.teach_crafter.modules.users.repositories.UsersRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -17,17 +18,20 @@ import java.util.Optional;
 @Service
 public class UsersService {
     private final UsersRepository usersRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final CloudinaryImageService cloudinaryImageService;
+    private final PrincipalCache principalCache;
 
     public UsersService(
             final UsersRepository usersRepository,
-            final PasswordEncoder passwordEncoder,
-            final CloudinaryImageService cloudinaryImageService
+            final PasswordHashingService passwordHashingService,
+            final CloudinaryImageService cloudinaryImageService,
+            final PrincipalCache principalCache
     ) {
         this.usersRepository = usersRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.cloudinaryImageService = cloudinaryImageService;
+        this.principalCache = principalCache;
     }
 
     public UsersEntity getAuthenticatedUser() {
@@ -40,6 +44,11 @@ public class UsersService {
         return null;
     }
 
+    // The principal is shared by every request of the user through PrincipalCache, so the updates change a copy loaded for this request instead
+    private UsersEntity getAuthenticatedUserToUpdate() {
+        return this.getUserById(this.getAuthenticatedUser().getId());
+    }
+
     public UsersEntity createUser(CreateUserDTO createUserDTO) {
         UsersEntity newUser = new UsersEntity();
 
@@ -51,7 +60,7 @@ public class UsersService {
         newUser.setRole(createUserDTO.role());
         newUser.setName(createUserDTO.name());
         newUser.setEmail(createUserDTO.email());
-        newUser.setPassword(this.passwordEncoder.encode(createUserDTO.password()));
+        newUser.setPassword(this.passwordHashingService.encode(createUserDTO.password()));
         newUser.setAvatarUrl(AVATAR_URL_IMAGE);
 
         return this.usersRepository.save(newUser);
@@ -80,7 +89,7 @@ public class UsersService {
     }
 
     public void updateUserName(UpdateUserNameDTO updateUserNameDTO) {
-        UsersEntity user = this.getAuthenticatedUser();
+        UsersEntity user = this.getAuthenticatedUserToUpdate();
 
         user.setName(updateUserNameDTO.newName());
 
@@ -88,7 +97,7 @@ public class UsersService {
     }
 
     public void updateUserUsername(UpdateUserUsernameDTO updateUserUsernameDTO) {
-        UsersEntity user = this.getAuthenticatedUser();
+        UsersEntity user = this.getAuthenticatedUserToUpdate();
 
         this.verifyUserAlreadyExistsByUsername(updateUserUsernameDTO.newUsername());
 
@@ -106,13 +115,13 @@ public class UsersService {
     }
 
     private void verifyPasswordMatch(String passwordSent, String currentPassword) {
-        boolean passwordMatches = this.passwordEncoder.matches(passwordSent, currentPassword);
+        boolean passwordMatches = this.passwordHashingService.matches(passwordSent, currentPassword);
 
         if (!passwordMatches) throw new UserPasswordMismatchException("Incorrect current password");
     }
 
     public void updateUserEmail(UpdateUserEmailDTO updateUserEmailDTO) {
-        UsersEntity user = this.getAuthenticatedUser();
+        UsersEntity user = this.getAuthenticatedUserToUpdate();
 
         this.verifyUserAlreadyExistsByNewEmail(updateUserEmailDTO.newEmail());
 
@@ -130,17 +139,17 @@ public class UsersService {
     }
 
     public void updateLoggedUserPassword(UpdateLoggedUserPasswordDTO updateLoggedUserPasswordDTO) {
-        UsersEntity user = this.getAuthenticatedUser();
+        UsersEntity user = this.getAuthenticatedUserToUpdate();
 
         this.verifyPasswordMatch(updateLoggedUserPasswordDTO.currentPassword(), user.getPassword());
 
-        user.setPassword(this.passwordEncoder.encode(updateLoggedUserPasswordDTO.newPassword()));
+        user.setPassword(this.passwordHashingService.encode(updateLoggedUserPasswordDTO.newPassword()));
 
         this.save(user);
     }
 
     public void updateUserImage(MultipartFile imageFile) {
-        UsersEntity user = this.getAuthenticatedUser();
+        UsersEntity user = this.getAuthenticatedUserToUpdate();
 
         user.setAvatarUrl(this.cloudinaryImageService.uploadImageFile(imageFile, "profile_pics"));
 
@@ -149,6 +158,11 @@ public class UsersService {
 
 
     public void save(UsersEntity user) {
-        this.usersRepository.save(user);
+        try {
+            this.usersRepository.save(user);
+        } finally {
+            // The cached principal no longer matches the row, so drop it even if the save fails
+            this.principalCache.invalidate(user.getId());
+        }
     }
 }
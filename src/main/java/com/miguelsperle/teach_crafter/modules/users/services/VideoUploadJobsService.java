@@ -0,0 +1,148 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.CoursesContentsEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.videoUploadJobs.VideoUploadJobsEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.videoUploadJobs.exceptions.VideoUploadJobNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.repositories.CoursesContentsRepository;
+import com.miguelsperle.teach_crafter.modules.users.repositories.VideoUploadJobsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class VideoUploadJobsService {
+    public static final String QUEUED_STATUS = "QUEUED";
+    public static final String UPLOADING_STATUS = "UPLOADING";
+    public static final String READY_STATUS = "READY";
+    public static final String FAILED_STATUS = "FAILED";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final VideoUploadJobsRepository videoUploadJobsRepository;
+    private final CoursesContentsRepository coursesContentsRepository;
+    private final PublishedContentsCache publishedContentsCache;
+    private final Path spoolDirectory;
+    private final String nodeId;
+
+    public VideoUploadJobsService(
+            final VideoUploadJobsRepository videoUploadJobsRepository,
+            final CoursesContentsRepository coursesContentsRepository,
+            final PublishedContentsCache publishedContentsCache,
+            @Value("${api.uploads.video.spool-directory:${java.io.tmpdir}/teach-crafter/video-uploads}") final String spoolDirectory,
+            @Value("${api.uploads.video.node-id:${api.scheduling.node-id:}}") final String nodeId
+    ) {
+        this.videoUploadJobsRepository = videoUploadJobsRepository;
+        this.coursesContentsRepository = coursesContentsRepository;
+        this.publishedContentsCache = publishedContentsCache;
+        this.spoolDirectory = Path.of(spoolDirectory);
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    // Unlike the scheduling lease owner it has no random suffix, a restarted node has to find the jobs it spooled before
+    private static String defaultNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException exception) {
+            return "localhost";
+        }
+    }
+
+    public VideoUploadJobsEntity createVideoUploadJob(CoursesContentsEntity courseContent, MultipartFile videoFile) {
+        VideoUploadJobsEntity newVideoUploadJob = new VideoUploadJobsEntity();
+
+        Path spooledFile = this.spoolVideoFile(videoFile);
+
+        newVideoUploadJob.setCoursesContentsEntity(courseContent);
+        newVideoUploadJob.setNodeId(this.nodeId);
+        newVideoUploadJob.setStatus(QUEUED_STATUS);
+        newVideoUploadJob.setFilePath(spooledFile.toString());
+        newVideoUploadJob.setFileSize(videoFile.getSize());
+
+        try {
+            return this.videoUploadJobsRepository.save(newVideoUploadJob);
+        } catch (RuntimeException exception) {
+            this.deleteSpooledFile(newVideoUploadJob);
+
+            throw exception;
+        }
+    }
+
+    // The multipart part already lives in a temporary file, transferTo moves it instead of copying it through the heap
+    private Path spoolVideoFile(MultipartFile videoFile) {
+        try {
+            Files.createDirectories(this.spoolDirectory);
+
+            Path spooledFile = this.spoolDirectory.resolve(UUID.randomUUID() + ".upload");
+
+            videoFile.transferTo(spooledFile);
+
+            return spooledFile;
+        } catch (IOException exception) {
+            throw new RuntimeException("Error while spooling video file", exception);
+        }
+    }
+
+    public VideoUploadJobsEntity getVideoUploadJobById(String videoUploadJobId) {
+        return this.videoUploadJobsRepository.findById(videoUploadJobId)
+                .orElseThrow(() -> new VideoUploadJobNotFoundException("Video upload job not found"));
+    }
+
+    // The spooled file is on this node's disk, so a node only claims the jobs it spooled itself
+    @Transactional
+    public List<VideoUploadJobsEntity> claimQueuedJobs(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+
+        return this.videoUploadJobsRepository.findAllByNodeIdAndStatusOrderByCreatedAtAsc(this.nodeId, QUEUED_STATUS, PageRequest.ofSize(limit)).stream()
+                .filter(videoUploadJob -> this.videoUploadJobsRepository.claim(videoUploadJob.getId(), QUEUED_STATUS, UPLOADING_STATUS, now) == 1)
+                .toList();
+    }
+
+    public List<VideoUploadJobsEntity> getStaleUploadingJobs(Duration staleTimeout) {
+        return this.videoUploadJobsRepository.findAllByNodeIdAndStatusAndStartedAtBefore(this.nodeId, UPLOADING_STATUS, LocalDateTime.now().minus(staleTimeout));
+    }
+
+    // A job left UPLOADING by a crash or a restart goes back to the queue, unless its spooled file is gone with it
+    @Transactional
+    public void requeueStaleJob(VideoUploadJobsEntity videoUploadJob) {
+        if (Files.exists(Path.of(videoUploadJob.getFilePath()))) {
+            this.videoUploadJobsRepository.requeue(videoUploadJob.getId(), UPLOADING_STATUS, QUEUED_STATUS);
+        } else {
+            this.markFailed(videoUploadJob, "Spooled video file is missing, upload the video again");
+        }
+    }
+
+    @Transactional
+    public void markReady(VideoUploadJobsEntity videoUploadJob, String videoUrl) {
+        this.coursesContentsRepository.updateVideoUrl(videoUploadJob.getCoursesContentsEntity().getId(), videoUrl);
+        this.publishedContentsCache.invalidate(videoUploadJob.getCoursesContentsEntity().getCoursesEntity().getId());
+
+        this.videoUploadJobsRepository.markFinished(videoUploadJob.getId(), READY_STATUS, null, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void markFailed(VideoUploadJobsEntity videoUploadJob, String error) {
+        String truncatedError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+
+        this.videoUploadJobsRepository.markFinished(videoUploadJob.getId(), FAILED_STATUS, truncatedError, LocalDateTime.now());
+    }
+
+    public void deleteSpooledFile(VideoUploadJobsEntity videoUploadJob) {
+        try {
+            Files.deleteIfExists(Path.of(videoUploadJob.getFilePath()));
+        } catch (IOException exception) {
+            throw new RuntimeException("Error while deleting spooled video file", exception);
+        }
+    }
+}
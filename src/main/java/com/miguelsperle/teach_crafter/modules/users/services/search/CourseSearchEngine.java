@@ -0,0 +1,14 @@
+package com.miguelsperle.teach_crafter.modules.users.services.search;
+
+import com.miguelsperle.teach_crafter.infra.pagination.KeysetCursor;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface CourseSearchEngine {
+    // Ids of the courses matching the keyword in name or description, best match first
+    List<String> searchCourseIds(String keyword, Pageable pageable);
+
+    // Ids of the matching courses created before the cursor, newest first, so pages can be walked by keyset
+    List<String> searchCourseIdsCreatedBefore(String keyword, KeysetCursor cursor, Pageable pageable);
+}
@@ -0,0 +1,30 @@
+package com.miguelsperle.teach_crafter.modules.users.services.search;
+
+import com.miguelsperle.teach_crafter.infra.pagination.KeysetCursor;
+import com.miguelsperle.teach_crafter.modules.users.repositories.CoursesRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Backed by the search_vector column and its GIN index ( db/vendor/postgresql )
+@Component
+@ConditionalOnProperty(name = "api.courses.search.engine", havingValue = "full-text", matchIfMissing = true)
+public class FullTextCourseSearchEngine implements CourseSearchEngine {
+    private final CoursesRepository coursesRepository;
+
+    public FullTextCourseSearchEngine(final CoursesRepository coursesRepository) {
+        this.coursesRepository = coursesRepository;
+    }
+
+    @Override
+    public List<String> searchCourseIds(String keyword, Pageable pageable) {
+        return this.coursesRepository.searchIdsByFullText(keyword, pageable);
+    }
+
+    @Override
+    public List<String> searchCourseIdsCreatedBefore(String keyword, KeysetCursor cursor, Pageable pageable) {
+        return this.coursesRepository.searchIdsByFullTextCreatedBefore(keyword, cursor.createdAt(), cursor.id(), pageable);
+    }
+}
@@ -0,0 +1,30 @@
+package com.miguelsperle.teach_crafter.modules.users.services.search;
+
+import com.miguelsperle.teach_crafter.infra.pagination.KeysetCursor;
+import com.miguelsperle.teach_crafter.modules.users.repositories.CoursesRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Portable fallback for databases without full-text search ( H2 in the test profile )
+@Component
+@ConditionalOnProperty(name = "api.courses.search.engine", havingValue = "like")
+public class LikeCourseSearchEngine implements CourseSearchEngine {
+    private final CoursesRepository coursesRepository;
+
+    public LikeCourseSearchEngine(final CoursesRepository coursesRepository) {
+        this.coursesRepository = coursesRepository;
+    }
+
+    @Override
+    public List<String> searchCourseIds(String keyword, Pageable pageable) {
+        return this.coursesRepository.searchIdsByNameOrDescriptionKeyword(keyword, pageable);
+    }
+
+    @Override
+    public List<String> searchCourseIdsCreatedBefore(String keyword, KeysetCursor cursor, Pageable pageable) {
+        return this.coursesRepository.searchIdsByNameOrDescriptionKeywordCreatedBefore(keyword, cursor.createdAt(), cursor.id(), pageable);
+    }
+}
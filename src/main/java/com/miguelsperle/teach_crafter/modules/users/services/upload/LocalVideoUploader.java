@@ -0,0 +1,31 @@
+package com.miguelsperle.teach_crafter.modules.users.services.upload;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Stand in for Cloudinary in tests and local development, it only checks the spooled file and returns predictable urls
+@Service
+@ConditionalOnProperty(name = "api.uploads.video.uploader", havingValue = "local")
+public class LocalVideoUploader implements VideoUploader {
+    @Override
+    public String uploadVideoFile(Path videoFile, String folderName) {
+        try {
+            if (Files.size(videoFile) == 0) {
+                throw new IOException("Video file is empty");
+            }
+        } catch (IOException exception) {
+            throw new RuntimeException("Error while retrieving bytes for video upload", exception);
+        }
+
+        String publicId = folderName + "/" + videoFile.getFileName();
+
+        return "{\"1080p\": \"local://" + publicId + "/1080p.m3u8\", " +
+                "\"720p\": \"local://" + publicId + "/720p.m3u8\", " +
+                "\"360p\": \"local://" + publicId + "/360p.m3u8\", " +
+                "\"480p\": \"local://" + publicId + "/480p.m3u8\"}";
+    }
+}
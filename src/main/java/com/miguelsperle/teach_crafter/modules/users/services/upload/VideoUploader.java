@@ -0,0 +1,8 @@
+package com.miguelsperle.teach_crafter.modules.users.services.upload;
+
+import java.nio.file.Path;
+
+public interface VideoUploader {
+    // Returns the JSON map of stream urls stored in courses_contents.video_url
+    String uploadVideoFile(Path videoFile, String folderName);
+}
@@ -0,0 +1,153 @@
+package com.miguelsperle.teach_crafter.scheduling;
+
+import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.CourseContentReleaseDTO;
+import com.miguelsperle.teach_crafter.modules.users.events.CourseContentReleaseChangedEvent;
+import com.miguelsperle.teach_crafter.modules.users.services.CoursesContentsService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ContentPublicationScheduler {
+    private static final int MAX_IDS_PER_UPDATE = 1000;
+    private static final long RETRY_DELAY_MS = 60_000;
+
+    private final CoursesContentsService coursesContentsService;
+    private final Logger logger;
+    private final DelayQueue<DueRelease> dueReleases = new DelayQueue<>();
+    // Latest release date per pending content, queue entries left behind by a reschedule no longer match it and are skipped
+    private final Map<String, LocalDate> scheduledReleases = new ConcurrentHashMap<>();
+    private final Thread publisher;
+
+    public ContentPublicationScheduler(final CoursesContentsService coursesContentsService, final Logger logger) {
+        this.coursesContentsService = coursesContentsService;
+        this.logger = logger;
+
+        this.publisher = new Thread(this::publishDueReleases, "content-publication");
+        this.publisher.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<CourseContentReleaseDTO> pendingReleases = this.coursesContentsService.getPendingContentReleases();
+
+        // A release change received while the pending set was loading is newer than the loaded row and wins
+        pendingReleases.forEach(pendingRelease -> {
+            if (this.scheduledReleases.putIfAbsent(pendingRelease.id(), pendingRelease.releaseDate()) == null) {
+                this.enqueue(pendingRelease.id(), pendingRelease.releaseDate());
+            }
+        });
+
+        this.publisher.start();
+
+        logger.info("Content publication scheduler started. Pending: " + pendingReleases.size());
+    }
+
+    // Runs after the commit of the content change, so the publisher never races a row that is not visible yet
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseContentReleaseChanged(CourseContentReleaseChangedEvent event) {
+        if (event.status().equals("PENDING")) {
+            this.schedule(event.courseContentId(), event.releaseDate());
+            return;
+        }
+
+        this.scheduledReleases.remove(event.courseContentId());
+    }
+
+    private void schedule(String courseContentId, LocalDate releaseDate) {
+        this.scheduledReleases.put(courseContentId, releaseDate);
+        this.enqueue(courseContentId, releaseDate);
+    }
+
+    private void enqueue(String courseContentId, LocalDate releaseDate) {
+        this.dueReleases.put(new DueRelease(courseContentId, releaseDate, releaseDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+    }
+
+    private void publishDueReleases() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<DueRelease> due = new ArrayList<>();
+                due.add(this.dueReleases.take());
+
+                // Everything released at the same instant goes out together
+                this.dueReleases.drainTo(due);
+
+                this.publish(due);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void publish(List<DueRelease> due) {
+        LocalDate today = LocalDate.now();
+        List<String> courseContentIds = new ArrayList<>();
+
+        for (DueRelease dueRelease : due) {
+            // A clock or time zone change can leave the wall clock short of the release date when the entry comes due
+            if (dueRelease.releaseDate().isAfter(today)) {
+                this.dueReleases.put(dueRelease.retryAt(System.currentTimeMillis() + 1000));
+                continue;
+            }
+
+            if (this.scheduledReleases.remove(dueRelease.courseContentId(), dueRelease.releaseDate())) {
+                courseContentIds.add(dueRelease.courseContentId());
+            }
+        }
+
+        for (int start = 0; start < courseContentIds.size(); start += MAX_IDS_PER_UPDATE) {
+            List<String> batch = courseContentIds.subList(start, Math.min(start + MAX_IDS_PER_UPDATE, courseContentIds.size()));
+
+            try {
+                int published = this.coursesContentsService.publishContents(batch, today);
+
+                logger.info("Published at release time. Amount: " + published);
+            } catch (Exception exception) {
+                logger.warn("Publishing at release time failed, retrying in " + RETRY_DELAY_MS + "ms. Amount: " + batch.size() + ", error: " + exception.getMessage());
+
+                long retryAt = System.currentTimeMillis() + RETRY_DELAY_MS;
+
+                batch.forEach(courseContentId -> {
+                    // A content rescheduled in the meantime keeps its newer date
+                    if (this.scheduledReleases.putIfAbsent(courseContentId, today) == null) {
+                        this.dueReleases.put(new DueRelease(courseContentId, today, retryAt));
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.publisher.interrupt();
+    }
+
+    private record DueRelease(String courseContentId, LocalDate releaseDate, long dueAtMillis) implements Delayed {
+        DueRelease retryAt(long retryAtMillis) {
+            return new DueRelease(this.courseContentId, this.releaseDate, retryAtMillis);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(this.dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(this.dueAtMillis, ((DueRelease) other).dueAtMillis);
+        }
+    }
+}
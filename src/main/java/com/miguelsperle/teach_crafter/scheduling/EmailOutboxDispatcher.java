@@ -0,0 +1,86 @@
+package com.miguelsperle.teach_crafter.scheduling;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.emailOutbox.EmailOutboxEntity;
+import com.miguelsperle.teach_crafter.modules.users.services.EmailOutboxService;
+import com.miguelsperle.teach_crafter.modules.users.services.EmailSenderService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class EmailOutboxDispatcher {
+    private final EmailOutboxService emailOutboxService;
+    private final EmailSenderService emailSenderService;
+    private final Logger logger;
+    private final int batchSize;
+    private final ExecutorService senders;
+    private final AtomicInteger inFlightEmails = new AtomicInteger();
+
+    public EmailOutboxDispatcher(
+            final EmailOutboxService emailOutboxService,
+            final EmailSenderService emailSenderService,
+            final Logger logger,
+            @Value("${api.mail.outbox.batch-size:50}") final int batchSize,
+            @Value("${api.mail.outbox.concurrency:4}") final int concurrency
+    ) {
+        this.emailOutboxService = emailOutboxService;
+        this.emailSenderService = emailSenderService;
+        this.logger = logger;
+        this.batchSize = batchSize;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        // At most "concurrency" SMTP sessions are open at the same time, whatever the size of the backlog
+        this.senders = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Hands the batch to the senders and returns, the scheduler thread is shared by every @Scheduled method and must not wait on SMTP.
+    // At most batchSize emails are claimed and not yet settled, so a slow SMTP server cannot pile up claimed rows whose lease runs out
+    @Scheduled(fixedDelayString = "${api.mail.outbox.poll-interval-ms:2000}")
+    public void dispatchDueEmails() {
+        int freeSlots = this.batchSize - this.inFlightEmails.get();
+
+        if (freeSlots <= 0) return;
+
+        for (EmailOutboxEntity email : this.emailOutboxService.claimDueEmails(freeSlots)) {
+            this.inFlightEmails.incrementAndGet();
+
+            this.senders.execute(() -> {
+                try {
+                    this.deliver(email);
+                } finally {
+                    this.inFlightEmails.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void deliver(EmailOutboxEntity email) {
+        try {
+            this.emailSenderService.sendTemplateMessage(email.getRecipient(), email.getSubject(), email.getTemplate(), this.emailOutboxService.readVariables(email));
+
+            this.emailOutboxService.markSent(email);
+        } catch (Exception exception) {
+            Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+
+            this.emailOutboxService.markFailed(email, cause.getMessage());
+
+            logger.warn("Email delivery failed. Id: " + email.getId() + ", attempt: " + (email.getAttempts() + 1) + ", error: " + cause.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.senders.shutdown();
+    }
+}
@@ -0,0 +1,106 @@
+package com.miguelsperle.teach_crafter.scheduling;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.exceptions.ScheduledJobLockedException;
+import com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.exceptions.ScheduledJobNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.services.ScheduledJobsService;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ScheduledJobCoordinator {
+    private final ScheduledJobsService scheduledJobsService;
+    private final Logger logger;
+    private final String nodeId;
+    private final Duration leaseDuration;
+    private final Duration minimumHold;
+    private final Map<String, Runnable> jobs = new ConcurrentHashMap<>();
+
+    public ScheduledJobCoordinator(
+            final ScheduledJobsService scheduledJobsService,
+            final Logger logger,
+            @Value("${api.scheduling.node-id:}") final String nodeId,
+            @Value("${api.scheduling.lease-duration:30m}") final Duration leaseDuration,
+            @Value("${api.scheduling.minimum-hold:30s}") final Duration minimumHold
+    ) {
+        this.scheduledJobsService = scheduledJobsService;
+        this.logger = logger;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.leaseDuration = leaseDuration;
+        this.minimumHold = minimumHold;
+    }
+
+    private static String defaultNodeId() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        try {
+            return InetAddress.getLocalHost().getHostName() + ":" + suffix;
+        } catch (UnknownHostException exception) {
+            return "node:" + suffix;
+        }
+    }
+
+    public void register(String jobName, Runnable job) {
+        this.jobs.put(jobName, job);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerScheduledJobs() {
+        this.jobs.keySet().forEach(this.scheduledJobsService::registerScheduledJob);
+    }
+
+    // Runs the job only if this node wins the lease row, every replica fires the same cron but only one of them gets past here
+    public boolean run(String jobName) {
+        Runnable job = this.jobs.get(jobName);
+
+        if (job == null) throw new ScheduledJobNotFoundException("Scheduled job not found");
+
+        this.scheduledJobsService.registerScheduledJob(jobName);
+
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        if (!this.scheduledJobsService.acquireLease(jobName, this.nodeId, startedAt, this.leaseDuration)) {
+            logger.info("Scheduled job skipped, lease held by another node. Job: " + jobName);
+            return false;
+        }
+
+        long startedAtNanos = System.nanoTime();
+        String outcome = ScheduledJobsService.SUCCEEDED_OUTCOME;
+        String error = null;
+
+        try {
+            job.run();
+        } catch (Exception exception) {
+            outcome = ScheduledJobsService.FAILED_OUTCOME;
+            error = exception.getMessage();
+
+            logger.error("Scheduled job failed. Job: " + jobName + ", error: " + exception.getMessage());
+        } finally {
+            LocalDateTime finishedAt = LocalDateTime.now();
+
+            // The lease is kept for a minimum time after a fast run, so a replica whose clock fires a little later does not run the job again
+            LocalDateTime holdUntil = startedAt.plus(this.minimumHold);
+            LocalDateTime lockedUntil = holdUntil.isAfter(finishedAt) ? holdUntil : finishedAt;
+
+            this.scheduledJobsService.releaseLease(jobName, this.nodeId, lockedUntil, finishedAt,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos), outcome, error);
+        }
+
+        return true;
+    }
+
+    public void trigger(String jobName) {
+        if (!this.run(jobName)) throw new ScheduledJobLockedException("Scheduled job is locked by another run");
+    }
+}
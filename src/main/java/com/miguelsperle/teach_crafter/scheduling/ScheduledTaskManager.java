@@ -1,55 +1,108 @@
 package com.miguelsperle.teach_crafter.scheduling;
 
-import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.CoursesContentsEntity;
 import com.miguelsperle.teach_crafter.modules.users.services.CoursesContentsService;
+import com.miguelsperle.teach_crafter.modules.users.services.EnrollmentsCoursesManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class ScheduledTaskManager {
+    public static final String PUBLISH_PENDING_CONTENTS_JOB = "publish-pending-contents";
+    public static final String RECONCILE_ENROLLED_COUNTS_JOB = "reconcile-enrolled-counts";
+
     private final CoursesContentsService coursesContentsService;
+    private final EnrollmentsCoursesManager enrollmentsCoursesManager;
+    private final ScheduledJobCoordinator scheduledJobCoordinator;
     private final Logger logger;
+    private final int publishBatchSize;
+    private final Counter publishedContentsCounter;
+    private final Timer publishTimer;
 
-    public ScheduledTaskManager(final CoursesContentsService coursesContentsService, final Logger logger) {
+    public ScheduledTaskManager(
+            final CoursesContentsService coursesContentsService,
+            final EnrollmentsCoursesManager enrollmentsCoursesManager,
+            final ScheduledJobCoordinator scheduledJobCoordinator,
+            final Logger logger,
+            final MeterRegistry meterRegistry,
+            @Value("${api.scheduling.publish-batch-size:1000}") final int publishBatchSize
+    ) {
         this.coursesContentsService = coursesContentsService;
+        this.enrollmentsCoursesManager = enrollmentsCoursesManager;
+        this.scheduledJobCoordinator = scheduledJobCoordinator;
         this.logger = logger;
-    }
+        this.publishBatchSize = publishBatchSize;
+
+        this.publishedContentsCounter = Counter.builder("courses_contents.published")
+                .description("Pending course contents published by the midnight job")
+                .register(meterRegistry);
 
-    private static final String PENDING_STATUS = "PENDING";
-    private static final String PUBLISHED_STATUS = "PUBLISHED";
+        this.publishTimer = Timer.builder("courses_contents.publish.duration")
+                .description("Duration of the midnight publishing job")
+                .register(meterRegistry);
+
+        scheduledJobCoordinator.register(PUBLISH_PENDING_CONTENTS_JOB, this::changePendingContentToPublished);
+        scheduledJobCoordinator.register(RECONCILE_ENROLLED_COUNTS_JOB, this::reconcileCoursesEnrolledCount);
+    }
 
+    // Contents are published at release time by the ContentPublicationScheduler, this sweep catches the ones a node did not know about
+    // ( created through another replica, or released while the application was down )
     @Scheduled(cron = "0 0 0 * * *") // EVERY MIDNIGHT
+    public void runChangePendingContentToPublished() {
+        this.scheduledJobCoordinator.run(PUBLISH_PENDING_CONTENTS_JOB);
+    }
+
+    @Scheduled(cron = "0 30 3 * * *") // EVERY DAY AT 03:30
+    public void runReconcileCoursesEnrolledCount() {
+        this.scheduledJobCoordinator.run(RECONCILE_ENROLLED_COUNTS_JOB);
+    }
+
     public void changePendingContentToPublished() {
-        List<CoursesContentsEntity> pendingContents = this.coursesContentsService.getAllCoursesContentsByPendingStatus(PENDING_STATUS);
+        LocalDate today = LocalDate.now();
+        long startedAt = System.nanoTime();
 
-        if (pendingContents.isEmpty()) {
+        int totalPublished = 0;
+        int publishedInBatch;
+
+        // Each batch commits on its own, a batch smaller than the limit means nothing is left to publish
+        do {
+            publishedInBatch = this.coursesContentsService.publishDueContents(today, this.publishBatchSize);
+            totalPublished += publishedInBatch;
+        } while (publishedInBatch == this.publishBatchSize);
+
+        long durationInNanos = System.nanoTime() - startedAt;
+
+        this.publishTimer.record(durationInNanos, TimeUnit.NANOSECONDS);
+        this.publishedContentsCounter.increment(totalPublished);
+
+        if (totalPublished == 0) {
             logger.info("No pending content to process");
             return;
         }
 
-        List<CoursesContentsEntity> editedContentsToSave = new ArrayList<>();
+        logger.info("Published successfully. Amount: " + totalPublished + ", duration: " + TimeUnit.NANOSECONDS.toMillis(durationInNanos) + "ms");
+    }
+
+    public void reconcileCoursesEnrolledCount() {
+        int coursesRepaired = 0;
 
-        for (CoursesContentsEntity pendingContent : pendingContents) {
-            if (this.isCourseContentPublishable(pendingContent)) {
-                pendingContent.setStatus(PUBLISHED_STATUS);
-                editedContentsToSave.add(pendingContent);
-            }
+        // One transaction per course, so each lock is only held while that course is recounted
+        for (String courseId : this.enrollmentsCoursesManager.getCourseIdsWithEnrolledCountDrift()) {
+            if (this.enrollmentsCoursesManager.reconcileEnrolledCount(courseId)) coursesRepaired++;
         }
 
-        if (editedContentsToSave.isEmpty()) {
-            logger.info("No edited content to save");
+        if (coursesRepaired == 0) {
+            logger.info("No enrolled count drift found");
             return;
         }
 
-        List<CoursesContentsEntity> contentsSaved = this.coursesContentsService.saveAllCoursesContents(editedContentsToSave);
-        logger.info("Saved successfully. Amount: " + contentsSaved.size());
-    }
-
-    private boolean isCourseContentPublishable(CoursesContentsEntity courseContent) {
-        return PUBLISHED_STATUS.equals(this.coursesContentsService.isReleaseDateValid(courseContent.getReleaseDate()));
+        logger.warn("Enrolled count repaired. Amount: " + coursesRepaired);
     }
 }
@@ -0,0 +1,109 @@
+package com.miguelsperle.teach_crafter.scheduling;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.videoUploadJobs.VideoUploadJobsEntity;
+import com.miguelsperle.teach_crafter.modules.users.services.VideoUploadJobsService;
+import com.miguelsperle.teach_crafter.modules.users.services.upload.VideoUploader;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class VideoUploadJobWorker {
+    private static final String VIDEO_FOLDER_NAME = "course_videos";
+
+    private final VideoUploadJobsService videoUploadJobsService;
+    private final VideoUploader videoUploader;
+    private final Logger logger;
+    private final int workers;
+    private final Duration staleTimeout;
+    private final ExecutorService uploaders;
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final Set<String> inFlightJobIds = ConcurrentHashMap.newKeySet();
+
+    public VideoUploadJobWorker(
+            final VideoUploadJobsService videoUploadJobsService,
+            final VideoUploader videoUploader,
+            final Logger logger,
+            @Value("${api.uploads.video.workers:2}") final int workers,
+            @Value("${api.uploads.video.stale-timeout:5m}") final Duration staleTimeout
+    ) {
+        this.videoUploadJobsService = videoUploadJobsService;
+        this.videoUploader = videoUploader;
+        this.logger = logger;
+        this.workers = workers;
+        this.staleTimeout = staleTimeout;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.uploaders = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "video-upload-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Jobs are only claimed when a worker is free, the rest wait as QUEUED rows instead of piling up in memory
+    @Scheduled(fixedDelayString = "${api.uploads.video.poll-interval-ms:1000}")
+    public void dispatchQueuedJobs() {
+        int freeWorkers = this.workers - this.busyWorkers.get();
+
+        if (freeWorkers <= 0) return;
+
+        for (VideoUploadJobsEntity videoUploadJob : this.videoUploadJobsService.claimQueuedJobs(freeWorkers)) {
+            this.busyWorkers.incrementAndGet();
+            this.inFlightJobIds.add(videoUploadJob.getId());
+
+            this.uploaders.execute(() -> {
+                try {
+                    this.process(videoUploadJob);
+                } finally {
+                    this.inFlightJobIds.remove(videoUploadJob.getId());
+                    this.busyWorkers.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    // Only this node's jobs are looked at, so one still being uploaded here is told apart from one orphaned by a crash or a restart
+    @Scheduled(fixedDelayString = "${api.uploads.video.recovery-interval-ms:60000}")
+    public void recoverStaleJobs() {
+        for (VideoUploadJobsEntity videoUploadJob : this.videoUploadJobsService.getStaleUploadingJobs(this.staleTimeout)) {
+            if (this.inFlightJobIds.contains(videoUploadJob.getId())) continue;
+
+            this.videoUploadJobsService.requeueStaleJob(videoUploadJob);
+
+            logger.warn("Stale video upload job recovered. Job: " + videoUploadJob.getId());
+        }
+    }
+
+    void process(VideoUploadJobsEntity videoUploadJob) {
+        try {
+            String videoUrl = this.videoUploader.uploadVideoFile(Path.of(videoUploadJob.getFilePath()), VIDEO_FOLDER_NAME);
+
+            this.videoUploadJobsService.markReady(videoUploadJob, videoUrl);
+        } catch (Exception exception) {
+            Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+
+            this.videoUploadJobsService.markFailed(videoUploadJob, cause.getMessage());
+
+            logger.warn("Video upload failed. Job: " + videoUploadJob.getId() + ", error: " + cause.getMessage());
+        } finally {
+            this.videoUploadJobsService.deleteSpooledFile(videoUploadJob);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.uploaders.shutdown();
+    }
+}
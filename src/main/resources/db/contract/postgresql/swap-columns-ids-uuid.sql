@@ -0,0 +1,77 @@
+-- Contract step of the uuid conversion ( see V14 in db/vendor/postgresql ), kept out of the Flyway locations until the release
+-- after the backfill: it drops the varchar ids, so every node must already write the shadow columns before it runs.
+-- Every shadow column is filled and indexed, so the swap only changes the catalog and takes each table lock for a moment
+SET LOCAL lock_timeout = '5s';
+
+ALTER TABLE courses DROP CONSTRAINT fk_courses_users_id;
+ALTER TABLE enrollments DROP CONSTRAINT fk_enrollments_users_id;
+ALTER TABLE enrollments DROP CONSTRAINT fk_enrollments_courses_id;
+ALTER TABLE password_reset_tokens DROP CONSTRAINT fk_password_reset_tokens_users_id;
+ALTER TABLE courses_contents DROP CONSTRAINT fk_courses_contents_courses_id;
+ALTER TABLE video_upload_jobs DROP CONSTRAINT fk_video_upload_jobs_courses_contents_id;
+
+DROP TRIGGER trg_users_sync_uuid_columns ON users;
+DROP TRIGGER trg_courses_sync_uuid_columns ON courses;
+DROP TRIGGER trg_enrollments_sync_uuid_columns ON enrollments;
+DROP TRIGGER trg_password_reset_tokens_sync_uuid_columns ON password_reset_tokens;
+DROP TRIGGER trg_courses_contents_sync_uuid_columns ON courses_contents;
+DROP TRIGGER trg_video_upload_jobs_sync_uuid_columns ON video_upload_jobs;
+DROP TRIGGER trg_email_outbox_sync_uuid_columns ON email_outbox;
+DROP FUNCTION sync_uuid_columns();
+
+-- The validated checks prove the shadows are NOT NULL, so setting it does not scan
+ALTER TABLE users ALTER COLUMN id_uuid SET NOT NULL;
+ALTER TABLE courses ALTER COLUMN id_uuid SET NOT NULL, ALTER COLUMN creator_id_uuid SET NOT NULL;
+ALTER TABLE enrollments ALTER COLUMN id_uuid SET NOT NULL, ALTER COLUMN user_id_uuid SET NOT NULL, ALTER COLUMN course_id_uuid SET NOT NULL;
+ALTER TABLE password_reset_tokens ALTER COLUMN id_uuid SET NOT NULL, ALTER COLUMN user_id_uuid SET NOT NULL;
+ALTER TABLE courses_contents ALTER COLUMN id_uuid SET NOT NULL, ALTER COLUMN course_id_uuid SET NOT NULL;
+ALTER TABLE video_upload_jobs ALTER COLUMN id_uuid SET NOT NULL, ALTER COLUMN course_content_id_uuid SET NOT NULL;
+ALTER TABLE email_outbox ALTER COLUMN id_uuid SET NOT NULL;
+
+-- Dropping the varchar columns also drops the indexes built on them
+ALTER TABLE users DROP CONSTRAINT ck_users_uuid_columns, DROP CONSTRAINT users_pkey, DROP COLUMN id;
+ALTER TABLE courses DROP CONSTRAINT ck_courses_uuid_columns, DROP CONSTRAINT courses_pkey, DROP COLUMN id, DROP COLUMN creator_id;
+ALTER TABLE enrollments DROP CONSTRAINT ck_enrollments_uuid_columns, DROP CONSTRAINT enrollments_pkey, DROP COLUMN id, DROP COLUMN user_id, DROP COLUMN course_id;
+ALTER TABLE password_reset_tokens DROP CONSTRAINT ck_password_reset_tokens_uuid_columns, DROP CONSTRAINT password_reset_tokens_pkey, DROP COLUMN id, DROP COLUMN user_id;
+ALTER TABLE courses_contents DROP CONSTRAINT ck_courses_contents_uuid_columns, DROP CONSTRAINT courses_contents_pkey, DROP COLUMN id, DROP COLUMN course_id;
+ALTER TABLE video_upload_jobs DROP CONSTRAINT ck_video_upload_jobs_uuid_columns, DROP CONSTRAINT video_upload_jobs_pkey, DROP COLUMN id, DROP COLUMN course_content_id;
+ALTER TABLE email_outbox DROP CONSTRAINT ck_email_outbox_uuid_columns, DROP CONSTRAINT email_outbox_pkey, DROP COLUMN id;
+
+ALTER TABLE users RENAME COLUMN id_uuid TO id;
+ALTER TABLE courses RENAME COLUMN id_uuid TO id;
+ALTER TABLE courses RENAME COLUMN creator_id_uuid TO creator_id;
+ALTER TABLE enrollments RENAME COLUMN id_uuid TO id;
+ALTER TABLE enrollments RENAME COLUMN user_id_uuid TO user_id;
+ALTER TABLE enrollments RENAME COLUMN course_id_uuid TO course_id;
+ALTER TABLE password_reset_tokens RENAME COLUMN id_uuid TO id;
+ALTER TABLE password_reset_tokens RENAME COLUMN user_id_uuid TO user_id;
+ALTER TABLE courses_contents RENAME COLUMN id_uuid TO id;
+ALTER TABLE courses_contents RENAME COLUMN course_id_uuid TO course_id;
+ALTER TABLE video_upload_jobs RENAME COLUMN id_uuid TO id;
+ALTER TABLE video_upload_jobs RENAME COLUMN course_content_id_uuid TO course_content_id;
+ALTER TABLE email_outbox RENAME COLUMN id_uuid TO id;
+
+ALTER TABLE users ADD CONSTRAINT users_pkey PRIMARY KEY USING INDEX users_pkey_uuid;
+ALTER TABLE courses ADD CONSTRAINT courses_pkey PRIMARY KEY USING INDEX courses_pkey_uuid;
+ALTER TABLE enrollments ADD CONSTRAINT enrollments_pkey PRIMARY KEY USING INDEX enrollments_pkey_uuid;
+ALTER TABLE password_reset_tokens ADD CONSTRAINT password_reset_tokens_pkey PRIMARY KEY USING INDEX password_reset_tokens_pkey_uuid;
+ALTER TABLE courses_contents ADD CONSTRAINT courses_contents_pkey PRIMARY KEY USING INDEX courses_contents_pkey_uuid;
+ALTER TABLE video_upload_jobs ADD CONSTRAINT video_upload_jobs_pkey PRIMARY KEY USING INDEX video_upload_jobs_pkey_uuid;
+ALTER TABLE email_outbox ADD CONSTRAINT email_outbox_pkey PRIMARY KEY USING INDEX email_outbox_pkey_uuid;
+
+ALTER INDEX fk_enrollments_user_id_course_id_uuid RENAME TO fk_enrollments_user_id_course_id;
+ALTER INDEX fk_password_reset_tokens_user_id_uuid RENAME TO fk_password_reset_tokens_user_id;
+ALTER INDEX idx_courses_creator_id_uuid RENAME TO idx_courses_creator_id;
+ALTER INDEX idx_courses_created_at_id_uuid RENAME TO idx_courses_created_at_id;
+ALTER INDEX idx_enrollments_course_id_uuid RENAME TO idx_enrollments_course_id;
+ALTER INDEX idx_enrollments_user_id_created_at_id_uuid RENAME TO idx_enrollments_user_id_created_at_id;
+ALTER INDEX idx_courses_contents_course_id_status_created_at_id_uuid RENAME TO idx_courses_contents_course_id_status_created_at_id;
+ALTER INDEX idx_video_upload_jobs_course_content_id_uuid RENAME TO idx_video_upload_jobs_course_content_id;
+
+-- NOT VALID skips checking the existing rows here, validate-foreign-keys-ids-uuid.sql validates them without blocking writes
+ALTER TABLE courses ADD CONSTRAINT fk_courses_users_id FOREIGN KEY(creator_id) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE NOT VALID;
+ALTER TABLE enrollments ADD CONSTRAINT fk_enrollments_users_id FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE NOT VALID;
+ALTER TABLE enrollments ADD CONSTRAINT fk_enrollments_courses_id FOREIGN KEY(course_id) REFERENCES courses(id) ON DELETE CASCADE ON UPDATE CASCADE NOT VALID;
+ALTER TABLE password_reset_tokens ADD CONSTRAINT fk_password_reset_tokens_users_id FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE NOT VALID;
+ALTER TABLE courses_contents ADD CONSTRAINT fk_courses_contents_courses_id FOREIGN KEY(course_id) REFERENCES courses(id) ON DELETE CASCADE ON UPDATE CASCADE NOT VALID;
+ALTER TABLE video_upload_jobs ADD CONSTRAINT fk_video_upload_jobs_courses_contents_id FOREIGN KEY(course_content_id) REFERENCES courses_contents(id) ON DELETE CASCADE ON UPDATE CASCADE NOT VALID;
@@ -0,0 +1,8 @@
+-- Ships right after swap-columns-ids-uuid.sql, in the same release.
+-- Outside a transaction ( see the .conf file ), each validation commits on its own and only takes locks that allow writes
+ALTER TABLE courses VALIDATE CONSTRAINT fk_courses_users_id;
+ALTER TABLE enrollments VALIDATE CONSTRAINT fk_enrollments_users_id;
+ALTER TABLE enrollments VALIDATE CONSTRAINT fk_enrollments_courses_id;
+ALTER TABLE password_reset_tokens VALIDATE CONSTRAINT fk_password_reset_tokens_users_id;
+ALTER TABLE courses_contents VALIDATE CONSTRAINT fk_courses_contents_courses_id;
+ALTER TABLE video_upload_jobs VALIDATE CONSTRAINT fk_video_upload_jobs_courses_contents_id;
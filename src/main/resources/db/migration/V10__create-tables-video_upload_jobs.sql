@@ -0,0 +1,16 @@
+CREATE TABLE video_upload_jobs (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    course_content_id VARCHAR(255) NOT NULL,
+    node_id VARCHAR(255) NOT NULL,
+    status VARCHAR(15) NOT NULL,
+    file_path TEXT NOT NULL,
+    file_size BIGINT NOT NULL,
+    error VARCHAR(1000),
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_video_upload_jobs_courses_contents_id FOREIGN KEY(course_content_id) REFERENCES courses_contents(id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE INDEX idx_video_upload_jobs_node_id_status_created_at ON video_upload_jobs(node_id, status, created_at);
@@ -0,0 +1,12 @@
+CREATE TABLE scheduled_jobs (
+    name VARCHAR(100) NOT NULL PRIMARY KEY,
+    locked_by VARCHAR(255),
+    locked_until TIMESTAMP,
+    last_started_at TIMESTAMP,
+    last_finished_at TIMESTAMP,
+    last_duration_ms BIGINT,
+    last_outcome VARCHAR(15),
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
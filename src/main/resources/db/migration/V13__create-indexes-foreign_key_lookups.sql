@@ -0,0 +1,19 @@
+-- The ( email, username ) unique index cannot serve a lookup by username alone
+CREATE INDEX idx_users_username ON users(username);
+
+-- Creator listings and the course creation limit filter on the creator
+CREATE INDEX idx_courses_creator_id ON courses(creator_id);
+
+-- Newest first listings and their keyset pages walk ( created_at, id )
+CREATE INDEX idx_courses_created_at_id ON courses(created_at, id);
+
+-- The ( user_id, course_id ) unique index only serves lookups by user, enrolled count reconciliation and cascades need the course
+CREATE INDEX idx_enrollments_course_id ON enrollments(course_id);
+CREATE INDEX idx_enrollments_user_id_created_at_id ON enrollments(user_id, created_at, id);
+
+-- Covers the listing by course, the published listing and its keyset pages ( ordered by created_at, id )
+CREATE INDEX idx_courses_contents_course_id_status_created_at_id ON courses_contents(course_id, status, created_at, id);
+
+CREATE UNIQUE INDEX idx_password_reset_tokens_token ON password_reset_tokens(token);
+
+CREATE INDEX idx_video_upload_jobs_course_content_id ON video_upload_jobs(course_content_id);
@@ -0,0 +1,2 @@
+-- The known emails refresh reads the users changed since its previous run
+CREATE INDEX idx_users_updated_at ON users(updated_at);
@@ -0,0 +1,8 @@
+-- Signing keys added at runtime, every node reloads them periodically. Only the ids are stored, the secrets are derived from
+-- JWT_SECRET and the id ( see TokenService )
+CREATE TABLE token_signing_keys (
+    key_id VARCHAR(64) NOT NULL PRIMARY KEY,
+    activates_at TIMESTAMP NOT NULL,
+    retired_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
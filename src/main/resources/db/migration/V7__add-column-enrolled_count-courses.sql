@@ -0,0 +1,5 @@
+ALTER TABLE courses ADD COLUMN enrolled_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE courses SET enrolled_count = (SELECT COUNT(*) FROM enrollments WHERE enrollments.course_id = courses.id);
+
+ALTER TABLE courses ADD CONSTRAINT ck_courses_enrolled_count CHECK (enrolled_count >= 0);
@@ -0,0 +1,140 @@
+package com.miguelsperle.teach_crafter.benchmarks;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.courses.CoursesEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.CoursesContentsEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Course content rows inserted per second through Hibernate, one statement per row ( batch size 1 ) against JDBC batches of 100.
+// Runs on an in-memory H2 by default, IMPORT_BENCHMARK_DB_URL=jdbc:postgresql://... ( with _USERNAME and _PASSWORD ) measures
+// a real database, where the rows go to a throwaway import_benchmark schema and the driver rewrites the batches as the application does
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoursesContentsImportBenchmark {
+    private static final int ROWS = 100_000;
+    private static final int FLUSH_INTERVAL = 1000;
+    private static final String SCHEMA = "import_benchmark";
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    private SessionFactory sessionFactory;
+    private String courseId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = System.getenv().getOrDefault("IMPORT_BENCHMARK_DB_URL", "jdbc:h2:mem:import_benchmark;DB_CLOSE_DELAY=-1");
+        String username = System.getenv().getOrDefault("IMPORT_BENCHMARK_DB_USERNAME", "sa");
+        String password = System.getenv().getOrDefault("IMPORT_BENCHMARK_DB_PASSWORD", "");
+        boolean postgres = url.startsWith("jdbc:postgresql:");
+
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(UsersEntity.class)
+                .addAnnotatedClass(CoursesEntity.class)
+                .addAnnotatedClass(CoursesContentsEntity.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, url)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, username)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, password)
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(this.batchSize))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true");
+
+        if (postgres) {
+            try (Connection connection = DriverManager.getConnection(url, username, password); Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            }
+
+            Flyway.configure()
+                    .dataSource(url, username, password)
+                    .schemas(SCHEMA)
+                    .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+                    .load()
+                    .migrate();
+
+            configuration.setProperty(AvailableSettings.DEFAULT_SCHEMA, SCHEMA);
+            configuration.setProperty("hibernate.connection.reWriteBatchedInserts", "true");
+        } else {
+            Flyway.configure()
+                    .dataSource(url, username, password)
+                    .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                    .load()
+                    .migrate();
+        }
+
+        this.sessionFactory = configuration.buildSessionFactory();
+
+        this.sessionFactory.inTransaction(session -> {
+            UsersEntity user = UsersEntity.builder()
+                    .username("import-benchmark")
+                    .role("ROLE_CREATOR")
+                    .name("Import Benchmark")
+                    .email("import-benchmark@teach-crafter.test")
+                    .password("password")
+                    .avatarUrl("https://avatar")
+                    .build();
+
+            session.persist(user);
+
+            CoursesEntity course = CoursesEntity.builder()
+                    .name("Import Benchmark")
+                    .description("Course receiving the imported contents")
+                    .maximumAttendees(10)
+                    .usersEntity(user)
+                    .build();
+
+            session.persist(course);
+
+            this.courseId = course.getId();
+        });
+    }
+
+    // Flushing and clearing every FLUSH_INTERVAL rows keeps the persistence context the same size for both batch sizes
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void importContents() {
+        this.sessionFactory.inTransaction(session -> {
+            LocalDate releaseDate = LocalDate.now().plusDays(1);
+
+            for (int i = 0; i < ROWS; i++) {
+                CoursesContentsEntity courseContent = new CoursesContentsEntity();
+                courseContent.setDescription("Imported content " + i);
+                courseContent.setStatus("PENDING");
+                courseContent.setReleaseDate(releaseDate);
+                courseContent.setContentModule("Module " + (i % 10));
+                courseContent.setCoursesEntity(session.getReference(CoursesEntity.class, this.courseId));
+
+                session.persist(courseContent);
+
+                if ((i + 1) % FLUSH_INTERVAL == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+    }
+
+    // Every invocation inserts into the same empty table, so index growth does not skew the later iterations
+    @TearDown(Level.Invocation)
+    public void deleteContents() {
+        this.sessionFactory.inTransaction(session -> session.createMutationQuery("DELETE FROM courses_contents").executeUpdate());
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.sessionFactory.close();
+    }
+}
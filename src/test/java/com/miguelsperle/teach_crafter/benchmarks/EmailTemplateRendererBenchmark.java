@@ -0,0 +1,61 @@
+package com.miguelsperle.teach_crafter.benchmarks;
+
+import com.miguelsperle.teach_crafter.modules.users.services.EmailTemplateRenderer;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Reset emails rendered per second by the template engine on every message against the precompiled segments
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EmailTemplateRendererBenchmark {
+    private static final String TEMPLATE = "resetPasswordTemplate.html";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private SpringTemplateEngine springTemplateEngine;
+    private EmailTemplateRenderer emailTemplateRenderer;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+
+        this.springTemplateEngine = new SpringTemplateEngine();
+        this.springTemplateEngine.setTemplateResolver(templateResolver);
+
+        this.emailTemplateRenderer = new EmailTemplateRenderer(this.springTemplateEngine);
+    }
+
+    @Benchmark
+    public String processPerMessage() {
+        Context context = new Context();
+        this.nextVariables().forEach(context::setVariable);
+
+        return this.springTemplateEngine.process(TEMPLATE, context);
+    }
+
+    @Benchmark
+    public String precompiledSegments() {
+        return this.emailTemplateRenderer.render(TEMPLATE, this.nextVariables());
+    }
+
+    private Map<String, String> nextVariables() {
+        long number = this.sequence.incrementAndGet();
+
+        return Map.of("email", "user" + number + "@gmail.com", "token", "aB3dE6Gh7iJkL9Mn0pQrS" + number);
+    }
+}
@@ -0,0 +1,45 @@
+package com.miguelsperle.teach_crafter.benchmarks;
+
+import com.miguelsperle.teach_crafter.infra.security.ResetTokenGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// Reset tokens per second of the previous approach (a new SecureRandom per token) against the shared source, one token per call and in batches
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ResetTokenGeneratorBenchmark {
+    private ResetTokenGenerator singleTokenGenerator;
+    private ResetTokenGenerator batchedTokenGenerator;
+
+    @Setup
+    public void setUp() {
+        this.singleTokenGenerator = new ResetTokenGenerator(1);
+        this.batchedTokenGenerator = new ResetTokenGenerator(32);
+    }
+
+    @Benchmark
+    public String newSecureRandomPerToken() {
+        byte[] randomBytes = new byte[24];
+        new SecureRandom().nextBytes(randomBytes);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+    }
+
+    @Benchmark
+    public String sharedSecureRandom() {
+        return this.singleTokenGenerator.generateToken();
+    }
+
+    @Benchmark
+    public String sharedSecureRandomBatched() {
+        return this.batchedTokenGenerator.generateToken();
+    }
+}
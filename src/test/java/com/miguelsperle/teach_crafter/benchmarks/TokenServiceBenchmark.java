@@ -0,0 +1,49 @@
+package com.miguelsperle.teach_crafter.benchmarks;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.miguelsperle.teach_crafter.infra.security.TokenService;
+import com.miguelsperle.teach_crafter.modules.users.repositories.TokenSigningKeysRepository;
+import com.miguelsperle.teach_crafter.utils.unit.mocks.UsersEntityCreator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+// Verifications per second of the previous approach (algorithm and verifier rebuilt per call) against the prebuilt verifier
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TokenServiceBenchmark {
+    private static final String SECRET = "jwt_secret_key";
+
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        this.tokenService = new TokenService(mock(TokenSigningKeysRepository.class), SECRET, "default", "");
+        this.token = this.tokenService.generateToken(UsersEntityCreator.createValidAuthenticatedUsersEntity());
+    }
+
+    @Benchmark
+    public String rebuildVerifierPerCall() {
+        Algorithm algorithm = Algorithm.HMAC256(SECRET);
+
+        return JWT.require(algorithm)
+                .withIssuer("teach-crafter")
+                .build()
+                .verify(this.token)
+                .getSubject();
+    }
+
+    @Benchmark
+    public String prebuiltVerifier() {
+        return this.tokenService.validateToken(this.token);
+    }
+}
@@ -0,0 +1,41 @@
+package com.miguelsperle.teach_crafter.infra.pagination;
+
+import com.miguelsperle.teach_crafter.exceptions.general.InvalidCursorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetCursorTest {
+    @Test
+    @DisplayName("Should be able to decode an encoded cursor")
+    public void should_be_able_to_decode_an_encoded_cursor() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 6, 12, 13, 37, 32, 196000000), "5e9d6f8a-2c1b-47e3-b41f-10a8c7d39b72");
+
+        assertEquals(cursor, KeysetCursor.decodeOrDefault(cursor.encode(), KeysetCursor.NEWEST_FIRST_START));
+    }
+
+    @Test
+    @DisplayName("Should be able to use the default cursor if none is sent")
+    public void should_be_able_to_use_the_default_cursor_if_none_is_sent() {
+        assertEquals(KeysetCursor.OLDEST_FIRST_START, KeysetCursor.decodeOrDefault(null, KeysetCursor.OLDEST_FIRST_START));
+        assertEquals(KeysetCursor.OLDEST_FIRST_START, KeysetCursor.decodeOrDefault("", KeysetCursor.OLDEST_FIRST_START));
+    }
+
+    @Test
+    @DisplayName("Should not be able to decode a tampered cursor")
+    public void should_not_be_able_to_decode_a_tampered_cursor() {
+        String withoutId = Base64.getUrlEncoder().encodeToString("2024-06-12T13:37:32|".getBytes(StandardCharsets.UTF_8));
+        String invalidDate = Base64.getUrlEncoder().encodeToString("yesterday|1".getBytes(StandardCharsets.UTF_8));
+        String invalidId = Base64.getUrlEncoder().encodeToString("2024-06-12T13:37:32|1".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decodeOrDefault("not base64!", KeysetCursor.NEWEST_FIRST_START));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decodeOrDefault(withoutId, KeysetCursor.NEWEST_FIRST_START));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decodeOrDefault(invalidDate, KeysetCursor.NEWEST_FIRST_START));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decodeOrDefault(invalidId, KeysetCursor.NEWEST_FIRST_START));
+    }
+}
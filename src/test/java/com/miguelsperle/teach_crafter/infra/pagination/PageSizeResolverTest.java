@@ -0,0 +1,24 @@
+package com.miguelsperle.teach_crafter.infra.pagination;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PageSizeResolverTest {
+    private final PageSizeResolver pageSizeResolver = new PageSizeResolver(20, 100);
+
+    @Test
+    @DisplayName("Should be able to use the default page size if none is requested")
+    public void should_be_able_to_use_the_default_page_size_if_none_is_requested() {
+        assertEquals(20, this.pageSizeResolver.resolve(null));
+        assertEquals(20, this.pageSizeResolver.resolve(0));
+    }
+
+    @Test
+    @DisplayName("Should not be able to exceed the maximum page size")
+    public void should_not_be_able_to_exceed_the_maximum_page_size() {
+        assertEquals(50, this.pageSizeResolver.resolve(50));
+        assertEquals(100, this.pageSizeResolver.resolve(5000));
+    }
+}
@@ -0,0 +1,43 @@
+package com.miguelsperle.teach_crafter.infra.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidV7GeneratorTest {
+    @Test
+    @DisplayName("Should be able to generate a version 7 uuid carrying the current time")
+    public void should_be_able_to_generate_a_version_7_uuid_carrying_the_current_time() {
+        long before = System.currentTimeMillis();
+
+        UUID uuid = UuidV7Generator.next();
+
+        long after = System.currentTimeMillis();
+        long millis = uuid.getMostSignificantBits() >>> 16;
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue(millis >= before && millis <= after + 1);
+    }
+
+    @Test
+    @DisplayName("Should be able to generate ids that sort in generation order")
+    public void should_be_able_to_generate_ids_that_sort_in_generation_order() {
+        List<String> ids = new ArrayList<>();
+
+        for (int i = 0; i < 10000; i++) {
+            ids.add(UuidV7Generator.next().toString());
+        }
+
+        List<String> sortedIds = new ArrayList<>(ids);
+        sortedIds.sort(null);
+
+        assertEquals(sortedIds, ids);
+        assertEquals(ids.size(), ids.stream().distinct().count());
+    }
+}
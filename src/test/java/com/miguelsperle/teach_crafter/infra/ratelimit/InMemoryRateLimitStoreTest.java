@@ -0,0 +1,49 @@
+package com.miguelsperle.teach_crafter.infra.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryRateLimitStoreTest {
+    private AtomicLong now;
+    private InMemoryRateLimitStore inMemoryRateLimitStore;
+
+    @BeforeEach
+    public void setUp() {
+        this.now = new AtomicLong(Duration.ofHours(1).toNanos());
+        this.inMemoryRateLimitStore = new InMemoryRateLimitStore(new SimpleMeterRegistry(), 100, Duration.ofHours(1), this.now::get);
+    }
+
+    @Test
+    @DisplayName("Should be able to consume the whole capacity at once and then wait for the refill")
+    public void should_be_able_to_consume_the_whole_capacity_at_once_and_then_wait_for_the_refill() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Duration.ZERO, this.inMemoryRateLimitStore.tryConsume("login:ip:127.0.0.1", 3, Duration.ofMinutes(3)));
+        }
+
+        assertEquals(Duration.ofMinutes(1), this.inMemoryRateLimitStore.tryConsume("login:ip:127.0.0.1", 3, Duration.ofMinutes(3)));
+
+        this.now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertEquals(Duration.ofSeconds(30), this.inMemoryRateLimitStore.tryConsume("login:ip:127.0.0.1", 3, Duration.ofMinutes(3)));
+
+        this.now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertEquals(Duration.ZERO, this.inMemoryRateLimitStore.tryConsume("login:ip:127.0.0.1", 3, Duration.ofMinutes(3)));
+    }
+
+    @Test
+    @DisplayName("Should be able to keep a separate bucket for each key")
+    public void should_be_able_to_keep_a_separate_bucket_for_each_key() {
+        assertEquals(Duration.ZERO, this.inMemoryRateLimitStore.tryConsume("login:ip:127.0.0.1", 1, Duration.ofMinutes(1)));
+        assertNotEquals(Duration.ZERO, this.inMemoryRateLimitStore.tryConsume("login:ip:127.0.0.1", 1, Duration.ofMinutes(1)));
+
+        assertEquals(Duration.ZERO, this.inMemoryRateLimitStore.tryConsume("login:ip:127.0.0.2", 1, Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,148 @@
+package com.miguelsperle.teach_crafter.infra.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+
+        InMemoryRateLimitStore inMemoryRateLimitStore = new InMemoryRateLimitStore(this.meterRegistry, 100, Duration.ofHours(1));
+
+        this.rateLimitFilter = new RateLimitFilter(inMemoryRateLimitStore, this.meterRegistry, true, 3, 2, Duration.ofMinutes(1), 1, 1, Duration.ofMinutes(15));
+    }
+
+    private MockHttpServletResponse post(String path, String remoteAddress, String body, MockFilterChain filterChain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(remoteAddress);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        this.rateLimitFilter.doFilter(request, response, filterChain);
+
+        return response;
+    }
+
+    @Test
+    @DisplayName("Should not be able to login more times than the account capacity with the same email")
+    public void should_not_be_able_to_login_more_times_than_the_account_capacity_with_the_same_email() throws Exception {
+        this.post("/auth/login", "10.0.0.1", "{\"email\": \"user@teach-crafter.test\", \"password\": \"1\"}", new MockFilterChain());
+        this.post("/auth/login", "10.0.0.2", "{\"email\": \"User@Teach-Crafter.test\", \"password\": \"2\"}", new MockFilterChain());
+
+        MockFilterChain filterChain = new MockFilterChain();
+        MockHttpServletResponse response = this.post("/auth/login", "10.0.0.3", "{\"email\": \"user@teach-crafter.test\", \"password\": \"3\"}", filterChain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("30", response.getHeader("Retry-After"));
+        assertEquals("{\"message\":\"Too many requests, please try again later\",\"status\":429}", response.getContentAsString());
+        assertNull(filterChain.getRequest());
+        assertEquals(1.0, this.meterRegistry.get("rate_limit.rejected").tag("route", "login").tag("scope", "account").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not be able to send more reset emails than the ip capacity from the same address")
+    public void should_not_be_able_to_send_more_reset_emails_than_the_ip_capacity_from_the_same_address() throws Exception {
+        this.post("/reset-password/send-email", "10.0.0.1", "{\"currentEmail\": \"first@teach-crafter.test\"}", new MockFilterChain());
+
+        MockHttpServletResponse response = this.post("/reset-password/send-email", "10.0.0.1", "{\"currentEmail\": \"second@teach-crafter.test\"}", new MockFilterChain());
+
+        assertEquals(429, response.getStatus());
+        assertEquals("900", response.getHeader("Retry-After"));
+        assertEquals(1.0, this.meterRegistry.get("rate_limit.rejected").tag("route", "reset_password").tag("scope", "ip").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should be able to pass the request body on to the controller after reading the account")
+    public void should_be_able_to_pass_the_request_body_on_to_the_controller_after_reading_the_account() throws Exception {
+        String body = "{\"email\": \"user@teach-crafter.test\", \"password\": \"1\"}";
+        MockFilterChain filterChain = new MockFilterChain();
+
+        MockHttpServletResponse response = this.post("/auth/login", "10.0.0.1", body, filterChain);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(body, new String(filterChain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should be able to read the request body passed on to the controller with a read listener")
+    public void should_be_able_to_read_the_request_body_passed_on_to_the_controller_with_a_read_listener() throws Exception {
+        String body = "{\"email\": \"user@teach-crafter.test\", \"password\": \"1\"}";
+        MockFilterChain filterChain = new MockFilterChain();
+
+        this.post("/auth/login", "10.0.0.1", body, filterChain);
+
+        ServletInputStream inputStream = filterChain.getRequest().getInputStream();
+        ByteArrayOutputStream readBody = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        inputStream.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[8];
+
+                while (inputStream.isReady() && !inputStream.isFinished()) {
+                    readBody.write(buffer, 0, inputStream.read(buffer));
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail(throwable);
+            }
+        });
+
+        assertTrue(allDataRead.get());
+        assertEquals(body, readBody.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should not be able to pass a request body larger than the maximum size on to the controller")
+    public void should_not_be_able_to_pass_a_request_body_larger_than_the_maximum_size_on_to_the_controller() throws Exception {
+        String body = "{\"email\": \"user@teach-crafter.test\", \"password\": \"" + "1".repeat(16 * 1024) + "\"}";
+        MockFilterChain filterChain = new MockFilterChain();
+
+        MockHttpServletResponse response = this.post("/auth/login", "10.0.0.1", body, filterChain);
+
+        assertEquals(413, response.getStatus());
+        assertEquals("{\"message\":\"Request body is too large\",\"status\":413}", response.getContentAsString());
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    @DisplayName("Should not be able to limit routes that are not rate limited")
+    public void should_not_be_able_to_limit_routes_that_are_not_rate_limited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockFilterChain filterChain = new MockFilterChain();
+
+            this.post("/users/register", "10.0.0.1", "{}", filterChain);
+
+            assertNotNull(filterChain.getRequest());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.miguelsperle.teach_crafter.infra.security;
+
+import com.miguelsperle.teach_crafter.exceptions.general.PasswordHashingCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PasswordHashingServiceTest {
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.passwordHashingService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should be able to encode and match a password on the hashing threads")
+    public void should_be_able_to_encode_and_match_a_password_on_the_hashing_threads() {
+        this.passwordHashingService = new PasswordHashingService(new BCryptPasswordEncoder(4), this.meterRegistry, 1, 1);
+
+        String encodedPassword = this.passwordHashingService.encode("password");
+
+        assertTrue(this.passwordHashingService.matches("password", encodedPassword));
+        assertFalse(this.passwordHashingService.matches("wrong-password", encodedPassword));
+        assertEquals(1, this.meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, this.meterRegistry.get("password.hashing.duration").tag("operation", "matches").timer().count());
+        assertEquals(3, this.meterRegistry.get("password.hashing.queue.wait").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should be able to ask for an upgrade of a password hashed with a lower strength")
+    public void should_be_able_to_ask_for_an_upgrade_of_a_password_hashed_with_a_lower_strength() {
+        this.passwordHashingService = new PasswordHashingService(new BCryptPasswordEncoder(5), this.meterRegistry, 1, 1);
+
+        assertTrue(this.passwordHashingService.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+        assertFalse(this.passwordHashingService.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password")));
+    }
+
+    @Test
+    @DisplayName("Should not be able to queue more password operations than the queue capacity")
+    public void should_not_be_able_to_queue_more_password_operations_than_the_queue_capacity() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+
+        when(passwordEncoder.encode(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "encoded";
+        });
+
+        this.passwordHashingService = new PasswordHashingService(passwordEncoder, this.meterRegistry, 1, 1);
+
+        // One operation holds the only hashing thread and a second one fills the queue
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> this.passwordHashingService.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> this.passwordHashingService.encode("second"));
+
+        while (this.meterRegistry.get("password.hashing.queue.size").gauge().value() < 1) Thread.onSpinWait();
+
+        PasswordHashingCapacityExceededException exception = assertThrows(PasswordHashingCapacityExceededException.class, () -> {
+            this.passwordHashingService.encode("third");
+        });
+
+        release.countDown();
+
+        assertEquals("Too many password operations in progress, please try again later", exception.getMessage());
+        assertEquals("encoded", running.join());
+        assertEquals("encoded", queued.join());
+        assertEquals(1.0, this.meterRegistry.get("password.hashing.rejected").counter().count());
+    }
+}
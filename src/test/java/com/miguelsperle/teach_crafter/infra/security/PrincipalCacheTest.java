@@ -0,0 +1,65 @@
+package com.miguelsperle.teach_crafter.infra.security;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
+import com.miguelsperle.teach_crafter.utils.unit.mocks.UsersEntityCreator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrincipalCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.principalCache = new PrincipalCache(this.meterRegistry, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Should be able to load the principal only once while it is cached")
+    public void should_be_able_to_load_the_principal_only_once_while_it_is_cached() {
+        UsersEntity user = UsersEntityCreator.createValidAuthenticatedUsersEntity();
+        AtomicInteger loads = new AtomicInteger();
+
+        this.principalCache.get(user.getId(), id -> { loads.incrementAndGet(); return Optional.of(user); });
+        Optional<UsersEntity> cachedUser = this.principalCache.get(user.getId(), id -> { loads.incrementAndGet(); return Optional.of(user); });
+
+        assertEquals(1, loads.get());
+        assertEquals(user, cachedUser.orElseThrow());
+        assertEquals(1.0, this.meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, this.meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should be able to reload the principal after it is invalidated")
+    public void should_be_able_to_reload_the_principal_after_it_is_invalidated() {
+        UsersEntity user = UsersEntityCreator.createValidAuthenticatedUsersEntity();
+        AtomicInteger loads = new AtomicInteger();
+
+        this.principalCache.get(user.getId(), id -> { loads.incrementAndGet(); return Optional.of(user); });
+        this.principalCache.invalidate(user.getId());
+        this.principalCache.get(user.getId(), id -> { loads.incrementAndGet(); return Optional.of(user); });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should not be able to cache a missing user")
+    public void should_not_be_able_to_cache_a_missing_user() {
+        AtomicInteger loads = new AtomicInteger();
+
+        this.principalCache.get("1", id -> { loads.incrementAndGet(); return Optional.empty(); });
+        Optional<UsersEntity> user = this.principalCache.get("1", id -> { loads.incrementAndGet(); return Optional.empty(); });
+
+        assertTrue(user.isEmpty());
+        assertEquals(2, loads.get());
+    }
+}
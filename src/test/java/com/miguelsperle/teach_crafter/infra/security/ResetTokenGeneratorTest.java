@@ -0,0 +1,43 @@
+package com.miguelsperle.teach_crafter.infra.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResetTokenGeneratorTest {
+    @Test
+    @DisplayName("Should be able to generate url safe tokens of 32 characters")
+    public void should_be_able_to_generate_url_safe_tokens_of_32_characters() {
+        ResetTokenGenerator resetTokenGenerator = new ResetTokenGenerator(4);
+
+        IntStream.range(0, 10).mapToObj(i -> resetTokenGenerator.generateToken()).forEach(token -> {
+            assertEquals(32, token.length());
+            assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        });
+    }
+
+    @Test
+    @DisplayName("Should not be able to hand out the same token twice across batches and threads")
+    public void should_not_be_able_to_hand_out_the_same_token_twice_across_batches_and_threads() {
+        ResetTokenGenerator resetTokenGenerator = new ResetTokenGenerator(8);
+        Set<String> tokens = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 10000).parallel().forEach(i -> assertTrue(tokens.add(resetTokenGenerator.generateToken())));
+
+        assertEquals(10000, tokens.size());
+    }
+
+    @Test
+    @DisplayName("Should not be able to create a generator with a batch size below one")
+    public void should_not_be_able_to_create_a_generator_with_a_batch_size_below_one() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> new ResetTokenGenerator(0));
+
+        assertEquals("The reset token batch size must be at least 1", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new ResetTokenGenerator(-1));
+    }
+}
@@ -0,0 +1,158 @@
+package com.miguelsperle.teach_crafter.infra.security;
+
+import com.auth0.jwt.JWT;
+import com.miguelsperle.teach_crafter.modules.users.entities.tokenSigningKeys.TokenSigningKeysEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
+import com.miguelsperle.teach_crafter.modules.users.repositories.TokenSigningKeysRepository;
+import com.miguelsperle.teach_crafter.utils.TokenGenerator;
+import com.miguelsperle.teach_crafter.utils.unit.mocks.UsersEntityCreator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TokenServiceTest {
+    private static final String SECRET = "jwt_secret_key";
+
+    private final TokenSigningKeysRepository tokenSigningKeysRepository = mock(TokenSigningKeysRepository.class);
+
+    private TokenService createTokenService(String secret, String keyId, String previousKeys) {
+        return new TokenService(this.tokenSigningKeysRepository, secret, keyId, previousKeys);
+    }
+
+    private TokenSigningKeysEntity createSigningKey(String keyId, LocalDateTime activatesAt, LocalDateTime retiredAt) {
+        return TokenSigningKeysEntity.builder().keyId(keyId).activatesAt(activatesAt).retiredAt(retiredAt).build();
+    }
+
+    @Test
+    @DisplayName("Should be able to validate a token generated with the current key")
+    public void should_be_able_to_validate_a_token_generated_with_the_current_key() {
+        TokenService tokenService = this.createTokenService(SECRET, "key-1", "");
+        UsersEntity user = UsersEntityCreator.createValidAuthenticatedUsersEntity();
+
+        String token = tokenService.generateToken(user);
+
+        assertEquals("key-1", JWT.decode(token).getKeyId());
+        assertEquals(user.getId(), tokenService.validateToken(token));
+    }
+
+    @Test
+    @DisplayName("Should be able to validate a token without key id against the current key")
+    public void should_be_able_to_validate_a_token_without_key_id_against_the_current_key() {
+        TokenService tokenService = this.createTokenService(SECRET, "key-1", "");
+        UsersEntity user = UsersEntityCreator.createValidAuthenticatedUsersEntity();
+
+        String token = TokenGenerator.generateToken(user, SECRET);
+
+        assertEquals(user.getId(), tokenService.validateToken(token));
+    }
+
+    @Test
+    @DisplayName("Should be able to validate tokens signed with a previous key after rotation")
+    public void should_be_able_to_validate_tokens_signed_with_a_previous_key_after_rotation() {
+        TokenService tokenService = this.createTokenService(SECRET, "key-1", "");
+        UsersEntity user = UsersEntityCreator.createValidAuthenticatedUsersEntity();
+
+        String oldToken = tokenService.generateToken(user);
+        String tokenWithoutKeyId = TokenGenerator.generateToken(user, SECRET);
+
+        when(this.tokenSigningKeysRepository.findAllByOrderByActivatesAtAsc())
+                .thenReturn(List.of(this.createSigningKey("key-2", LocalDateTime.now().minusMinutes(1), null)));
+
+        tokenService.refreshKeyRing();
+
+        String newToken = tokenService.generateToken(user);
+
+        assertEquals("key-2", JWT.decode(newToken).getKeyId());
+        assertEquals(user.getId(), tokenService.validateToken(oldToken));
+        assertEquals(user.getId(), tokenService.validateToken(tokenWithoutKeyId));
+        assertEquals(user.getId(), tokenService.validateToken(newToken));
+    }
+
+    @Test
+    @DisplayName("Should be able to validate tokens signed with a rotated key on another node before it activates here")
+    public void should_be_able_to_validate_tokens_signed_with_a_rotated_key_on_another_node_before_it_activates_here() {
+        TokenService tokenService = this.createTokenService(SECRET, "key-1", "");
+        TokenService otherNodeTokenService = this.createTokenService(SECRET, "key-1", "");
+        UsersEntity user = UsersEntityCreator.createValidAuthenticatedUsersEntity();
+
+        when(this.tokenSigningKeysRepository.findAllByOrderByActivatesAtAsc())
+                .thenReturn(List.of(this.createSigningKey("key-2", LocalDateTime.now().plusMinutes(2), null)));
+
+        tokenService.refreshKeyRing();
+
+        assertEquals("key-1", JWT.decode(tokenService.generateToken(user)).getKeyId());
+
+        when(this.tokenSigningKeysRepository.findAllByOrderByActivatesAtAsc())
+                .thenReturn(List.of(this.createSigningKey("key-2", LocalDateTime.now().minusSeconds(1), null)));
+
+        otherNodeTokenService.refreshKeyRing();
+
+        String otherNodeToken = otherNodeTokenService.generateToken(user);
+
+        assertEquals("key-2", JWT.decode(otherNodeToken).getKeyId());
+        assertEquals(user.getId(), tokenService.validateToken(otherNodeToken));
+    }
+
+    @Test
+    @DisplayName("Should not be able to validate a token signed with a retired key")
+    public void should_not_be_able_to_validate_a_token_signed_with_a_retired_key() {
+        TokenService tokenService = this.createTokenService(SECRET, "key-1", "");
+        UsersEntity user = UsersEntityCreator.createValidAuthenticatedUsersEntity();
+
+        String oldToken = tokenService.generateToken(user);
+
+        when(this.tokenSigningKeysRepository.findAllByOrderByActivatesAtAsc()).thenReturn(List.of(
+                this.createSigningKey("key-1", LocalDateTime.now().minusHours(1), LocalDateTime.now()),
+                this.createSigningKey("key-2", LocalDateTime.now().minusMinutes(1), null)
+        ));
+
+        tokenService.refreshKeyRing();
+
+        assertEquals("", tokenService.validateToken(oldToken));
+        assertEquals("key-2", tokenService.getSigningKeyId());
+    }
+
+    @Test
+    @DisplayName("Should not be able to stop signing with the configured key when it is retired before a newer key activates")
+    public void should_not_be_able_to_stop_signing_with_the_configured_key_when_it_is_retired_before_a_newer_key_activates() {
+        TokenService tokenService = this.createTokenService(SECRET, "key-1", "");
+        UsersEntity user = UsersEntityCreator.createValidAuthenticatedUsersEntity();
+
+        when(this.tokenSigningKeysRepository.findAllByOrderByActivatesAtAsc())
+                .thenReturn(List.of(this.createSigningKey("key-1", LocalDateTime.now().minusHours(1), LocalDateTime.now())));
+
+        tokenService.refreshKeyRing();
+
+        assertEquals(user.getId(), tokenService.validateToken(tokenService.generateToken(user)));
+    }
+
+    @Test
+    @DisplayName("Should be able to validate a token signed with a configured previous key")
+    public void should_be_able_to_validate_a_token_signed_with_a_configured_previous_key() {
+        TokenService previousTokenService = this.createTokenService("old_secret_key", "key-0", "");
+        UsersEntity user = UsersEntityCreator.createValidAuthenticatedUsersEntity();
+
+        String oldToken = previousTokenService.generateToken(user);
+
+        TokenService tokenService = this.createTokenService(SECRET, "key-1", "key-0:old_secret_key");
+
+        assertEquals(user.getId(), tokenService.validateToken(oldToken));
+    }
+
+    @Test
+    @DisplayName("Should not be able to validate a malformed or unknown token")
+    public void should_not_be_able_to_validate_a_malformed_or_unknown_token() {
+        TokenService tokenService = this.createTokenService(SECRET, "key-1", "");
+        TokenService foreignTokenService = this.createTokenService("foreign_secret_key", "key-9", "");
+        UsersEntity user = UsersEntityCreator.createValidAuthenticatedUsersEntity();
+
+        assertEquals("", tokenService.validateToken("not-a-token"));
+        assertEquals("", tokenService.validateToken(foreignTokenService.generateToken(user)));
+    }
+}
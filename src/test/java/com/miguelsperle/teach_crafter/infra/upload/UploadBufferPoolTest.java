@@ -0,0 +1,47 @@
+package com.miguelsperle.teach_crafter.infra.upload;
+
+import com.miguelsperle.teach_crafter.exceptions.general.UploadCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UploadBufferPoolTest {
+    private SimpleMeterRegistry meterRegistry;
+    private UploadBufferPool uploadBufferPool;
+
+    @BeforeEach
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.uploadBufferPool = new UploadBufferPool(this.meterRegistry, DataSize.ofKilobytes(1), 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Should be able to reuse a released buffer")
+    public void should_be_able_to_reuse_a_released_buffer() {
+        byte[] buffer = this.uploadBufferPool.acquire();
+
+        this.uploadBufferPool.release(buffer);
+
+        assertSame(buffer, this.uploadBufferPool.acquire());
+        assertEquals(1024.0, this.meterRegistry.get("uploads.buffers.allocated").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should not be able to lend more buffers than the pool size")
+    public void should_not_be_able_to_lend_more_buffers_than_the_pool_size() {
+        this.uploadBufferPool.acquire();
+        this.uploadBufferPool.acquire();
+
+        UploadCapacityExceededException exception = assertThrows(UploadCapacityExceededException.class, () -> this.uploadBufferPool.acquire());
+
+        assertEquals("Too many uploads in progress, please try again later", exception.getMessage());
+        assertEquals(2.0, this.meterRegistry.get("uploads.buffers.in_use").gauge().value());
+        assertEquals(2048.0, this.meterRegistry.get("uploads.buffers.allocated").gauge().value());
+    }
+}
@@ -666,6 +666,93 @@ public class AuthenticationAndAuthorizationTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.FORBIDDEN.value()));
     }
 
+    @Test
+    @DisplayName("Should not be able to get video upload job if authorization token is missing in the header")
+    public void should_not_be_able_to_get_video_upload_job_if_authorization_token_is_missing_in_the_header() throws Exception {
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.get("/courses/content/video-upload-jobs/" + UUID.randomUUID()));
+
+        String expectedMessage = "Authorization token missing in request header";
+
+        result.andExpect(MockMvcResultMatchers.status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.FORBIDDEN.value()));
+    }
+
+    @Test
+    @DisplayName("Should not be able to get video upload job because there is no permission to access the route even if an authorization token is provided")
+    public void should_not_be_able_to_get_video_upload_job_because_there_is_no_permission_to_access_the_route_even_if_an_authorization_token_is_provided() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userSaved = this.usersRepository.saveAndFlush(user);
+
+        String token = TokenGenerator.generateToken(userSaved, this.secret);
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.get("/courses/content/video-upload-jobs/" + UUID.randomUUID())
+                .header("Authorization", token));
+
+        String expectedMessage = "Access to this resource is restricted";
+
+        result.andExpect(MockMvcResultMatchers.status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.FORBIDDEN.value()));
+    }
+
+    @Test
+    @DisplayName("Should not be able to get scheduled jobs if authorization token is missing in the header")
+    public void should_not_be_able_to_get_scheduled_jobs_if_authorization_token_is_missing_in_the_header() throws Exception {
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.get("/admin/scheduled-jobs"));
+
+        String expectedMessage = "Authorization token missing in request header";
+
+        result.andExpect(MockMvcResultMatchers.status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.FORBIDDEN.value()));
+    }
+
+    @Test
+    @DisplayName("Should not be able to trigger a scheduled job because there is no permission to access the route even if an authorization token is provided")
+    public void should_not_be_able_to_trigger_a_scheduled_job_because_there_is_no_permission_to_access_the_route_even_if_an_authorization_token_is_provided() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userSaved = this.usersRepository.saveAndFlush(user);
+
+        String token = TokenGenerator.generateToken(userSaved, this.secret);
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.post("/admin/scheduled-jobs/publish-pending-contents/trigger")
+                .header("Authorization", token));
+
+        String expectedMessage = "Access to this resource is restricted";
+
+        result.andExpect(MockMvcResultMatchers.status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.FORBIDDEN.value()));
+    }
+
+    @Test
+    @DisplayName("Should not be able to rotate the token signing key because there is no permission to access the route even if an authorization token is provided")
+    public void should_not_be_able_to_rotate_the_token_signing_key_because_there_is_no_permission_to_access_the_route_even_if_an_authorization_token_is_provided() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userSaved = this.usersRepository.saveAndFlush(user);
+
+        String token = TokenGenerator.generateToken(userSaved, this.secret);
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.post("/admin/token-keys/rotate")
+                .header("Authorization", token));
+
+        String expectedMessage = "Access to this resource is restricted";
+
+        result.andExpect(MockMvcResultMatchers.status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.FORBIDDEN.value()));
+    }
+
     @Test
     @DisplayName("Should not be able to update course content description if authorization token is missing in the header")
     public void should_not_be_able_to_update_course_content_description_if_authorization_token_is_missing_in_the_header() throws Exception {
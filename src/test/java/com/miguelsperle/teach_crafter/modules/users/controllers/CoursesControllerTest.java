@@ -1,9 +1,12 @@
 package com.miguelsperle.teach_crafter.modules.users.controllers;
 
+import com.jayway.jsonpath.JsonPath;
+import com.miguelsperle.teach_crafter.infra.pagination.CursorPage;
 import com.miguelsperle.teach_crafter.modules.users.dtos.courses.CreateCourseDTO;
 import com.miguelsperle.teach_crafter.modules.users.dtos.courses.UpdateCourseDescriptionDTO;
 import com.miguelsperle.teach_crafter.modules.users.dtos.courses.UpdateCourseNameDTO;
 import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.CreateCourseContentDTO;
+import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.ImportCourseContentsDTO;
 import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.UpdateCourseContentDescriptionDTO;
 import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.UpdateCourseContentModuleDTO;
 import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.UpdateCourseContentReleaseDateDTO;
@@ -29,6 +32,7 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -38,7 +42,11 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @IntegrationTestSetup
 public class CoursesControllerTest {
@@ -386,6 +394,184 @@ public class CoursesControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$[0].createdBy").value(courseSaved.getUsersEntity().getName()));
     }
 
+    @Test
+    @DisplayName("Should be able to fetch courses matching the keyword with name matches first")
+    public void should_be_able_to_fetch_courses_matching_the_keyword_with_name_matches_first() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userOwner = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        List<UsersEntity> usersSaved = this.usersRepository.saveAllAndFlush(List.of(user, userOwner));
+
+        CoursesEntity descriptionMatch = CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker());
+        descriptionMatch.setName("Cooking basics");
+        descriptionMatch.setDescription("Learn to cook while practicing Kotlin vocabulary");
+
+        CoursesEntity nameMatch = CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker());
+        nameMatch.setName("Kotlin for beginners");
+        nameMatch.setDescription("A first course on the language");
+
+        CoursesEntity noMatch = CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker());
+        noMatch.setName("Painting");
+        noMatch.setDescription("Watercolor techniques");
+
+        List<CoursesEntity> coursesSaved = this.coursesRepository.saveAllAndFlush(List.of(descriptionMatch, nameMatch, noMatch));
+
+        String token = TokenGenerator.generateToken(usersSaved.get(0), this.secret);
+
+        this.mvc.perform(MockMvcRequestBuilders.get("/courses")
+                        .param("description_keyword", "kotlin")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(coursesSaved.get(1).getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].id").value(coursesSaved.get(0).getId()));
+
+        this.mvc.perform(MockMvcRequestBuilders.get("/courses")
+                        .param("description_keyword", "kotlin")
+                        .param("page", "1")
+                        .param("size", "1")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(coursesSaved.get(0).getId()));
+    }
+
+    @Test
+    @DisplayName("Should be able to return every matching course when no page is requested")
+    public void should_be_able_to_return_every_matching_course_when_no_page_is_requested() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userOwner = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        List<UsersEntity> usersSaved = this.usersRepository.saveAllAndFlush(List.of(user, userOwner));
+
+        List<CoursesEntity> courses = IntStream.range(0, 25).mapToObj(index -> {
+            CoursesEntity course = CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker());
+            course.setName("Kotlin course " + index);
+            return course;
+        }).toList();
+
+        this.coursesRepository.saveAllAndFlush(courses);
+
+        String token = TokenGenerator.generateToken(usersSaved.get(0), this.secret);
+
+        this.mvc.perform(MockMvcRequestBuilders.get("/courses")
+                        .param("description_keyword", "kotlin")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(25));
+
+        this.mvc.perform(MockMvcRequestBuilders.get("/courses")
+                        .param("description_keyword", "kotlin")
+                        .param("page", "0")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(20));
+    }
+
+    @Test
+    @DisplayName("Should be able to walk all courses page by page with the cursor")
+    public void should_be_able_to_walk_all_courses_page_by_page_with_the_cursor() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userOwner = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        List<UsersEntity> usersSaved = this.usersRepository.saveAllAndFlush(List.of(user, userOwner));
+
+        List<CoursesEntity> coursesSaved = this.coursesRepository.saveAllAndFlush(List.of(
+                CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker()),
+                CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker()),
+                CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker())
+        ));
+
+        String token = TokenGenerator.generateToken(usersSaved.get(0), this.secret);
+
+        MvcResult firstPage = this.mvc.perform(MockMvcRequestBuilders.get("/courses")
+                        .param("description_keyword", "")
+                        .param("limit", "2")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.header().exists(CursorPage.NEXT_CURSOR_HEADER))
+                .andReturn();
+
+        MvcResult secondPage = this.mvc.perform(MockMvcRequestBuilders.get("/courses")
+                        .param("description_keyword", "")
+                        .param("limit", "2")
+                        .param("cursor", firstPage.getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER))
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(CursorPage.NEXT_CURSOR_HEADER))
+                .andReturn();
+
+        List<String> walkedIds = new ArrayList<>(JsonPath.read(firstPage.getResponse().getContentAsString(), "$[*].id"));
+        walkedIds.addAll(JsonPath.read(secondPage.getResponse().getContentAsString(), "$[*].id"));
+
+        assertThat(walkedIds).containsExactlyInAnyOrderElementsOf(coursesSaved.stream().map(CoursesEntity::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should not be able to fetch courses with an invalid cursor")
+    public void should_not_be_able_to_fetch_courses_with_an_invalid_cursor() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userSaved = this.usersRepository.saveAndFlush(user);
+
+        String token = TokenGenerator.generateToken(userSaved, this.secret);
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.get("/courses")
+                .param("description_keyword", "")
+                .param("cursor", "not-a-cursor")
+                .header("Authorization", token));
+
+        String expectedMessage = "Invalid cursor";
+
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.BAD_REQUEST.value()));
+    }
+
+    @Test
+    @DisplayName("Should be able to fetch all courses with their enrollment count")
+    public void should_be_able_to_fetch_all_courses_with_their_enrollment_count() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userOwner = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        List<UsersEntity> usersSaved = this.usersRepository.saveAllAndFlush(List.of(user, userOwner));
+
+        CoursesEntity course = CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker());
+
+        CoursesEntity courseSaved = this.coursesRepository.saveAndFlush(course);
+
+        String token = TokenGenerator.generateToken(usersSaved.get(0), this.secret);
+
+        this.mvc.perform(MockMvcRequestBuilders.post("/enrollment/" + courseSaved.getId() + "/create")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.get("/courses")
+                .param("description_keyword", "")
+                .header("Authorization", token));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(courseSaved.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].numberAvailableSpots").value(courseSaved.getMaximumAttendees() - 1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].amountEnrollment").value(1));
+    }
+
     @Test
     @DisplayName("Should be able to fetch courses by user enrollments")
     public void should_be_able_to_fetch_courses_by_user_enrollments() throws Exception {
@@ -419,6 +605,38 @@ public class CoursesControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$[0].createdBy").value(enrollmentSaved.getCoursesEntity().getUsersEntity().getName()));
     }
 
+    @Test
+    @DisplayName("Should be able to fetch a page of courses by user enrollments")
+    public void should_be_able_to_fetch_a_page_of_courses_by_user_enrollments() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userOwner = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        List<UsersEntity> usersSaved = this.usersRepository.saveAllAndFlush(List.of(user, userOwner));
+
+        List<CoursesEntity> coursesSaved = this.coursesRepository.saveAllAndFlush(List.of(
+                CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker()),
+                CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker())
+        ));
+
+        this.enrollmentsRepository.saveAllAndFlush(List.of(
+                EnrollmentsUtils.createEnrollment(coursesSaved.get(0), usersSaved.get(0)),
+                EnrollmentsUtils.createEnrollment(coursesSaved.get(1), usersSaved.get(0))
+        ));
+
+        String token = TokenGenerator.generateToken(usersSaved.get(0), this.secret);
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.get("/courses/subscribed")
+                .param("limit", "1")
+                .header("Authorization", token));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.header().exists(CursorPage.NEXT_CURSOR_HEADER));
+    }
+
     @Test
     @DisplayName("Should be able to create a course content")
     public void should_be_able_to_create_a_course_content() throws Exception {
@@ -551,6 +769,73 @@ public class CoursesControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.BAD_REQUEST.value()));
     }
 
+    @Test
+    @DisplayName("Should be able to import course contents")
+    public void should_be_able_to_import_course_contents() throws Throwable {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity userOwner = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userSaved = this.usersRepository.saveAndFlush(userOwner);
+
+        CoursesEntity course = CoursesUtils.createCourse(userSaved, H2CleanUpAndFakerExtension.getFaker());
+
+        CoursesEntity courseSaved = this.coursesRepository.saveAndFlush(course);
+
+        String token = TokenGenerator.generateToken(userSaved, this.secret);
+
+        List<CreateCourseContentDTO> contents = new ArrayList<>();
+
+        for (int i = 0; i < 250; i++) {
+            contents.add(new CreateCourseContentDTO(
+                    H2CleanUpAndFakerExtension.getFaker().lorem().paragraph(), // GENERATE A RANDOM DESCRIPTION FOR THE COURSE CONTENT
+                    LocalDate.now().plusDays(i % 2),
+                    "Introduction to " + H2CleanUpAndFakerExtension.getFaker().lorem().word() // GENERATE RANDOM COURSE MODULE FOR THE COURSE CONTENT
+            ));
+        }
+
+        // The authenticated user, the course and one insert per JDBC batch of 100 rows instead of one per content
+        ResultActions result = QueryBudget.assertWithinQueryBudget(5, () -> this.mvc.perform(MockMvcRequestBuilders.post("/courses/" + courseSaved.getId() + "/contents/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JSONConverter.objectToJSON(new ImportCourseContentsDTO(contents)))
+                .header("Authorization", token)));
+
+        String expectedMessage = "Course contents imported successfully";
+
+        result.andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.CREATED.value()));
+
+        assertThat(this.coursesContentsRepository.findAllResponsesByCourseId(courseSaved.getId())).hasSize(250);
+    }
+
+    @Test
+    @DisplayName("Should not be able to import course contents if no content is sent")
+    public void should_not_be_able_to_import_course_contents_if_no_content_is_sent() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity userOwner = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userSaved = this.usersRepository.saveAndFlush(userOwner);
+
+        CoursesEntity course = CoursesUtils.createCourse(userSaved, H2CleanUpAndFakerExtension.getFaker());
+
+        CoursesEntity courseSaved = this.coursesRepository.saveAndFlush(course);
+
+        String token = TokenGenerator.generateToken(userSaved, this.secret);
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.post("/courses/" + courseSaved.getId() + "/contents/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JSONConverter.objectToJSON(new ImportCourseContentsDTO(List.of())))
+                .header("Authorization", token));
+
+        String expectedMessage = "At least one content is required to import contents";
+
+        result.andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.BAD_REQUEST.value()));
+    }
+
     @Test
     @DisplayName("Should be able to upload course content video")
     public void should_be_able_to_upload_course_content_video() throws Exception {
@@ -579,11 +864,11 @@ public class CoursesControllerTest {
                 .contentType(MediaType.MULTIPART_FORM_DATA)
                 .header("Authorization", token));
 
-        String expectedMessage = "Course content video uploaded successfully";
-
-        result.andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.OK.value()));
+        result.andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().exists("Location"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.courseContentId").value(courseContentSaved.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("QUEUED"));
     }
 
     @Test
@@ -683,6 +968,70 @@ public class CoursesControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.BAD_REQUEST.value()));
     }
 
+    @Test
+    @DisplayName("Should be able to follow the course content video upload until it is ready")
+    public void should_be_able_to_follow_the_course_content_video_upload_until_it_is_ready() throws Throwable {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity userOwner = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userSaved = this.usersRepository.saveAndFlush(userOwner);
+
+        CoursesEntity course = CoursesUtils.createCourse(userSaved, H2CleanUpAndFakerExtension.getFaker());
+
+        CoursesEntity courseSaved = this.coursesRepository.saveAndFlush(course);
+
+        CoursesContentsEntity courseContent = CoursesContentsUtils.createCourseContent(courseSaved, H2CleanUpAndFakerExtension.getFaker());
+
+        CoursesContentsEntity courseContentSaved = this.coursesContentsRepository.saveAndFlush(courseContent);
+
+        String token = TokenGenerator.generateToken(userSaved, this.secret);
+
+        MockMultipartFile videoFile = new MockMultipartFile("videoFile", "video.mp4", "video/mp4", "test-video-file-content".getBytes());
+
+        MvcResult uploadResult = this.mvc.perform(MockMvcRequestBuilders.multipart(HttpMethod.POST, "/courses/" + courseContentSaved.getId() + "/content/upload-video")
+                .file(videoFile)
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .header("Authorization", token)).andReturn();
+
+        String videoUploadJobId = JsonPath.read(uploadResult.getResponse().getContentAsString(), "$.id");
+
+        String status = "QUEUED";
+
+        // The local uploader runs on the background workers, so the job is polled like a client would
+        for (int attempt = 0; attempt < 50 && !status.equals("READY") && !status.equals("FAILED"); attempt++) {
+            Thread.sleep(200);
+
+            // The job with its course content, the course ownership check and the authenticated user
+            MvcResult statusResult = QueryBudget.assertWithinQueryBudget(3, () -> this.mvc.perform(MockMvcRequestBuilders.get("/courses/content/video-upload-jobs/" + videoUploadJobId)
+                    .header("Authorization", token)).andReturn());
+
+            status = JsonPath.read(statusResult.getResponse().getContentAsString(), "$.status");
+        }
+
+        assertThat(status).isEqualTo("READY");
+        assertThat(this.coursesContentsRepository.findById(courseContentSaved.getId()).orElseThrow().getVideoUrl()).contains("local://course_videos/");
+    }
+
+    @Test
+    @DisplayName("Should not be able to get a video upload job that does not exist")
+    public void should_not_be_able_to_get_a_video_upload_job_that_does_not_exist() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userSaved = this.usersRepository.saveAndFlush(user);
+
+        String token = TokenGenerator.generateToken(userSaved, this.secret);
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.get("/courses/content/video-upload-jobs/0b8f3c2e-6a41-4d7e-9c35-2f1e8d7a6b90")
+                .header("Authorization", token));
+
+        result.andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Video upload job not found"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.NOT_FOUND.value()));
+    }
+
     @Test
     @DisplayName("Should be able to update course content video")
     public void should_be_able_to_update_course_content_video() throws Exception {
@@ -712,11 +1061,11 @@ public class CoursesControllerTest {
                 .contentType(MediaType.MULTIPART_FORM_DATA)
                 .header("Authorization", token));
 
-        String expectedMessage = "Course content video updated successfully";
-
-        result.andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.OK.value()));
+        result.andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().exists("Location"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.courseContentId").value(courseContentSaved.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("QUEUED"));
     }
 
     @Test
@@ -957,4 +1306,112 @@ public class CoursesControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$[0].contentModule").value(courseContentSaved.getContentModule()))
                 .andExpect(MockMvcResultMatchers.jsonPath("$[0].createdAt").value(courseContentSaved.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)));
     }
+
+    @Test
+    @DisplayName("Should be able to fetch the updated published contents after a content is changed")
+    public void should_be_able_to_fetch_the_updated_published_contents_after_a_content_is_changed() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userOwner = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        List<UsersEntity> usersSaved = this.usersRepository.saveAllAndFlush(List.of(user, userOwner));
+
+        CoursesEntity course = CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker());
+
+        CoursesEntity courseSaved = this.coursesRepository.saveAndFlush(course);
+
+        CoursesContentsEntity courseContent = CoursesContentsUtils.createCourseContent(courseSaved, H2CleanUpAndFakerExtension.getFaker());
+
+        CoursesContentsEntity courseContentSaved = this.coursesContentsRepository.saveAndFlush(courseContent);
+
+        EnrollmentsEntity enrollment = EnrollmentsUtils.createEnrollment(courseSaved, usersSaved.get(0));
+
+        this.enrollmentsRepository.save(enrollment);
+
+        String token = TokenGenerator.generateToken(usersSaved.get(0), this.secret);
+        String ownerToken = TokenGenerator.generateToken(usersSaved.get(1), this.secret);
+
+        this.mvc.perform(MockMvcRequestBuilders.get("/courses/" + courseSaved.getId() + "/contents/subscribed")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].description").value(courseContentSaved.getDescription()));
+
+        UpdateCourseContentDescriptionDTO updateCourseContentDescriptionDTO = new UpdateCourseContentDescriptionDTO("Updated description");
+
+        this.mvc.perform(MockMvcRequestBuilders.put("/courses/" + courseContentSaved.getId() + "/content/update-description")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(JSONConverter.objectToJSON(updateCourseContentDescriptionDTO))
+                        .header("Authorization", ownerToken))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        this.mvc.perform(MockMvcRequestBuilders.get("/courses/" + courseSaved.getId() + "/contents/subscribed")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].description").value("Updated description"));
+    }
+
+    @Test
+    @DisplayName("Should be able to fetch courses by user enrollments within the query budget")
+    public void should_be_able_to_fetch_courses_by_user_enrollments_within_the_query_budget() throws Throwable {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        List<UsersEntity> usersSaved = this.usersRepository.saveAllAndFlush(List.of(
+                user,
+                UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker()),
+                UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker()),
+                UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker())
+        ));
+
+        List<CoursesEntity> coursesSaved = this.coursesRepository.saveAllAndFlush(List.of(
+                CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker()),
+                CoursesUtils.createCourse(usersSaved.get(2), H2CleanUpAndFakerExtension.getFaker()),
+                CoursesUtils.createCourse(usersSaved.get(3), H2CleanUpAndFakerExtension.getFaker())
+        ));
+
+        this.enrollmentsRepository.saveAllAndFlush(coursesSaved.stream().map(course -> EnrollmentsUtils.createEnrollment(course, usersSaved.get(0))).toList());
+
+        String token = TokenGenerator.generateToken(usersSaved.get(0), this.secret);
+
+        // One statement for the authenticated user and one for the enrollments with their courses and creators, whatever the number of enrollments
+        ResultActions result = QueryBudget.assertWithinQueryBudget(2, () -> this.mvc.perform(MockMvcRequestBuilders.get("/courses/subscribed")
+                .header("Authorization", token)));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    @DisplayName("Should be able to fetch all published contents of a specific course within the query budget")
+    public void should_be_able_to_fetch_all_published_contents_of_a_specific_course_within_the_query_budget() throws Throwable {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userOwner = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        List<UsersEntity> usersSaved = this.usersRepository.saveAllAndFlush(List.of(user, userOwner));
+
+        CoursesEntity courseSaved = this.coursesRepository.saveAndFlush(CoursesUtils.createCourse(usersSaved.get(1), H2CleanUpAndFakerExtension.getFaker()));
+
+        this.coursesContentsRepository.saveAllAndFlush(List.of(
+                CoursesContentsUtils.createCourseContent(courseSaved, H2CleanUpAndFakerExtension.getFaker()),
+                CoursesContentsUtils.createCourseContent(courseSaved, H2CleanUpAndFakerExtension.getFaker()),
+                CoursesContentsUtils.createCourseContent(courseSaved, H2CleanUpAndFakerExtension.getFaker())
+        ));
+
+        this.enrollmentsRepository.saveAndFlush(EnrollmentsUtils.createEnrollment(courseSaved, usersSaved.get(0)));
+
+        String token = TokenGenerator.generateToken(usersSaved.get(0), this.secret);
+
+        // The authenticated user, the enrollment check and the contents, the course itself is never loaded
+        ResultActions result = QueryBudget.assertWithinQueryBudget(3, () -> this.mvc.perform(MockMvcRequestBuilders.get("/courses/" + courseSaved.getId() + "/contents/subscribed")
+                .header("Authorization", token)));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3));
+    }
 }
@@ -6,6 +6,7 @@ import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 import com.miguelsperle.teach_crafter.modules.users.repositories.CoursesRepository;
 import com.miguelsperle.teach_crafter.modules.users.repositories.EnrollmentsRepository;
 import com.miguelsperle.teach_crafter.modules.users.repositories.UsersRepository;
+import com.miguelsperle.teach_crafter.modules.users.services.EnrollmentsCoursesManager;
 import com.miguelsperle.teach_crafter.utils.TokenGenerator;
 import com.miguelsperle.teach_crafter.utils.integration.CoursesUtils;
 import com.miguelsperle.teach_crafter.utils.integration.EnrollmentsUtils;
@@ -22,8 +23,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @IntegrationTestSetup
 public class EnrollmentsControllerTest {
@@ -39,9 +48,15 @@ public class EnrollmentsControllerTest {
     @Autowired
     private EnrollmentsRepository enrollmentsRepository;
 
+    @Autowired
+    private EnrollmentsCoursesManager enrollmentsCoursesManager;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Autowired
     private MockMvc mvc;
 
@@ -70,6 +85,43 @@ public class EnrollmentsControllerTest {
         result.andExpect(MockMvcResultMatchers.status().isCreated())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.CREATED.value()));
+
+        assertEquals(1, this.coursesRepository.findById(courseSaved.getId()).orElseThrow().getEnrolledCount());
+    }
+
+    @Test
+    @DisplayName("Should not be able to subscribe in the course if it does not have available spots")
+    public void should_not_be_able_to_subscribe_in_the_course_if_it_does_not_have_available_spots() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity secondUser = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userOwner = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        List<UsersEntity> usersSaved = this.usersRepository.saveAllAndFlush(List.of(user, secondUser, userOwner));
+
+        CoursesEntity course = CoursesUtils.createCourse(usersSaved.get(2), H2CleanUpAndFakerExtension.getFaker());
+        course.setMaximumAttendees(1);
+
+        CoursesEntity courseSaved = this.coursesRepository.saveAndFlush(course);
+
+        this.mvc.perform(MockMvcRequestBuilders.post("/enrollment/" + courseSaved.getId() + "/create")
+                        .header("Authorization", TokenGenerator.generateToken(usersSaved.get(0), this.secret)))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.post("/enrollment/" + courseSaved.getId() + "/create")
+                .header("Authorization", TokenGenerator.generateToken(usersSaved.get(1), this.secret)));
+
+        String expectedMessage = "No available spots";
+
+        result.andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.CONFLICT.value()));
+
+        assertEquals(1, this.coursesRepository.findById(courseSaved.getId()).orElseThrow().getEnrolledCount());
+        assertEquals(1, this.enrollmentsRepository.findAllByCoursesEntityId(courseSaved.getId()).size());
     }
 
     @Test
@@ -91,6 +143,8 @@ public class EnrollmentsControllerTest {
 
         this.enrollmentsRepository.save(enrollment);
 
+        this.enrollmentsCoursesManager.reserveCourseSpot(courseSaved.getId());
+
         String token = TokenGenerator.generateToken(usersSaved.get(0), this.secret);
 
         ResultActions result = this.mvc.perform(MockMvcRequestBuilders.delete("/enrollment/" + courseSaved.getId() + "/delete")
@@ -101,5 +155,61 @@ public class EnrollmentsControllerTest {
         result.andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.OK.value()));
+
+        assertEquals(0, this.coursesRepository.findById(courseSaved.getId()).orElseThrow().getEnrolledCount());
+    }
+
+    @Test
+    @DisplayName("Should be able to reconcile the enrolled count without losing an enrollment committed meanwhile")
+    public void should_be_able_to_reconcile_the_enrolled_count_without_losing_an_enrollment_committed_meanwhile() throws Exception {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity secondUser = UsersUtils.createUser("ROLE_USER", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userOwner = UsersUtils.createUser("ROLE_CREATOR", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        List<UsersEntity> usersSaved = this.usersRepository.saveAllAndFlush(List.of(user, secondUser, userOwner));
+
+        CoursesEntity courseSaved = this.coursesRepository.saveAndFlush(CoursesUtils.createCourse(usersSaved.get(2), H2CleanUpAndFakerExtension.getFaker()));
+
+        // Saved without reserving a spot, so the course drifted: one enrollment, enrolled count 0
+        this.enrollmentsRepository.saveAndFlush(EnrollmentsUtils.createEnrollment(courseSaved, usersSaved.get(0)));
+
+        CountDownLatch spotReserved = new CountDownLatch(1);
+        CountDownLatch commitEnrollment = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Same steps as EnrollmentsService.createEnrollment, held open until the reconcile is waiting on the course
+            Future<?> enrollment = executor.submit(() -> this.transactionTemplate.executeWithoutResult(transaction -> {
+                this.enrollmentsCoursesManager.reserveCourseSpot(courseSaved.getId());
+                this.enrollmentsRepository.saveAndFlush(EnrollmentsUtils.createEnrollment(courseSaved, usersSaved.get(1)));
+
+                spotReserved.countDown();
+
+                try {
+                    commitEnrollment.await();
+                } catch (InterruptedException exception) {
+                    throw new IllegalStateException(exception);
+                }
+            }));
+
+            spotReserved.await();
+
+            Future<Boolean> reconcile = executor.submit(() -> this.enrollmentsCoursesManager.reconcileEnrolledCount(courseSaved.getId()));
+
+            Thread.sleep(200);
+            commitEnrollment.countDown();
+
+            enrollment.get();
+            assertTrue(reconcile.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, this.enrollmentsRepository.countByCoursesEntityId(courseSaved.getId()));
+        assertEquals(2, this.coursesRepository.findById(courseSaved.getId()).orElseThrow().getEnrolledCount());
     }
 }
@@ -11,8 +11,14 @@ import com.miguelsperle.teach_crafter.utils.integration.UsersUtils;
 import com.miguelsperle.teach_crafter.utils.integration.JSONConverter;
 import com.miguelsperle.teach_crafter.utils.integration.configuration.H2CleanUpAndFakerExtension;
 import com.miguelsperle.teach_crafter.utils.integration.configuration.interfaces.IntegrationTestSetup;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -25,11 +31,18 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Date;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 @IntegrationTestSetup
 public class PasswordResetTokensControllerTest {
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("no-reply@teach-crafter.test", "no-reply"));
+
     @Autowired
     private UsersRepository usersRepository;
 
@@ -62,6 +75,14 @@ public class PasswordResetTokensControllerTest {
         result.andExpect(MockMvcResultMatchers.status().isCreated())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.CREATED.value()));
+
+        // The email leaves through the outbox dispatcher after the request has already returned
+        assertTrue(greenMail.waitForIncomingEmail(10000, 1));
+
+        MimeMessage receivedEmail = greenMail.getReceivedMessages()[0];
+
+        assertEquals(userSaved.getEmail(), receivedEmail.getAllRecipients()[0].toString());
+        assertTrue(GreenMailUtil.getBody(receivedEmail).contains("reset?token="));
     }
 
     @Test
@@ -83,11 +104,15 @@ public class PasswordResetTokensControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(JSONConverter.objectToJSON(createPasswordResetTokenDTO)));
 
-        String expectedMessage = "You have an active password reset token. Please check your email to continue with password recovery";
+        String expectedMessage = "You have an active password reset token. A new link was sent to your email and the previous links no longer work";
 
         result.andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.OK.value()));
+
+        PasswordResetTokensEntity rotatedPasswordResetToken = this.passwordResetTokensRepository.findByUsersEntityId(userSaved.getId()).orElseThrow();
+
+        assertFalse(Arrays.equals(passwordResetToken.getTokenHash(), rotatedPasswordResetToken.getTokenHash()));
     }
 
     @Test
@@ -131,13 +156,15 @@ public class PasswordResetTokensControllerTest {
 
         UsersEntity userSaved = this.usersRepository.saveAndFlush(user);
 
-        PasswordResetTokensEntity passwordResetToken = PasswordResetTokensUtils.createPasswordResetToken(userSaved, this.genToken(), this.genExpirationDate());
+        String token = this.genToken();
+
+        PasswordResetTokensEntity passwordResetToken = PasswordResetTokensUtils.createPasswordResetToken(userSaved, token, this.genExpirationDate());
 
-        PasswordResetTokensEntity passwordResetTokenSaved = this.passwordResetTokensRepository.saveAndFlush(passwordResetToken);
+        this.passwordResetTokensRepository.saveAndFlush(passwordResetToken);
 
         String newPassword = H2CleanUpAndFakerExtension.getFaker().internet().password();
 
-        ResetPasswordUserNotLoggedDTO resetPasswordUserNotLoggedDTO = new ResetPasswordUserNotLoggedDTO(newPassword, passwordResetTokenSaved.getToken());
+        ResetPasswordUserNotLoggedDTO resetPasswordUserNotLoggedDTO = new ResetPasswordUserNotLoggedDTO(newPassword, token);
 
         ResultActions result = this.mvc.perform(MockMvcRequestBuilders.put("/reset-password")
                 .contentType(MediaType.APPLICATION_JSON)
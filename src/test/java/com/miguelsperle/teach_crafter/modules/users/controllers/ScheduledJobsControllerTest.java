@@ -0,0 +1,157 @@
+package com.miguelsperle.teach_crafter.modules.users.controllers;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.ScheduledJobsEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
+import com.miguelsperle.teach_crafter.modules.users.repositories.ScheduledJobsRepository;
+import com.miguelsperle.teach_crafter.modules.users.repositories.UsersRepository;
+import com.miguelsperle.teach_crafter.modules.users.services.ScheduledJobsService;
+import com.miguelsperle.teach_crafter.scheduling.ScheduledJobCoordinator;
+import com.miguelsperle.teach_crafter.scheduling.ScheduledTaskManager;
+import com.miguelsperle.teach_crafter.utils.TokenGenerator;
+import com.miguelsperle.teach_crafter.utils.integration.UsersUtils;
+import com.miguelsperle.teach_crafter.utils.integration.configuration.H2CleanUpAndFakerExtension;
+import com.miguelsperle.teach_crafter.utils.integration.configuration.interfaces.IntegrationTestSetup;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTestSetup
+public class ScheduledJobsControllerTest {
+    @Value("${api.security.token.secret}")
+    private String secret;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private ScheduledJobsRepository scheduledJobsRepository;
+
+    @Autowired
+    private ScheduledJobsService scheduledJobsService;
+
+    @Autowired
+    private ScheduledJobCoordinator scheduledJobCoordinator;
+
+    @Autowired
+    private Logger logger;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MockMvc mvc;
+
+    private String createAdminToken() {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_ADMIN", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        UsersEntity userSaved = this.usersRepository.saveAndFlush(user);
+
+        return TokenGenerator.generateToken(userSaved, this.secret);
+    }
+
+    @Test
+    @DisplayName("Should be able to get all scheduled jobs")
+    public void should_be_able_to_get_all_scheduled_jobs() throws Exception {
+        String token = this.createAdminToken();
+
+        this.scheduledJobCoordinator.registerScheduledJobs();
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.get("/admin/scheduled-jobs")
+                .header("Authorization", token));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value(ScheduledTaskManager.PUBLISH_PENDING_CONTENTS_JOB))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].name").value(ScheduledTaskManager.RECONCILE_ENROLLED_COUNTS_JOB));
+    }
+
+    @Test
+    @DisplayName("Should be able to trigger a scheduled job and record its run")
+    public void should_be_able_to_trigger_a_scheduled_job_and_record_its_run() throws Exception {
+        String token = this.createAdminToken();
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.post("/admin/scheduled-jobs/" + ScheduledTaskManager.PUBLISH_PENDING_CONTENTS_JOB + "/trigger")
+                .header("Authorization", token));
+
+        result.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name").value(ScheduledTaskManager.PUBLISH_PENDING_CONTENTS_JOB))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lastOutcome").value(ScheduledJobsService.SUCCEEDED_OUTCOME))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lastStartedAt").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lastFinishedAt").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lastDurationMs").exists());
+
+        this.mvc.perform(MockMvcRequestBuilders.get("/admin/scheduled-jobs/" + ScheduledTaskManager.PUBLISH_PENDING_CONTENTS_JOB)
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lastOutcome").value(ScheduledJobsService.SUCCEEDED_OUTCOME));
+    }
+
+    @Test
+    @DisplayName("Should not be able to trigger a scheduled job while another node holds the lease")
+    public void should_not_be_able_to_trigger_a_scheduled_job_while_another_node_holds_the_lease() throws Exception {
+        String token = this.createAdminToken();
+
+        this.scheduledJobsRepository.saveAndFlush(ScheduledJobsEntity.builder()
+                .name(ScheduledTaskManager.RECONCILE_ENROLLED_COUNTS_JOB)
+                .lockedBy("another-node")
+                .lockedUntil(LocalDateTime.now().plusMinutes(5))
+                .build());
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.post("/admin/scheduled-jobs/" + ScheduledTaskManager.RECONCILE_ENROLLED_COUNTS_JOB + "/trigger")
+                .header("Authorization", token));
+
+        String expectedMessage = "Scheduled job is locked by another run";
+
+        result.andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.CONFLICT.value()));
+    }
+
+    @Test
+    @DisplayName("Should be able to run a scheduled job on only one of two nodes sharing the lease table")
+    public void should_be_able_to_run_a_scheduled_job_on_only_one_of_two_nodes_sharing_the_lease_table() {
+        ScheduledJobCoordinator firstNode = new ScheduledJobCoordinator(this.scheduledJobsService, this.logger, "node-1", Duration.ofMinutes(30), Duration.ofSeconds(30));
+        ScheduledJobCoordinator secondNode = new ScheduledJobCoordinator(this.scheduledJobsService, this.logger, "node-2", Duration.ofMinutes(30), Duration.ofSeconds(30));
+
+        firstNode.register("test-job", () -> {});
+        secondNode.register("test-job", () -> {});
+
+        assertThat(firstNode.run("test-job")).isTrue();
+        assertThat(secondNode.run("test-job")).isFalse();
+
+        ScheduledJobsEntity scheduledJob = this.scheduledJobsRepository.findById("test-job").orElseThrow();
+
+        assertThat(scheduledJob.getLockedBy()).isEqualTo("node-1");
+        assertThat(scheduledJob.getLastOutcome()).isEqualTo(ScheduledJobsService.SUCCEEDED_OUTCOME);
+    }
+
+    @Test
+    @DisplayName("Should not be able to trigger a scheduled job if it does not exist")
+    public void should_not_be_able_to_trigger_a_scheduled_job_if_it_does_not_exist() throws Exception {
+        String token = this.createAdminToken();
+
+        ResultActions result = this.mvc.perform(MockMvcRequestBuilders.post("/admin/scheduled-jobs/unknown-job/trigger")
+                .header("Authorization", token));
+
+        String expectedMessage = "Scheduled job not found";
+
+        result.andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.NOT_FOUND.value()));
+    }
+}
@@ -0,0 +1,144 @@
+package com.miguelsperle.teach_crafter.modules.users.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import com.miguelsperle.teach_crafter.infra.security.TokenService;
+import com.miguelsperle.teach_crafter.modules.users.entities.tokenSigningKeys.TokenSigningKeysEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
+import com.miguelsperle.teach_crafter.modules.users.repositories.TokenSigningKeysRepository;
+import com.miguelsperle.teach_crafter.modules.users.repositories.UsersRepository;
+import com.miguelsperle.teach_crafter.utils.TokenGenerator;
+import com.miguelsperle.teach_crafter.utils.integration.UsersUtils;
+import com.miguelsperle.teach_crafter.utils.integration.configuration.H2CleanUpAndFakerExtension;
+import com.miguelsperle.teach_crafter.utils.integration.configuration.interfaces.IntegrationTestSetup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTestSetup
+public class TokenSigningKeysControllerTest {
+    @Value("${api.security.token.secret}")
+    private String secret;
+
+    @Value("${api.security.token.key-id}")
+    private String configuredKeyId;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private TokenSigningKeysRepository tokenSigningKeysRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MockMvc mvc;
+
+    // The key ring outlives the test context of this class, so the configured key is restored for the other tests
+    @AfterEach
+    public void restoreKeyRing() {
+        this.tokenSigningKeysRepository.deleteAll();
+
+        this.tokenService.refreshKeyRing();
+    }
+
+    private UsersEntity createAdmin() {
+        String password = H2CleanUpAndFakerExtension.getFaker().internet().password();
+
+        UsersEntity user = UsersUtils.createUser("ROLE_ADMIN", this.passwordEncoder.encode(password), H2CleanUpAndFakerExtension.getFaker());
+
+        return this.usersRepository.saveAndFlush(user);
+    }
+
+    @Test
+    @DisplayName("Should be able to rotate the signing key and retire the configured key once the new one signs")
+    public void should_be_able_to_rotate_the_signing_key_and_retire_the_configured_key_once_the_new_one_signs() throws Exception {
+        UsersEntity admin = this.createAdmin();
+
+        String configuredKeyToken = TokenGenerator.generateToken(admin, this.secret);
+
+        MvcResult rotation = this.mvc.perform(MockMvcRequestBuilders.post("/admin/token-keys/rotate")
+                        .header("Authorization", configuredKeyToken))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.keyId").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.retiredAt").doesNotExist())
+                .andReturn();
+
+        String keyId = JsonPath.read(rotation.getResponse().getContentAsString(), "$.keyId");
+
+        // Still pending, this node keeps signing with the configured key until the activation delay has passed
+        assertThat(this.tokenService.getSigningKeyId()).isEqualTo(this.configuredKeyId);
+
+        TokenSigningKeysEntity signingKey = this.tokenSigningKeysRepository.findById(keyId).orElseThrow();
+        signingKey.setActivatesAt(LocalDateTime.now().minusSeconds(1));
+        this.tokenSigningKeysRepository.saveAndFlush(signingKey);
+
+        this.tokenService.refreshKeyRing();
+
+        assertThat(this.tokenService.getSigningKeyId()).isEqualTo(keyId);
+
+        String rotatedKeyToken = this.tokenService.generateToken(admin);
+
+        this.mvc.perform(MockMvcRequestBuilders.post("/admin/token-keys/" + this.configuredKeyId + "/retire")
+                        .header("Authorization", rotatedKeyToken))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.keyId").value(this.configuredKeyId))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.retiredAt").exists());
+
+        this.mvc.perform(MockMvcRequestBuilders.get("/admin/token-keys")
+                        .header("Authorization", configuredKeyToken))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        this.mvc.perform(MockMvcRequestBuilders.get("/admin/token-keys")
+                        .header("Authorization", rotatedKeyToken))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("Should not be able to retire the key that still signs new tokens")
+    public void should_not_be_able_to_retire_the_key_that_still_signs_new_tokens() throws Exception {
+        String token = TokenGenerator.generateToken(this.createAdmin(), this.secret);
+
+        this.mvc.perform(MockMvcRequestBuilders.post("/admin/token-keys/rotate")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        String expectedMessage = "The current token signing key cannot be retired";
+
+        this.mvc.perform(MockMvcRequestBuilders.post("/admin/token-keys/" + this.configuredKeyId + "/retire")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.CONFLICT.value()));
+    }
+
+    @Test
+    @DisplayName("Should not be able to retire a key that does not exist")
+    public void should_not_be_able_to_retire_a_key_that_does_not_exist() throws Exception {
+        String token = TokenGenerator.generateToken(this.createAdmin(), this.secret);
+
+        String expectedMessage = "Token signing key not found";
+
+        this.mvc.perform(MockMvcRequestBuilders.post("/admin/token-keys/unknown-key/retire")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expectedMessage))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(HttpStatus.NOT_FOUND.value()));
+    }
+}
@@ -1,7 +1,6 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
 import com.cloudinary.Cloudinary;
-import com.cloudinary.Uploader;
 import com.cloudinary.Url;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -27,6 +26,9 @@ public class CloudinaryImageServiceTest {
     @Mock
     private Cloudinary cloudinary;
 
+    @Mock
+    private CloudinaryStreamingUploader cloudinaryStreamingUploader;
+
     private MultipartFile mockFile;
 
     @BeforeEach
@@ -37,18 +39,13 @@ public class CloudinaryImageServiceTest {
     @Test
     @DisplayName("Should be able to upload an image to cloud on cloudinary service")
     public void should_be_able_to_upload_image_to_cloud_on_cloudinary_service() throws IOException {
-        Uploader mockUploader = mock(Uploader.class);
         Url mockUrl = mock(Url.class);
 
-        when(this.mockFile.getBytes()).thenReturn("test-image-file-content".getBytes());
-
-        when(this.cloudinary.uploader()).thenReturn(mockUploader);
-
         HashMap<String, Object> uploadedFileResponse = new HashMap<>();
         uploadedFileResponse.put("public_id", "8Bs90kDnE3vz2X1rWj4T");
         // We generate a random public_id
 
-        when(this.cloudinary.uploader().upload(any(), any())).thenReturn(uploadedFileResponse);
+        when(this.cloudinaryStreamingUploader.upload(eq(this.mockFile), any())).thenReturn(uploadedFileResponse);
 
         when(this.cloudinary.url()).thenReturn(mockUrl);
 
@@ -66,14 +63,14 @@ public class CloudinaryImageServiceTest {
         // First argument is what I expect
         // Second argument is the real value obtained
 
-        verify(this.cloudinary.uploader(), atLeastOnce()).upload(eq("test-image-file-content".getBytes()), argThat(map -> "profile_pics".equals(map.get("folder"))));
+        verify(this.cloudinaryStreamingUploader, atLeastOnce()).upload(eq(this.mockFile), argThat(map -> "profile_pics".equals(map.get("folder"))));
         // Verify if the method upload was called with specifics arguments ( if it has a key = folder with value = profile_pics )
     }
 
     @Test
     @DisplayName("Should be able to throw an exception when a byte retrieval error occurs during image upload")
     public void should_be_able_to_throw_an_exception_when_a_byte_retrieval_error_occurs_during_image_upload() throws IOException {
-        when(this.mockFile.getBytes()).thenThrow(IOException.class);
+        when(this.cloudinaryStreamingUploader.upload(any(MultipartFile.class), any())).thenThrow(IOException.class);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             this.cloudinaryImageService.uploadImageFile(this.mockFile, "profile_pics");
@@ -0,0 +1,121 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import com.miguelsperle.teach_crafter.infra.upload.UploadBufferPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CloudinaryStreamingUploaderTest {
+    @Mock
+    private Cloudinary cloudinary;
+
+    @Mock
+    private Uploader uploader;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CloudinaryStreamingUploader cloudinaryStreamingUploader;
+
+    @BeforeEach
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+
+        UploadBufferPool uploadBufferPool = new UploadBufferPool(this.meterRegistry, DataSize.ofBytes(8), 1, Duration.ofMillis(100));
+
+        this.cloudinaryStreamingUploader = new CloudinaryStreamingUploader(this.cloudinary, uploadBufferPool, this.meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should be able to upload a large file in chunks with content range")
+    public void should_be_able_to_upload_a_large_file_in_chunks_with_content_range() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "video.mp4", "video/mp4", "abcdefghijklmnopqrst".getBytes());
+
+        List<String> chunks = new ArrayList<>();
+        List<Object> contentRanges = new ArrayList<>();
+
+        when(this.cloudinary.uploader()).thenReturn(this.uploader);
+        when(this.cloudinary.randomPublicId()).thenReturn("upload-id");
+
+        // The buffer is reused between chunks, so its content is copied at the moment of each call
+        when(this.uploader.upload(any(), any())).thenAnswer(invocation -> {
+            Object chunk = invocation.getArgument(0);
+
+            chunks.add(chunk instanceof File chunkFile ? Files.readString(chunkFile.toPath()) : new String((byte[]) chunk));
+            contentRanges.add(((Map<?, ?>) ((Map<?, ?>) invocation.getArgument(1)).get("extra_headers")).get("Content-Range"));
+
+            return Map.of("public_id", "m7Nq5Ls2VcH9A4X8BwK1");
+        });
+
+        Map<Object, Object> options = new HashMap<>();
+        options.put("resource_type", "video");
+
+        Map uploadedFile = this.cloudinaryStreamingUploader.upload(file, options);
+
+        assertEquals("m7Nq5Ls2VcH9A4X8BwK1", uploadedFile.get("public_id"));
+        assertEquals(List.of("abcdefgh", "ijklmnop", "qrst"), chunks);
+        assertEquals(List.of("bytes 0-7/20", "bytes 8-15/20", "bytes 16-19/20"), contentRanges);
+        assertEquals(0.0, this.meterRegistry.get("uploads.buffers.in_use").gauge().value());
+        assertEquals(8.0, this.meterRegistry.get("uploads.buffers.allocated").gauge().value());
+        assertEquals(20.0, this.meterRegistry.get("uploads.size").tag("resource_type", "video").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should be able to upload a small file in a single call from disk without a pooled buffer")
+    public void should_be_able_to_upload_a_small_file_in_a_single_call_from_disk_without_a_pooled_buffer() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "image.png", "image/png", "abcde".getBytes());
+
+        when(this.cloudinary.uploader()).thenReturn(this.uploader);
+        List<String> uploadedContents = new ArrayList<>();
+
+        when(this.uploader.upload(any(), any())).thenAnswer(invocation -> {
+            uploadedContents.add(Files.readString(((File) invocation.getArgument(0)).toPath()));
+
+            return Map.of("public_id", "8Bs90kDnE3vz2X1rWj4T");
+        });
+
+        Map<Object, Object> options = new HashMap<>();
+        options.put("resource_type", "image");
+
+        this.cloudinaryStreamingUploader.upload(file, options);
+
+        assertEquals(List.of("abcde"), uploadedContents);
+        verify(this.uploader, times(1)).upload(any(File.class), argThat(map -> !map.containsKey("extra_headers")));
+        verify(this.cloudinary, never()).randomPublicId();
+        assertEquals(0.0, this.meterRegistry.get("uploads.buffers.allocated").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should be able to return the buffer to the pool when the upload fails")
+    public void should_be_able_to_return_the_buffer_to_the_pool_when_the_upload_fails() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "video.mp4", "video/mp4", "abcdefghijklmnopqrst".getBytes());
+
+        when(this.cloudinary.uploader()).thenReturn(this.uploader);
+        when(this.cloudinary.randomPublicId()).thenReturn("upload-id");
+        when(this.uploader.upload(any(), any())).thenThrow(IOException.class);
+
+        assertThrows(IOException.class, () -> this.cloudinaryStreamingUploader.upload(file, new HashMap<>()));
+
+        assertEquals(0.0, this.meterRegistry.get("uploads.buffers.in_use").gauge().value());
+    }
+}
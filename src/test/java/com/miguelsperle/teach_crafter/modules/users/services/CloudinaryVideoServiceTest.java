@@ -1,18 +1,19 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
 import com.cloudinary.Cloudinary;
-import com.cloudinary.Uploader;
 import com.cloudinary.Url;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,28 +31,29 @@ public class CloudinaryVideoServiceTest {
     @Mock
     private Cloudinary cloudinary;
 
-    private MultipartFile mockFile;
+    @Mock
+    private CloudinaryStreamingUploader cloudinaryStreamingUploader;
+
+    @TempDir
+    private Path tempDirectory;
+
+    private Path videoFile;
 
     @BeforeEach
-    public void setUp() {
-        this.mockFile = mock(MultipartFile.class);
+    public void setUp() throws IOException {
+        this.videoFile = Files.writeString(this.tempDirectory.resolve("video.upload"), "test-video-file-content");
     }
 
     @Test
     @DisplayName("Should be able to upload a video to cloud on cloudinary service")
     public void should_be_able_to_upload_a_video_to_cloud_on_cloudinary_service() throws IOException {
-        Uploader mockUploader = mock(Uploader.class);
         Url mockUrl = mock(Url.class);
 
-        when(this.mockFile.getBytes()).thenReturn("test-video-file-content".getBytes());
-
-        when(this.cloudinary.uploader()).thenReturn(mockUploader);
-
         HashMap<String, Object> uploadedFileResponse = new HashMap<>();
         uploadedFileResponse.put("public_id", "m7Nq5Ls2VcH9A4X8BwK1");
         // We generate a random public_id
 
-        when(this.cloudinary.uploader().upload(any(), any())).thenReturn(uploadedFileResponse);
+        when(this.cloudinaryStreamingUploader.upload(eq(this.videoFile), any())).thenReturn(uploadedFileResponse);
 
         when(this.cloudinary.url()).thenReturn(mockUrl);
 
@@ -73,24 +75,24 @@ public class CloudinaryVideoServiceTest {
                 "\"480p\": \"https://test-url/course_videos/m7Nq5Ls2VcH9A4X8BwK1\"" +
                 "}";
 
-        String resultUrl = this.cloudinaryVideoService.uploadVideoFile(this.mockFile, "course_videos");
+        String resultUrl = this.cloudinaryVideoService.uploadVideoFile(this.videoFile, "course_videos");
 
         assertNotNull(resultUrl);
         assertEquals(expectedJson, resultUrl);
         // First argument is what I expect
         // Second argument is the real value obtained
 
-        verify(this.cloudinary.uploader(), atLeastOnce()).upload(eq("test-video-file-content".getBytes()), argThat(map -> "course_videos".equals(map.get("folder"))));
+        verify(this.cloudinaryStreamingUploader, atLeastOnce()).upload(eq(this.videoFile), argThat(map -> "course_videos".equals(map.get("folder"))));
         // Verify if the method upload was called with specifics arguments ( if it has a key = folder with value = course_videos )
     }
 
     @Test
     @DisplayName("Should be able to throw an exception when a byte retrieval error occurs during video upload")
     public void should_be_able_to_throw_an_exception_when_a_byte_retrieval_error_occurs_during_video_upload() throws IOException {
-        when(this.mockFile.getBytes()).thenThrow(IOException.class);
+        when(this.cloudinaryStreamingUploader.upload(any(Path.class), any())).thenThrow(IOException.class);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            this.cloudinaryVideoService.uploadVideoFile(this.mockFile, "course_videos");
+            this.cloudinaryVideoService.uploadVideoFile(this.videoFile, "course_videos");
         });
 
         String expectedErrorMessage = "Error while retrieving bytes for video upload";
@@ -1,16 +1,19 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
 import com.miguelsperle.teach_crafter.exceptions.general.TaskDeniedException;
+import com.miguelsperle.teach_crafter.infra.pagination.CursorPage;
+import com.miguelsperle.teach_crafter.infra.pagination.KeysetCursor;
+import com.miguelsperle.teach_crafter.infra.pagination.PageSizeResolver;
 import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.*;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.CoursesEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.CoursesContentsEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.exceptions.InvalidReleaseDateException;
-import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.EnrollmentsEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.exceptions.EnrollmentNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.entities.videoUploadJobs.VideoUploadJobsEntity;
+import com.miguelsperle.teach_crafter.modules.users.events.CourseContentReleaseChangedEvent;
 import com.miguelsperle.teach_crafter.modules.users.repositories.CoursesContentsRepository;
 import com.miguelsperle.teach_crafter.utils.unit.mocks.CoursesContentsEntityCreator;
 import com.miguelsperle.teach_crafter.utils.unit.mocks.CoursesEntityCreator;
-import com.miguelsperle.teach_crafter.utils.unit.mocks.EnrollmentsEntityCreator;
 import com.miguelsperle.teach_crafter.utils.unit.mocks.UsersEntityCreator;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,16 +22,20 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.multipart.MultipartFile;
 
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.atLeastOnce;
 
@@ -47,10 +54,19 @@ public class CoursesContentsServiceTest {
     private UsersService usersService;
 
     @Mock
-    private EnrollmentsService enrollmentsService;
+    private EnrollmentMembershipService enrollmentMembershipService;
 
     @Mock
-    private CloudinaryVideoService cloudinaryVideoService;
+    private VideoUploadJobsService videoUploadJobsService;
+
+    @Mock
+    private PageSizeResolver pageSizeResolver;
+
+    @Mock
+    private PublishedContentsCache publishedContentsCache;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @Test
     @DisplayName("Creator user should be able to create a course content")
@@ -73,6 +89,8 @@ public class CoursesContentsServiceTest {
 
         assertNotNull(newCourseContent.getId());
         assertThat(newCourseContent).hasFieldOrProperty("id");
+
+        verify(this.applicationEventPublisher).publishEvent(new CourseContentReleaseChangedEvent(newCourseContent.getId(), newCourseContent.getStatus(), newCourseContent.getReleaseDate()));
     }
 
     @Test
@@ -126,6 +144,60 @@ public class CoursesContentsServiceTest {
         assertEquals(expectedErrorMessage, exception.getMessage());
     }
 
+    @Test
+    @DisplayName("Creator user should be able to import course contents")
+    public void creator_user_should_be_able_to_import_course_contents() {
+        CoursesEntity course = CoursesEntityCreator.createValidCoursesEntity();
+        course.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
+
+        when(this.coursesService.getCourseById(any())).thenReturn(course);
+
+        when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
+
+        when(this.coursesContentsRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ImportCourseContentsDTO importCourseContentsDTO = new ImportCourseContentsDTO(List.of(
+                new CreateCourseContentDTO("Html fundamentals", LocalDate.now(), "Introduction to Html"),
+                new CreateCourseContentDTO("Css fundamentals", LocalDate.now().plusDays(2), "Introduction to Css")
+        ));
+
+        List<CoursesContentsEntity> newCourseContents = this.coursesContentsService.importCourseContents(course.getId(), importCourseContentsDTO);
+
+        assertEquals(2, newCourseContents.size());
+        assertEquals("PUBLISHED", newCourseContents.get(0).getStatus());
+        assertEquals("PENDING", newCourseContents.get(1).getStatus());
+        assertEquals(course, newCourseContents.get(1).getCoursesEntity());
+
+        verify(this.coursesContentsRepository, times(1)).saveAll(anyList());
+        verify(this.coursesContentsRepository, never()).save(any());
+        verify(this.publishedContentsCache, times(1)).invalidate(course.getId());
+        verify(this.applicationEventPublisher, times(2)).publishEvent(any(CourseContentReleaseChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Creator user should not be able to import course contents if any release date is in the past")
+    public void creator_user_should_not_be_able_to_import_course_contents_if_any_release_date_is_in_the_past() {
+        CoursesEntity course = CoursesEntityCreator.createValidCoursesEntity();
+        course.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
+
+        when(this.coursesService.getCourseById(any())).thenReturn(course);
+
+        when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
+
+        ImportCourseContentsDTO importCourseContentsDTO = new ImportCourseContentsDTO(List.of(
+                new CreateCourseContentDTO("Html fundamentals", LocalDate.now(), "Introduction to Html"),
+                new CreateCourseContentDTO("Css fundamentals", LocalDate.now().minusDays(2), "Introduction to Css")
+        ));
+
+        InvalidReleaseDateException exception = assertThrows(InvalidReleaseDateException.class, () -> {
+            this.coursesContentsService.importCourseContents(course.getId(), importCourseContentsDTO);
+        });
+
+        assertEquals("Release date cannot be in the past", exception.getMessage());
+
+        verify(this.coursesContentsRepository, never()).saveAll(anyList());
+    }
+
     @Test
     @DisplayName("Creator user should be able to update course content description")
     public void creator_user_should_be_able_to_update_course_content_description() {
@@ -154,6 +226,8 @@ public class CoursesContentsServiceTest {
         assertEquals(updateCourseContentDescriptionDTO.newContentDescription(), userCaptor.getValue().getDescription());
         // First argument is what I expect
         // Second argument is the real value obtained
+
+        verify(this.publishedContentsCache).invalidate(course.getId());
     }
 
     @Test
@@ -200,20 +274,22 @@ public class CoursesContentsServiceTest {
 
         MultipartFile mockVideoFile = mock(MultipartFile.class);
 
-        String expectedUrl = "NEW_VIDEO_URL";
-        when(this.cloudinaryVideoService.uploadVideoFile(mockVideoFile, "course_videos")).thenReturn(expectedUrl);
+        VideoUploadJobsEntity videoUploadJob = VideoUploadJobsEntity.builder()
+                .id("0b8f3c2e-6a41-4d7e-9c35-2f1e8d7a6b90")
+                .coursesContentsEntity(courseContent)
+                .status(VideoUploadJobsService.QUEUED_STATUS)
+                .build();
 
-        this.coursesContentsService.uploadCourseContentVideo(courseContent.getId(), mockVideoFile);
+        when(this.videoUploadJobsService.createVideoUploadJob(courseContent, mockVideoFile)).thenReturn(videoUploadJob);
 
-        // capture the value after of the method called ( save() )
-        ArgumentCaptor<CoursesContentsEntity> userCaptor = ArgumentCaptor.forClass(CoursesContentsEntity.class);
+        VideoUploadJobResponseDTO result = this.coursesContentsService.uploadCourseContentVideo(courseContent.getId(), mockVideoFile);
 
-        // Verify if the method save was called with a specific argument
-        verify(this.coursesContentsRepository, atLeastOnce()).save(userCaptor.capture());
+        assertEquals(videoUploadJob.getId(), result.id());
+        assertEquals(courseContent.getId(), result.courseContentId());
+        assertEquals("QUEUED", result.status());
 
-        assertEquals(expectedUrl, userCaptor.getValue().getVideoUrl());
-        // First argument is what I expect
-        // Second argument is the real value obtained
+        // The video url is only written by the background worker
+        verify(this.coursesContentsRepository, never()).save(any());
     }
 
     @Test
@@ -243,6 +319,30 @@ public class CoursesContentsServiceTest {
         assertEquals(expectedErrorMessage, exception.getMessage());
     }
 
+    @Test
+    @DisplayName("Creator user should not be able to get a video upload job if the same individual is not the course owner")
+    public void creator_user_should_not_be_able_to_get_a_video_upload_job_if_the_same_individual_is_not_the_course_owner() {
+        CoursesEntity course = CoursesEntityCreator.createValidCoursesEntity();
+        course.setUsersEntity(UsersEntityCreator.createSecondValidUsersEntity());
+
+        CoursesContentsEntity courseContent = CoursesContentsEntityCreator.createValidCoursesContentsEntity();
+        courseContent.setCoursesEntity(course);
+
+        VideoUploadJobsEntity videoUploadJob = VideoUploadJobsEntity.builder().id("0b8f3c2e-6a41-4d7e-9c35-2f1e8d7a6b90").coursesContentsEntity(courseContent).build();
+
+        when(this.videoUploadJobsService.getVideoUploadJobById(videoUploadJob.getId())).thenReturn(videoUploadJob);
+
+        when(this.coursesService.getCourseById(any())).thenReturn(course);
+
+        when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
+
+        TaskDeniedException exception = assertThrows(TaskDeniedException.class, () -> {
+            this.coursesContentsService.getVideoUploadJob(videoUploadJob.getId());
+        });
+
+        assertEquals("Task not allowed", exception.getMessage());
+    }
+
     @Test
     @DisplayName("Creator user should be able to update course content release date")
     public void creator_user_should_be_able_to_update_course_content_release_date() {
@@ -271,6 +371,8 @@ public class CoursesContentsServiceTest {
         assertEquals(updateCourseContentReleaseDateDTO.newContentReleaseDate(), userCaptor.getValue().getReleaseDate());
         // First argument is what I expect
         // Second argument is the real value obtained
+
+        verify(this.applicationEventPublisher).publishEvent(new CourseContentReleaseChangedEvent(courseContent.getId(), userCaptor.getValue().getStatus(), updateCourseContentReleaseDateDTO.newContentReleaseDate()));
     }
 
     @Test
@@ -328,6 +430,8 @@ public class CoursesContentsServiceTest {
         assertEquals(updateCourseContentModuleDTO.newContentModule(), userCaptor.getValue().getContentModule());
         // First argument is what I expect
         // Second argument is the real value obtained
+
+        verify(this.publishedContentsCache).invalidate(course.getId());
     }
 
     @Test
@@ -370,7 +474,7 @@ public class CoursesContentsServiceTest {
 
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
-        when(this.coursesContentsRepository.findAllByCoursesEntityId(any())).thenReturn(List.of(courseContent));
+        when(this.coursesContentsRepository.findAllResponsesByCourseId(any())).thenReturn(List.of(this.toCourseContentResponse(courseContent)));
 
         List<CourseContentResponseDTO> result = this.coursesContentsService.getCourseContentsCreatedByCreatorUser(course.getId());
 
@@ -421,13 +525,9 @@ public class CoursesContentsServiceTest {
         courseContent.setReleaseDate(LocalDate.now());
         courseContent.setCoursesEntity(course);
 
-        EnrollmentsEntity enrollment = EnrollmentsEntityCreator.createValidEnrollmentsEntity();
-        enrollment.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
-        enrollment.setCoursesEntity(course);
+        when(this.coursesContentsRepository.findAllResponsesByCourseIdAndStatus(any(), any())).thenReturn(List.of(this.toCourseContentResponse(courseContent)));
 
-        when(this.enrollmentsService.getEnrollmentByUserIdAndCourseId(any(), any())).thenReturn(Optional.of(enrollment));
-
-        when(this.coursesContentsRepository.findAllByCoursesEntityIdAndStatus(any(), any())).thenReturn(List.of(courseContent));
+        when(this.publishedContentsCache.get(eq(course.getId()), any())).thenAnswer(invocation -> invocation.<Function<String, List<CourseContentResponseDTO>>>getArgument(1).apply(invocation.getArgument(0)));
 
         List<CourseContentResponseDTO> result = this.coursesContentsService.getPublishedContentsForSubscribedUser(course.getId());
 
@@ -442,12 +542,43 @@ public class CoursesContentsServiceTest {
         assertEquals(courseContent.getCreatedAt(), result.get(0).createdAt());
     }
 
+    @Test
+    @DisplayName("Should be able to return a page of published contents with the cursor of the next page")
+    public void should_be_able_to_return_a_page_of_published_contents_with_the_cursor_of_the_next_page() {
+        when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
+
+        CoursesEntity course = CoursesEntityCreator.createValidCoursesEntity();
+        course.setUsersEntity(UsersEntityCreator.createSecondValidUsersEntity());
+
+        CoursesContentsEntity firstContent = CoursesContentsEntityCreator.createValidCoursesContentsEntity();
+        firstContent.setStatus("PUBLISHED");
+        firstContent.setCreatedAt(LocalDateTime.of(2024, 6, 12, 13, 0));
+
+        CoursesContentsEntity secondContent = CoursesContentsEntityCreator.createValidCoursesContentsEntity();
+        secondContent.setId("2");
+        secondContent.setStatus("PUBLISHED");
+
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 6, 1, 10, 0), "5e9d6f8a-2c1b-47e3-b41f-10a8c7d39b72");
+
+        when(this.pageSizeResolver.resolve(1)).thenReturn(1);
+
+        // One row more than the limit is fetched to know whether a next page exists
+        when(this.coursesContentsRepository.findResponsesByCourseIdAndStatusCreatedAfter(eq(course.getId()), eq("PUBLISHED"), eq(cursor.createdAt()), eq(cursor.id()), argThat(pageable -> pageable.getPageSize() == 2)))
+                .thenReturn(List.of(this.toCourseContentResponse(firstContent), this.toCourseContentResponse(secondContent)));
+
+        CursorPage<CourseContentResponseDTO> result = this.coursesContentsService.getPublishedContentsForSubscribedUserPage(course.getId(), cursor.encode(), 1);
+
+        assertEquals(1, result.items().size());
+        assertEquals(firstContent.getId(), result.items().get(0).id());
+        assertEquals(new KeysetCursor(firstContent.getCreatedAt(), firstContent.getId()).encode(), result.nextCursor());
+    }
+
     @Test
     @DisplayName("Should not be able to return all published contents of a specific course if the user is not subscribed in the course")
     public void should_not_be_able_to_return_all_published_contents_of_a_specific_course_if_the_user_is_not_subscribed_in_the_course() {
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
-        when(this.enrollmentsService.getEnrollmentByUserIdAndCourseId(any(), any())).thenReturn(Optional.empty());
+        doThrow(new EnrollmentNotFoundException("Enrollment does not exist")).when(this.enrollmentMembershipService).ensureUserIsSubscribed(any(), any());
 
         CoursesEntity course = CoursesEntityCreator.createValidCoursesEntity();
         course.setUsersEntity(UsersEntityCreator.createSecondValidUsersEntity());
@@ -461,4 +592,17 @@ public class CoursesContentsServiceTest {
         assertInstanceOf(EnrollmentNotFoundException.class, exception);
         assertEquals(expectedErrorMessage, exception.getMessage());
     }
+
+    // The read queries build the response records themselves
+    private CourseContentResponseDTO toCourseContentResponse(CoursesContentsEntity courseContent) {
+        return new CourseContentResponseDTO(
+                courseContent.getId(),
+                courseContent.getDescription(),
+                courseContent.getVideoUrl(),
+                courseContent.getStatus(),
+                courseContent.getReleaseDate(),
+                courseContent.getContentModule(),
+                courseContent.getCreatedAt()
+        );
+    }
 }
@@ -1,10 +1,12 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
 import com.miguelsperle.teach_crafter.exceptions.general.TaskDeniedException;
+import com.miguelsperle.teach_crafter.infra.pagination.PageSizeResolver;
 import com.miguelsperle.teach_crafter.modules.users.dtos.courses.*;
 import com.miguelsperle.teach_crafter.modules.users.entities.courses.CoursesEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.EnrollmentsEntity;
 import com.miguelsperle.teach_crafter.modules.users.repositories.CoursesRepository;
+import com.miguelsperle.teach_crafter.modules.users.services.search.CourseSearchEngine;
 import com.miguelsperle.teach_crafter.utils.unit.mocks.CoursesEntityCreator;
 import com.miguelsperle.teach_crafter.utils.unit.mocks.EnrollmentsEntityCreator;
 import com.miguelsperle.teach_crafter.utils.unit.mocks.UsersEntityCreator;
@@ -16,6 +18,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -42,6 +46,12 @@ public class CoursesServiceTest {
     @Mock
     private EnrollmentsCoursesManager enrollmentsCoursesManager;
 
+    @Mock
+    private CourseSearchEngine courseSearchEngine;
+
+    @Mock
+    private PageSizeResolver pageSizeResolver;
+
     private CoursesEntity course;
 
     @BeforeEach
@@ -210,13 +220,9 @@ public class CoursesServiceTest {
     public void should_be_able_to_return_all_courses_created_by_creator_user() {
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
-        when(this.coursesRepository.findAllByUsersEntityId(any())).thenReturn(List.of(this.course));
+        CourseWithEnrollmentCountDTO courseWithEnrollmentCount = this.createCourseWithEnrollmentCount(1);
 
-        EnrollmentsEntity enrollment = EnrollmentsEntityCreator.createValidEnrollmentsEntity();
-        enrollment.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
-        enrollment.setCoursesEntity(this.course);
-
-        when(this.enrollmentsCoursesManager.getAllEnrollmentsByCourseId(any())).thenReturn(List.of(enrollment));
+        when(this.coursesRepository.findAllWithEnrollmentCountByUsersEntityId(any())).thenReturn(List.of(courseWithEnrollmentCount));
 
         List<CourseResponseDTO> result = this.coursesService.getAllCoursesCreatedByCreatorUser();
 
@@ -226,10 +232,13 @@ public class CoursesServiceTest {
         assertEquals(this.course.getName(), result.get(0).name());
         assertEquals(this.course.getDescription(), result.get(0).description());
         assertEquals(this.course.getMaximumAttendees(), result.get(0).maximumAttendees());
-        assertEquals(this.course.getMaximumAttendees() - List.of(enrollment).size(), result.get(0).numberAvailableSpots());
-        assertEquals(List.of(enrollment).size(), result.get(0).amountEnrollment());
+        assertEquals(this.course.getMaximumAttendees() - 1, result.get(0).numberAvailableSpots());
+        assertEquals(1, result.get(0).amountEnrollment());
         assertEquals(this.course.getCreatedAt(), result.get(0).createdAt());
         assertEquals(this.course.getUsersEntity().getName(), result.get(0).createdBy());
+
+        // Enrollments are counted by the listing query instead of being loaded per course
+        verifyNoInteractions(this.enrollmentsCoursesManager);
     }
 
     @Test
@@ -238,44 +247,83 @@ public class CoursesServiceTest {
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
         EnrollmentsEntity enrollment = EnrollmentsEntityCreator.createValidEnrollmentsEntity();
-        enrollment.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
-        enrollment.setCoursesEntity(this.course);
 
-        when(this.enrollmentsCoursesManager.getAllEnrollmentsByUserId(any())).thenReturn(List.of(enrollment));
+        CourseSubscriptionDTO subscription = new CourseSubscriptionDTO(
+                enrollment.getId(),
+                enrollment.getCreatedAt(),
+                this.course.getId(),
+                this.course.getName(),
+                this.course.getDescription(),
+                this.course.getCreatedAt(),
+                this.course.getUsersEntity().getName()
+        );
+
+        when(this.enrollmentsCoursesManager.getAllCourseSubscriptionsByUserId(any())).thenReturn(List.of(subscription));
 
         List<CoursesSubscribedResponseDTO> result = this.coursesService.getCoursesByUserEnrollments();
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(enrollment.getCoursesEntity().getId(), result.get(0).id());
-        assertEquals(enrollment.getCoursesEntity().getName(), result.get(0).name());
-        assertEquals(enrollment.getCoursesEntity().getDescription(), result.get(0).description());
-        assertEquals(enrollment.getCoursesEntity().getCreatedAt(), result.get(0).createdAt());
+        assertEquals(this.course.getId(), result.get(0).id());
+        assertEquals(this.course.getName(), result.get(0).name());
+        assertEquals(this.course.getDescription(), result.get(0).description());
+        assertEquals(this.course.getCreatedAt(), result.get(0).createdAt());
         assertEquals(enrollment.getCreatedAt(), result.get(0).enrollmentCreatedAt());
-        assertEquals(enrollment.getCoursesEntity().getUsersEntity().getName(), result.get(0).createdBy());
+        assertEquals(this.course.getUsersEntity().getName(), result.get(0).createdBy());
     }
 
     @Test
     @DisplayName("Should be able to return all courses")
     public void should_be_able_to_return_all_courses() {
-        when(this.coursesRepository.findByDescriptionContainingIgnoreCase(any())).thenReturn(List.of(this.course));
+        CourseWithEnrollmentCountDTO courseWithEnrollmentCount = this.createCourseWithEnrollmentCount(1);
 
-        EnrollmentsEntity enrollment = EnrollmentsEntityCreator.createValidEnrollmentsEntity();
-        enrollment.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
-        enrollment.setCoursesEntity(this.course);
+        when(this.courseSearchEngine.searchCourseIds("Java", Pageable.unpaged())).thenReturn(List.of(this.course.getId()));
 
-        when(this.enrollmentsCoursesManager.getAllEnrollmentsByCourseId(any())).thenReturn(List.of(enrollment));
+        when(this.coursesRepository.findAllWithEnrollmentCountByIdIn(List.of(this.course.getId()))).thenReturn(List.of(courseWithEnrollmentCount));
 
-        List<CourseResponseDTO> result = this.coursesService.getCourses(any());
+        List<CourseResponseDTO> result = this.coursesService.getCourses("Java", null, null);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(this.course.getId(), result.get(0).id());
         assertEquals(this.course.getName(), result.get(0).name());
         assertEquals(this.course.getDescription(), result.get(0).description());
-        assertEquals(this.course.getMaximumAttendees() - List.of(enrollment).size(), result.get(0).numberAvailableSpots());
-        assertEquals(List.of(enrollment).size(), result.get(0).amountEnrollment());
+        assertEquals(this.course.getMaximumAttendees() - 1, result.get(0).numberAvailableSpots());
+        assertEquals(1, result.get(0).amountEnrollment());
         assertEquals(this.course.getCreatedAt(), result.get(0).createdAt());
         assertEquals(this.course.getUsersEntity().getName(), result.get(0).createdBy());
+
+        verifyNoInteractions(this.enrollmentsCoursesManager, this.pageSizeResolver);
+    }
+
+    @Test
+    @DisplayName("Should be able to return the latest courses if the keyword is blank")
+    public void should_be_able_to_return_the_latest_courses_if_the_keyword_is_blank() {
+        CourseWithEnrollmentCountDTO courseWithEnrollmentCount = this.createCourseWithEnrollmentCount(0);
+
+        when(this.pageSizeResolver.resolve(5)).thenReturn(5);
+
+        when(this.coursesRepository.findAllIdsOrderByCreatedAtDesc(PageRequest.of(1, 5))).thenReturn(List.of(this.course.getId()));
+
+        when(this.coursesRepository.findAllWithEnrollmentCountByIdIn(List.of(this.course.getId()))).thenReturn(List.of(courseWithEnrollmentCount));
+
+        List<CourseResponseDTO> result = this.coursesService.getCourses(" ", 1, 5);
+
+        assertEquals(1, result.size());
+        assertEquals(this.course.getId(), result.get(0).id());
+
+        verifyNoInteractions(this.courseSearchEngine);
+    }
+
+    private CourseWithEnrollmentCountDTO createCourseWithEnrollmentCount(Integer amountEnrollment) {
+        return new CourseWithEnrollmentCountDTO(
+                this.course.getId(),
+                this.course.getName(),
+                this.course.getDescription(),
+                this.course.getMaximumAttendees(),
+                this.course.getCreatedAt(),
+                this.course.getUsersEntity().getName(),
+                amountEnrollment
+        );
     }
 }
@@ -0,0 +1,117 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miguelsperle.teach_crafter.infra.security.EmailVariablesCipher;
+import com.miguelsperle.teach_crafter.modules.users.entities.emailOutbox.EmailOutboxEntity;
+import com.miguelsperle.teach_crafter.modules.users.repositories.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxServiceTest {
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private EmailOutboxService emailOutboxService;
+
+    @BeforeEach
+    public void setUp() {
+        this.emailOutboxService = new EmailOutboxService(this.emailOutboxRepository, new ObjectMapper(), new EmailVariablesCipher("dGVhY2gtY3JhZnRlci10ZXN0LW91dGJveC1rZXktMzI="), 3, Duration.ofSeconds(30), Duration.ofMinutes(1), Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Should be able to enqueue an email as pending")
+    public void should_be_able_to_enqueue_an_email_as_pending() {
+        when(this.emailOutboxRepository.save(any(EmailOutboxEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        EmailOutboxEntity email = this.emailOutboxService.enqueue("exampleToSend@gmail.com", "Subject", "resetPasswordTemplate", Map.of("token", "aB3dE6Gh7iJkL9Mn0pQrStUv"));
+
+        assertEquals(EmailOutboxService.PENDING_STATUS, email.getStatus());
+        assertEquals(0, email.getAttempts());
+        assertNotNull(email.getNextAttemptAt());
+        assertEquals(Map.of("token", "aB3dE6Gh7iJkL9Mn0pQrStUv"), this.emailOutboxService.readVariables(email));
+    }
+
+    @Test
+    @DisplayName("Should not be able to store the email variables in plain text")
+    public void should_not_be_able_to_store_the_email_variables_in_plain_text() {
+        when(this.emailOutboxRepository.save(any(EmailOutboxEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        EmailOutboxEntity email = this.emailOutboxService.enqueue("exampleToSend@gmail.com", "Subject", "resetPasswordTemplate", Map.of("token", "aB3dE6Gh7iJkL9Mn0pQrStUv"));
+
+        assertFalse(email.getVariables().contains("aB3dE6Gh7iJkL9Mn0pQrStUv"));
+    }
+
+    @Test
+    @DisplayName("Should be able to read the variables of an email enqueued before they were encrypted")
+    public void should_be_able_to_read_the_variables_of_an_email_enqueued_before_they_were_encrypted() {
+        EmailOutboxEntity email = EmailOutboxEntity.builder().id("1").variables("{\"token\":\"aB3dE6Gh7iJkL9Mn0pQrStUv\"}").build();
+
+        assertEquals(Map.of("token", "aB3dE6Gh7iJkL9Mn0pQrStUv"), this.emailOutboxService.readVariables(email));
+    }
+
+    @Test
+    @DisplayName("Should be able to return only the emails claimed by this dispatcher")
+    public void should_be_able_to_return_only_the_emails_claimed_by_this_dispatcher() {
+        EmailOutboxEntity claimedEmail = EmailOutboxEntity.builder().id("1").build();
+        EmailOutboxEntity emailClaimedElsewhere = EmailOutboxEntity.builder().id("2").build();
+
+        when(this.emailOutboxRepository.findAllDue(any(), any(), any())).thenReturn(List.of(claimedEmail, emailClaimedElsewhere));
+
+        when(this.emailOutboxRepository.claim(eq("1"), any(), any(), any(), any())).thenReturn(1);
+        when(this.emailOutboxRepository.claim(eq("2"), any(), any(), any(), any())).thenReturn(0);
+
+        List<EmailOutboxEntity> result = this.emailOutboxService.claimDueEmails(10);
+
+        assertEquals(List.of(claimedEmail), result);
+    }
+
+    @Test
+    @DisplayName("Should be able to reschedule a failed email with backoff")
+    public void should_be_able_to_reschedule_a_failed_email_with_backoff() {
+        EmailOutboxEntity email = EmailOutboxEntity.builder().id("1").attempts(1).build();
+
+        ArgumentCaptor<LocalDateTime> nextAttemptAtCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        LocalDateTime before = LocalDateTime.now();
+
+        this.emailOutboxService.markFailed(email, "Connection refused");
+
+        verify(this.emailOutboxRepository).markFailed(eq("1"), eq(EmailOutboxService.PENDING_STATUS), eq(2), nextAttemptAtCaptor.capture(), eq("Connection refused"));
+
+        assertFalse(nextAttemptAtCaptor.getValue().isBefore(before.plusMinutes(1)));
+    }
+
+    @Test
+    @DisplayName("Should be able to move an email to dead letter after the last attempt")
+    public void should_be_able_to_move_an_email_to_dead_letter_after_the_last_attempt() {
+        EmailOutboxEntity email = EmailOutboxEntity.builder().id("1").attempts(2).build();
+
+        this.emailOutboxService.markFailed(email, "Connection refused");
+
+        verify(this.emailOutboxRepository).markFailed(eq("1"), eq(EmailOutboxService.DEAD_STATUS), eq(3), any(), eq("Connection refused"));
+        verify(this.emailOutboxRepository).clearVariables("1");
+    }
+
+    @Test
+    @DisplayName("Should not be able to exceed the maximum backoff")
+    public void should_not_be_able_to_exceed_the_maximum_backoff() {
+        assertEquals(Duration.ofSeconds(30), this.emailOutboxService.backoffFor(1));
+        assertEquals(Duration.ofMinutes(1), this.emailOutboxService.backoffFor(2));
+        assertEquals(Duration.ofMinutes(1), this.emailOutboxService.backoffFor(30));
+    }
+}
@@ -10,9 +10,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import java.lang.reflect.Field;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -27,7 +27,7 @@ public class EmailSenderServiceTest {
     private JavaMailSender javaMailSender;
 
     @Mock
-    private SpringTemplateEngine springTemplateEngine;
+    private EmailTemplateRenderer emailTemplateRenderer;
 
     private String to;
     private String subject;
@@ -50,7 +50,7 @@ public class EmailSenderServiceTest {
 
         when(this.javaMailSender.createMimeMessage()).thenReturn(mimeMessage);
 
-        when(this.springTemplateEngine.process(any(String.class), any())).thenReturn("<html>Mocked Template</html>");
+        when(this.emailTemplateRenderer.render(any(String.class), any())).thenReturn("<html>Mocked Template</html>");
 
         // We are taking a private attribute called "mailUsername" on the class EmailSenderService
         Field mailUsernameField = EmailSenderService.class.getDeclaredField("mailUsername");
@@ -62,10 +62,10 @@ public class EmailSenderServiceTest {
         // In the first argument we are putting the class that attribute captured belongs
         // In the second argument we are changing the value of mailUsername to from attribute
 
-        this.emailSenderService.sendSimpleMessage(this.to, this.subject, this.token);
+        this.emailSenderService.sendTemplateMessage(this.to, this.subject, "resetPasswordTemplate", Map.of("token", this.token));
 
         verify(this.javaMailSender, atLeastOnce()).createMimeMessage();
-        verify(this.springTemplateEngine, atLeastOnce()).process(anyString(), any());
+        verify(this.emailTemplateRenderer, atLeastOnce()).render(eq("resetPasswordTemplate.html"), eq(Map.of("token", this.token, "email", this.to)));
         verify(this.javaMailSender, atLeastOnce()).send(mimeMessage);
     }
 
@@ -75,7 +75,7 @@ public class EmailSenderServiceTest {
         when(this.javaMailSender.createMimeMessage()).thenReturn(null);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            this.emailSenderService.sendSimpleMessage(this.to, this.subject, this.token);
+            this.emailSenderService.sendTemplateMessage(this.to, this.subject, "resetPasswordTemplate", Map.of("token", this.token));
         });
 
         String expectedErrorMessage = "Failed to send email";
@@ -0,0 +1,104 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class EmailTemplateRendererTest {
+    private SpringTemplateEngine springTemplateEngine;
+    private EmailTemplateRenderer emailTemplateRenderer;
+
+    @BeforeEach
+    public void setUp() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+
+        this.springTemplateEngine = spy(new SpringTemplateEngine());
+        this.springTemplateEngine.setTemplateResolver(templateResolver);
+
+        this.emailTemplateRenderer = new EmailTemplateRenderer(this.springTemplateEngine);
+    }
+
+    @Test
+    @DisplayName("Should be able to render the same html as the template engine")
+    public void should_be_able_to_render_the_same_html_as_the_template_engine() {
+        this.emailTemplateRenderer.render("resetPasswordTemplate.html", Map.of("email", "first@gmail.com", "token", "aB3dE6Gh7iJkL9Mn0pQrStUv"));
+
+        Map<String, String> variables = Map.of("email", "<b>o'neil&co</b>@gmail.com", "token", "a b+c/d&e=f\"");
+
+        assertEquals(this.process("resetPasswordTemplate.html", variables), this.emailTemplateRenderer.render("resetPasswordTemplate.html", variables));
+    }
+
+    @Test
+    @DisplayName("Should be able to render a compiled template without going through the template engine")
+    public void should_be_able_to_render_a_compiled_template_without_going_through_the_template_engine() {
+        this.emailTemplateRenderer.render("resetPasswordTemplate.html", Map.of("email", "first@gmail.com", "token", "aB3dE6Gh7iJkL9Mn0pQrStUv"));
+
+        clearInvocations(this.springTemplateEngine);
+
+        String html = this.emailTemplateRenderer.render("resetPasswordTemplate.html", Map.of("email", "second@gmail.com", "token", "Zy9xW8vU7tS6rQ5pO4nM3lK2"));
+
+        verify(this.springTemplateEngine, never()).process(anyString(), any(IContext.class));
+
+        assertTrue(html.contains("second@gmail.com"));
+        assertTrue(html.contains("reset?token=Zy9xW8vU7tS6rQ5pO4nM3lK2"));
+    }
+
+    @Test
+    @DisplayName("Should be able to fall back to the template engine when a variable is transformed")
+    public void should_be_able_to_fall_back_to_the_template_engine_when_a_variable_is_transformed() {
+        StringTemplateResolver templateResolver = new StringTemplateResolver();
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+
+        SpringTemplateEngine stringTemplateEngine = new SpringTemplateEngine();
+        stringTemplateEngine.setTemplateResolver(templateResolver);
+
+        EmailTemplateRenderer renderer = new EmailTemplateRenderer(stringTemplateEngine);
+
+        String template = "<p th:text=\"${#strings.toUpperCase(name)}\"></p>";
+
+        renderer.render(template, Map.of("name", "john"));
+
+        assertEquals("<p>MARY</p>", renderer.render(template, Map.of("name", "mary")));
+    }
+
+    @Test
+    @DisplayName("Should be able to fall back to the template engine when the template branches on a variable")
+    public void should_be_able_to_fall_back_to_the_template_engine_when_the_template_branches_on_a_variable() {
+        StringTemplateResolver templateResolver = new StringTemplateResolver();
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+
+        SpringTemplateEngine stringTemplateEngine = new SpringTemplateEngine();
+        stringTemplateEngine.setTemplateResolver(templateResolver);
+
+        EmailTemplateRenderer renderer = new EmailTemplateRenderer(stringTemplateEngine);
+
+        // The first render takes the th:unless branch, which alone would look like a plain variable
+        String template = "<p th:if=\"${plan == 'pro'}\">Thanks for going pro</p><p th:unless=\"${plan == 'pro'}\" th:text=\"${plan}\"></p>";
+
+        assertEquals("<p>free</p>", renderer.render(template, Map.of("plan", "free")));
+        assertEquals("<p>Thanks for going pro</p>", renderer.render(template, Map.of("plan", "pro")));
+    }
+
+    private String process(String template, Map<String, String> variables) {
+        Context context = new Context();
+        variables.forEach(context::setVariable);
+
+        return this.springTemplateEngine.process(template, context);
+    }
+}
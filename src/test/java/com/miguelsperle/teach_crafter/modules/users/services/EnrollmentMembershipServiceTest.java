@@ -0,0 +1,110 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.enrollments.exceptions.EnrollmentNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.repositories.EnrollmentsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class EnrollmentMembershipServiceTest {
+    private EnrollmentsRepository enrollmentsRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private EnrollmentMembershipService enrollmentMembershipService;
+
+    @BeforeEach
+    public void setUp() {
+        this.enrollmentsRepository = mock(EnrollmentsRepository.class);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.enrollmentMembershipService = new EnrollmentMembershipService(this.enrollmentsRepository, this.meterRegistry, 100, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Should be able to check a membership only once while it is cached")
+    public void should_be_able_to_check_a_membership_only_once_while_it_is_cached() {
+        when(this.enrollmentsRepository.existsByUsersEntityIdAndCoursesEntityId("user-1", "course-1")).thenReturn(true);
+
+        assertTrue(this.enrollmentMembershipService.isSubscribed("user-1", "course-1"));
+        assertTrue(this.enrollmentMembershipService.isSubscribed("user-1", "course-1"));
+
+        verify(this.enrollmentsRepository, times(1)).existsByUsersEntityIdAndCoursesEntityId("user-1", "course-1");
+        assertEquals(1.0, this.meterRegistry.get("cache.gets").tag("cache", "enrollment_memberships").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should not be able to cache a missing membership")
+    public void should_not_be_able_to_cache_a_missing_membership() {
+        when(this.enrollmentsRepository.existsByUsersEntityIdAndCoursesEntityId("user-1", "course-1")).thenReturn(false, true);
+
+        assertFalse(this.enrollmentMembershipService.isSubscribed("user-1", "course-1"));
+        assertTrue(this.enrollmentMembershipService.isSubscribed("user-1", "course-1"));
+
+        verify(this.enrollmentsRepository, times(2)).existsByUsersEntityIdAndCoursesEntityId("user-1", "course-1");
+    }
+
+    @Test
+    @DisplayName("Should be able to forget a membership once the unsubscription commits")
+    public void should_be_able_to_forget_a_membership_once_the_unsubscription_commits() {
+        when(this.enrollmentsRepository.existsByUsersEntityIdAndCoursesEntityId("user-1", "course-1")).thenReturn(true, false);
+
+        assertTrue(this.enrollmentMembershipService.isSubscribed("user-1", "course-1"));
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.enrollmentMembershipService.unsubscribed("user-1", "course-1");
+
+        assertTrue(this.enrollmentMembershipService.isSubscribed("user-1", "course-1"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertFalse(this.enrollmentMembershipService.isSubscribed("user-1", "course-1"));
+    }
+
+    @Test
+    @DisplayName("Should be able to remember a new membership without querying the database")
+    public void should_be_able_to_remember_a_new_membership_without_querying_the_database() {
+        this.enrollmentMembershipService.subscribed("user-1", "course-1");
+
+        assertTrue(this.enrollmentMembershipService.isSubscribed("user-1", "course-1"));
+
+        verify(this.enrollmentsRepository, never()).existsByUsersEntityIdAndCoursesEntityId(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not be able to ensure the subscription of a user who is not subscribed in the course")
+    public void should_not_be_able_to_ensure_the_subscription_of_a_user_who_is_not_subscribed_in_the_course() {
+        when(this.enrollmentsRepository.existsByUsersEntityIdAndCoursesEntityId("user-1", "course-1")).thenReturn(false);
+
+        EnrollmentNotFoundException exception = assertThrows(EnrollmentNotFoundException.class, () -> {
+            this.enrollmentMembershipService.ensureUserIsSubscribed("user-1", "course-1");
+        });
+
+        assertEquals("Enrollment does not exist", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should be able to drop a stale membership when the database no longer has it")
+    public void should_be_able_to_drop_a_stale_membership_when_the_database_no_longer_has_it() {
+        this.enrollmentMembershipService.subscribed("user-1", "course-1");
+
+        // The enrollment was deleted through another replica, so only the database knows
+        when(this.enrollmentsRepository.existsByUsersEntityIdAndCoursesEntityId("user-1", "course-1")).thenReturn(false);
+
+        assertTrue(this.enrollmentMembershipService.isSubscribed("user-1", "course-1"));
+        assertFalse(this.enrollmentMembershipService.isSubscribedInDatabase("user-1", "course-1"));
+        assertFalse(this.enrollmentMembershipService.isSubscribed("user-1", "course-1"));
+    }
+}
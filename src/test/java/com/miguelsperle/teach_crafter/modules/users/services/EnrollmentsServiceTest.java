@@ -18,11 +18,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
-
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -42,6 +37,9 @@ public class EnrollmentsServiceTest {
     @Mock
     private EnrollmentsCoursesManager enrollmentsCoursesManager;
 
+    @Mock
+    private EnrollmentMembershipService enrollmentMembershipService;
+
     @BeforeEach
     public void setUp() {
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
@@ -55,9 +53,9 @@ public class EnrollmentsServiceTest {
 
         when(this.enrollmentsCoursesManager.getCourseById(any())).thenReturn(course);
 
-        when(this.enrollmentsRepository.findAllByCoursesEntityId(any())).thenReturn(Collections.emptyList());
+        when(this.enrollmentMembershipService.isSubscribedInDatabase(any(), any())).thenReturn(false);
 
-        when(this.enrollmentsRepository.findByUsersEntityIdAndCoursesEntityId(any(), any())).thenReturn(Optional.empty());
+        when(this.enrollmentsCoursesManager.reserveCourseSpot(any())).thenReturn(true);
 
         when(this.enrollmentsRepository.save(any(EnrollmentsEntity.class))).thenReturn(EnrollmentsEntityCreator.createEnrollmentsEntityToBeSaved());
 
@@ -65,6 +63,8 @@ public class EnrollmentsServiceTest {
 
         assertNotNull(newEnrollment.getId());
         assertThat(newEnrollment).hasFieldOrProperty("id");
+
+        verify(this.enrollmentMembershipService).subscribed(UsersEntityCreator.createValidAuthenticatedUsersEntity().getId(), course.getId());
     }
 
     @Test
@@ -91,19 +91,11 @@ public class EnrollmentsServiceTest {
         CoursesEntity course = CoursesEntityCreator.createValidCoursesEntity();
         course.setUsersEntity(UsersEntityCreator.createSecondValidUsersEntity());
 
-        EnrollmentsEntity enrollment = EnrollmentsEntityCreator.createValidEnrollmentsEntity();
-        enrollment.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
-        enrollment.setCoursesEntity(course);
-
-        List<EnrollmentsEntity> existingEnrollment = new ArrayList<>();
+        when(this.enrollmentsCoursesManager.getCourseById(any())).thenReturn(course);
 
-        for (int i = 0; i < 10; i++) {
-            existingEnrollment.add(enrollment);
-        }
+        when(this.enrollmentMembershipService.isSubscribedInDatabase(any(), any())).thenReturn(false);
 
-        when(this.enrollmentsRepository.findAllByCoursesEntityId(any())).thenReturn(existingEnrollment);
-
-        when(this.enrollmentsCoursesManager.getCourseById(any())).thenReturn(course);
+        when(this.enrollmentsCoursesManager.reserveCourseSpot(any())).thenReturn(false);
 
         NoAvailableSpotsException exception = assertThrows(NoAvailableSpotsException.class, () -> {
             this.enrollmentsService.createCourseEnrollment(course.getId());
@@ -113,6 +105,8 @@ public class EnrollmentsServiceTest {
 
         assertInstanceOf(NoAvailableSpotsException.class, exception);
         assertEquals(expectedErrorMessage, exception.getMessage());
+
+        verify(this.enrollmentsRepository, never()).save(any(EnrollmentsEntity.class));
     }
 
     @Test
@@ -123,11 +117,7 @@ public class EnrollmentsServiceTest {
 
         when(this.enrollmentsCoursesManager.getCourseById(any())).thenReturn(course);
 
-        EnrollmentsEntity enrollment = EnrollmentsEntityCreator.createValidEnrollmentsEntity();
-        enrollment.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
-        enrollment.setCoursesEntity(course);
-
-        when(this.enrollmentsRepository.findByUsersEntityIdAndCoursesEntityId(any(), any())).thenReturn(Optional.of(enrollment));
+        when(this.enrollmentMembershipService.isSubscribedInDatabase(any(), any())).thenReturn(true);
 
         EnrollmentAlreadyExistsException exception = assertThrows(EnrollmentAlreadyExistsException.class, () -> {
             this.enrollmentsService.createCourseEnrollment(course.getId());
@@ -145,16 +135,18 @@ public class EnrollmentsServiceTest {
         CoursesEntity course = CoursesEntityCreator.createValidCoursesEntity();
         course.setUsersEntity(UsersEntityCreator.createSecondValidUsersEntity());
 
-        EnrollmentsEntity enrollment = EnrollmentsEntityCreator.createValidEnrollmentsEntity();
-        enrollment.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
-        enrollment.setCoursesEntity(course);
+        when(this.enrollmentMembershipService.isSubscribedInDatabase(any(), any())).thenReturn(true);
 
-        when(this.enrollmentsRepository.findByUsersEntityIdAndCoursesEntityId(any(), any())).thenReturn(Optional.of(enrollment));
+        when(this.enrollmentsRepository.deleteByUsersEntityIdAndCoursesEntityId(any(), any())).thenReturn(1L);
 
         this.enrollmentsService.deleteCourseEnrollment(course.getId());
 
         // Verify if the method save was called with a specific argument
         verify(this.enrollmentsRepository, atLeastOnce()).deleteByUsersEntityIdAndCoursesEntityId(UsersEntityCreator.createValidAuthenticatedUsersEntity().getId(), course.getId());
+
+        verify(this.enrollmentsCoursesManager, atLeastOnce()).releaseCourseSpot(course.getId());
+
+        verify(this.enrollmentMembershipService).unsubscribed(UsersEntityCreator.createValidAuthenticatedUsersEntity().getId(), course.getId());
     }
 
     @Test
@@ -163,7 +155,7 @@ public class EnrollmentsServiceTest {
         CoursesEntity course = CoursesEntityCreator.createValidCoursesEntity();
         course.setUsersEntity(UsersEntityCreator.createSecondValidUsersEntity());
 
-        when(this.enrollmentsRepository.findByUsersEntityIdAndCoursesEntityId(any(), any())).thenReturn(Optional.empty());
+        when(this.enrollmentMembershipService.isSubscribedInDatabase(any(), any())).thenReturn(false);
 
         EnrollmentNotFoundException exception = assertThrows(EnrollmentNotFoundException.class, () -> {
             this.enrollmentsService.deleteCourseEnrollment(course.getId());
@@ -173,5 +165,7 @@ public class EnrollmentsServiceTest {
 
         assertInstanceOf(EnrollmentNotFoundException.class, exception);
         assertEquals(expectedErrorMessage, exception.getMessage());
+
+        verify(this.enrollmentsRepository, never()).deleteByUsersEntityIdAndCoursesEntityId(any(), any());
     }
 }
@@ -0,0 +1,107 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.miguelsperle.teach_crafter.modules.users.repositories.UsersRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class KnownEmailsFilterTest {
+    private UsersRepository usersRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private KnownEmailsFilter knownEmailsFilter;
+
+    @BeforeEach
+    public void setUp() {
+        this.usersRepository = mock(UsersRepository.class);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.knownEmailsFilter = new KnownEmailsFilter(this.usersRepository, this.meterRegistry, 1000, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should be able to treat every email as possibly registered before the emails are loaded")
+    public void should_be_able_to_treat_every_email_as_possibly_registered_before_the_emails_are_loaded() {
+        assertTrue(this.knownEmailsFilter.mightExist("unknown@teach-crafter.test"));
+    }
+
+    @Test
+    @DisplayName("Should be able to recognize every loaded email and reject almost every other one")
+    public void should_be_able_to_recognize_every_loaded_email_and_reject_almost_every_other_one() {
+        List<String> registeredEmails = IntStream.range(0, 1000).mapToObj(i -> "user" + i + "@teach-crafter.test").toList();
+
+        when(this.usersRepository.findAllEmails()).thenReturn(registeredEmails);
+
+        this.knownEmailsFilter.rebuild();
+
+        registeredEmails.forEach(email -> assertTrue(this.knownEmailsFilter.mightExist(email)));
+        assertTrue(this.knownEmailsFilter.mightExist("USER1@Teach-Crafter.test"));
+
+        long falsePositives = IntStream.range(0, 10000).filter(i -> this.knownEmailsFilter.mightExist("unknown" + i + "@teach-crafter.test")).count();
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertEquals(10000 - falsePositives, this.meterRegistry.get("known_emails.checks").tag("result", "absent").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should be able to recognize an email saved after the load")
+    public void should_be_able_to_recognize_an_email_saved_after_the_load() {
+        when(this.usersRepository.findAllEmails()).thenReturn(List.of());
+
+        this.knownEmailsFilter.rebuild();
+
+        assertFalse(this.knownEmailsFilter.mightExist("created@teach-crafter.test"));
+
+        this.knownEmailsFilter.add("created@teach-crafter.test");
+
+        assertTrue(this.knownEmailsFilter.mightExist("created@teach-crafter.test"));
+    }
+
+    @Test
+    @DisplayName("Should be able to recognize an email saved by another node after the refresh")
+    public void should_be_able_to_recognize_an_email_saved_by_another_node_after_the_refresh() {
+        when(this.usersRepository.findAllEmails()).thenReturn(List.of());
+        when(this.usersRepository.findEmailsUpdatedSince(any())).thenReturn(List.of(), List.of("other-node@teach-crafter.test"));
+
+        this.knownEmailsFilter.rebuild();
+
+        assertFalse(this.knownEmailsFilter.mightExist("other-node@teach-crafter.test"));
+
+        this.knownEmailsFilter.refresh();
+
+        assertTrue(this.knownEmailsFilter.mightExist("other-node@teach-crafter.test"));
+    }
+
+    @Test
+    @DisplayName("Should be able to recognize an email saved by another node before the next scheduled refresh")
+    public void should_be_able_to_recognize_an_email_saved_by_another_node_before_the_next_scheduled_refresh() {
+        KnownEmailsFilter staleKnownEmailsFilter = new KnownEmailsFilter(this.usersRepository, this.meterRegistry, 1000, Duration.ofMinutes(1), Duration.ZERO);
+
+        when(this.usersRepository.findAllEmails()).thenReturn(List.of());
+        // The load sees no users, the row is then committed by another node and only shows up in the users table
+        when(this.usersRepository.findEmailsUpdatedSince(any())).thenReturn(List.of(), List.of("other-node@teach-crafter.test"));
+
+        staleKnownEmailsFilter.rebuild();
+
+        assertTrue(staleKnownEmailsFilter.mightExist("other-node@teach-crafter.test"));
+        verify(this.usersRepository, times(2)).findEmailsUpdatedSince(any());
+    }
+
+    @Test
+    @DisplayName("Should not be able to query the users again for unknown emails while the filter is fresh")
+    public void should_not_be_able_to_query_the_users_again_for_unknown_emails_while_the_filter_is_fresh() {
+        when(this.usersRepository.findAllEmails()).thenReturn(List.of());
+
+        this.knownEmailsFilter.rebuild();
+
+        IntStream.range(0, 100).forEach(i -> assertFalse(this.knownEmailsFilter.mightExist("unknown" + i + "@teach-crafter.test")));
+        verify(this.usersRepository, times(1)).findEmailsUpdatedSince(any());
+    }
+}
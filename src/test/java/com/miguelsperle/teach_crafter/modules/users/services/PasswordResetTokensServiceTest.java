@@ -1,5 +1,8 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
+import com.miguelsperle.teach_crafter.infra.ratelimit.RateLimitStore;
+import com.miguelsperle.teach_crafter.infra.security.PasswordHashingService;
+import com.miguelsperle.teach_crafter.infra.security.ResetTokenGenerator;
 import com.miguelsperle.teach_crafter.modules.users.dtos.passwordResetTokens.CreatePasswordResetTokenDTO;
 import com.miguelsperle.teach_crafter.modules.users.dtos.passwordResetTokens.ResetPasswordUserNotLoggedDTO;
 import com.miguelsperle.teach_crafter.modules.users.entities.passwordResetTokens.PasswordResetTokensEntity;
@@ -17,11 +20,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,6 +35,9 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class PasswordResetTokensServiceTest {
+    // The raw token behind the hash of PasswordResetTokensEntityCreator.createValidPasswordResetTokensEntity
+    private static final String PASSWORD_RESET_TOKEN = "bT6zR8yQpD4xN7cE9vW2uM5sF1gH3jKl";
+
     @InjectMocks
     private PasswordResetTokensService passwordResetTokenService;
 
@@ -41,10 +48,16 @@ public class PasswordResetTokensServiceTest {
     private UsersService usersService;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    @Mock
+    private ResetTokenGenerator resetTokenGenerator;
 
     @Mock
-    private EmailSenderService emailSenderService;
+    private RateLimitStore rateLimitStore;
 
     @Test
     @DisplayName("User not logged should be able to create a password reset token to reset their password")
@@ -53,16 +66,36 @@ public class PasswordResetTokensServiceTest {
 
         when(this.passwordResetTokensRepository.save(any(PasswordResetTokensEntity.class))).thenReturn(PasswordResetTokensEntityCreator.createPasswordResetTokensEntityToBeSaved());
 
+        when(this.resetTokenGenerator.generateToken()).thenReturn("generated-reset-token");
+
         CreatePasswordResetTokenDTO createPasswordResetTokenDTO = new CreatePasswordResetTokenDTO(UsersEntityCreator.createValidAuthenticatedUsersEntity().getEmail());
 
         PasswordResetTokensEntity newPasswordResetToken = this.passwordResetTokenService.createPasswordResetToken(createPasswordResetTokenDTO);
 
-        verify(this.emailSenderService, atLeastOnce()).sendSimpleMessage(any(), any(), any());
+        verify(this.emailOutboxService, atLeastOnce()).enqueue(any(), any(), eq("resetPasswordTemplate"), anyMap());
 
         assertNotNull(newPasswordResetToken.getId());
         assertThat(newPasswordResetToken).hasFieldOrProperty("id");
     }
 
+    @Test
+    @DisplayName("Should be able to email the same token that is saved")
+    public void should_be_able_to_email_the_same_token_that_is_saved() {
+        when(this.usersService.getUserByEmail(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
+        when(this.resetTokenGenerator.generateToken()).thenReturn("generated-reset-token", "another-reset-token");
+
+        CreatePasswordResetTokenDTO createPasswordResetTokenDTO = new CreatePasswordResetTokenDTO(UsersEntityCreator.createValidAuthenticatedUsersEntity().getEmail());
+
+        this.passwordResetTokenService.createPasswordResetToken(createPasswordResetTokenDTO);
+
+        ArgumentCaptor<PasswordResetTokensEntity> savedPasswordResetToken = ArgumentCaptor.forClass(PasswordResetTokensEntity.class);
+        verify(this.passwordResetTokensRepository).save(savedPasswordResetToken.capture());
+        verify(this.emailOutboxService).enqueue(any(), any(), eq("resetPasswordTemplate"), eq(Map.of("token", "generated-reset-token")));
+
+        assertArrayEquals(ResetTokenGenerator.digest("generated-reset-token"), savedPasswordResetToken.getValue().getTokenHash());
+    }
+
     @Test
     @DisplayName("User not logged should not be able to create a password reset token to reset their password if one already exists")
     public void user_not_logged_should_be_able_to_create_a_password_reset_token_to_reset_their_password_if_one_already_exists() {
@@ -74,15 +107,22 @@ public class PasswordResetTokensServiceTest {
 
         when(this.passwordResetTokensRepository.findByUsersEntityId(any())).thenReturn(Optional.of(passwordResetToken));
 
+        when(this.resetTokenGenerator.generateToken()).thenReturn("rotated-reset-token");
+
+        when(this.rateLimitStore.tryConsume(any(), anyLong(), any())).thenReturn(Duration.ZERO);
+
         CreatePasswordResetTokenDTO createPasswordResetTokenDTO = new CreatePasswordResetTokenDTO(UsersEntityCreator.createValidAuthenticatedUsersEntity().getEmail());
 
         ActivePasswordResetTokenException exception = assertThrows(ActivePasswordResetTokenException.class, () -> {
             this.passwordResetTokenService.createPasswordResetToken(createPasswordResetTokenDTO);
         });
 
-        verify(this.emailSenderService, atLeastOnce()).sendSimpleMessage(any(), any(), any());
+        // Only the hash of the active token is stored, so a new token replaces it before being emailed
+        verify(this.passwordResetTokensRepository).save(passwordResetToken);
+        verify(this.emailOutboxService, atLeastOnce()).enqueue(any(), any(), eq("resetPasswordTemplate"), eq(Map.of("token", "rotated-reset-token")));
+        assertArrayEquals(ResetTokenGenerator.digest("rotated-reset-token"), passwordResetToken.getTokenHash());
 
-        String expectedErrorMessage = "You have an active password reset token. Please check your email to continue with password recovery";
+        String expectedErrorMessage = "You have an active password reset token. A new link was sent to your email and the previous links no longer work";
 
         assertInstanceOf(ActivePasswordResetTokenException.class, exception);
         assertEquals(expectedErrorMessage, exception.getMessage());
@@ -90,6 +130,35 @@ public class PasswordResetTokensServiceTest {
         // Second argument is the real value obtained
     }
 
+    @Test
+    @DisplayName("User not logged should not be able to replace an active password reset token again before the resend interval")
+    public void user_not_logged_should_not_be_able_to_replace_an_active_password_reset_token_again_before_the_resend_interval() {
+        when(this.usersService.getUserByEmail(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
+        PasswordResetTokensEntity passwordResetToken = PasswordResetTokensEntityCreator.createValidPasswordResetTokensEntity();
+        passwordResetToken.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
+        passwordResetToken.setExpiresIn(this.genExpirationDate());
+
+        byte[] emailedTokenHash = passwordResetToken.getTokenHash();
+
+        when(this.passwordResetTokensRepository.findByUsersEntityId(any())).thenReturn(Optional.of(passwordResetToken));
+
+        when(this.rateLimitStore.tryConsume(any(), anyLong(), any())).thenReturn(Duration.ofMinutes(4));
+
+        CreatePasswordResetTokenDTO createPasswordResetTokenDTO = new CreatePasswordResetTokenDTO(UsersEntityCreator.createValidAuthenticatedUsersEntity().getEmail());
+
+        ActivePasswordResetTokenException exception = assertThrows(ActivePasswordResetTokenException.class, () -> {
+            this.passwordResetTokenService.createPasswordResetToken(createPasswordResetTokenDTO);
+        });
+
+        // The link already in the inbox keeps working
+        verify(this.passwordResetTokensRepository, never()).save(any());
+        verify(this.emailOutboxService, never()).enqueue(any(), any(), any(), anyMap());
+        assertArrayEquals(emailedTokenHash, passwordResetToken.getTokenHash());
+
+        assertEquals("You have an active password reset token. Please check your email to continue with password recovery", exception.getMessage());
+    }
+
 
     @Test
     @DisplayName("Should be able to delete expired password reset token")
@@ -103,6 +172,8 @@ public class PasswordResetTokensServiceTest {
 
         when(this.passwordResetTokensRepository.findByUsersEntityId(any())).thenReturn(Optional.of(expiredPasswordResetToken));
 
+        when(this.resetTokenGenerator.generateToken()).thenReturn("generated-reset-token");
+
         CreatePasswordResetTokenDTO createPasswordResetTokenDTO = new CreatePasswordResetTokenDTO(UsersEntityCreator.createValidAuthenticatedUsersEntity().getEmail());
 
         this.passwordResetTokenService.createPasswordResetToken(createPasswordResetTokenDTO);
@@ -117,15 +188,15 @@ public class PasswordResetTokensServiceTest {
         passwordResetToken.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
         passwordResetToken.setExpiresIn(this.genExpirationDate());
 
-        when(this.passwordResetTokensRepository.findByToken(any())).thenReturn(Optional.of(passwordResetToken));
+        when(this.passwordResetTokensRepository.findByTokenHash(ResetTokenGenerator.digest(PASSWORD_RESET_TOKEN))).thenReturn(Optional.of(passwordResetToken));
 
         when(this.usersService.getUserById(any())).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
         String mockHashPassword = "$Kt$A.x5y8ZTgRp5b.Y5cX2tz4iQPj9vY0OK3h4df62NVO9fc720sZ";
 
-        when(this.passwordEncoder.encode(any())).thenReturn(mockHashPassword);
+        when(this.passwordHashingService.encode(any())).thenReturn(mockHashPassword);
 
-        ResetPasswordUserNotLoggedDTO resetPasswordUserNotLoggedDTO = new ResetPasswordUserNotLoggedDTO(UsersEntityCreator.createUsersEntityToUpdatePassword().getPassword(), passwordResetToken.getToken());
+        ResetPasswordUserNotLoggedDTO resetPasswordUserNotLoggedDTO = new ResetPasswordUserNotLoggedDTO(UsersEntityCreator.createUsersEntityToUpdatePassword().getPassword(), PASSWORD_RESET_TOKEN);
 
         this.passwordResetTokenService.resetPasswordUserNotLogged(resetPasswordUserNotLoggedDTO);
 
@@ -151,9 +222,9 @@ public class PasswordResetTokensServiceTest {
         passwordResetToken.setExpiresIn(new Date(System.currentTimeMillis() - 1000));
         // We are ensuring that the token will expire 1 second before the current moment.
 
-        when(this.passwordResetTokensRepository.findByToken(any())).thenReturn(Optional.of(passwordResetToken));
+        when(this.passwordResetTokensRepository.findByTokenHash(ResetTokenGenerator.digest(PASSWORD_RESET_TOKEN))).thenReturn(Optional.of(passwordResetToken));
 
-        ResetPasswordUserNotLoggedDTO resetPasswordUserNotLoggedDTO = new ResetPasswordUserNotLoggedDTO(UsersEntityCreator.createUsersEntityToUpdatePassword().getPassword(), passwordResetToken.getToken());
+        ResetPasswordUserNotLoggedDTO resetPasswordUserNotLoggedDTO = new ResetPasswordUserNotLoggedDTO(UsersEntityCreator.createUsersEntityToUpdatePassword().getPassword(), PASSWORD_RESET_TOKEN);
 
         ExpiredPasswordResetTokenException exception = assertThrows(ExpiredPasswordResetTokenException.class, () -> {
             this.passwordResetTokenService.resetPasswordUserNotLogged(resetPasswordUserNotLoggedDTO);
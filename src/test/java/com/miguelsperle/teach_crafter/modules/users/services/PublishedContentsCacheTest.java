@@ -0,0 +1,86 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.CourseContentResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PublishedContentsCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private PublishedContentsCache publishedContentsCache;
+
+    private final List<CourseContentResponseDTO> publishedContents = List.of(
+            new CourseContentResponseDTO("1", "Learn the fundamentals of Java", "VIDEO_URL", "PUBLISHED", LocalDate.now(), "Introduction to Java", LocalDateTime.now())
+    );
+
+    @BeforeEach
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.publishedContentsCache = new PublishedContentsCache(this.meterRegistry, 100, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Should be able to load the published contents of a course only once while they are cached")
+    public void should_be_able_to_load_the_published_contents_of_a_course_only_once_while_they_are_cached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        this.publishedContentsCache.get("course-1", id -> { loads.incrementAndGet(); return this.publishedContents; });
+        List<CourseContentResponseDTO> cachedContents = this.publishedContentsCache.get("course-1", id -> { loads.incrementAndGet(); return this.publishedContents; });
+
+        assertEquals(1, loads.get());
+        assertEquals(this.publishedContents, cachedContents);
+        assertEquals(1.0, this.meterRegistry.get("cache.gets").tag("cache", "published_contents").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, this.meterRegistry.get("cache.gets").tag("cache", "published_contents").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should be able to reload the published contents of a course after it is invalidated")
+    public void should_be_able_to_reload_the_published_contents_of_a_course_after_it_is_invalidated() {
+        AtomicInteger loads = new AtomicInteger();
+
+        this.publishedContentsCache.get("course-1", id -> { loads.incrementAndGet(); return this.publishedContents; });
+        this.publishedContentsCache.get("course-2", id -> { loads.incrementAndGet(); return this.publishedContents; });
+        this.publishedContentsCache.invalidate("course-1");
+        this.publishedContentsCache.get("course-1", id -> { loads.incrementAndGet(); return this.publishedContents; });
+        this.publishedContentsCache.get("course-2", id -> { loads.incrementAndGet(); return this.publishedContents; });
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should be able to defer the invalidation until the transaction commits")
+    public void should_be_able_to_defer_the_invalidation_until_the_transaction_commits() {
+        AtomicInteger loads = new AtomicInteger();
+
+        this.publishedContentsCache.get("course-1", id -> { loads.incrementAndGet(); return this.publishedContents; });
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.publishedContentsCache.invalidateAll();
+        this.publishedContentsCache.get("course-1", id -> { loads.incrementAndGet(); return this.publishedContents; });
+
+        assertEquals(1, loads.get());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        this.publishedContentsCache.get("course-1", id -> { loads.incrementAndGet(); return this.publishedContents; });
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,97 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.miguelsperle.teach_crafter.modules.users.dtos.scheduledJobs.ScheduledJobResponseDTO;
+import com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.ScheduledJobsEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.exceptions.ScheduledJobNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.repositories.ScheduledJobsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ScheduledJobsServiceTest {
+    @InjectMocks
+    private ScheduledJobsService scheduledJobsService;
+
+    @Mock
+    private ScheduledJobsRepository scheduledJobsRepository;
+
+    @Test
+    @DisplayName("Should be able to register a scheduled job only once")
+    public void should_be_able_to_register_a_scheduled_job_only_once() {
+        when(this.scheduledJobsRepository.existsById("publish-pending-contents")).thenReturn(false, true);
+
+        this.scheduledJobsService.registerScheduledJob("publish-pending-contents");
+        this.scheduledJobsService.registerScheduledJob("publish-pending-contents");
+
+        verify(this.scheduledJobsRepository, times(1)).saveAndFlush(any(ScheduledJobsEntity.class));
+    }
+
+    @Test
+    @DisplayName("Should be able to ignore a scheduled job registered by another node at the same time")
+    public void should_be_able_to_ignore_a_scheduled_job_registered_by_another_node_at_the_same_time() {
+        when(this.scheduledJobsRepository.existsById("publish-pending-contents")).thenReturn(false);
+        when(this.scheduledJobsRepository.saveAndFlush(any(ScheduledJobsEntity.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertDoesNotThrow(() -> this.scheduledJobsService.registerScheduledJob("publish-pending-contents"));
+    }
+
+    @Test
+    @DisplayName("Should be able to acquire the lease only when the conditional update changes the row")
+    public void should_be_able_to_acquire_the_lease_only_when_the_conditional_update_changes_the_row() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 13, 0, 0);
+
+        when(this.scheduledJobsRepository.acquireLease("publish-pending-contents", "node-1", now, now.plusMinutes(30))).thenReturn(1, 0);
+
+        assertTrue(this.scheduledJobsService.acquireLease("publish-pending-contents", "node-1", now, Duration.ofMinutes(30)));
+        assertFalse(this.scheduledJobsService.acquireLease("publish-pending-contents", "node-1", now, Duration.ofMinutes(30)));
+    }
+
+    @Test
+    @DisplayName("Should be able to truncate the error when releasing the lease")
+    public void should_be_able_to_truncate_the_error_when_releasing_the_lease() {
+        LocalDateTime now = LocalDateTime.now();
+
+        this.scheduledJobsService.releaseLease("publish-pending-contents", "node-1", now, now, 10, ScheduledJobsService.FAILED_OUTCOME, "x".repeat(1500));
+
+        verify(this.scheduledJobsRepository).releaseLease(eq("publish-pending-contents"), eq("node-1"), eq(now), eq(now), eq(10L),
+                eq(ScheduledJobsService.FAILED_OUTCOME), argThat(error -> error.length() == 1000));
+    }
+
+    @Test
+    @DisplayName("Should be able to get a scheduled job by name")
+    public void should_be_able_to_get_a_scheduled_job_by_name() {
+        ScheduledJobsEntity scheduledJob = ScheduledJobsEntity.builder().name("publish-pending-contents").lastOutcome(ScheduledJobsService.SUCCEEDED_OUTCOME).lastDurationMs(12L).build();
+
+        when(this.scheduledJobsRepository.findById("publish-pending-contents")).thenReturn(Optional.of(scheduledJob));
+
+        ScheduledJobResponseDTO result = this.scheduledJobsService.getScheduledJobByName("publish-pending-contents");
+
+        assertEquals("publish-pending-contents", result.name());
+        assertEquals(ScheduledJobsService.SUCCEEDED_OUTCOME, result.lastOutcome());
+        assertEquals(12L, result.lastDurationMs());
+    }
+
+    @Test
+    @DisplayName("Should not be able to get a scheduled job if it does not exist")
+    public void should_not_be_able_to_get_a_scheduled_job_if_it_does_not_exist() {
+        when(this.scheduledJobsRepository.findById("unknown")).thenReturn(Optional.empty());
+
+        ScheduledJobNotFoundException exception = assertThrows(ScheduledJobNotFoundException.class, () -> this.scheduledJobsService.getScheduledJobByName("unknown"));
+
+        assertEquals("Scheduled job not found", exception.getMessage());
+    }
+}
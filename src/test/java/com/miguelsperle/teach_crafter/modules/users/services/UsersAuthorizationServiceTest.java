@@ -1,7 +1,9 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
+import com.miguelsperle.teach_crafter.infra.security.PasswordHashingService;
 import com.miguelsperle.teach_crafter.infra.security.TokenService;
 import com.miguelsperle.teach_crafter.modules.users.dtos.authorization.UsersAuthorizationDTO;
+import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.exceptions.UserPasswordMismatchException;
 import com.miguelsperle.teach_crafter.modules.users.repositories.UsersRepository;
 import com.miguelsperle.teach_crafter.utils.TokenGenerator;
@@ -13,13 +15,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class UsersAuthorizationServiceTest {
@@ -30,17 +32,24 @@ public class UsersAuthorizationServiceTest {
     private UsersRepository usersRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Mock
     private TokenService tokenService;
 
+    @Mock
+    private UsersService usersService;
+
+    @Mock
+    private KnownEmailsFilter knownEmailsFilter;
+
     @Test
     @DisplayName("Should be able to login with valid account credentials")
     public void should_be_able_to_login_with_valid_account_credentials(){
+        when(this.knownEmailsFilter.mightExist(any())).thenReturn(true);
         when(this.usersRepository.findByEmail(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
 
-        when(this.passwordEncoder.matches(any(), any())).thenReturn(true);
+        when(this.passwordHashingService.matches(any(), any())).thenReturn(true);
 
         String generatedToken = TokenGenerator.generateToken(UsersEntityCreator.createValidAuthenticatedUsersEntity(), "secret_key_test");
 
@@ -56,9 +65,30 @@ public class UsersAuthorizationServiceTest {
         // Second argument is the real value obtained
     }
 
+    @Test
+    @DisplayName("Should be able to rehash the password on login when it was hashed with an outdated strength")
+    public void should_be_able_to_rehash_the_password_on_login_when_it_was_hashed_with_an_outdated_strength(){
+        UsersEntity user = UsersEntityCreator.createValidAuthenticatedUsersEntity();
+
+        when(this.knownEmailsFilter.mightExist(any())).thenReturn(true);
+        when(this.usersRepository.findByEmail(any())).thenReturn(Optional.of(user));
+
+        when(this.passwordHashingService.matches(any(), any())).thenReturn(true);
+        when(this.passwordHashingService.upgradeEncoding(any())).thenReturn(true);
+        when(this.passwordHashingService.encode(any())).thenReturn("$2a$12$rehashed");
+
+        UsersAuthorizationDTO usersAuthorizationDTO = new UsersAuthorizationDTO(user.getEmail(), "password");
+
+        this.usersAuthorizationService.usersAuthorization(usersAuthorizationDTO);
+
+        assertEquals("$2a$12$rehashed", user.getPassword());
+        verify(this.usersService, times(1)).save(user);
+    }
+
     @Test
     @DisplayName("Should not be able to login with an incorrect email")
     public void should_not_be_able_to_login_with_an_incorrect_email(){
+        when(this.knownEmailsFilter.mightExist(any())).thenReturn(true);
         when(this.usersRepository.findByEmail(any())).thenReturn(Optional.empty());
 
         UsersAuthorizationDTO usersAuthorizationDTO = new UsersAuthorizationDTO(UsersEntityCreator.createUsersEntityToLogin().getEmail(), UsersEntityCreator.createUsersEntityToLogin().getPassword());
@@ -75,12 +105,29 @@ public class UsersAuthorizationServiceTest {
         // Second argument is the real value obtained
     }
 
+    @Test
+    @DisplayName("Should not be able to login with an email that was never registered without querying the database")
+    public void should_not_be_able_to_login_with_an_email_that_was_never_registered_without_querying_the_database(){
+        when(this.knownEmailsFilter.mightExist(any())).thenReturn(false);
+
+        UsersAuthorizationDTO usersAuthorizationDTO = new UsersAuthorizationDTO("unknown@teach-crafter.test", "password");
+
+        UsernameNotFoundException exception = assertThrows(UsernameNotFoundException.class, () -> {
+            this.usersAuthorizationService.usersAuthorization(usersAuthorizationDTO);
+        });
+
+        assertEquals("Email and/or password incorrect", exception.getMessage());
+        verify(this.usersRepository, never()).findByEmail(any());
+        verify(this.passwordHashingService, times(1)).matches(eq("password"), any());
+    }
+
     @Test
     @DisplayName("Should not be able to login with an incorrect password")
     public void should_not_be_able_to_login_with_an_incorrect_password(){
+        when(this.knownEmailsFilter.mightExist(any())).thenReturn(true);
         when(this.usersRepository.findByEmail(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
 
-        when(this.passwordEncoder.matches(any(), any())).thenReturn(false);
+        when(this.passwordHashingService.matches(any(), any())).thenReturn(false);
 
         UsersAuthorizationDTO usersAuthorizationDTO = new UsersAuthorizationDTO(UsersEntityCreator.createUsersEntityToLogin().getEmail(), UsersEntityCreator.createUsersEntityToLogin().getPassword());
 
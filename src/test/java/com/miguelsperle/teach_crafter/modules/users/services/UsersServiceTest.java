@@ -1,5 +1,7 @@
 package com.miguelsperle.teach_crafter.modules.users.services;
 
+import com.miguelsperle.teach_crafter.infra.security.PasswordHashingService;
+import com.miguelsperle.teach_crafter.infra.security.PrincipalCache;
 import com.miguelsperle.teach_crafter.modules.users.dtos.users.*;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.exceptions.UserAlreadyExistsException;
@@ -16,7 +18,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Optional;
@@ -35,11 +36,14 @@ public class UsersServiceTest {
     private UsersRepository usersRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Mock
     private CloudinaryImageService cloudinaryImageService;
 
+    @Mock
+    private PrincipalCache principalCache;
+
     @Test
     @DisplayName("Should be able to create an user account")
     public void should_be_able_to_create_an_user_account() {
@@ -120,6 +124,8 @@ public class UsersServiceTest {
 
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
+        when(this.usersRepository.findById(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
         UpdateUserNameDTO updateUserNameDTO = new UpdateUserNameDTO(UsersEntityCreator.createUsersEntityToUpdateName().getName());
 
         this.usersService.updateUserName(updateUserNameDTO);
@@ -142,9 +148,11 @@ public class UsersServiceTest {
 
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
+        when(this.usersRepository.findById(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
         when(this.usersRepository.findByUsername(any())).thenReturn(Optional.empty());
 
-        when(this.passwordEncoder.matches(any(), any())).thenReturn(true);
+        when(this.passwordHashingService.matches(any(), any())).thenReturn(true);
 
         UpdateUserUsernameDTO updateUserUsernameDTO = new UpdateUserUsernameDTO(UsersEntityCreator.createUsersEntityToUpdateUsername().getUsername(), UsersEntityCreator.createValidCurrentPasswordAuthenticatedUsersEntity().getPassword());
 
@@ -168,6 +176,8 @@ public class UsersServiceTest {
 
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
+        when(this.usersRepository.findById(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
         when(this.usersRepository.findByUsername(any())).thenReturn(Optional.of(UsersEntityCreator.createSecondValidUsersEntity()));
 
         UpdateUserUsernameDTO updateUserUsernameDTO = new UpdateUserUsernameDTO(UsersEntityCreator.createUsersEntityToUpdateUsername().getUsername(), UsersEntityCreator.createValidCurrentPasswordAuthenticatedUsersEntity().getPassword());
@@ -191,9 +201,11 @@ public class UsersServiceTest {
 
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
+        when(this.usersRepository.findById(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
         when(this.usersRepository.findByUsername(any())).thenReturn(Optional.empty());
 
-        when(this.passwordEncoder.matches(any(), any())).thenReturn(false);
+        when(this.passwordHashingService.matches(any(), any())).thenReturn(false);
 
         UpdateUserUsernameDTO updateUserUsernameDTO = new UpdateUserUsernameDTO(UsersEntityCreator.createUsersEntityToUpdateUsername().getUsername(), UsersEntityCreator.createValidCurrentPasswordAuthenticatedUsersEntity().getPassword());
 
@@ -216,9 +228,11 @@ public class UsersServiceTest {
 
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
+        when(this.usersRepository.findById(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
         when(this.usersRepository.findByEmail(any())).thenReturn(Optional.empty());
 
-        when(this.passwordEncoder.matches(any(), any())).thenReturn(true);
+        when(this.passwordHashingService.matches(any(), any())).thenReturn(true);
 
         UpdateUserEmailDTO  updateUserEmailDTO = new UpdateUserEmailDTO(UsersEntityCreator.createUsersEntityToUpdateEmail().getEmail(), UsersEntityCreator.createValidCurrentPasswordAuthenticatedUsersEntity().getPassword());
 
@@ -242,6 +256,8 @@ public class UsersServiceTest {
 
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
+        when(this.usersRepository.findById(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
         when(this.usersRepository.findByEmail(any())).thenReturn(Optional.of(UsersEntityCreator.createSecondValidUsersEntity()));
 
         UpdateUserEmailDTO  updateUserEmailDTO = new UpdateUserEmailDTO(UsersEntityCreator.createUsersEntityToUpdateEmail().getEmail(), UsersEntityCreator.createValidCurrentPasswordAuthenticatedUsersEntity().getPassword());
@@ -265,9 +281,11 @@ public class UsersServiceTest {
 
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
+        when(this.usersRepository.findById(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
         when(this.usersRepository.findByEmail(any())).thenReturn(Optional.empty());
 
-        when(this.passwordEncoder.matches(any(), any())).thenReturn(false);
+        when(this.passwordHashingService.matches(any(), any())).thenReturn(false);
 
         UpdateUserEmailDTO  updateUserEmailDTO = new UpdateUserEmailDTO(UsersEntityCreator.createUsersEntityToUpdateEmail().getEmail(), UsersEntityCreator.createValidCurrentPasswordAuthenticatedUsersEntity().getPassword());
 
@@ -290,11 +308,13 @@ public class UsersServiceTest {
 
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
-        when(this.passwordEncoder.matches(any(), any())).thenReturn(true);
+        when(this.usersRepository.findById(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
+        when(this.passwordHashingService.matches(any(), any())).thenReturn(true);
 
         String mockHashPassword = "$20$y3M.s6zqRz9eZe.2Tyy8GOo32fwWE0q2c0bFIE2O1.MJBkR5a6";
 
-        when(this.passwordEncoder.encode(any())).thenReturn(mockHashPassword);
+        when(this.passwordHashingService.encode(any())).thenReturn(mockHashPassword);
 
         UpdateLoggedUserPasswordDTO updateLoggedUserPasswordDTO = new UpdateLoggedUserPasswordDTO(UsersEntityCreator.createUsersEntityToUpdatePassword().getPassword(), UsersEntityCreator.createValidCurrentPasswordAuthenticatedUsersEntity().getPassword());
 
@@ -309,6 +329,9 @@ public class UsersServiceTest {
         assertEquals(mockHashPassword, userCaptor.getValue().getPassword());
         // First argument is what I expect
         // Second argument is the real value obtained
+
+        // The cached principal must not outlive the password change
+        verify(this.principalCache, atLeastOnce()).invalidate(userCaptor.getValue().getId());
     }
 
     @Test
@@ -318,7 +341,9 @@ public class UsersServiceTest {
 
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
-        when(this.passwordEncoder.matches(any(), any())).thenReturn(false);
+        when(this.usersRepository.findById(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
+        when(this.passwordHashingService.matches(any(), any())).thenReturn(false);
 
         UpdateLoggedUserPasswordDTO updateLoggedUserPasswordDTO = new UpdateLoggedUserPasswordDTO(UsersEntityCreator.createUsersEntityToUpdatePassword().getPassword(), UsersEntityCreator.createValidCurrentPasswordAuthenticatedUsersEntity().getPassword());
 
@@ -341,6 +366,8 @@ public class UsersServiceTest {
 
         when(this.usersService.getAuthenticatedUser()).thenReturn(UsersEntityCreator.createValidAuthenticatedUsersEntity());
 
+        when(this.usersRepository.findById(any())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
         MultipartFile mockImageFile = mock(MultipartFile.class);
 
         String expectedUrl = "NEW_IMAGE_URL";
@@ -358,4 +385,25 @@ public class UsersServiceTest {
         // First argument is what I expect
         // Second argument is the real value obtained
     }
+
+    @Test
+    @DisplayName("User should be able to update their name without changing the cached principal")
+    public void user_should_be_able_to_update_their_name_without_changing_the_cached_principal() {
+        Authentication authentication = this.configureAuthenticationSecurityForTest();
+
+        UsersEntity principal = UsersEntityCreator.createValidAuthenticatedUsersEntity();
+        String principalName = principal.getName();
+
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(this.usersRepository.findById(principal.getId())).thenReturn(Optional.of(UsersEntityCreator.createValidAuthenticatedUsersEntity()));
+
+        this.usersService.updateUserName(new UpdateUserNameDTO(UsersEntityCreator.createUsersEntityToUpdateName().getName()));
+
+        ArgumentCaptor<UsersEntity> userCaptor = ArgumentCaptor.forClass(UsersEntity.class);
+
+        verify(this.usersRepository).save(userCaptor.capture());
+
+        assertNotSame(principal, userCaptor.getValue());
+        assertEquals(principalName, principal.getName());
+    }
 }
@@ -0,0 +1,145 @@
+package com.miguelsperle.teach_crafter.modules.users.services;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.CoursesContentsEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.videoUploadJobs.VideoUploadJobsEntity;
+import com.miguelsperle.teach_crafter.modules.users.entities.videoUploadJobs.exceptions.VideoUploadJobNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.repositories.CoursesContentsRepository;
+import com.miguelsperle.teach_crafter.modules.users.repositories.VideoUploadJobsRepository;
+import com.miguelsperle.teach_crafter.utils.unit.mocks.CoursesContentsEntityCreator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VideoUploadJobsServiceTest {
+    @Mock
+    private VideoUploadJobsRepository videoUploadJobsRepository;
+
+    @Mock
+    private CoursesContentsRepository coursesContentsRepository;
+
+    @Mock
+    private PublishedContentsCache publishedContentsCache;
+
+    @TempDir
+    private Path spoolDirectory;
+
+    private VideoUploadJobsService videoUploadJobsService;
+
+    @BeforeEach
+    public void setUp() {
+        this.videoUploadJobsService = new VideoUploadJobsService(this.videoUploadJobsRepository, this.coursesContentsRepository, this.publishedContentsCache, this.spoolDirectory.toString(), "node-a");
+    }
+
+    @Test
+    @DisplayName("Should be able to spool the video file and queue a job")
+    public void should_be_able_to_spool_the_video_file_and_queue_a_job() throws IOException {
+        CoursesContentsEntity courseContent = CoursesContentsEntityCreator.createValidCoursesContentsEntity();
+
+        MockMultipartFile videoFile = new MockMultipartFile("videoFile", "video.mp4", "video/mp4", "test-video-file-content".getBytes());
+
+        when(this.videoUploadJobsRepository.save(any(VideoUploadJobsEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        VideoUploadJobsEntity videoUploadJob = this.videoUploadJobsService.createVideoUploadJob(courseContent, videoFile);
+
+        assertEquals(VideoUploadJobsService.QUEUED_STATUS, videoUploadJob.getStatus());
+        assertEquals("node-a", videoUploadJob.getNodeId());
+        assertEquals(courseContent, videoUploadJob.getCoursesContentsEntity());
+        assertEquals(23L, videoUploadJob.getFileSize());
+        assertEquals(this.spoolDirectory, Path.of(videoUploadJob.getFilePath()).getParent());
+        assertEquals("test-video-file-content", Files.readString(Path.of(videoUploadJob.getFilePath())));
+    }
+
+    @Test
+    @DisplayName("Should be able to delete the spooled video file when the job cannot be saved")
+    public void should_be_able_to_delete_the_spooled_video_file_when_the_job_cannot_be_saved() throws IOException {
+        CoursesContentsEntity courseContent = CoursesContentsEntityCreator.createValidCoursesContentsEntity();
+
+        MockMultipartFile videoFile = new MockMultipartFile("videoFile", "video.mp4", "video/mp4", "test-video-file-content".getBytes());
+
+        when(this.videoUploadJobsRepository.save(any(VideoUploadJobsEntity.class))).thenThrow(new IllegalStateException("Connection refused"));
+
+        assertThrows(IllegalStateException.class, () -> this.videoUploadJobsService.createVideoUploadJob(courseContent, videoFile));
+
+        try (Stream<Path> spooledFiles = Files.list(this.spoolDirectory)) {
+            assertEquals(0, spooledFiles.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should be able to return only the jobs claimed by this worker")
+    public void should_be_able_to_return_only_the_jobs_claimed_by_this_worker() {
+        VideoUploadJobsEntity claimedJob = VideoUploadJobsEntity.builder().id("1").build();
+        VideoUploadJobsEntity jobClaimedElsewhere = VideoUploadJobsEntity.builder().id("2").build();
+
+        when(this.videoUploadJobsRepository.findAllByNodeIdAndStatusOrderByCreatedAtAsc(eq("node-a"), eq("QUEUED"), any())).thenReturn(List.of(claimedJob, jobClaimedElsewhere));
+
+        when(this.videoUploadJobsRepository.claim(eq("1"), eq("QUEUED"), eq("UPLOADING"), any())).thenReturn(1);
+        when(this.videoUploadJobsRepository.claim(eq("2"), eq("QUEUED"), eq("UPLOADING"), any())).thenReturn(0);
+
+        assertEquals(List.of(claimedJob), this.videoUploadJobsService.claimQueuedJobs(2));
+    }
+
+    @Test
+    @DisplayName("Should be able to requeue a stale job whose spooled file is still on this node")
+    public void should_be_able_to_requeue_a_stale_job_whose_spooled_file_is_still_on_this_node() throws IOException {
+        Path spooledFile = Files.writeString(this.spoolDirectory.resolve("video.upload"), "test-video-file-content");
+
+        this.videoUploadJobsService.requeueStaleJob(VideoUploadJobsEntity.builder().id("1").filePath(spooledFile.toString()).build());
+
+        verify(this.videoUploadJobsRepository).requeue("1", "UPLOADING", "QUEUED");
+        verify(this.videoUploadJobsRepository, never()).markFinished(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should be able to fail a stale job whose spooled file is missing")
+    public void should_be_able_to_fail_a_stale_job_whose_spooled_file_is_missing() {
+        this.videoUploadJobsService.requeueStaleJob(VideoUploadJobsEntity.builder().id("1").filePath(this.spoolDirectory.resolve("missing.upload").toString()).build());
+
+        verify(this.videoUploadJobsRepository, never()).requeue(any(), any(), any());
+        verify(this.videoUploadJobsRepository).markFinished(eq("1"), eq("FAILED"), eq("Spooled video file is missing, upload the video again"), any());
+    }
+
+    @Test
+    @DisplayName("Should be able to set the video url when the job is ready")
+    public void should_be_able_to_set_the_video_url_when_the_job_is_ready() {
+        CoursesContentsEntity courseContent = CoursesContentsEntityCreator.createValidCoursesContentsEntity();
+        courseContent.getCoursesEntity().setId("10");
+
+        VideoUploadJobsEntity videoUploadJob = VideoUploadJobsEntity.builder().id("1").coursesContentsEntity(courseContent).build();
+
+        this.videoUploadJobsService.markReady(videoUploadJob, "NEW_VIDEO_URL");
+
+        verify(this.coursesContentsRepository).updateVideoUrl(courseContent.getId(), "NEW_VIDEO_URL");
+        verify(this.videoUploadJobsRepository).markFinished(eq("1"), eq("READY"), isNull(), any());
+        verify(this.publishedContentsCache).invalidate("10");
+    }
+
+    @Test
+    @DisplayName("Should be able to throw an exception if the video upload job does not exist")
+    public void should_be_able_to_throw_an_exception_if_the_video_upload_job_does_not_exist() {
+        when(this.videoUploadJobsRepository.findById("1")).thenReturn(Optional.empty());
+
+        VideoUploadJobNotFoundException exception = assertThrows(VideoUploadJobNotFoundException.class, () -> {
+            this.videoUploadJobsService.getVideoUploadJobById("1");
+        });
+
+        assertEquals("Video upload job not found", exception.getMessage());
+    }
+}
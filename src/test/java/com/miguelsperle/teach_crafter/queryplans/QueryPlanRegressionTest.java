@@ -0,0 +1,236 @@
+package com.miguelsperle.teach_crafter.queryplans;
+
+import com.miguelsperle.teach_crafter.infra.security.ResetTokenGenerator;
+import com.miguelsperle.teach_crafter.modules.users.repositories.*;
+import com.miguelsperle.teach_crafter.utils.integration.QueryBudget;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Calls each repository method against a real Postgres, loaded with a realistic amount of rows, and fails when executing it
+// sequentially scanned a table. The SQL is whatever Hibernate generates, the scans are read back from pg_stat_xact_user_tables
+// inside the same transaction. H2 plans say nothing about production, so this only runs when a database is given:
+// QUERY_PLAN_DB_URL=jdbc:postgresql://localhost:5432/teach_crafter QUERY_PLAN_DB_USERNAME=... QUERY_PLAN_DB_PASSWORD=... mvn test -Dtest=QueryPlanRegressionTest
+@EnabledIfEnvironmentVariable(named = "QUERY_PLAN_DB_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.miguelsperle.teach_crafter.utils.integration.QueryBudget",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.flyway.clean-disabled=false",
+        "api.courses.search.engine=full-text",
+        // The pollers run once at startup, before the rows are loaded, and then stay out of the way
+        "api.mail.outbox.poll-interval-ms=3600000",
+        "api.uploads.video.poll-interval-ms=3600000"
+})
+public class QueryPlanRegressionTest {
+    private static final String SCHEMA = "query_plan_regression";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private CoursesRepository coursesRepository;
+
+    @Autowired
+    private EnrollmentsRepository enrollmentsRepository;
+
+    @Autowired
+    private CoursesContentsRepository coursesContentsRepository;
+
+    @Autowired
+    private PasswordResetTokensRepository passwordResetTokensRepository;
+
+    @Autowired
+    private VideoUploadJobsRepository videoUploadJobsRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        String url = System.getenv("QUERY_PLAN_DB_URL");
+
+        registry.add("spring.datasource.url", () -> url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA);
+        registry.add("spring.datasource.username", () -> System.getenv("QUERY_PLAN_DB_USERNAME"));
+        registry.add("spring.datasource.password", () -> System.getenv("QUERY_PLAN_DB_PASSWORD"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.flyway.schemas", () -> SCHEMA);
+    }
+
+    @TestConfiguration
+    static class CleanSchemaConfiguration {
+        // Every run starts from an empty schema migrated by the same Flyway scripts as production
+        @Bean
+        public FlywayMigrationStrategy cleanMigrateStrategy() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+    }
+
+    @BeforeAll
+    public void setUp() {
+        this.loadRealisticRows();
+    }
+
+    @AfterAll
+    public void tearDown() {
+        this.jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    // 20k users, 10k courses, 200k enrollments, 100k contents ( 1% still pending ), 20k reset tokens, upload jobs and 50k outbox emails
+    private void loadRealisticRows() {
+        this.jdbcTemplate.execute("INSERT INTO users (id, username, role, name, email, password_hash, avatar_url, created_at) " +
+                "SELECT md5('user-' || g)::uuid, 'username-' || g, CASE WHEN g < 1000 THEN 'ROLE_CREATOR' ELSE 'ROLE_USER' END, 'Name ' || g, " +
+                "'user-' || g || '@teach-crafter.test', md5(g::text), 'https://avatar/' || g, TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute' " +
+                "FROM generate_series(0, 19999) g");
+
+        this.jdbcTemplate.execute("INSERT INTO courses (id, name, description, creator_id, maximum_attendees, created_at) " +
+                "SELECT md5('course-' || g)::uuid, 'Course ' || g, 'Description of course ' || g, md5('user-' || (g % 1000))::uuid, 100, TIMESTAMP '2024-01-01' + g * INTERVAL '1 hour' " +
+                "FROM generate_series(0, 9999) g");
+
+        this.jdbcTemplate.execute("INSERT INTO enrollments (id, user_id, course_id, created_at) " +
+                "SELECT md5('enrollment-' || g)::uuid, md5('user-' || (g % 20000))::uuid, md5('course-' || (g / 20))::uuid, TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute' " +
+                "FROM generate_series(0, 199999) g");
+
+        this.jdbcTemplate.execute("INSERT INTO courses_contents (id, description, status, release_date, course_id, content_module, created_at) " +
+                "SELECT md5('content-' || g)::uuid, 'Content ' || g, CASE WHEN g % 100 = 0 THEN 'PENDING' ELSE 'PUBLISHED' END, DATE '2024-01-01' + (g % 900), " +
+                "md5('course-' || (g % 10000))::uuid, 'Module ' || (g % 10), TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute' " +
+                "FROM generate_series(0, 99999) g");
+
+        this.jdbcTemplate.execute("INSERT INTO password_reset_tokens (id, token_hash, expires_in, user_id) " +
+                "SELECT md5('token-' || g)::uuid, sha256(convert_to(md5('token-' || g), 'UTF8')), DATE '2024-01-02', md5('user-' || g)::uuid FROM generate_series(0, 19999) g");
+
+        this.jdbcTemplate.execute("INSERT INTO video_upload_jobs (id, course_content_id, node_id, status, file_path, file_size, created_at) " +
+                "SELECT md5('job-' || g)::uuid, md5('content-' || (g * 5))::uuid, 'node-' || (g % 4), CASE WHEN g % 1000 = 0 THEN 'QUEUED' ELSE 'READY' END, '/tmp/' || g, 1024, " +
+                "TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute' FROM generate_series(0, 19999) g");
+
+        this.jdbcTemplate.execute("INSERT INTO email_outbox (id, recipient, subject, template, status, next_attempt_at) " +
+                "SELECT md5('email-' || g)::uuid, 'user-' || (g % 20000) || '@teach-crafter.test', 'Subject', 'template', " +
+                "CASE WHEN g % 1000 = 0 THEN 'PENDING' ELSE 'SENT' END, TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute' " +
+                "FROM generate_series(0, 49999) g");
+
+        this.jdbcTemplate.execute("ANALYZE");
+    }
+
+    // Same ids the rows above were seeded with
+    private String id(String seed) {
+        return this.jdbcTemplate.queryForObject("SELECT CAST(md5(?)::uuid AS text)", String.class, seed);
+    }
+
+    // The enrolled count drift check is left out on purpose, it sweeps every course by design
+    private Stream<Arguments> repositoryQueries() {
+        LocalDateTime cursor = LocalDateTime.of(2024, 3, 1, 0, 0);
+        LocalDate today = LocalDate.of(2024, 3, 1);
+
+        return Stream.of(
+                Arguments.of("UsersRepository.findByUsername", (Runnable) () ->
+                        this.usersRepository.findByUsername("username-42")),
+                Arguments.of("UsersRepository.findByEmail", (Runnable) () ->
+                        this.usersRepository.findByEmail("user-42@teach-crafter.test")),
+                Arguments.of("UsersRepository.findByUsernameOrEmail", (Runnable) () ->
+                        this.usersRepository.findByUsernameOrEmail("username-42", "user-42@teach-crafter.test")),
+                Arguments.of("UsersRepository.findEmailsUpdatedSince", (Runnable) () ->
+                        this.usersRepository.findEmailsUpdatedSince(LocalDateTime.now().plusHours(1))),
+                Arguments.of("CoursesRepository.findAllByUsersEntityId", (Runnable) () ->
+                        this.coursesRepository.findAllByUsersEntityId(this.id("user-42"))),
+                Arguments.of("CoursesRepository.findAllWithEnrollmentCountByUsersEntityId", (Runnable) () ->
+                        this.coursesRepository.findAllWithEnrollmentCountByUsersEntityId(this.id("user-42"))),
+                Arguments.of("CoursesRepository.findAllWithEnrollmentCountByIdIn", (Runnable) () ->
+                        this.coursesRepository.findAllWithEnrollmentCountByIdIn(List.of(this.id("course-1"), this.id("course-2"), this.id("course-3")))),
+                Arguments.of("CoursesRepository.findAllIdsOrderByCreatedAtDesc", (Runnable) () ->
+                        this.coursesRepository.findAllIdsOrderByCreatedAtDesc(PageRequest.ofSize(20))),
+                Arguments.of("CoursesRepository.findIdsCreatedBefore", (Runnable) () ->
+                        this.coursesRepository.findIdsCreatedBefore(LocalDateTime.of(2024, 6, 1, 0, 0), this.id("course-500"), PageRequest.ofSize(21))),
+                Arguments.of("CoursesRepository.findByIdForUpdate", (Runnable) () ->
+                        this.coursesRepository.findByIdForUpdate(this.id("course-42"))),
+                Arguments.of("CoursesRepository.incrementEnrolledCountIfSpotAvailable", (Runnable) () ->
+                        this.coursesRepository.incrementEnrolledCountIfSpotAvailable(this.id("course-42"))),
+                Arguments.of("EnrollmentsRepository.findAllByCoursesEntityId", (Runnable) () ->
+                        this.enrollmentsRepository.findAllByCoursesEntityId(this.id("course-42"))),
+                Arguments.of("EnrollmentsRepository.existsByUsersEntityIdAndCoursesEntityId", (Runnable) () ->
+                        this.enrollmentsRepository.existsByUsersEntityIdAndCoursesEntityId(this.id("user-42"), this.id("course-2"))),
+                Arguments.of("EnrollmentsRepository.deleteByUsersEntityIdAndCoursesEntityId", (Runnable) () ->
+                        this.enrollmentsRepository.deleteByUsersEntityIdAndCoursesEntityId(this.id("user-42"), this.id("course-2"))),
+                Arguments.of("EnrollmentsRepository.findAllCourseSubscriptionsByUserId", (Runnable) () ->
+                        this.enrollmentsRepository.findAllCourseSubscriptionsByUserId(this.id("user-42"))),
+                Arguments.of("EnrollmentsRepository.findCourseSubscriptionsByUserIdCreatedBefore", (Runnable) () ->
+                        this.enrollmentsRepository.findCourseSubscriptionsByUserIdCreatedBefore(this.id("user-42"), cursor, this.id("enrollment-9"), PageRequest.ofSize(21))),
+                Arguments.of("CoursesContentsRepository.findAllResponsesByCourseId", (Runnable) () ->
+                        this.coursesContentsRepository.findAllResponsesByCourseId(this.id("course-42"))),
+                Arguments.of("CoursesContentsRepository.findAllResponsesByCourseIdAndStatus", (Runnable) () ->
+                        this.coursesContentsRepository.findAllResponsesByCourseIdAndStatus(this.id("course-42"), "PUBLISHED")),
+                Arguments.of("CoursesContentsRepository.findResponsesByCourseIdAndStatusCreatedAfter", (Runnable) () ->
+                        this.coursesContentsRepository.findResponsesByCourseIdAndStatusCreatedAfter(this.id("course-42"), "PUBLISHED", LocalDateTime.of(2024, 1, 1, 0, 0), this.id("content-0"), PageRequest.ofSize(21))),
+                Arguments.of("CoursesContentsRepository.findAllReleasesByStatus", (Runnable) () ->
+                        this.coursesContentsRepository.findAllReleasesByStatus("PENDING")),
+                Arguments.of("CoursesContentsRepository.publishDueContents", (Runnable) () ->
+                        this.coursesContentsRepository.publishDueContents("PENDING", "PUBLISHED", today, 1000)),
+                Arguments.of("CoursesContentsRepository.publishContentsByIds", (Runnable) () ->
+                        this.coursesContentsRepository.publishContentsByIds(List.of(this.id("content-100"), this.id("content-200")), "PENDING", "PUBLISHED", today)),
+                Arguments.of("PasswordResetTokensRepository.findByTokenHash", (Runnable) () ->
+                        this.passwordResetTokensRepository.findByTokenHash(ResetTokenGenerator.digest(this.jdbcTemplate.queryForObject("SELECT md5('token-42')", String.class)))),
+                Arguments.of("PasswordResetTokensRepository.findByUsersEntityId", (Runnable) () ->
+                        this.passwordResetTokensRepository.findByUsersEntityId(this.id("user-42"))),
+                Arguments.of("VideoUploadJobsRepository.findAllByNodeIdAndStatusOrderByCreatedAtAsc", (Runnable) () ->
+                        this.videoUploadJobsRepository.findAllByNodeIdAndStatusOrderByCreatedAtAsc("node-0", "QUEUED", PageRequest.ofSize(10))),
+                Arguments.of("VideoUploadJobsRepository.findAllByNodeIdAndStatusAndStartedAtBefore", (Runnable) () ->
+                        this.videoUploadJobsRepository.findAllByNodeIdAndStatusAndStartedAtBefore("node-0", "UPLOADING", cursor)),
+                Arguments.of("EmailOutboxRepository.findAllDue", (Runnable) () ->
+                        this.emailOutboxRepository.findAllDue(List.of("PENDING", "SENDING"), cursor, PageRequest.ofSize(50)))
+        );
+    }
+
+    // Runs in a transaction that is rolled back, so the writes leave the rows as seeded for the next case
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    public void should_not_be_able_to_run_a_repository_query_with_a_sequential_scan(String repositoryMethod, Runnable repositoryCall) {
+        this.transactionTemplate.executeWithoutResult(transaction -> {
+            transaction.setRollbackOnly();
+
+            List<String> statements = QueryBudget.captureStatements(repositoryCall);
+
+            List<String> sequentiallyScannedTables = this.jdbcTemplate.queryForList(
+                    "SELECT relname FROM pg_stat_xact_user_tables WHERE schemaname = ? AND seq_scan > 0", String.class, SCHEMA);
+
+            assertThat(statements)
+                    .as("SQL generated for %s", repositoryMethod)
+                    .isNotEmpty();
+
+            assertThat(sequentiallyScannedTables)
+                    .as("Sequential scans run by %s:%n%s", repositoryMethod, String.join("\n", statements))
+                    .isEmpty();
+        });
+    }
+}
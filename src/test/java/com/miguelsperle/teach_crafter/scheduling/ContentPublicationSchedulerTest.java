@@ -0,0 +1,99 @@
+package com.miguelsperle.teach_crafter.scheduling;
+
+import com.miguelsperle.teach_crafter.modules.users.dtos.coursesContents.CourseContentReleaseDTO;
+import com.miguelsperle.teach_crafter.modules.users.events.CourseContentReleaseChangedEvent;
+import com.miguelsperle.teach_crafter.modules.users.services.CoursesContentsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ContentPublicationSchedulerTest {
+    @Mock
+    private CoursesContentsService coursesContentsService;
+
+    @Mock
+    private Logger logger;
+
+    private ContentPublicationScheduler contentPublicationScheduler;
+
+    @BeforeEach
+    public void setUp() {
+        this.contentPublicationScheduler = new ContentPublicationScheduler(this.coursesContentsService, this.logger);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.contentPublicationScheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should be able to publish contents rebuilt from the database that are already due")
+    public void should_be_able_to_publish_contents_rebuilt_from_the_database_that_are_already_due() {
+        LocalDate today = LocalDate.now();
+
+        when(this.coursesContentsService.getPendingContentReleases()).thenReturn(List.of(
+                new CourseContentReleaseDTO("1", today.minusDays(1)),
+                new CourseContentReleaseDTO("2", today.plusDays(3))
+        ));
+
+        this.contentPublicationScheduler.start();
+
+        verify(this.coursesContentsService, timeout(2000)).publishContents(List.of("1"), today);
+        verify(this.coursesContentsService, after(200).times(1)).publishContents(any(), any());
+        verify(this.logger).info("Content publication scheduler started. Pending: 2");
+    }
+
+    @Test
+    @DisplayName("Should be able to publish a content scheduled through a release change once it is due")
+    public void should_be_able_to_publish_a_content_scheduled_through_a_release_change_once_it_is_due() {
+        LocalDate today = LocalDate.now();
+
+        when(this.coursesContentsService.getPendingContentReleases()).thenReturn(List.of());
+        when(this.coursesContentsService.publishContents(List.of("1"), today)).thenReturn(1);
+
+        this.contentPublicationScheduler.start();
+        this.contentPublicationScheduler.onCourseContentReleaseChanged(new CourseContentReleaseChangedEvent("1", "PENDING", today));
+
+        verify(this.coursesContentsService, timeout(2000)).publishContents(List.of("1"), today);
+        verify(this.logger, timeout(2000)).info("Published at release time. Amount: 1");
+    }
+
+    @Test
+    @DisplayName("Should not be able to publish a content whose release was moved to a later date")
+    public void should_not_be_able_to_publish_a_content_whose_release_was_moved_to_a_later_date() {
+        LocalDate today = LocalDate.now();
+
+        when(this.coursesContentsService.getPendingContentReleases()).thenReturn(List.of(new CourseContentReleaseDTO("1", today)));
+
+        // The release change arrives before the publisher thread runs, so the queued entry for today is stale when it comes due
+        this.contentPublicationScheduler.onCourseContentReleaseChanged(new CourseContentReleaseChangedEvent("1", "PENDING", today.plusDays(2)));
+        this.contentPublicationScheduler.start();
+
+        verify(this.coursesContentsService, after(300).never()).publishContents(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not be able to publish a content that was already published by a release change")
+    public void should_not_be_able_to_publish_a_content_that_was_already_published_by_a_release_change() {
+        LocalDate today = LocalDate.now();
+
+        when(this.coursesContentsService.getPendingContentReleases()).thenReturn(List.of(new CourseContentReleaseDTO("1", today.plusDays(1))));
+
+        this.contentPublicationScheduler.onCourseContentReleaseChanged(new CourseContentReleaseChangedEvent("1", "PUBLISHED", today));
+        this.contentPublicationScheduler.start();
+
+        verify(this.coursesContentsService, after(300).never()).publishContents(any(), any());
+    }
+}
@@ -0,0 +1,114 @@
+package com.miguelsperle.teach_crafter.scheduling;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.emailOutbox.EmailOutboxEntity;
+import com.miguelsperle.teach_crafter.modules.users.services.EmailOutboxService;
+import com.miguelsperle.teach_crafter.modules.users.services.EmailSenderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxDispatcherTest {
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    @Mock
+    private EmailSenderService emailSenderService;
+
+    @Mock
+    private Logger logger;
+
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        this.emailOutboxDispatcher = new EmailOutboxDispatcher(this.emailOutboxService, this.emailSenderService, this.logger, 10, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.emailOutboxDispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should be able to mark delivered emails as sent")
+    public void should_be_able_to_mark_delivered_emails_as_sent() {
+        EmailOutboxEntity email = EmailOutboxEntity.builder().id("1").recipient("exampleToSend@gmail.com").subject("Subject").template("resetPasswordTemplate").build();
+
+        when(this.emailOutboxService.claimDueEmails(10)).thenReturn(List.of(email));
+        when(this.emailOutboxService.readVariables(email)).thenReturn(Map.of("token", "aB3dE6Gh7iJkL9Mn0pQrStUv"));
+
+        this.emailOutboxDispatcher.dispatchDueEmails();
+
+        verify(this.emailSenderService, timeout(1000)).sendTemplateMessage("exampleToSend@gmail.com", "Subject", "resetPasswordTemplate", Map.of("token", "aB3dE6Gh7iJkL9Mn0pQrStUv"));
+        verify(this.emailOutboxService, timeout(1000)).markSent(email);
+        verify(this.emailOutboxService, never()).markFailed(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should be able to mark emails as failed when delivery fails")
+    public void should_be_able_to_mark_emails_as_failed_when_delivery_fails() {
+        EmailOutboxEntity email = EmailOutboxEntity.builder().id("1").recipient("exampleToSend@gmail.com").subject("Subject").template("resetPasswordTemplate").build();
+
+        when(this.emailOutboxService.claimDueEmails(10)).thenReturn(List.of(email));
+        when(this.emailOutboxService.readVariables(email)).thenReturn(Map.of());
+
+        doThrow(new RuntimeException("Failed to send email", new IllegalStateException("Connection refused")))
+                .when(this.emailSenderService).sendTemplateMessage(any(), any(), any(), any());
+
+        this.emailOutboxDispatcher.dispatchDueEmails();
+
+        verify(this.emailOutboxService, timeout(1000)).markFailed(email, "Connection refused");
+        verify(this.emailOutboxService, never()).markSent(any());
+    }
+
+    @Test
+    @DisplayName("Should not be able to send anything if no email is due")
+    public void should_not_be_able_to_send_anything_if_no_email_is_due() {
+        when(this.emailOutboxService.claimDueEmails(10)).thenReturn(Collections.emptyList());
+
+        this.emailOutboxDispatcher.dispatchDueEmails();
+
+        verifyNoInteractions(this.emailSenderService);
+    }
+
+    @Test
+    @DisplayName("Should not be able to block the scheduler or claim past the batch size while emails are still being sent")
+    public void should_not_be_able_to_block_the_scheduler_or_claim_past_the_batch_size_while_emails_are_still_being_sent() throws Exception {
+        List<EmailOutboxEntity> firstBatch = IntStream.range(0, 4).mapToObj(i -> EmailOutboxEntity.builder().id(String.valueOf(i)).build()).toList();
+        CountDownLatch slowSmtpServer = new CountDownLatch(1);
+
+        when(this.emailOutboxService.claimDueEmails(10)).thenReturn(firstBatch);
+        when(this.emailOutboxService.claimDueEmails(6)).thenReturn(Collections.emptyList());
+        when(this.emailOutboxService.readVariables(any())).thenReturn(Map.of());
+
+        doAnswer(invocation -> {
+            slowSmtpServer.await();
+            return null;
+        }).when(this.emailSenderService).sendTemplateMessage(any(), any(), any(), any());
+
+        // Both polls return while the SMTP server still holds every sender
+        this.emailOutboxDispatcher.dispatchDueEmails();
+        this.emailOutboxDispatcher.dispatchDueEmails();
+
+        verify(this.emailOutboxService).claimDueEmails(6);
+
+        slowSmtpServer.countDown();
+
+        verify(this.emailOutboxService, timeout(1000).times(4)).markSent(any());
+    }
+}
@@ -0,0 +1,114 @@
+package com.miguelsperle.teach_crafter.scheduling;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.exceptions.ScheduledJobLockedException;
+import com.miguelsperle.teach_crafter.modules.users.entities.scheduledJobs.exceptions.ScheduledJobNotFoundException;
+import com.miguelsperle.teach_crafter.modules.users.services.ScheduledJobsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ScheduledJobCoordinatorTest {
+    @Mock
+    private ScheduledJobsService scheduledJobsService;
+
+    @Mock
+    private Logger logger;
+
+    private ScheduledJobCoordinator scheduledJobCoordinator;
+
+    @BeforeEach
+    public void setUp() {
+        this.scheduledJobCoordinator = new ScheduledJobCoordinator(this.scheduledJobsService, this.logger, "node-1", Duration.ofMinutes(30), Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Should be able to run the job and record success when the lease is acquired")
+    public void should_be_able_to_run_the_job_and_record_success_when_the_lease_is_acquired() {
+        AtomicInteger runs = new AtomicInteger();
+
+        this.scheduledJobCoordinator.register("publish-pending-contents", runs::incrementAndGet);
+
+        when(this.scheduledJobsService.acquireLease(eq("publish-pending-contents"), eq("node-1"), any(), eq(Duration.ofMinutes(30)))).thenReturn(true);
+
+        assertTrue(this.scheduledJobCoordinator.run("publish-pending-contents"));
+        assertEquals(1, runs.get());
+
+        ArgumentCaptor<LocalDateTime> lockedUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> finishedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        verify(this.scheduledJobsService).releaseLease(eq("publish-pending-contents"), eq("node-1"), lockedUntil.capture(), finishedAt.capture(),
+                anyLong(), eq(ScheduledJobsService.SUCCEEDED_OUTCOME), isNull());
+
+        // A fast run keeps the lease for the minimum hold
+        assertTrue(lockedUntil.getValue().isAfter(finishedAt.getValue().plusSeconds(25)));
+    }
+
+    @Test
+    @DisplayName("Should not be able to run the job when another node holds the lease")
+    public void should_not_be_able_to_run_the_job_when_another_node_holds_the_lease() {
+        AtomicInteger runs = new AtomicInteger();
+
+        this.scheduledJobCoordinator.register("publish-pending-contents", runs::incrementAndGet);
+
+        when(this.scheduledJobsService.acquireLease(any(), any(), any(), any())).thenReturn(false);
+
+        assertFalse(this.scheduledJobCoordinator.run("publish-pending-contents"));
+        assertEquals(0, runs.get());
+
+        verify(this.scheduledJobsService, never()).releaseLease(any(), any(), any(), any(), anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should be able to record the failure and release the lease when the job throws")
+    public void should_be_able_to_record_the_failure_and_release_the_lease_when_the_job_throws() {
+        this.scheduledJobCoordinator.register("publish-pending-contents", () -> {
+            throw new IllegalStateException("Database unavailable");
+        });
+
+        when(this.scheduledJobsService.acquireLease(any(), any(), any(), any())).thenReturn(true);
+
+        assertTrue(this.scheduledJobCoordinator.run("publish-pending-contents"));
+
+        verify(this.scheduledJobsService).releaseLease(eq("publish-pending-contents"), eq("node-1"), any(), any(),
+                anyLong(), eq(ScheduledJobsService.FAILED_OUTCOME), eq("Database unavailable"));
+        verify(this.logger).error("Scheduled job failed. Job: publish-pending-contents, error: Database unavailable");
+    }
+
+    @Test
+    @DisplayName("Should not be able to trigger a job that is locked")
+    public void should_not_be_able_to_trigger_a_job_that_is_locked() {
+        this.scheduledJobCoordinator.register("publish-pending-contents", () -> {});
+
+        when(this.scheduledJobsService.acquireLease(any(), any(), any(), any())).thenReturn(false);
+
+        ScheduledJobLockedException exception = assertThrows(ScheduledJobLockedException.class, () -> this.scheduledJobCoordinator.trigger("publish-pending-contents"));
+
+        assertEquals("Scheduled job is locked by another run", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should not be able to run a job that is not registered")
+    public void should_not_be_able_to_run_a_job_that_is_not_registered() {
+        ScheduledJobNotFoundException exception = assertThrows(ScheduledJobNotFoundException.class, () -> this.scheduledJobCoordinator.run("unknown"));
+
+        assertEquals("Scheduled job not found", exception.getMessage());
+
+        verifyNoInteractions(this.scheduledJobsService);
+    }
+}
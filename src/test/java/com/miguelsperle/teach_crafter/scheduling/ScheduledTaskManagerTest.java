@@ -1,100 +1,108 @@
 package com.miguelsperle.teach_crafter.scheduling;
 
-import com.miguelsperle.teach_crafter.modules.users.entities.courses.CoursesEntity;
-import com.miguelsperle.teach_crafter.modules.users.entities.coursesContents.CoursesContentsEntity;
 import com.miguelsperle.teach_crafter.modules.users.services.CoursesContentsService;
-import com.miguelsperle.teach_crafter.utils.unit.mocks.CoursesContentsEntityCreator;
-import com.miguelsperle.teach_crafter.utils.unit.mocks.CoursesEntityCreator;
-import com.miguelsperle.teach_crafter.utils.unit.mocks.UsersEntityCreator;
+import com.miguelsperle.teach_crafter.modules.users.services.EnrollmentsCoursesManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Collections;
+import java.time.LocalDate;
 import java.util.List;
 
 import org.slf4j.Logger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class ScheduledTaskManagerTest {
-    @InjectMocks
     private ScheduledTaskManager scheduledTaskManager;
 
     @Mock
     private CoursesContentsService coursesContentsService;
 
     @Mock
-    private Logger logger;
+    private EnrollmentsCoursesManager enrollmentsCoursesManager;
 
-    @Captor
-    private ArgumentCaptor<List<CoursesContentsEntity>> listCaptor;
+    @Mock
+    private ScheduledJobCoordinator scheduledJobCoordinator;
 
-    @Test
-    @DisplayName("Should be able to change pending content to published")
-    public void should_be_able_to_change_pending_content_to_published() {
-        CoursesEntity course = CoursesEntityCreator.createValidCoursesEntity();
-        course.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
+    @Mock
+    private Logger logger;
 
-        CoursesContentsEntity courseContent = CoursesContentsEntityCreator.createValidCoursesContentsEntity();
-        courseContent.setCoursesEntity(course);
+    private SimpleMeterRegistry meterRegistry;
 
-        when(this.coursesContentsService.getAllCoursesContentsByPendingStatus(any())).thenReturn(List.of(courseContent));
+    @BeforeEach
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.scheduledTaskManager = new ScheduledTaskManager(this.coursesContentsService, this.enrollmentsCoursesManager, this.scheduledJobCoordinator, this.logger, this.meterRegistry, 2);
+    }
 
-        when(this.coursesContentsService.isReleaseDateValid(any())).thenReturn("PUBLISHED");
+    @Test
+    @DisplayName("Should be able to run the scheduled jobs through the coordinator")
+    public void should_be_able_to_run_the_scheduled_jobs_through_the_coordinator() {
+        verify(this.scheduledJobCoordinator).register(eq(ScheduledTaskManager.PUBLISH_PENDING_CONTENTS_JOB), any());
+        verify(this.scheduledJobCoordinator).register(eq(ScheduledTaskManager.RECONCILE_ENROLLED_COUNTS_JOB), any());
 
-        when(this.coursesContentsService.saveAllCoursesContents(anyList())).thenReturn(List.of(courseContent));
+        this.scheduledTaskManager.runChangePendingContentToPublished();
+        this.scheduledTaskManager.runReconcileCoursesEnrolledCount();
 
-        this.scheduledTaskManager.changePendingContentToPublished();
+        verify(this.scheduledJobCoordinator).run(ScheduledTaskManager.PUBLISH_PENDING_CONTENTS_JOB);
+        verify(this.scheduledJobCoordinator).run(ScheduledTaskManager.RECONCILE_ENROLLED_COUNTS_JOB);
+        verifyNoInteractions(this.coursesContentsService, this.enrollmentsCoursesManager);
+    }
 
-        // Verify if the method save was called with a specific argument
-        verify(this.coursesContentsService, atLeastOnce()).saveAllCoursesContents(listCaptor.capture());
+    @Test
+    @DisplayName("Should be able to change pending content to published in batches")
+    public void should_be_able_to_change_pending_content_to_published_in_batches() {
+        when(this.coursesContentsService.publishDueContents(eq(LocalDate.now()), eq(2))).thenReturn(2, 2, 1);
 
-        String expectedMessage = "Saved successfully. Amount: " + listCaptor.getValue().size();
+        this.scheduledTaskManager.changePendingContentToPublished();
 
-        verify(logger, atLeastOnce()).info(expectedMessage);
+        verify(this.coursesContentsService, times(3)).publishDueContents(any(), eq(2));
+        verify(logger, atLeastOnce()).info(startsWith("Published successfully. Amount: 5, duration: "));
 
-        assertEquals("PUBLISHED", listCaptor.getValue().get(0).getStatus());
+        assertEquals(5.0, this.meterRegistry.get("courses_contents.published").counter().count());
+        assertEquals(1, this.meterRegistry.get("courses_contents.publish.duration").timer().count());
     }
 
     @Test
     @DisplayName("Should be able to log a message if no pending content found")
     public void should_be_able_to_log_a_message_if_no_pending_content_found() {
-        when(this.coursesContentsService.getAllCoursesContentsByPendingStatus(any())).thenReturn(Collections.emptyList());
+        when(this.coursesContentsService.publishDueContents(any(), anyInt())).thenReturn(0);
 
         this.scheduledTaskManager.changePendingContentToPublished();
 
         String expectedMessage = "No pending content to process";
 
         verify(logger, atLeastOnce()).info(expectedMessage);
+        verify(this.coursesContentsService, times(1)).publishDueContents(any(), anyInt());
     }
 
     @Test
-    @DisplayName("Should be able to log a message if no edited content to save")
-    public void should_be_able_to_log_a_message_if_no_edited_content_to_save() {
-        CoursesEntity course = CoursesEntityCreator.createValidCoursesEntity();
-        course.setUsersEntity(UsersEntityCreator.createValidAuthenticatedUsersEntity());
+    @DisplayName("Should be able to log the amount of courses with repaired enrolled count")
+    public void should_be_able_to_log_the_amount_of_courses_with_repaired_enrolled_count() {
+        when(this.enrollmentsCoursesManager.getCourseIdsWithEnrolledCountDrift()).thenReturn(List.of("1", "2", "3"));
+        when(this.enrollmentsCoursesManager.reconcileEnrolledCount(any())).thenReturn(true, true, false);
 
-        CoursesContentsEntity courseContent = CoursesContentsEntityCreator.createValidCoursesContentsEntity();
-        courseContent.setCoursesEntity(course);
+        this.scheduledTaskManager.reconcileCoursesEnrolledCount();
 
-        when(this.coursesContentsService.getAllCoursesContentsByPendingStatus(any())).thenReturn(List.of(courseContent));
-
-        when(this.coursesContentsService.isReleaseDateValid(any())).thenReturn("PENDING");
+        verify(logger, atLeastOnce()).warn("Enrolled count repaired. Amount: 2");
+    }
 
-        this.scheduledTaskManager.changePendingContentToPublished();
+    @Test
+    @DisplayName("Should be able to log a message if no enrolled count drift found")
+    public void should_be_able_to_log_a_message_if_no_enrolled_count_drift_found() {
+        when(this.enrollmentsCoursesManager.getCourseIdsWithEnrolledCountDrift()).thenReturn(List.of());
 
-        String expectedMessage = "No edited content to save";
+        this.scheduledTaskManager.reconcileCoursesEnrolledCount();
 
-        verify(logger, atLeastOnce()).info(expectedMessage);
+        verify(logger, atLeastOnce()).info("No enrolled count drift found");
     }
-
 }
@@ -0,0 +1,137 @@
+package com.miguelsperle.teach_crafter.scheduling;
+
+import com.miguelsperle.teach_crafter.modules.users.entities.videoUploadJobs.VideoUploadJobsEntity;
+import com.miguelsperle.teach_crafter.modules.users.services.VideoUploadJobsService;
+import com.miguelsperle.teach_crafter.modules.users.services.upload.VideoUploader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VideoUploadJobWorkerTest {
+    @Mock
+    private VideoUploadJobsService videoUploadJobsService;
+
+    @Mock
+    private VideoUploader videoUploader;
+
+    @Mock
+    private Logger logger;
+
+    private VideoUploadJobWorker videoUploadJobWorker;
+
+    @BeforeEach
+    public void setUp() {
+        this.videoUploadJobWorker = new VideoUploadJobWorker(this.videoUploadJobsService, this.videoUploader, this.logger, 1, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.videoUploadJobWorker.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should be able to mark the job as ready after the upload")
+    public void should_be_able_to_mark_the_job_as_ready_after_the_upload() {
+        VideoUploadJobsEntity videoUploadJob = VideoUploadJobsEntity.builder().id("1").filePath("/tmp/video.upload").build();
+
+        when(this.videoUploader.uploadVideoFile(Path.of("/tmp/video.upload"), "course_videos")).thenReturn("NEW_VIDEO_URL");
+
+        this.videoUploadJobWorker.process(videoUploadJob);
+
+        verify(this.videoUploadJobsService).markReady(videoUploadJob, "NEW_VIDEO_URL");
+        verify(this.videoUploadJobsService).deleteSpooledFile(videoUploadJob);
+        verify(this.videoUploadJobsService, never()).markFailed(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should be able to mark the job as failed when the upload fails")
+    public void should_be_able_to_mark_the_job_as_failed_when_the_upload_fails() {
+        VideoUploadJobsEntity videoUploadJob = VideoUploadJobsEntity.builder().id("1").filePath("/tmp/video.upload").build();
+
+        when(this.videoUploader.uploadVideoFile(any(), any())).thenThrow(new RuntimeException("Error while retrieving bytes for video upload", new IllegalStateException("Connection reset")));
+
+        this.videoUploadJobWorker.process(videoUploadJob);
+
+        verify(this.videoUploadJobsService).markFailed(videoUploadJob, "Connection reset");
+        verify(this.videoUploadJobsService).deleteSpooledFile(videoUploadJob);
+        verify(this.videoUploadJobsService, never()).markReady(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not be able to claim more jobs than free workers")
+    public void should_not_be_able_to_claim_more_jobs_than_free_workers() throws InterruptedException {
+        VideoUploadJobsEntity videoUploadJob = VideoUploadJobsEntity.builder().id("1").filePath("/tmp/video.upload").build();
+
+        CountDownLatch uploadStarted = new CountDownLatch(1);
+        CountDownLatch releaseUpload = new CountDownLatch(1);
+
+        when(this.videoUploadJobsService.claimQueuedJobs(1)).thenReturn(List.of(videoUploadJob));
+
+        when(this.videoUploader.uploadVideoFile(any(), any())).thenAnswer(invocation -> {
+            uploadStarted.countDown();
+            releaseUpload.await();
+            return "NEW_VIDEO_URL";
+        });
+
+        this.videoUploadJobWorker.dispatchQueuedJobs();
+
+        assertTrue(uploadStarted.await(5, TimeUnit.SECONDS));
+
+        // The only worker is busy, so the second poll must not claim anything
+        this.videoUploadJobWorker.dispatchQueuedJobs();
+
+        verify(this.videoUploadJobsService, times(1)).claimQueuedJobs(anyInt());
+
+        releaseUpload.countDown();
+
+        verify(this.videoUploadJobsService, timeout(5000)).markReady(videoUploadJob, "NEW_VIDEO_URL");
+    }
+
+    @Test
+    @DisplayName("Should be able to requeue stale jobs except the ones still uploading on this node")
+    public void should_be_able_to_requeue_stale_jobs_except_the_ones_still_uploading_on_this_node() throws InterruptedException {
+        VideoUploadJobsEntity uploadingJob = VideoUploadJobsEntity.builder().id("1").filePath("/tmp/video-1.upload").build();
+        VideoUploadJobsEntity orphanedJob = VideoUploadJobsEntity.builder().id("2").filePath("/tmp/video-2.upload").build();
+
+        CountDownLatch uploadStarted = new CountDownLatch(1);
+        CountDownLatch releaseUpload = new CountDownLatch(1);
+
+        when(this.videoUploadJobsService.claimQueuedJobs(1)).thenReturn(List.of(uploadingJob));
+        when(this.videoUploadJobsService.getStaleUploadingJobs(Duration.ofMinutes(5))).thenReturn(List.of(uploadingJob, orphanedJob));
+
+        when(this.videoUploader.uploadVideoFile(any(), any())).thenAnswer(invocation -> {
+            uploadStarted.countDown();
+            releaseUpload.await();
+            return "NEW_VIDEO_URL";
+        });
+
+        this.videoUploadJobWorker.dispatchQueuedJobs();
+
+        assertTrue(uploadStarted.await(5, TimeUnit.SECONDS));
+
+        this.videoUploadJobWorker.recoverStaleJobs();
+
+        verify(this.videoUploadJobsService).requeueStaleJob(orphanedJob);
+        verify(this.videoUploadJobsService, never()).requeueStaleJob(uploadingJob);
+
+        releaseUpload.countDown();
+
+        verify(this.videoUploadJobsService, timeout(5000)).markReady(uploadingJob, "NEW_VIDEO_URL");
+    }
+}
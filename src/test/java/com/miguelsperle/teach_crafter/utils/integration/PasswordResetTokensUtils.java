@@ -1,5 +1,6 @@
 package com.miguelsperle.teach_crafter.utils.integration;
 
+import com.miguelsperle.teach_crafter.infra.security.ResetTokenGenerator;
 import com.miguelsperle.teach_crafter.modules.users.entities.passwordResetTokens.PasswordResetTokensEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 
@@ -7,6 +8,6 @@ import java.util.Date;
 
 public class PasswordResetTokensUtils {
     public static PasswordResetTokensEntity createPasswordResetToken(UsersEntity user, String token, Date expiresIn) {
-        return PasswordResetTokensEntity.builder().usersEntity(user).token(token).expiresIn(expiresIn).build();
+        return PasswordResetTokensEntity.builder().usersEntity(user).tokenHash(ResetTokenGenerator.digest(token)).expiresIn(expiresIn).build();
     }
 }
@@ -0,0 +1,52 @@
+package com.miguelsperle.teach_crafter.utils.integration;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Registered as the Hibernate statement inspector by IntegrationTestSetup. Statements are counted per thread, so the background pollers
+// ( outbox, video uploads ) running in the same context never leak into the budget of a MockMvc request
+public class QueryBudget implements StatementInspector {
+    private static final ThreadLocal<Integer> executedStatements = ThreadLocal.withInitial(() -> 0);
+    private static final ThreadLocal<List<String>> capturedStatements = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        executedStatements.set(executedStatements.get() + 1);
+
+        List<String> statements = capturedStatements.get();
+
+        if (statements != null) statements.add(sql);
+
+        return sql;
+    }
+
+    public static <T> T assertWithinQueryBudget(int maximumStatements, ThrowingSupplier<T> request) throws Throwable {
+        executedStatements.set(0);
+
+        T result = request.get();
+
+        assertThat(executedStatements.get())
+                .as("SQL statements executed by the request")
+                .isLessThanOrEqualTo(maximumStatements);
+
+        return result;
+    }
+
+    // Returns the SQL Hibernate generated for the action, statements are only kept while an action is being captured
+    public static List<String> captureStatements(Runnable action) {
+        capturedStatements.set(new ArrayList<>());
+
+        try {
+            action.run();
+
+            return List.copyOf(capturedStatements.get());
+        } finally {
+            capturedStatements.remove();
+        }
+    }
+}
@@ -14,7 +14,10 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 @ActiveProfiles("test")
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.miguelsperle.teach_crafter.utils.integration.QueryBudget"
+)
 @ExtendWith(H2CleanUpAndFakerExtension.class)
 @AutoConfigureMockMvc
 public @interface IntegrationTestSetup {
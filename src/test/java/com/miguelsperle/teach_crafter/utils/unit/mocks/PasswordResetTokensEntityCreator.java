@@ -1,5 +1,6 @@
 package com.miguelsperle.teach_crafter.utils.unit.mocks;
 
+import com.miguelsperle.teach_crafter.infra.security.ResetTokenGenerator;
 import com.miguelsperle.teach_crafter.modules.users.entities.passwordResetTokens.PasswordResetTokensEntity;
 import com.miguelsperle.teach_crafter.modules.users.entities.users.UsersEntity;
 
@@ -10,7 +11,7 @@ public class PasswordResetTokensEntityCreator {
         return PasswordResetTokensEntity
                 .builder()
                 .id("1")
-                .token("bT6zR8yQpD4xN7cE9vW2uM5sF1gH3jKl")
+                .tokenHash(ResetTokenGenerator.digest("bT6zR8yQpD4xN7cE9vW2uM5sF1gH3jKl"))
                 .usersEntity(new UsersEntity())
                 .expiresIn(new Date())
                 .build();